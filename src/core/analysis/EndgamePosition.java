@@ -0,0 +1,264 @@
+package core.analysis;
+
+import core.model.Card;
+import core.model.Rank;
+import core.model.Suit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Canonical, symmetry-reduced encoding of a position in which every hand
+ * has already been purged (the way {@code DrawThenPurgeStrategy} plays).
+ *
+ * In such a position each same-colour pair class (e.g. the red sevens) is
+ * either gone or split between two different players, and the Jack of
+ * Spades sits alone. Which rank or suit a class has never matters again,
+ * so a position is fully described by
+ * <ul>
+ *   <li>the players still holding cards, rotated so the next mover is seat 0,</li>
+ *   <li>for every pair of those seats, how many classes they share,</li>
+ *   <li>which seat holds the Jack of Spades.</li>
+ * </ul>
+ * That triple is packed into a single {@code long} key. Seats are always
+ * relative: seat 0 is the player to move, seat 1 the one they draw from.
+ */
+public final class EndgamePosition {
+    /** Largest number of seats with cards that fits in a key. */
+    public static final int MAX_SEATS = 5;
+
+    static final int PAIR_SLOTS = MAX_SEATS * (MAX_SEATS - 1) / 2;
+    private static final int COUNT_BITS = 5;
+    private static final int NO_HOLDER  = 7;
+    private static final int JACK_OF_SPADES = Card.of(Rank.JACK, Suit.SPADES).id();
+
+    final int seats;
+    final int holder;
+    final int[] counts; // indexed by pairSlot(i, j), length PAIR_SLOTS
+
+    EndgamePosition(int seats, int holder, int[] counts) {
+        this.seats  = seats;
+        this.holder = holder;
+        this.counts = counts;
+    }
+
+    /** Result of canonicalising a concrete table. */
+    public record Canonical(EndgamePosition position, int[] absoluteSeats) {}
+
+    /**
+     * Builds the canonical position for the given hands, purging any pair
+     * a hand still holds.
+     *
+     * @param hands     one hand per absolute seat, in table order
+     * @param nextMover absolute seat of the player about to move
+     * @return the position plus, for each relative seat, its absolute seat
+     * @throws IllegalArgumentException if more than {@link #MAX_SEATS} players
+     *         hold cards, or a card's partner is neither in play nor purged
+     */
+    public static Canonical of(List<List<Card>> hands, int nextMover) {
+        int n = hands.size();
+        // owner[class][slot]: which seats hold the two cards of a colour class
+        int[] firstOwner  = new int[Rank.values().length * 2];
+        int[] secondOwner = new int[firstOwner.length];
+        Arrays.fill(firstOwner, -1);
+        Arrays.fill(secondOwner, -1);
+        int jackOwner = -1;
+        for (int seat = 0; seat < n; seat++) {
+            for (Card c : hands.get(seat)) {
+                if (c.id() == JACK_OF_SPADES) {
+                    jackOwner = seat;
+                    continue;
+                }
+                int cls = classOf(c);
+                if (firstOwner[cls] < 0) firstOwner[cls] = seat;
+                else secondOwner[cls] = seat;
+            }
+        }
+        int[] size = new int[n];
+        for (int cls = 0; cls < firstOwner.length; cls++) {
+            if (firstOwner[cls] < 0) continue;
+            if (secondOwner[cls] < 0) {
+                throw new IllegalArgumentException("Card class " + cls + " has no partner in play");
+            }
+            if (firstOwner[cls] == secondOwner[cls]) {
+                firstOwner[cls] = secondOwner[cls] = -1; // a pair still in hand gets purged
+                continue;
+            }
+            size[firstOwner[cls]]++;
+            size[secondOwner[cls]]++;
+        }
+        if (jackOwner >= 0) size[jackOwner]++;
+
+        // active seats in table order, starting from the mover
+        List<Integer> active = new ArrayList<>();
+        for (int d = 0; d < n; d++) {
+            int seat = Math.floorMod(nextMover + d, n);
+            if (size[seat] > 0) active.add(seat);
+        }
+        if (active.size() > MAX_SEATS) {
+            throw new IllegalArgumentException("At most " + MAX_SEATS + " players with cards are supported");
+        }
+        int[] rel = new int[n];
+        Arrays.fill(rel, -1);
+        int[] abs = new int[active.size()];
+        for (int i = 0; i < abs.length; i++) {
+            abs[i] = active.get(i);
+            rel[abs[i]] = i;
+        }
+        int[] counts = new int[PAIR_SLOTS];
+        for (int cls = 0; cls < firstOwner.length; cls++) {
+            if (firstOwner[cls] < 0) continue;
+            int a = rel[firstOwner[cls]], b = rel[secondOwner[cls]];
+            counts[pairSlot(Math.min(a, b), Math.max(a, b))]++;
+        }
+        int holder = jackOwner < 0 ? NO_HOLDER : rel[jackOwner];
+        return new Canonical(new EndgamePosition(abs.length, holder, counts), abs);
+    }
+
+    /** Packs this position into its transposition key. */
+    public long key() {
+        long key = seats | ((long) holder << 3);
+        for (int slot = 0; slot < PAIR_SLOTS; slot++) {
+            key |= (long) counts[slot] << (6 + COUNT_BITS * slot);
+        }
+        return key;
+    }
+
+    /** Inverse of {@link #key()}. */
+    public static EndgamePosition decode(long key) {
+        int seats  = (int) (key & 7);
+        int holder = (int) ((key >>> 3) & 7);
+        int[] counts = new int[PAIR_SLOTS];
+        for (int slot = 0; slot < PAIR_SLOTS; slot++) {
+            counts[slot] = (int) ((key >>> (6 + COUNT_BITS * slot)) & ((1 << COUNT_BITS) - 1));
+        }
+        return new EndgamePosition(seats, holder, counts);
+    }
+
+    /** @return number of players still holding cards */
+    public int seats() {
+        return seats;
+    }
+
+    /** @return relative seat holding the Jack of Spades, or -1 */
+    public int jackHolder() {
+        return holder == NO_HOLDER ? -1 : holder;
+    }
+
+    /** @return number of colour classes split between relative seats i and j */
+    public int shared(int i, int j) {
+        return i == j ? 0 : counts[pairSlot(Math.min(i, j), Math.max(i, j))];
+    }
+
+    /** @return total number of live (non-Jack) classes; never increases */
+    public int classes() {
+        int sum = 0;
+        for (int c : counts) sum += c;
+        return sum;
+    }
+
+    /** @return number of cards relative seat i holds */
+    public int handSize(int seat) {
+        int size = seat == holder ? 1 : 0;
+        for (int other = 0; other < seats; other++) {
+            size += shared(seat, other);
+        }
+        return size;
+    }
+
+    /**
+     * Mirrors {@code Game.isGameOver()}/{@code getLoser()}.
+     *
+     * @return the losing relative seat if the game is over here, else -1
+     *         (also -1 for a finished game nobody lost)
+     */
+    public int terminalLoser() {
+        if (seats <= 1) {
+            return seats == 1 ? 0 : -1;
+        }
+        if (seats == 2 && 2 * classes() + (holder == NO_HOLDER ? 0 : 1) <= 3) {
+            for (int s = 0; s < 2; s++) {
+                if (s == holder && handSize(s) == 1) return s;
+            }
+        }
+        return -1;
+    }
+
+    /** @return whether the game is over in this position */
+    public boolean isTerminal() {
+        return seats <= 1 || terminalLoser() >= 0;
+    }
+
+    /**
+     * One random draw by seat 0 from seat 1, followed by a purge.
+     *
+     * @param key     canonical key of the resulting position
+     * @param prob    probability of this outcome
+     * @param seatMap for each relative seat of the child, the parent's relative seat
+     * @param purge   whether a pair left play (the class count dropped)
+     */
+    public record Transition(long key, double prob, int[] seatMap, boolean purge) {}
+
+    /** Enumerates every outcome of the next draw. Must not be called on a terminal position. */
+    public List<Transition> transitions() {
+        int from = 1;
+        double size = handSize(from);
+        List<Transition> out = new ArrayList<>(seats);
+        // drew the partner of one of our own cards: the pair is purged
+        if (shared(0, from) > 0) {
+            int[] c = counts.clone();
+            c[pairSlot(0, from)]--;
+            out.add(child(c, holder, shared(0, from) / size, true));
+        }
+        // drew a card whose partner sits with a third player
+        for (int x = 2; x < seats; x++) {
+            int n = shared(from, x);
+            if (n == 0) continue;
+            int[] c = counts.clone();
+            c[pairSlot(from, x)]--;
+            c[pairSlot(0, x)]++;
+            out.add(child(c, holder, n / size, false));
+        }
+        // drew the Jack of Spades
+        if (holder == from) {
+            out.add(child(counts, 0, 1 / size, false));
+        }
+        return out;
+    }
+
+    /** Drops empty seats and rotates so the next mover becomes seat 0. */
+    private Transition child(int[] c, int newHolder, double prob, boolean purge) {
+        EndgamePosition raw = new EndgamePosition(seats, newHolder, c);
+        int[] order = new int[seats];
+        int k = 0;
+        // next mover is the first seat after 0 that still holds cards
+        for (int d = 1; d <= seats; d++) {
+            int s = d % seats;
+            if (raw.handSize(s) > 0) order[k++] = s;
+        }
+        int[] rel = new int[seats];
+        Arrays.fill(rel, -1);
+        for (int i = 0; i < k; i++) rel[order[i]] = i;
+        int[] counts = new int[PAIR_SLOTS];
+        for (int i = 0; i < seats; i++) {
+            for (int j = i + 1; j < seats; j++) {
+                int v = c[pairSlot(i, j)];
+                if (v > 0) counts[pairSlot(Math.min(rel[i], rel[j]), Math.max(rel[i], rel[j]))] = v;
+            }
+        }
+        int h = newHolder == NO_HOLDER ? NO_HOLDER : rel[newHolder];
+        return new Transition(new EndgamePosition(k, h, counts).key(), prob,
+                Arrays.copyOf(order, k), purge);
+    }
+
+    static int pairSlot(int i, int j) {
+        // triangular index of (i, j), i < j, over MAX_SEATS seats
+        return i * (2 * MAX_SEATS - i - 1) / 2 + (j - i - 1);
+    }
+
+    private static int classOf(Card c) {
+        boolean red = c.suit() == Suit.HEARTS || c.suit() == Suit.DIAMONDS;
+        return c.rank().ordinal() * 2 + (red ? 0 : 1);
+    }
+}
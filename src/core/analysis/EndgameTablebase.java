@@ -0,0 +1,140 @@
+package core.analysis;
+
+import core.model.Card;
+import core.model.EndgameResolver;
+import core.model.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Read-only, memory-mapped table of exact loss probabilities for every
+ * two- and three-player endgame up to a card limit, as written by
+ * {@link TablebaseBuilder}.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int   magic 'PTB1'
+ *   int   maxClasses S      (positions hold at most 2S + 1 cards)
+ *   2-player section: for c01 in [0,S], holder in [0,1]:          float p0
+ *   3-player section: for c01, c02, c12 in [0,S], holder in [0,2]: float p0, float p1
+ * </pre>
+ * Probabilities are per relative seat (seat 0 = mover); the last seat's
+ * value is implied. Slots for impossible positions hold NaN.
+ */
+public final class EndgameTablebase implements EndgameResolver, AutoCloseable {
+    static final int MAGIC = 0x50544231; // "PTB1"
+    static final int HEADER = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int maxClasses;
+    private final int side;
+    private final int threeSeatOffset;
+
+    private EndgameTablebase(FileChannel channel, MappedByteBuffer map) {
+        this.channel = channel;
+        this.map     = map;
+        if (map.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a Pouilleux tablebase");
+        }
+        this.maxClasses      = map.getInt(4);
+        this.side            = maxClasses + 1;
+        this.threeSeatOffset = HEADER + twoSeatBytes(maxClasses);
+    }
+
+    /** Maps an existing tablebase file. */
+    public static EndgameTablebase open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        return new EndgameTablebase(ch, map);
+    }
+
+    /** @return the largest position covered, in cards */
+    public int maxCards() {
+        return 2 * maxClasses + 1;
+    }
+
+    /**
+     * @return loss probability per relative seat, or null if the position is
+     *         not in the table
+     */
+    public double[] lookup(EndgamePosition pos) {
+        int seats = pos.seats();
+        int holder = pos.jackHolder();
+        if (holder < 0 || pos.classes() > maxClasses || seats < 2 || seats > 3) return null;
+        double[] out = new double[seats];
+        if (seats == 2) {
+            float p0 = map.getFloat(HEADER + 4 * (pos.shared(0, 1) * 2 + holder));
+            if (Float.isNaN(p0)) return null;
+            out[0] = p0;
+            out[1] = 1 - p0;
+        } else {
+            int cell = ((pos.shared(0, 1) * side + pos.shared(0, 2)) * side + pos.shared(1, 2)) * 3 + holder;
+            int at = threeSeatOffset + 8 * cell;
+            float p0 = map.getFloat(at);
+            if (Float.isNaN(p0)) return null;
+            out[0] = p0;
+            out[1] = map.getFloat(at + 4);
+            out[2] = Math.max(0, 1 - out[0] - out[1]);
+        }
+        return out;
+    }
+
+    @Override
+    public int resolve(List<Player> players, int nextMover, Random rng) {
+        // cheap pre-checks before building the canonical position
+        int active = 0, cards = 0;
+        for (Player p : players) {
+            if (p.hasNoCards()) continue;
+            active++;
+            cards += p.getHandSize();
+        }
+        if (active < 2 || active > 3 || cards > maxCards()) return -1;
+
+        List<List<Card>> hands = new ArrayList<>(players.size());
+        for (Player p : players) hands.add(p.getHand());
+        EndgamePosition.Canonical c;
+        try {
+            c = EndgamePosition.of(hands, nextMover);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        double[] probs = lookup(c.position());
+        if (probs == null) return -1;
+        double u = rng.nextDouble();
+        for (int i = 0; i < probs.length - 1; i++) {
+            u -= probs[i];
+            if (u < 0) return c.absoluteSeats()[i];
+        }
+        return c.absoluteSeats()[probs.length - 1];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static int twoSeatBytes(int maxClasses) {
+        return (maxClasses + 1) * 2 * 4;
+    }
+
+    static int threeSeatBytes(int maxClasses) {
+        int side = maxClasses + 1;
+        return side * side * side * 3 * 8;
+    }
+
+    /** Writes the header into a buffer sized for the whole file. */
+    static ByteBuffer allocate(int maxClasses) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + twoSeatBytes(maxClasses) + threeSeatBytes(maxClasses));
+        buf.putInt(MAGIC).putInt(maxClasses);
+        return buf;
+    }
+}
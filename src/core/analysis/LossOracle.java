@@ -0,0 +1,289 @@
+package core.analysis;
+
+import core.model.Card;
+import core.model.DrawThenPurgeStrategy;
+import core.model.Game;
+import core.model.MoveStrategy;
+import core.model.Player;
+import core.model.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Estimates each player's chance of ending up with the Pouilleux by
+ * playing the position out many times on a background pool.
+ *
+ * Rollouts seat {@code DrawThenPurge} everywhere, so the estimate is what
+ * happens if everyone purges right after drawing, with every draw random.
+ * Tallies are cached by position: classic positions without a pair in hand
+ * are keyed by their {@link EndgamePosition}, so positions that only differ
+ * by ranks, suits or where the table starts share one tally; any other
+ * position is keyed by its exact hands. Every query adds rollouts to the
+ * tally of its position until it holds {@link #target()} of them, so a
+ * position seen again, on a later turn or in another game, starts from
+ * everything learned about it before.
+ *
+ * {@link #follow} never blocks: the caller hands over a game that will not
+ * change again (a fork) and gets refined estimates back on a pool thread,
+ * one per batch, until a newer position is followed.
+ */
+public final class LossOracle implements AutoCloseable {
+    /** Rollouts a position is refined up to. */
+    public static final int DEFAULT_TARGET = 2_000;
+    /** Rollouts played between two published estimates. */
+    private static final int BATCH = 100;
+    private static final int CACHE_ENTRIES = 100_000;
+    /** Safety net against rollouts that never converge. */
+    private static final int MAX_TURNS = 10_000;
+    private static final MoveStrategy ROLLOUT = new DrawThenPurgeStrategy();
+
+    /**
+     * Loss probability per seat, in table order.
+     *
+     * @param rollouts games the estimate is based on; 0 if the game is already over
+     */
+    public record Estimate(double[] loss, long rollouts) {
+        /** @return the standard error of a seat's estimate */
+        public double stdError(int seat) {
+            if (rollouts == 0) return 0;
+            double p = loss[seat];
+            return Math.sqrt(p * (1 - p) / rollouts);
+        }
+    }
+
+    /** Losses per relative seat plus undecided games, and the rollouts behind them. */
+    private static final class Tally {
+        final long[] losses;
+        long rollouts;
+
+        Tally(int seats) {
+            this.losses = new long[seats + 1];
+        }
+
+        synchronized void add(long[] more, int count) {
+            for (int i = 0; i < losses.length; i++) losses[i] += more[i];
+            rollouts += count;
+        }
+
+        synchronized long rollouts() {
+            return rollouts;
+        }
+
+        /** @param absolute absolute seat of each relative seat */
+        synchronized Estimate estimate(int[] absolute, int players) {
+            double[] out = new double[players];
+            for (int rel = 0; rel < absolute.length; rel++) {
+                out[absolute[rel]] = rollouts == 0 ? 0 : (double) losses[rel] / rollouts;
+            }
+            return new Estimate(out, rollouts);
+        }
+    }
+
+    /** Cache key of a position that has no canonical key. */
+    private record Exact(RuleSet rules, List<List<Card>> hands, int next) {}
+
+    /** One position being refined. */
+    private record Job(Game game, Tally tally, int[] absolute, int[] relative, Consumer<Estimate> onUpdate) {}
+
+    private final int threads;
+    private final int target;
+    private final ExecutorService pool;
+    private final Map<Object, Tally> cache = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Tally> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
+    /** Bumped whenever the followed position changes. */
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rollouts = new LongAdder();
+
+    /** @param threads pool size; the pool runs at minimum priority */
+    public LossOracle(int threads) {
+        this(threads, DEFAULT_TARGET);
+    }
+
+    /**
+     * @param threads pool size; the pool runs at minimum priority
+     * @param target  rollouts each position is refined up to
+     */
+    public LossOracle(int threads, int target) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        if (target < 1) throw new IllegalArgumentException("target must be positive");
+        this.threads = threads;
+        this.target  = target;
+        AtomicInteger ids = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "Loss-Oracle-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    public int target() { return target; }
+
+    /** @return queries that found their position already tallied */
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    /** @return rollouts played so far */
+    public long rollouts() { return rollouts.sum(); }
+
+    /**
+     * Estimates the position, waiting until it is refined to the target.
+     * For headless use; a game loop should {@link #follow} instead.
+     */
+    public Estimate estimate(Game game) throws InterruptedException {
+        Job job = job(game, null);
+        if (job.tally() == null) return over(game);
+        List<Future<?>> parts = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) parts.add(pool.submit(() -> refine(job, () -> true)));
+        for (Future<?> f : parts) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Rollout failed", e.getCause());
+            }
+        }
+        return job.tally().estimate(job.absolute(), game.getPlayers().size());
+    }
+
+    /**
+     * Starts refining a position in the background, dropping the one
+     * followed before. Returns at once; {@code onUpdate} is called on a pool
+     * thread with the cached estimate, if any, and after every batch.
+     *
+     * @param game a game nobody changes any more, e.g. a fork
+     */
+    public void follow(Game game, Consumer<Estimate> onUpdate) {
+        Objects.requireNonNull(onUpdate, "onUpdate must not be null");
+        long g = generation.incrementAndGet();  // the position followed before stops after its batch
+        BooleanSupplier current = () -> generation.get() == g;
+        pool.execute(() -> {
+            if (!current.getAsBoolean()) return;
+            Job job = job(game, onUpdate);
+            if (job.tally() == null) {
+                onUpdate.accept(over(game));
+                return;
+            }
+            if (job.tally().rollouts() > 0) publish(job);
+            for (int t = 1; t < threads; t++) pool.execute(() -> refine(job, current));
+            refine(job, current);
+        });
+    }
+
+    /** Stops refining the followed position. */
+    public void unfollow() {
+        generation.incrementAndGet();
+    }
+
+    private void refine(Job job, BooleanSupplier current) {
+        long[] losses = new long[job.tally().losses.length];
+        while (current.getAsBoolean() && job.tally().rollouts() < target) {
+            Arrays.fill(losses, 0);
+            for (int i = 0; i < BATCH; i++) losses[rollout(job)]++;
+            job.tally().add(losses, BATCH);
+            rollouts.add(BATCH);
+            if (job.onUpdate() != null && current.getAsBoolean()) publish(job);
+        }
+    }
+
+    private void publish(Job job) {
+        job.onUpdate().accept(job.tally().estimate(job.absolute(), job.game().getPlayers().size()));
+    }
+
+    /** Plays the position out once. @return the loser's relative seat, or the undecided slot */
+    private static int rollout(Job job) {
+        List<Player> from = job.game().getPlayers();
+        List<Player> seats = new ArrayList<>(from.size());
+        for (Player p : from) {
+            Player copy = new Player(p.getName(), List.of(), ROLLOUT);
+            copy.setHand(p.hand());
+            seats.add(copy);
+        }
+        Game g = Game.resume(seats, job.game().getRules().rules(), null, List.of(),
+                job.game().getCurrentIndex(), 0);
+        for (int turns = 0; turns < MAX_TURNS && g.nextTurn(); turns++) { }
+        int loser = g.getLoser().map(seats::indexOf).orElse(-1);
+        int undecided = job.tally().losses.length - 1;
+        return loser < 0 || job.relative()[loser] < 0 ? undecided : job.relative()[loser];
+    }
+
+    /** Looks the position's tally up, creating it on a miss; a null tally means the game is over. */
+    private Job job(Game game, Consumer<Estimate> onUpdate) {
+        if (game.isGameOver()) return new Job(game, null, null, null, onUpdate);
+        List<Player> players = game.getPlayers();
+        int next = game.getNextIndex();
+        Object key = null;
+        int[] absolute = null;
+        if (game.getRules().isClassic() && players.stream().noneMatch(Player::hasPairs)) {
+            List<List<Card>> hands = new ArrayList<>(players.size());
+            for (Player p : players) hands.add(p.getHand());
+            try {
+                EndgamePosition.Canonical c = EndgamePosition.of(hands, next);
+                key = c.position().key();
+                absolute = c.absoluteSeats();
+            } catch (IllegalArgumentException e) {
+                // more players with cards than a key holds
+            }
+        }
+        if (key == null) {
+            List<List<Card>> hands = new ArrayList<>(players.size());
+            for (Player p : players) hands.add(p.getHand());
+            key = new Exact(game.getRules().rules(), hands, next);
+            absolute = new int[players.size()];
+            for (int i = 0; i < absolute.length; i++) absolute[i] = i;
+        }
+        int[] relative = new int[players.size()];
+        Arrays.fill(relative, -1);
+        for (int rel = 0; rel < absolute.length; rel++) relative[absolute[rel]] = rel;
+        int seats = absolute.length;
+        Tally tally;
+        synchronized (cache) {
+            tally = cache.get(key);
+            if (tally == null) {
+                misses.increment();
+                cache.put(key, tally = new Tally(seats));
+            } else {
+                hits.increment();
+            }
+        }
+        return new Job(game, tally, absolute, relative, onUpdate);
+    }
+
+    private static Estimate over(Game game) {
+        List<Player> players = game.getPlayers();
+        double[] loss = new double[players.size()];
+        game.getLoser().ifPresent(p -> loss[players.indexOf(p)] = 1);
+        return new Estimate(loss, 0);
+    }
+
+    /** @return positions tallied */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        unfollow();
+        pool.shutdownNow();
+    }
+}
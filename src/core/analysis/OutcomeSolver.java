@@ -0,0 +1,291 @@
+package core.analysis;
+
+import core.model.Card;
+import core.model.Game;
+import core.model.Player;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Computes each player's exact probability of ending up with the Jack of
+ * Spades, assuming every draw is uniformly random and every player purges
+ * all pairs right after drawing (the rules {@code DrawThenPurgeStrategy}
+ * plays by).
+ *
+ * Positions are reduced to {@link EndgamePosition}s, explored forward and
+ * then solved backwards level by level: a level holds every position with
+ * the same number of live pair classes. Draws that purge lead to a lower,
+ * already solved level, but draws that only move a card can cycle inside a
+ * level (think of the Jack bouncing between two players), so each level is
+ * a linear system. Small systems are solved by Gaussian elimination, large
+ * ones by parallel Jacobi iteration: every sweep reads the previous sweep's
+ * values and writes a second buffer, so the result does not depend on how
+ * the pool schedules positions. Iteration stops once no position moves by
+ * more than {@link #TOLERANCE} relative to its largest value. Every solved
+ * position goes into a shared {@link TranspositionTable}.
+ *
+ * {@link SolverCheck} compares the solver against the game engine.
+ */
+public class OutcomeSolver {
+    /** Unknowns up to which a level is solved by direct elimination. */
+    private static final int DENSE_LIMIT = 1_500;
+    /** Relative change per sweep below which a level counts as solved; well above double rounding. */
+    private static final double TOLERANCE = 1e-12;
+    private static final int MAX_SWEEPS = 1_000_000;
+
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    private final int maxStates;
+    private final int denseLimit;
+
+    public OutcomeSolver() {
+        this(new TranspositionTable(), ForkJoinPool.commonPool(), 5_000_000);
+    }
+
+    /**
+     * @param table     memo shared across solves (and solver instances)
+     * @param pool      pool used for parallel elimination and iteration
+     * @param maxStates exploration limit, protecting against huge positions
+     */
+    public OutcomeSolver(TranspositionTable table, ForkJoinPool pool, int maxStates) {
+        this(table, pool, maxStates, DENSE_LIMIT);
+    }
+
+    /** @param denseLimit unknowns up to which a level is eliminated; 0 iterates every level */
+    OutcomeSolver(TranspositionTable table, ForkJoinPool pool, int maxStates, int denseLimit) {
+        this.table      = Objects.requireNonNull(table, "table must not be null");
+        this.pool       = Objects.requireNonNull(pool, "pool must not be null");
+        this.maxStates  = maxStates;
+        this.denseLimit = denseLimit;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    /**
+     * @return loss probability per seat of the game, in table order
+     */
+    public double[] solve(Game game) {
+        List<Player> players = game.getPlayers();
+        double[] out = new double[players.size()];
+        if (game.isGameOver()) {
+            game.getLoser().ifPresent(p -> out[players.indexOf(p)] = 1);
+            return out;
+        }
+        List<List<Card>> hands = new ArrayList<>(players.size());
+        for (Player p : players) hands.add(p.getHand());
+        return solve(hands, game.getNextIndex());
+    }
+
+    /**
+     * @param hands     one hand per seat, in table order
+     * @param nextMover seat of the player about to draw
+     * @return loss probability per seat, in table order
+     */
+    public double[] solve(List<List<Card>> hands, int nextMover) {
+        EndgamePosition.Canonical c = EndgamePosition.of(hands, nextMover);
+        double[] rel = solve(c.position().key());
+        double[] out = new double[hands.size()];
+        for (int i = 0; i < c.absoluteSeats().length; i++) {
+            out[c.absoluteSeats()[i]] = rel[i];
+        }
+        return out;
+    }
+
+    /**
+     * Solves a canonical position.
+     *
+     * @return loss probability per relative seat (seat 0 = mover)
+     */
+    public double[] solve(long key) {
+        double[] known = table.get(key);
+        if (known != null) return known;
+
+        Map<Long, Node> nodes = explore(key);
+        // group unsolved positions by level, solve lowest first
+        TreeMap<Integer, List<Node>> levels = new TreeMap<>();
+        for (Node n : nodes.values()) {
+            levels.computeIfAbsent(n.level, l -> new ArrayList<>()).add(n);
+        }
+        for (List<Node> level : levels.values()) {
+            solveLevel(level);
+        }
+        return table.get(key);
+    }
+
+    /** Transition data of a position that still needs solving. */
+    private static final class Node {
+        final long key;
+        final int seats;
+        final int level;
+        final EndgamePosition.Transition[] out;
+        int offset;           // first unknown in the level system
+        double[] value;       // solution, per relative seat
+        double[] next;        // the sweep being computed, when iterating
+
+        Node(long key, int seats, int level, EndgamePosition.Transition[] out) {
+            this.key   = key;
+            this.seats = seats;
+            this.level = level;
+            this.out   = out;
+        }
+    }
+
+    /** Collects every reachable position not yet in the table, resolving terminals on the way. */
+    private Map<Long, Node> explore(long root) {
+        Map<Long, Node> nodes = new HashMap<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            long key = queue.poll();
+            if (nodes.containsKey(key) || table.contains(key)) continue;
+            EndgamePosition pos = EndgamePosition.decode(key);
+            if (pos.isTerminal()) {
+                double[] v = new double[pos.seats()];
+                int loser = pos.terminalLoser();
+                if (loser >= 0) v[loser] = 1;
+                table.put(key, v);
+                continue;
+            }
+            List<EndgamePosition.Transition> ts = pos.transitions();
+            nodes.put(key, new Node(key, pos.seats(), pos.classes(),
+                    ts.toArray(new EndgamePosition.Transition[0])));
+            if (nodes.size() > maxStates) {
+                throw new IllegalStateException("Position too large to solve exactly (> " + maxStates + " states)");
+            }
+            for (EndgamePosition.Transition t : ts) {
+                queue.add(t.key());
+            }
+        }
+        return nodes;
+    }
+
+    private void solveLevel(List<Node> level) {
+        Map<Long, Node> index = new HashMap<>(level.size() * 2);
+        int unknowns = 0;
+        for (Node n : level) {
+            n.offset = unknowns;
+            unknowns += n.seats;
+            index.put(n.key, n);
+        }
+        if (unknowns <= denseLimit) {
+            solveDense(level, index, unknowns);
+        } else {
+            solveIterative(level, index);
+        }
+        for (Node n : level) {
+            table.put(n.key, n.value);
+        }
+    }
+
+    /**
+     * x[s][map[j]] = sum over transitions of p * x[t][j]; known children go
+     * to the right-hand side, same-level children become matrix entries.
+     */
+    private void solveDense(List<Node> level, Map<Long, Node> index, int size) {
+        double[][] a = new double[size][size + 1];
+        for (Node n : level) {
+            for (int i = 0; i < n.seats; i++) a[n.offset + i][n.offset + i] = 1;
+            for (EndgamePosition.Transition t : n.out) {
+                Node child = index.get(t.key());
+                int[] map = t.seatMap();
+                if (child != null) {
+                    for (int j = 0; j < map.length; j++) {
+                        a[n.offset + map[j]][child.offset + j] -= t.prob();
+                    }
+                } else {
+                    double[] v = table.get(t.key());
+                    for (int j = 0; j < map.length; j++) {
+                        a[n.offset + map[j]][size] += t.prob() * v[j];
+                    }
+                }
+            }
+        }
+        eliminate(a, size);
+        for (Node n : level) {
+            n.value = new double[n.seats];
+            for (int i = 0; i < n.seats; i++) n.value[i] = a[n.offset + i][size];
+        }
+    }
+
+    /** Gauss-Jordan elimination with partial pivoting; row updates run in parallel. */
+    private void eliminate(double[][] a, int size) {
+        for (int col = 0; col < size; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < size; r++) {
+                if (Math.abs(a[r][col]) > Math.abs(a[pivot][col])) pivot = r;
+            }
+            double[] tmp = a[col]; a[col] = a[pivot]; a[pivot] = tmp;
+            double[] p = a[col];
+            double inv = 1 / p[col];
+            for (int k = col; k <= size; k++) p[k] *= inv;
+            final int c = col;
+            IntStream rows = IntStream.range(0, size);
+            if (size > 200) {
+                pool.submit(() -> rows.parallel().forEach(r -> reduce(a, p, r, c, size))).join();
+            } else {
+                rows.forEach(r -> reduce(a, p, r, c, size));
+            }
+        }
+    }
+
+    private static void reduce(double[][] a, double[] pivotRow, int r, int col, int size) {
+        if (r == col) return;
+        double[] row = a[r];
+        double f = row[col];
+        if (f == 0) return;
+        for (int k = col; k <= size; k++) row[k] -= f * pivotRow[k];
+    }
+
+    /** Parallel Jacobi sweeps for levels too large to eliminate directly. */
+    private void solveIterative(List<Node> level, Map<Long, Node> index) {
+        Node[] nodes = level.toArray(new Node[0]);
+        for (Node n : nodes) {
+            n.value = new double[n.seats];
+            n.next  = new double[n.seats];
+        }
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double delta = pool.submit(() -> Arrays.stream(nodes).parallel()
+                    .mapToDouble(n -> relax(n, index))
+                    .max().orElse(0)).join();
+            for (Node n : nodes) {
+                double[] old = n.value;
+                n.value = n.next;
+                n.next  = old;
+            }
+            if (delta < TOLERANCE) {
+                for (Node n : nodes) n.next = null;
+                return;
+            }
+        }
+        throw new IllegalStateException("Level did not converge");
+    }
+
+    /**
+     * Computes a node's next value from the current values of its children
+     * into {@code n.next}; nothing else writes either buffer during a sweep.
+     *
+     * @return the largest change, relative to the node's largest value
+     */
+    private double relax(Node n, Map<Long, Node> index) {
+        double[] next = n.next;
+        Arrays.fill(next, 0);
+        for (EndgamePosition.Transition t : n.out) {
+            Node child = index.get(t.key());
+            double[] v = child != null ? child.value : table.get(t.key());
+            int[] map = t.seatMap();
+            for (int j = 0; j < map.length; j++) {
+                next[map[j]] += t.prob() * v[j];
+            }
+        }
+        double delta = 0, scale = 0;
+        for (int i = 0; i < next.length; i++) {
+            delta = Math.max(delta, Math.abs(next[i] - n.value[i]));
+            scale = Math.max(scale, Math.abs(next[i]));
+        }
+        return scale == 0 ? delta : delta / scale;
+    }
+}
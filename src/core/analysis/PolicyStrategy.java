@@ -0,0 +1,59 @@
+package core.analysis;
+
+import core.analysis.PolicyTable.Action;
+import core.model.Card;
+import core.model.MoveStrategy;
+import core.model.Player;
+import core.model.StrategyFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Bot playing a policy learned by self-play: draw one card, then purge as
+ * the {@link PolicyTable} says for the resulting state. One decision is a
+ * pair count over the hand and a single read from the mapped table.
+ *
+ * The strategy remembers whether it held the losing card at the end of its
+ * last turn, so it knows when the player drawing from it took it. Use one
+ * instance per seat, as {@link StrategyFactory#create} hands out.
+ */
+public final class PolicyStrategy implements MoveStrategy {
+    /** Name the strategy is registered under by {@link #register}. */
+    public static final String NAME = "Policy";
+
+    private final IntFunction<Action> policy;
+    private boolean hadJack;
+
+    public PolicyStrategy(PolicyTable table) {
+        this(Objects.requireNonNull(table, "table must not be null")::action);
+    }
+
+    /** @param policy picks the action for a {@link PolicyTable#state} */
+    PolicyStrategy(IntFunction<Action> policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Makes the policy available to line-ups as {@value #NAME}.
+     *
+     * @throws IllegalArgumentException if a policy is registered already
+     */
+    public static void register(PolicyTable table) {
+        Objects.requireNonNull(table, "table must not be null");
+        StrategyFactory.register(NAME, () -> new PolicyStrategy(table));
+    }
+
+    @Override
+    public List<Card> makeMove(Player self, Player leftNeighbor) {
+        Objects.requireNonNull(self);
+        Objects.requireNonNull(leftNeighbor);
+        self.drawFrom(leftNeighbor);
+        boolean holds = PolicyTable.holdsLosing(self);
+        int jack = holds ? PolicyTable.JACK_HELD : hadJack ? PolicyTable.JACK_TAKEN : PolicyTable.JACK_UNKNOWN;
+        List<Card> removed = policy.apply(PolicyTable.state(self, leftNeighbor, jack)).apply(self);
+        hadJack = holds;
+        return removed;
+    }
+}
@@ -0,0 +1,172 @@
+package core.analysis;
+
+import core.model.Card;
+import core.model.CompiledRules;
+import core.model.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped policy learned by {@link PolicyTrainer}: one
+ * {@link Action} per abstract game state, looked up by {@link PolicyStrategy}
+ * in a single byte read.
+ *
+ * A state is what a bot knows right after drawing, reduced to a few
+ * buckets: where the losing card is (in hand, just taken from us, or
+ * unknown), how many pairs the hand holds, how many unpaired cards are
+ * left besides, and the size of the neighbour's hand. Draws pick a
+ * uniformly random position, so hand order tells nothing and the one
+ * decision left is how many pairs to purge now.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int   magic 'PPT1'
+ *   int   state count S     (must equal {@link #STATES})
+ *   int   action count A    (must equal the number of {@link Action}s)
+ *   S bytes: action ordinal per state
+ * </pre>
+ */
+public final class PolicyTable implements AutoCloseable {
+    static final int MAGIC = 0x50505431; // "PPT1"
+    static final int HEADER = 12;
+
+    /** Where the losing card is, as far as the mover knows. */
+    public static final int JACK_HELD = 0, JACK_TAKEN = 1, JACK_UNKNOWN = 2;
+
+    private static final int JACK_BUCKETS = 3;
+    private static final int PAIR_BUCKETS = 4;  // 0, 1, 2, 3+
+    private static final int SIZE_BUCKETS = 7;  // see sizeBucket
+    /** Number of abstract states, and bytes in a table's body. */
+    public static final int STATES = JACK_BUCKETS * PAIR_BUCKETS * SIZE_BUCKETS * SIZE_BUCKETS;
+
+    /** What to do with the pairs in hand after drawing. */
+    public enum Action {
+        /** Purge every pair, as {@code DrawThenPurge} does. */
+        PURGE_ALL,
+        /** Purge all pairs but one, which stays in hand for later. */
+        KEEP_ONE_PAIR,
+        /** Purge nothing this turn. */
+        HOLD;
+
+        private static final Action[] VALUES = values();
+
+        public static Action of(int ordinal) {
+            return VALUES[ordinal];
+        }
+
+        /** Purges from the player's hand as this action says. */
+        public List<Card> apply(Player self) {
+            return switch (this) {
+                case PURGE_ALL -> self.purgePairs();
+                case HOLD -> Collections.emptyList();
+                case KEEP_ONE_PAIR -> {
+                    List<Card> removed = self.purgePairs();
+                    int n = removed.size();
+                    if (n < 2) yield removed;
+                    // purgePairs lists each pair's cards next to each other
+                    self.receiveCards(removed.subList(n - 2, n));
+                    yield List.copyOf(removed.subList(0, n - 2));
+                }
+            };
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+
+    private PolicyTable(FileChannel channel, MappedByteBuffer map) {
+        this.channel = channel;
+        this.map     = map;
+        if (map.capacity() < HEADER || map.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a Pouilleux policy table");
+        }
+        if (map.getInt(4) != STATES || map.getInt(8) != Action.VALUES.length
+                || map.capacity() != HEADER + STATES) {
+            throw new IllegalArgumentException("Policy table was built for a different state abstraction");
+        }
+    }
+
+    /** Maps an existing policy file. */
+    public static PolicyTable open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PolicyTable(ch, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        } catch (RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /** @return the learned action for a state from {@link #state} */
+    public Action action(int state) {
+        return Action.of(map.get(HEADER + state));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a policy atomically.
+     *
+     * @param actions action ordinal per state, {@link #STATES} of them
+     */
+    static void write(Path file, byte[] actions) throws IOException {
+        if (actions.length != STATES) {
+            throw new IllegalArgumentException("Expected " + STATES + " actions, got " + actions.length);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + STATES);
+        buf.putInt(MAGIC).putInt(STATES).putInt(Action.VALUES.length).put(actions);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, buf.array());
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Abstracts the mover's position after its draw.
+     *
+     * @param jack one of {@link #JACK_HELD}, {@link #JACK_TAKEN}, {@link #JACK_UNKNOWN}
+     * @return the state index, in [0, {@link #STATES})
+     */
+    public static int state(Player self, Player leftNeighbor, int jack) {
+        CompiledRules rules = self.getRules();
+        int[] perClass = new int[rules.classCount()];
+        for (Card c : self.hand()) perClass[rules.pairClass(c)]++;
+        int pairs = 0;
+        for (int n : perClass) pairs += n / 2;
+        int singles = self.getHandSize() - 2 * pairs;
+        return ((jack * PAIR_BUCKETS + Math.min(pairs, PAIR_BUCKETS - 1)) * SIZE_BUCKETS
+                + sizeBucket(singles)) * SIZE_BUCKETS + sizeBucket(leftNeighbor.getHandSize());
+    }
+
+    /** @return true if the player holds a card that loses when left alone */
+    public static boolean holdsLosing(Player p) {
+        CompiledRules rules = p.getRules();
+        for (Card c : p.hand()) {
+            if (rules.isLosing(c)) return true;
+        }
+        return false;
+    }
+
+    /** @return whether a state's hand holds any pair, i.e. whether the action matters */
+    static boolean hasPairs(int state) {
+        return state / (SIZE_BUCKETS * SIZE_BUCKETS) % PAIR_BUCKETS > 0;
+    }
+
+    /** 0, 1, 2, 3, 4-5, 6-8, 9+ cards */
+    private static int sizeBucket(int n) {
+        if (n <= 3) return n;
+        if (n <= 5) return 4;
+        return n <= 8 ? 5 : 6;
+    }
+}
@@ -0,0 +1,278 @@
+package core.analysis;
+
+import core.analysis.PolicyTable.Action;
+import core.model.DrawThenPurgeStrategy;
+import core.model.GuardedStrategy;
+import core.model.MixedRandomStrategy;
+import core.model.MoveStrategy;
+import core.sim.GameResult;
+import core.sim.Simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Learns a {@link PolicyTable} by self-play and writes it to disk.
+ *
+ * Training is Monte Carlo control: every seat at a 3 to 6 player table
+ * plays the current policy, trying a random action instead with
+ * probability epsilon, and each (state, action) a seat chose is credited
+ * with whether that seat lost. Games run on one worker per core, each
+ * counting into its own arrays; between epochs the counts are merged and
+ * every state switches to the action with the lowest loss rate so far,
+ * judged pessimistically so noise alone cannot flip a state.
+ * States without a pair in hand are skipped, as every action is the same
+ * there.
+ *
+ * After training the table is written, mapped back and played from seat 0
+ * against the built-in bots, next to {@code DrawThenPurge} in the same seat.
+ *
+ * Usage: {@code java core.analysis.PolicyTrainer [file=policy.ppt] [games=2000000]
+ * [epochs=20] [epsilon=0.1] [eval=200000] [threads=N]}
+ */
+public final class PolicyTrainer {
+    private static final int ACTIONS = Action.values().length;
+    private static final int MIN_SEATS = 3, MAX_SEATS = 6;
+    private static final int EVAL_SEATS = 4;
+    private static final double CONFIDENCE = 2;
+
+    private final int threads;
+    private final double epsilon;
+    private final long[] losses = new long[PolicyTable.STATES * ACTIONS];
+    private final long[] visits = new long[PolicyTable.STATES * ACTIONS];
+    private byte[] policy = new byte[PolicyTable.STATES];  // starts as DrawThenPurge
+    private long gamesPlayed;
+    private long decisions;
+
+    /**
+     * @param threads worker threads
+     * @param epsilon probability of exploring a random action, in [0, 1]
+     */
+    public PolicyTrainer(int threads, double epsilon) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        if (!(epsilon >= 0 && epsilon <= 1)) throw new IllegalArgumentException("epsilon must be in [0, 1]");
+        this.threads = threads;
+        this.epsilon = epsilon;
+    }
+
+    /** @return the current greedy policy, one action ordinal per state */
+    public byte[] policy() {
+        return policy.clone();
+    }
+
+    public long gamesPlayed() { return gamesPlayed; }
+
+    /** @return decisions recorded so far, i.e. turns taken with a pair in hand */
+    public long decisions() { return decisions; }
+
+    /** Plays one epoch of self-play games and updates the policy. */
+    public void epoch(long games) throws InterruptedException {
+        byte[] current = policy;
+        List<Counts> parts = runParallel(games, share -> () -> selfPlay(current, share));
+        for (Counts c : parts) {
+            for (int i = 0; i < losses.length; i++) {
+                losses[i] += c.losses[i];
+                visits[i] += c.visits[i];
+            }
+            gamesPlayed += c.games;
+            decisions += c.decisions;
+        }
+        byte[] next = new byte[PolicyTable.STATES];
+        for (int s = 0; s < next.length; s++) {
+            int best = 0;
+            double bestRate = lossRate(s, 0);
+            for (int a = 1; a < ACTIONS; a++) {
+                double r = lossRate(s, a);
+                if (r < bestRate) {
+                    best = a;
+                    bestRate = r;
+                }
+            }
+            next[s] = (byte) best;
+        }
+        policy = next;
+    }
+
+    /**
+     * Pessimistic loss rate: the smoothed rate plus two standard errors, so
+     * an action rarely tried does not take over a state on a lucky streak.
+     */
+    private double lossRate(int state, int action) {
+        int i = state * ACTIONS + action;
+        double n = visits[i] + 2.0;
+        double p = (losses[i] + 1.0) / n;
+        return p + CONFIDENCE * Math.sqrt(p * (1 - p) / n);
+    }
+
+    private Counts selfPlay(byte[] policy, long games) {
+        Counts counts = new Counts();
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        int[][] episodes = new int[MAX_SEATS][64];
+        int[] lengths = new int[MAX_SEATS];
+        List<MoveStrategy> seats = new ArrayList<>(MAX_SEATS);
+        for (long g = 0; g < games; g++) {
+            int n = rng.nextInt(MIN_SEATS, MAX_SEATS + 1);
+            seats.clear();
+            Arrays.fill(lengths, 0);
+            for (int i = 0; i < n; i++) {
+                int seat = i;
+                seats.add(new PolicyStrategy(state -> {
+                    if (!PolicyTable.hasPairs(state)) return Action.PURGE_ALL;
+                    int a = rng.nextDouble() < epsilon ? rng.nextInt(ACTIONS) : policy[state];
+                    if (lengths[seat] == episodes[seat].length) {
+                        episodes[seat] = Arrays.copyOf(episodes[seat], 2 * lengths[seat]);
+                    }
+                    episodes[seat][lengths[seat]++] = state * ACTIONS + a;
+                    return Action.of(a);
+                }));
+            }
+            GameResult r = Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS);
+            counts.games++;
+            if (r.loserSeat() < 0) continue;
+            for (int i = 0; i < n; i++) {
+                int lost = i == r.loserSeat() ? 1 : 0;
+                for (int k = 0; k < lengths[i]; k++) {
+                    counts.visits[episodes[i][k]]++;
+                    counts.losses[episodes[i][k]] += lost;
+                }
+                counts.decisions += lengths[i];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Plays the policy from seat 0 against copies of one opponent.
+     *
+     * @return seat 0's loss rate over decided games
+     */
+    public double evaluate(PolicyTable table, Supplier<MoveStrategy> opponent, long games)
+            throws InterruptedException {
+        return lossRate(() -> new PolicyStrategy(table), opponent, games);
+    }
+
+    private double lossRate(Supplier<MoveStrategy> hero, Supplier<MoveStrategy> opponent, long games)
+            throws InterruptedException {
+        List<Counts> parts = runParallel(games, share -> () -> {
+            Counts c = new Counts();
+            List<MoveStrategy> seats = new ArrayList<>(EVAL_SEATS);
+            seats.add(hero.get());
+            for (int i = 1; i < EVAL_SEATS; i++) seats.add(opponent.get());
+            for (long g = 0; g < share; g++) {
+                GameResult r = Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS);
+                if (r.loserSeat() < 0) continue;
+                c.decided++;
+                if (r.loserSeat() == 0) c.lost++;
+            }
+            return c;
+        });
+        long decided = 0, lost = 0;
+        for (Counts c : parts) {
+            decided += c.decided;
+            lost += c.lost;
+        }
+        return decided == 0 ? Double.NaN : (double) lost / decided;
+    }
+
+    private List<Counts> runParallel(long games, LongFunction<Callable<Counts>> task) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Counts>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(task.apply(games / threads + (t < games % threads ? 1 : 0))));
+            }
+            List<Counts> out = new ArrayList<>(threads);
+            for (Future<Counts> f : futures) {
+                try {
+                    out.add(f.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Training worker failed", e.getCause());
+                }
+            }
+            return out;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** One worker's share of the counts, merged by the calling thread. */
+    private static final class Counts {
+        final long[] losses = new long[PolicyTable.STATES * ACTIONS];
+        final long[] visits = new long[PolicyTable.STATES * ACTIONS];
+        long games;
+        long decisions;
+        long decided;
+        long lost;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get("policy.ppt");
+        long games = 2_000_000;
+        int epochs = 20;
+        double epsilon = 0.1;
+        long eval = 200_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "file"    -> file = Paths.get(val);
+                case "games"   -> games = Long.parseLong(val);
+                case "epochs"  -> epochs = Integer.parseInt(val);
+                case "epsilon" -> epsilon = Double.parseDouble(val);
+                case "eval"    -> eval = Long.parseLong(val);
+                case "threads" -> threads = Integer.parseInt(val);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        if (epochs < 1) throw new IllegalArgumentException("epochs must be positive");
+
+        PolicyTrainer trainer = new PolicyTrainer(threads, epsilon);
+        long start = System.nanoTime();
+        for (int e = 1; e <= epochs; e++) {
+            trainer.epoch(games / epochs + (e <= games % epochs ? 1 : 0));
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Trained on %,d games in %.2fs = %,.0f games/s, %,.0f decisions/s on %d threads%n",
+                trainer.gamesPlayed(), secs, trainer.gamesPlayed() / secs, trainer.decisions() / secs, threads);
+
+        byte[] learned = trainer.policy();
+        int[] chosen = new int[ACTIONS];
+        for (int s = 0; s < learned.length; s++) {
+            if (PolicyTable.hasPairs(s)) chosen[learned[s]]++;
+        }
+        for (Action a : Action.values()) {
+            System.out.printf("%-14s chosen in %d of the states with a pair in hand%n", a, chosen[a.ordinal()]);
+        }
+        PolicyTable.write(file, learned);
+        System.out.printf("Wrote %s: %d states, %d bytes%n", file, PolicyTable.STATES,
+                PolicyTable.HEADER + PolicyTable.STATES);
+
+        if (eval <= 0) return;
+        try (PolicyTable table = PolicyTable.open(file)) {
+            System.out.printf("Seat 0 loss rate over %,d games at %d seats:%n", eval, EVAL_SEATS);
+            List<Supplier<MoveStrategy>> opponents = List.of(DrawThenPurgeStrategy::new, MixedRandomStrategy::new);
+            for (Supplier<MoveStrategy> opponent : opponents) {
+                String name = GuardedStrategy.nameOf(opponent.get());
+                double learnedRate = trainer.evaluate(table, opponent, eval);
+                double baseline = trainer.lossRate(DrawThenPurgeStrategy::new, opponent, eval);
+                System.out.printf(Locale.ROOT, "  vs %-14s Policy %.4f   DrawThenPurge %.4f%n",
+                        name, learnedRate, baseline);
+            }
+        }
+    }
+}
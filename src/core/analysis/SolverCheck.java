@@ -0,0 +1,137 @@
+package core.analysis;
+
+import core.model.Card;
+import core.model.Deck;
+import core.model.DrawThenPurgeStrategy;
+import core.model.Game;
+import core.model.GameRandom;
+import core.model.MoveStrategy;
+import core.model.Player;
+import core.model.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks the {@link OutcomeSolver} against ground truth on small positions.
+ *
+ * Each position comes from a seeded classic game of draw-then-purge bots,
+ * played until few enough cards are left. The position is then solved
+ * twice, once with every level eliminated exactly and once with every
+ * level iterated, and the two must agree to {@code 1e-9}. Then it is
+ * played out {@code rollouts} times by the game engine itself, and every
+ * seat's observed loss rate must lie within {@code sigmas} standard errors
+ * of the solved probability. Exits with status 1 on any mismatch.
+ *
+ * Usage: {@code java core.analysis.SolverCheck [positions=30] [maxCards=9]
+ * [rollouts=20000] [sigmas=4.5] [seed=1]}
+ */
+public final class SolverCheck {
+    private static final double EXACT = 1e-9;
+    private static final int MAX_STATES = 5_000_000;
+    private static final int MAX_TURNS = 10_000;
+    private static final MoveStrategy BOT = new DrawThenPurgeStrategy();
+
+    private SolverCheck() {}
+
+    public static void main(String[] args) {
+        int positions = 30;
+        int maxCards = 9;
+        int rollouts = 20_000;
+        double sigmas = 4.5;
+        long seed = 1;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "positions" -> positions = Integer.parseInt(val);
+                case "maxCards"  -> maxCards = Integer.parseInt(val);
+                case "rollouts"  -> rollouts = Integer.parseInt(val);
+                case "sigmas"    -> sigmas = Double.parseDouble(val);
+                case "seed"      -> seed = Long.parseLong(val);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        OutcomeSolver dense    = new OutcomeSolver(new TranspositionTable(), pool, MAX_STATES, Integer.MAX_VALUE);
+        OutcomeSolver iterated = new OutcomeSolver(new TranspositionTable(), pool, MAX_STATES, 0);
+        int failures = 0, checked = 0;
+        double worstExact = 0, worstSigmas = 0;
+        for (long s = seed; checked < positions; s++) {
+            int players = 2 + checked % (EndgamePosition.MAX_SEATS - 1);
+            Game game = endgame(players, maxCards, s);
+            if (game == null) continue;
+            checked++;
+
+            double[] exact = dense.solve(game);
+            double[] iter  = iterated.solve(game);
+            double[] seen  = playOut(game, rollouts, s);
+            StringBuilder line = new StringBuilder();
+            boolean ok = true;
+            for (int i = 0; i < players; i++) {
+                double diff = Math.abs(exact[i] - iter[i]);
+                worstExact = Math.max(worstExact, diff);
+                if (diff > EXACT) ok = false;
+                double err = Math.sqrt(exact[i] * (1 - exact[i]) / rollouts);
+                double dev = Math.abs(seen[i] - exact[i]);
+                if (err > 0) worstSigmas = Math.max(worstSigmas, dev / err);
+                if (dev > sigmas * err + 1.0 / rollouts) ok = false;
+                line.append(String.format(Locale.ROOT, " %.4f/%.4f", exact[i], seen[i]));
+            }
+            if (!ok) failures++;
+            System.out.printf(Locale.ROOT, "%s seed %d, %d seats, %d cards: solved/played%s%n",
+                    ok ? "ok  " : "FAIL", s, players, cards(game), line);
+        }
+        System.out.printf(Locale.ROOT,
+                "%d positions, %d failed; dense vs iterated differ by at most %.2e,"
+                        + " rollouts by at most %.2f standard errors%n",
+                checked, failures, worstExact, worstSigmas);
+        if (failures > 0) System.exit(1);
+    }
+
+    /** @return a seeded game played down to at most {@code maxCards} cards, or null if it ended first */
+    private static Game endgame(int players, int maxCards, long seed) {
+        GameRandom random = new GameRandom(seed);
+        Deck deck = new Deck(RuleSet.CLASSIC.compile());
+        deck.shuffle(random);
+        List<List<Card>> dealt = deck.deal(players);
+        List<Player> seats = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) seats.add(new Player("P" + i, dealt.get(i), BOT));
+        Game game = new Game(seats, false, null, RuleSet.CLASSIC, random);
+        game.start();
+        while (cards(game) > maxCards) {
+            if (!game.nextTurn()) return null;
+        }
+        return game.isGameOver() ? null : game;
+    }
+
+    private static int cards(Game game) {
+        int n = 0;
+        for (Player p : game.getPlayers()) n += p.getHandSize();
+        return n;
+    }
+
+    /** @return each seat's share of losses over {@code rollouts} plays from the game's position */
+    private static double[] playOut(Game game, int rollouts, long seed) {
+        List<Player> from = game.getPlayers();
+        long[] losses = new long[from.size()];
+        GameRandom random = new GameRandom(~seed);
+        for (int r = 0; r < rollouts; r++) {
+            List<Player> seats = new ArrayList<>(from.size());
+            for (Player p : from) {
+                Player copy = new Player(p.getName(), List.of(), BOT);
+                copy.setHand(p.hand());
+                seats.add(copy);
+            }
+            Game g = Game.resume(seats, RuleSet.CLASSIC, random, List.of(), game.getCurrentIndex(), 0);
+            for (int turns = 0; turns < MAX_TURNS && g.nextTurn(); turns++) { }
+            g.getLoser().ifPresent(p -> losses[seats.indexOf(p)]++);
+        }
+        double[] out = new double[losses.length];
+        for (int i = 0; i < out.length; i++) out[i] = (double) losses[i] / rollouts;
+        return out;
+    }
+}
@@ -0,0 +1,88 @@
+package core.analysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Precomputes every two- and three-player endgame up to a card limit with
+ * the {@link OutcomeSolver} and writes them in the {@link EndgameTablebase}
+ * format.
+ *
+ * Usage: {@code java core.analysis.TablebaseBuilder [file=endgames.ptb] [maxCards=21]}
+ */
+public final class TablebaseBuilder {
+    private TablebaseBuilder() {}
+
+    /**
+     * @param file     destination file (written atomically)
+     * @param maxCards largest position to cover, in cards
+     */
+    public static void build(Path file, int maxCards) throws IOException {
+        int maxClasses = (maxCards - 1) / 2;
+        if (maxClasses < 1 || maxClasses > 25) {
+            throw new IllegalArgumentException("maxCards must be in [3, 51]");
+        }
+        OutcomeSolver solver = new OutcomeSolver();
+        ByteBuffer buf = EndgameTablebase.allocate(maxClasses);
+        int side = maxClasses + 1;
+
+        for (int c01 = 0; c01 <= maxClasses; c01++) {
+            for (int holder = 0; holder < 2; holder++) {
+                int[] counts = new int[EndgamePosition.PAIR_SLOTS];
+                counts[EndgamePosition.pairSlot(0, 1)] = c01;
+                double[] p = solveIfValid(solver, 2, holder, counts);
+                buf.putFloat(p == null ? Float.NaN : (float) p[0]);
+            }
+        }
+        for (int c01 = 0; c01 < side; c01++) {
+            for (int c02 = 0; c02 < side; c02++) {
+                for (int c12 = 0; c12 < side; c12++) {
+                    for (int holder = 0; holder < 3; holder++) {
+                        double[] p = null;
+                        if (c01 + c02 + c12 <= maxClasses) {
+                            int[] counts = new int[EndgamePosition.PAIR_SLOTS];
+                            counts[EndgamePosition.pairSlot(0, 1)] = c01;
+                            counts[EndgamePosition.pairSlot(0, 2)] = c02;
+                            counts[EndgamePosition.pairSlot(1, 2)] = c12;
+                            p = solveIfValid(solver, 3, holder, counts);
+                        }
+                        buf.putFloat(p == null ? Float.NaN : (float) p[0]);
+                        buf.putFloat(p == null ? Float.NaN : (float) p[1]);
+                    }
+                }
+            }
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, buf.array());
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("Wrote %s: positions up to %d cards, %d bytes, %d solved states%n",
+                file, 2 * maxClasses + 1, buf.capacity(), solver.table().size());
+    }
+
+    /** @return the solution, or null if some seat would have no cards */
+    private static double[] solveIfValid(OutcomeSolver solver, int seats, int holder, int[] counts) {
+        EndgamePosition pos = new EndgamePosition(seats, holder, counts);
+        for (int s = 0; s < seats; s++) {
+            if (pos.handSize(s) == 0) return null;
+        }
+        return solver.solve(pos.key());
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get("endgames.ptb");
+        int maxCards = 21;
+        for (String arg : args) {
+            if (arg.startsWith("file=")) file = Paths.get(arg.substring(5));
+            else if (arg.startsWith("maxCards=")) maxCards = Integer.parseInt(arg.substring(9));
+            else throw new IllegalArgumentException("Unknown option " + arg);
+        }
+        long start = System.nanoTime();
+        build(file, maxCards);
+        System.out.printf("Done in %.1fs%n", (System.nanoTime() - start) / 1e9);
+    }
+}
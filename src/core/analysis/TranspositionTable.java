@@ -0,0 +1,40 @@
+package core.analysis;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe memo of solved positions, keyed by {@link EndgamePosition#key()}.
+ * Values are per-relative-seat loss probabilities and must not be mutated
+ * once stored.
+ */
+public final class TranspositionTable {
+    private final ConcurrentHashMap<Long, double[]> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** @return the stored result, or null */
+    public double[] get(long key) {
+        double[] v = entries.get(key);
+        if (v == null) misses.increment();
+        else hits.increment();
+        return v;
+    }
+
+    /** Looks up without touching the hit/miss counters. */
+    boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    void put(long key, double[] lossProbabilities) {
+        entries.putIfAbsent(key, lossProbabilities);
+    }
+
+    public int size()   { return entries.size(); }
+    public long hits()  { return hits.sum(); }
+    public long misses(){ return misses.sum(); }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -1,42 +1,206 @@
 package core.gui;
 
+import core.persistence.RetentionPolicy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
 /**
  * Holds application-wide settings (persisted between launches).
+ *
+ * There is one instance, owned by {@link MainFrame}. Every option is read
+ * from the preferences once, when the store is created; after that reads
+ * come from memory without locking. A change is handed to the option's
+ * listeners right away, on the caller's thread, and written back to the
+ * preferences shortly after by a background writer, so dragging a slider
+ * does not hit the backing store on every step. Pending writes are
+ * flushed at exit.
  */
 public class AppSettings {
-    private static final String KEY_MUSIC_VOLUME   = "musicVolume";
-    private static final String KEY_EFFECTS_VOLUME = "effectsVolume";
-    private static final int    DEFAULT_VOLUME     = 50;
+    public static final Setting<Integer> MUSIC_VOLUME   = Setting.ofInt("musicVolume", 50, 0, 100);
+    public static final Setting<Integer> EFFECTS_VOLUME = Setting.ofInt("effectsVolume", 50, 0, 100);
+    /** Replay storage cap in megabytes, 0 = unlimited. */
+    public static final Setting<Integer> REPLAY_MAX_MB   = Setting.ofInt("replayMaxMegabytes", 0, 0, Integer.MAX_VALUE);
+    /** Age in days after which replays are deleted, 0 = never. */
+    public static final Setting<Integer> REPLAY_MAX_DAYS = Setting.ofInt("replayMaxAgeDays", 0, 0, Integer.MAX_VALUE);
+    /** Number of most recent replays to keep, 0 = all. */
+    public static final Setting<Integer> REPLAY_KEEP     = Setting.ofInt("replayKeepRecent", 0, 0, Integer.MAX_VALUE);
+    public static final Setting<Boolean> INPUT_REPLAYS   = Setting.ofBoolean("inputOnlyReplays", false);
+    /** Time a bot may think per move before a default move is played, in ms. */
+    public static final Setting<Integer> BOT_BUDGET_MS   = Setting.ofInt("botBudgetMillis", 1000, 1, Integer.MAX_VALUE);
+    /** Pause after each bot move in games with a human, in ms. */
+    public static final Setting<Integer> BOT_PAUSE_MS    = Setting.ofInt("botPauseMillis", 300, 0, 5000);
+    /** Show each player's estimated chance of losing during a game. */
+    public static final Setting<Boolean> LOSS_ODDS       = Setting.ofBoolean("showLossOdds", false);
+
+    private static final List<Setting<?>> BUILT_IN = List.of(MUSIC_VOLUME, EFFECTS_VOLUME, REPLAY_MAX_MB,
+            REPLAY_MAX_DAYS, REPLAY_KEEP, INPUT_REPLAYS, BOT_BUDGET_MS, BOT_PAUSE_MS, LOSS_ODDS);
+    /** How long changes may sit in memory before they are written. */
+    private static final long WRITE_DELAY_MS = 500;
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Settings-Writer");
+        t.setDaemon(true);
+        return t;
+    });
 
     // Using the Preferences node for this package
-    private final Preferences prefs = Preferences.userNodeForPackage(AppSettings.class);
+    private final Preferences prefs;
+    private final Map<Setting<?>, Object> values = new ConcurrentHashMap<>();
+    private final Map<Setting<?>, List<Consumer<Object>>> listeners = new ConcurrentHashMap<>();
+    private final Set<Setting<?>> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    public AppSettings() {
+        this(Preferences.userNodeForPackage(AppSettings.class));
+    }
+
+    AppSettings(Preferences prefs) {
+        this.prefs = prefs;
+        for (Setting<?> s : BUILT_IN) values.put(s, load(s));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Settings-Flush"));
+    }
+
+    /** @return the option's current value */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Setting<T> setting) {
+        Object v = values.get(setting);
+        if (v == null) v = values.computeIfAbsent(setting, this::load);  // an option declared elsewhere
+        return (T) v;
+    }
+
+    /**
+     * Changes an option, bringing the value into its range. Listeners hear
+     * of it before this returns; the preferences a moment later.
+     */
+    public <T> void set(Setting<T> setting, T value) {
+        T v = setting.normalize(value);
+        if (Objects.equals(values.put(setting, v), v)) return;
+        dirty.add(setting);
+        if (writeScheduled.compareAndSet(false, true)) {
+            WRITER.schedule(() -> {
+                writeScheduled.set(false);
+                flush();
+            }, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        for (Consumer<Object> l : listeners.getOrDefault(setting, List.of())) {
+            l.accept(v);
+        }
+    }
+
+    /** Calls the listener with every new value of the option. */
+    @SuppressWarnings("unchecked")
+    public <T> void addListener(Setting<T> setting, Consumer<? super T> listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        listeners.computeIfAbsent(setting, s -> new CopyOnWriteArrayList<>()).add((Consumer<Object>) listener);
+    }
+
+    public <T> void removeListener(Setting<T> setting, Consumer<? super T> listener) {
+        List<Consumer<Object>> l = listeners.get(setting);
+        if (l != null) l.remove(listener);
+    }
+
+    /** Writes pending changes to the preferences now. */
+    public synchronized void flush() {
+        if (dirty.isEmpty()) return;
+        for (Setting<?> s : dirty) {
+            dirty.remove(s);
+            prefs.put(s.key(), format(s));
+        }
+        try {
+            prefs.flush();
+        } catch (BackingStoreException e) {
+            System.err.println("Warning: could not save settings: " + e.getMessage());
+        }
+    }
+
+    private <T> T load(Setting<T> setting) {
+        return setting.parse(prefs.get(setting.key(), null));
+    }
+
+    private <T> String format(Setting<T> setting) {
+        return setting.format(get(setting));
+    }
 
     /** @return current music volume (0–100) */
     public int getMusicVolume() {
-        return prefs.getInt(KEY_MUSIC_VOLUME, DEFAULT_VOLUME);
+        return get(MUSIC_VOLUME);
     }
 
-    /** Persist a new music volume (0–100) */
+    /** Sets a new music volume (0–100) */
     public void setMusicVolume(int volume) {
-        prefs.putInt(KEY_MUSIC_VOLUME, clamp(volume));
+        set(MUSIC_VOLUME, volume);
     }
 
     /** @return current effects volume (0–100) */
     public int getEffectsVolume() {
-        return prefs.getInt(KEY_EFFECTS_VOLUME, DEFAULT_VOLUME);
+        return get(EFFECTS_VOLUME);
     }
 
-    /** Persist a new effects volume (0–100) */
+    /** Sets a new effects volume (0–100) */
     public void setEffectsVolume(int volume) {
-        prefs.putInt(KEY_EFFECTS_VOLUME, clamp(volume));
+        set(EFFECTS_VOLUME, volume);
+    }
+
+    /** @return replay storage cap in megabytes, 0 = unlimited */
+    public int getReplayMaxMegabytes() {
+        return get(REPLAY_MAX_MB);
+    }
+
+    public void setReplayMaxMegabytes(int megabytes) {
+        set(REPLAY_MAX_MB, megabytes);
+    }
+
+    /** @return age in days after which replays are deleted, 0 = never */
+    public int getReplayMaxAgeDays() {
+        return get(REPLAY_MAX_DAYS);
+    }
+
+    public void setReplayMaxAgeDays(int days) {
+        set(REPLAY_MAX_DAYS, days);
+    }
+
+    /** @return number of most recent replays to keep, 0 = all */
+    public int getReplayKeepRecent() {
+        return get(REPLAY_KEEP);
+    }
+
+    public void setReplayKeepRecent(int count) {
+        set(REPLAY_KEEP, count);
+    }
+
+    /** @return true to record games as input-only replays instead of full logs */
+    public boolean isInputOnlyReplays() {
+        return get(INPUT_REPLAYS);
+    }
+
+    public void setInputOnlyReplays(boolean on) {
+        set(INPUT_REPLAYS, on);
+    }
+
+    /** @return time a bot may think per move before a default move is played, in ms */
+    public int getBotBudgetMillis() {
+        return get(BOT_BUDGET_MS);
+    }
+
+    public void setBotBudgetMillis(int millis) {
+        set(BOT_BUDGET_MS, millis);
     }
 
-    /** Ensures volume stays in [0,100] */
-    private int clamp(int v) {
-        if (v < 0) return 0;
-        if (v > 100) return 100;
-        return v;
+    /** @return the replay retention limits as one policy */
+    public RetentionPolicy getReplayRetention() {
+        return new RetentionPolicy(getReplayMaxMegabytes() * 1024L * 1024L,
+                Duration.ofDays(getReplayMaxAgeDays()), getReplayKeepRecent());
     }
 }
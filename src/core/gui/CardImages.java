@@ -0,0 +1,82 @@
+package core.gui;
+
+import core.model.Card;
+import core.stats.Instrumentation;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of scaled card images, shared by the live game view
+ * and the replay viewer.
+ *
+ * Each card face (and the card back) is decoded and scaled once per size,
+ * then reused for every repaint instead of being reloaded from the
+ * classpath.
+ */
+public final class CardImages {
+    /** Default size used by the game table. */
+    public static final int WIDTH  = 100;
+    public static final int HEIGHT = 150;
+
+    private static final int BACK = Card.DECK_SIZE;
+    private static final ConcurrentHashMap<Long, ImageIcon> CACHE = new ConcurrentHashMap<>();
+
+    private CardImages() {}
+
+    /** @return the face of a card at the default size */
+    public static ImageIcon icon(Card card) {
+        return icon(card, WIDTH, HEIGHT);
+    }
+
+    /** @return the card back at the default size */
+    public static ImageIcon back() {
+        return back(WIDTH, HEIGHT);
+    }
+
+    /** @return the face of a card scaled to width×height */
+    public static ImageIcon icon(Card card, int width, int height) {
+        long key = key(card.id(), width, height);
+        ImageIcon icon = lookup(key);
+        return icon != null ? icon : CACHE.computeIfAbsent(key, k -> load(card.imagePath(), width, height));
+    }
+
+    /** @return the card back scaled to width×height */
+    public static ImageIcon back(int width, int height) {
+        long key = key(BACK, width, height);
+        ImageIcon icon = lookup(key);
+        return icon != null ? icon : CACHE.computeIfAbsent(key, k -> load(Card.backImagePath(), width, height));
+    }
+
+    private static ImageIcon lookup(long key) {
+        ImageIcon icon = CACHE.get(key);
+        if (Instrumentation.enabled()) Instrumentation.imageLookup(icon != null);
+        return icon;
+    }
+
+    private static long key(int id, int width, int height) {
+        return ((long) id << 32) | ((long) width << 16) | height;
+    }
+
+    private static ImageIcon load(String pathOrUrl, int width, int height) {
+        ImageIcon source;
+        try {
+            // Try interpreting the string as a URL (e.g. "file:/…" or "jar:…")
+            source = new ImageIcon(new URL(pathOrUrl));
+        } catch (Exception ex) {
+            // Fallback: treat as a normal filename
+            source = new ImageIcon(pathOrUrl);
+        }
+        // draw once into a buffer so painting never waits on a lazy scaled instance
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source.getImage(), 0, 0, width, height, null);
+        g.dispose();
+        return new ImageIcon(scaled);
+    }
+}
@@ -1,34 +1,51 @@
 package core.gui;
 
+import core.analysis.LossOracle;
+import core.jfr.RefreshEvent;
 import core.model.*;
+import core.persistence.InputReplay;
 import core.persistence.ReplayLogger;
+import core.persistence.SavedGame;
+import core.stats.Instrumentation;
+import core.stats.LatencyTimer;
+import core.stats.LogHistogram;
+import core.stats.MetricsRegistry;
+import core.stats.StatsListener;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.io.IOException;
-import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Panel that displays the active game.
- * Uses a single background thread to advance turns.
+ * Each game runs in a {@link GameSession}, which advances turns on its own
+ * virtual thread and is cancelled when the game screen is left.
  */
 public class GamePanel extends JPanel {
     private final MainFrame parent;
     private List<Player> players;
     private Game game;
-    private ReplayLogger logger;
+    private GameSession session;           // the game in progress, null when none
+    private volatile int botPauseMillis;   // follows AppSettings.BOT_PAUSE_MS
+    private boolean resumed;
     private boolean isPvP;
 
     // UI constants
     private static final int MAX_FACE_UP_CARDS   = 4;
     private static final int PILE_OFFSET         = 10;
-    private static final int CARD_WIDTH          = 100;
-    private static final int CARD_HEIGHT         = 150;
+    private static final int CARD_WIDTH          = CardImages.WIDTH;
+    private static final int CARD_HEIGHT         = CardImages.HEIGHT;
     private static final int MAX_AI_CARD_DISPLAY = 5;
-    private static final String BACK_IMAGE_PATH  = Card.backImagePath();
+    private static final int OVERLAY_REFRESH_MS  = 250;
+    private static final int BOTS_ONLY_PAUSE_MS  = 3;
+    private static final Color OVERLAY_BG        = new Color(0, 0, 0, 170);
 
     // Panels and controls
     private final JPanel aiHandsPanel;
@@ -46,9 +63,28 @@ public class GamePanel extends JPanel {
     private final JButton sortColorBtn;
     private final JButton endTurnBtn;
 
+    // Performance overlay, toggled with F3
+    private final Timer overlayTimer;
+    private boolean overlayVisible;
+
+    // Loss odds overlay, toggled with F4 or in the settings; estimated off the game loop
+    private final LossOracle oracle = new LossOracle(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private volatile boolean oddsVisible;
+    private volatile GameSession oddsSession;  // the session the odds are for
+    private volatile LossOracle.Estimate odds;
+
     public GamePanel(MainFrame parent) {
         super(new BorderLayout(10, 10));
         this.parent = parent;
+        botPauseMillis = parent.getSettings().get(AppSettings.BOT_PAUSE_MS);
+        parent.getSettings().addListener(AppSettings.BOT_PAUSE_MS, v -> botPauseMillis = v);
+        oddsVisible = parent.getSettings().get(AppSettings.LOSS_ODDS);
+        parent.getSettings().addListener(AppSettings.LOSS_ODDS, v -> SwingUtilities.invokeLater(() -> {
+            oddsVisible = v;
+            if (v) followOdds(session);
+            else stopOdds();
+            repaint();
+        }));
 
         // Initialize panels
         aiHandsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
@@ -71,6 +107,8 @@ public class GamePanel extends JPanel {
         sortSuitBtn  = new SoundButton("Sort by Suit");
         sortColorBtn = new SoundButton("Sort by Color");
         endTurnBtn   = new SoundButton("End Turn");
+        JButton saveBtn = new SoundButton("Save & Quit");
+        saveBtn.addActionListener(e -> saveAndQuit());
 
         controlsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
         controlsPanel.add(purgeBtn);
@@ -78,6 +116,7 @@ public class GamePanel extends JPanel {
         controlsPanel.add(sortSuitBtn);
         controlsPanel.add(sortColorBtn);
         controlsPanel.add(endTurnBtn);
+        controlsPanel.add(saveBtn);
 
         // PvE bottom layout
         pveSouthPanel = new JPanel();
@@ -97,6 +136,124 @@ public class GamePanel extends JPanel {
             refreshUI();
             updateControls();
         }));
+
+        overlayTimer = new Timer(OVERLAY_REFRESH_MS, e -> repaint());
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleOverlay");
+        getActionMap().put("toggleOverlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleOverlay();
+            }
+        });
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F4, 0), "toggleOdds");
+        getActionMap().put("toggleOdds", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                AppSettings settings = parent.getSettings();
+                settings.set(AppSettings.LOSS_ODDS, !settings.get(AppSettings.LOSS_ODDS));
+            }
+        });
+    }
+
+    /**
+     * Shows or hides the performance overlay. Instrumentation only runs
+     * while the overlay is up (or while switched on over JMX).
+     */
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+        Instrumentation.setEnabled(overlayVisible);
+        if (overlayVisible) overlayTimer.start();
+        else overlayTimer.stop();
+        repaint();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        long t = Instrumentation.start();
+        super.paint(g);
+        Instrumentation.stop(Instrumentation.PAINT, t);
+        if (overlayVisible) paintOverlay((Graphics2D) g);
+        LossOracle.Estimate e = odds;
+        if (oddsVisible && e != null) paintOdds((Graphics2D) g, e);
+    }
+
+    /**
+     * Starts estimating the session's position after its last full turn.
+     * Safe on the game loop: it only hands a fork to the oracle's pool.
+     */
+    private void followOdds(GameSession s) {
+        if (!oddsVisible || s == null) return;
+        Game position = s.checkpoint();
+        if (position == null) return;
+        oddsSession = s;
+        oracle.follow(position, e -> {
+            if (oddsSession != s) return;
+            odds = e;
+            repaint();
+        });
+    }
+
+    private void stopOdds() {
+        oddsSession = null;
+        odds = null;
+        oracle.unfollow();
+    }
+
+    /** Draws each player's estimated chance of losing in the top-right corner. */
+    private void paintOdds(Graphics2D g, LossOracle.Estimate e) {
+        List<Player> seated = players;
+        if (seated == null || seated.size() != e.loss().length) return;
+        List<String> lines = new ArrayList<>();
+        lines.add(e.rollouts() == 0 ? "Game over" : String.format("Chance of losing (%,d games)", e.rollouts()));
+        for (int i = 0; i < seated.size(); i++) {
+            lines.add(String.format("%-12.12s %5.1f%% +/- %.1f", seated.get(i).getName(),
+                    e.loss()[i] * 100, 2 * e.stdError(i) * 100));
+        }
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines) width = Math.max(width, fm.stringWidth(line));
+        int height = fm.getHeight() * lines.size();
+        int x = getWidth() - width - 24;
+        g.setColor(OVERLAY_BG);
+        g.fillRect(x, 8, width + 16, height + 12);
+        g.setColor(Color.WHITE);
+        int y = 14 + fm.getAscent();
+        for (String line : lines) {
+            g.drawString(line, x + 8, y);
+            y += fm.getHeight();
+        }
+    }
+
+    /** Draws live percentiles of every timer and the live game sessions in the top-left corner. */
+    private void paintOverlay(Graphics2D g) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-12s %6s %8s %8s %8s", "µs", "n", "p50", "p99", "max"));
+        for (LatencyTimer timer : Instrumentation.TIMERS) {
+            LogHistogram h = timer.snapshot();
+            lines.add(String.format("%-12s %6d %8.1f %8.1f %8.1f", timer.name(), h.count(),
+                    h.quantile(0.5) / 1e3, h.quantile(0.99) / 1e3, timer.getMaxMicros()));
+        }
+        lines.add(String.format("image cache  %.1f%% hits (%d misses)",
+                Instrumentation.imageHitRate() * 100, Instrumentation.imageMisses()));
+        lines.add("replay queue " + Instrumentation.replayQueueDepth());
+        List<GameSession> live = GameSession.live();
+        lines.add("sessions     " + live.size() + " live");
+        for (GameSession s : live) lines.add("  " + s.describe());
+
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines) width = Math.max(width, fm.stringWidth(line));
+        int height = fm.getHeight() * lines.size();
+        g.setColor(OVERLAY_BG);
+        g.fillRect(8, 8, width + 16, height + 12);
+        g.setColor(Color.WHITE);
+        int y = 14 + fm.getAscent();
+        for (String line : lines) {
+            g.drawString(line, 16, y);
+            y += fm.getHeight();
+        }
     }
 
     /**
@@ -117,23 +274,6 @@ public class GamePanel extends JPanel {
         return scroll;
     }
 
-    /** Scale an icon to CARD_WIDTH×CARD_HEIGHT */
-    private ImageIcon scaledIcon(String pathOrUrl) {
-        ImageIcon icon;
-        try {
-            // Try interpreting the string as a URL (e.g. "file:/…" or "jar:…")
-            URL url = new URL(pathOrUrl);
-            icon = new ImageIcon(url);
-        } catch (Exception ex) {
-            // Fallback: treat as a normal filename
-            icon = new ImageIcon(pathOrUrl);
-        }
-        Image img = icon.getImage()
-                .getScaledInstance(CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH);
-        return new ImageIcon(img);
-    }
-
-
     /** Enable or disable controls based on the current player */
     private void updateControls() {
         Player curr = players.get(game.getCurrentIndex());
@@ -147,6 +287,9 @@ public class GamePanel extends JPanel {
 
     /** Refresh all UI panels based on mode */
     private void refreshUI() {
+        long t = Instrumentation.start();
+        RefreshEvent event = new RefreshEvent();
+        event.begin();
         if (isPvP) {
             // Purged Pairs at top
             tablePanel.removeAll();
@@ -154,14 +297,14 @@ public class GamePanel extends JPanel {
             int totalPairs = allPairs.size() / 2;
             int startIndex = Math.max(0, allPairs.size() - MAX_FACE_UP_CARDS);
             for (Card c : allPairs.subList(startIndex, allPairs.size())) {
-                tablePanel.add(new JLabel(scaledIcon(c.imagePath())));
+                tablePanel.add(new JLabel(CardImages.icon(c)));
             }
             JLayeredPane pilePane = new JLayeredPane();
             int pileWidth  = CARD_WIDTH + PILE_OFFSET * (totalPairs - 1);
             int pileHeight = CARD_HEIGHT;
             pilePane.setPreferredSize(new Dimension(pileWidth, pileHeight));
             for (int i = 0; i < totalPairs; i++) {
-                JLabel backLabel = new JLabel(scaledIcon(BACK_IMAGE_PATH));
+                JLabel backLabel = new JLabel(CardImages.back());
                 backLabel.setBounds(i * PILE_OFFSET, 0, CARD_WIDTH, CARD_HEIGHT);
                 pilePane.add(backLabel, Integer.valueOf(i));
             }
@@ -175,10 +318,10 @@ public class GamePanel extends JPanel {
             for (int i = 0; i < players.size(); i++) {
                 Player p = players.get(i);
                 JPanel handPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
-                List<Card> hand = p.getHand();
+                List<Card> hand = p.getDisplayedHand();
                 if (hand != null) {
                     for (Card c : hand) {
-                        handPanel.add(new JLabel(scaledIcon(c.imagePath())));
+                        handPanel.add(new JLabel(CardImages.icon(c)));
                     }
                 }
                 JScrollPane scroll = createCenteredScrollPane(handPanel);
@@ -200,7 +343,7 @@ public class GamePanel extends JPanel {
                 if (hand != null) {
                     int count = Math.min(hand.size(), MAX_AI_CARD_DISPLAY);
                     for (int j = 0; j < count; j++)
-                        aiPanel.add(new JLabel(scaledIcon(BACK_IMAGE_PATH)));
+                        aiPanel.add(new JLabel(CardImages.back()));
                     if (hand.size() > count)
                         aiPanel.add(new JLabel("+" + (hand.size() - count)));
                 }
@@ -214,13 +357,13 @@ public class GamePanel extends JPanel {
             int totalPairs = allPairs.size() / 2;
             int startIndex = Math.max(0, allPairs.size() - MAX_FACE_UP_CARDS);
             for (Card c : allPairs.subList(startIndex, allPairs.size()))
-                tablePanel.add(new JLabel(scaledIcon(c.imagePath())));
+                tablePanel.add(new JLabel(CardImages.icon(c)));
             JLayeredPane pilePane = new JLayeredPane();
             int pileWidth  = CARD_WIDTH + PILE_OFFSET * (totalPairs - 1);
             int pileHeight = CARD_HEIGHT;
             pilePane.setPreferredSize(new Dimension(pileWidth, pileHeight));
             for (int i = 0; i < totalPairs; i++) {
-                JLabel backLabel = new JLabel(scaledIcon(BACK_IMAGE_PATH));
+                JLabel backLabel = new JLabel(CardImages.back());
                 backLabel.setBounds(i * PILE_OFFSET, 0, CARD_WIDTH, CARD_HEIGHT);
                 pilePane.add(backLabel, Integer.valueOf(i));
             }
@@ -233,114 +376,190 @@ public class GamePanel extends JPanel {
                     .filter(p -> p.getStrategy() instanceof HumanStrategy)
                     .findFirst();
             if (humanOpt.isPresent()) {
-                List<Card> hand = humanOpt.get().getHand();
+                List<Card> hand = humanOpt.get().getDisplayedHand();
                 if (hand != null)
                     for (Card c : hand)
-                        playerHandPanel.add(new JLabel(scaledIcon(c.imagePath())));
+                        playerHandPanel.add(new JLabel(CardImages.icon(c)));
             }
             playerHandPanel.revalidate();
             playerHandPanel.repaint();
         }
+        Instrumentation.stop(Instrumentation.REFRESH, t);
+        if (event.shouldCommit()) {
+            event.pvp = isPvP;
+            event.tableCards = game.getAllTablePairs().size();
+            event.commit();
+        }
     }
 
     /** Start a new player vs player game */
-    public void startNewPlayerGame(List<Player> players) {
+    public void startNewPlayerGame(List<Player> players, RuleSet rules) {
+        endSession();
+        showPvPLayout(players);
+        GameSession s = dealGame("PvP", players, rules);
+        s.addListener(new StatsListener(MetricsRegistry.global()));
+        game.start();
+        SwingUtilities.invokeLater(() -> {
+            refreshUI();
+            updateControls();
+            startLoop(s, true);
+        });
+    }
+
+    /** Start a new bot-only game */
+    public void startNewBotGame(List<Player> players, RuleSet rules) {
+        endSession();
+        showBotLayout(players);
+        GameSession s = dealGame("Bots", players, rules);
+        s.addListener(new StatsListener(MetricsRegistry.global()));
+        game.start();
+        SwingUtilities.invokeLater(() -> {
+            refreshUI();
+            updateControls();
+        });
+        startLoop(s, false);
+    }
+
+    /**
+     * Resumes the game in {@link SavedGame#FILE}. Session statistics skip
+     * it, as they only cover whole games.
+     *
+     * @throws IOException if there is no readable save
+     */
+    public void resumeSavedGame() throws IOException {
+        Game saved = SavedGame.load(Duration.ofMillis(parent.getSettings().getBotBudgetMillis()));
+        endSession();
+        boolean bots = false;
+        for (Player p : saved.getPlayers()) {
+            if (!(p.getStrategy() instanceof HumanStrategy)) bots = true;
+        }
+        if (bots) showBotLayout(saved.getPlayers());
+        else showPvPLayout(saved.getPlayers());
+        game = saved;
+        session = new GameSession("Resumed", saved, null, null);
+        resumed = true;
+        SwingUtilities.invokeLater(() -> {
+            refreshUI();
+            updateControls();
+        });
+        startLoop(session, !bots);
+    }
+
+    /**
+     * Stops the game in progress, if any, and lets go of its thread and
+     * replay. Called whenever the game screen is left.
+     */
+    public void endSession() {
+        GameSession s = session;
+        session = null;
+        stopOdds();
+        if (s != null) s.cancel();
+    }
+
+    private void showPvPLayout(List<Player> players) {
         this.players = players;
         this.isPvP = true;
+        resumed = false;
         removeAll();
         add(tablePanel, BorderLayout.NORTH);
         add(playersPanel, BorderLayout.CENTER);
         add(controlsPanel, BorderLayout.SOUTH);
         revalidate(); repaint();
-
-        Deck deck = new Deck();
-        deck.shuffle();
-        var dealt = deck.deal(players.size());
-        for (int i = 0; i < players.size(); i++) {
-            players.get(i).setHand(dealt.get(i));
-        }
-        try {
-            logger = new ReplayLogger();
-            game   = new Game(players, false, logger);
-        } catch (IOException ex) {
-            game   = new Game(players, true, null);
-        }
-        game.start();
-        SwingUtilities.invokeLater(() -> {
-            refreshUI();
-            updateControls();
-            Thread gameLoop = new Thread(() -> {
-                while (game.nextTurn()) {
-                    SwingUtilities.invokeLater(() -> {
-                        refreshUI();
-                        updateControls();
-                    });
-                    Player curr = players.get(game.getCurrentIndex());
-                    if (!(curr.getStrategy() instanceof HumanStrategy)) {
-                        try { Thread.sleep(300); } catch (InterruptedException ignored) {}
-                    }
-                }
-                SwingUtilities.invokeLater(this::onGameEnd);
-            }, "Game-Loop");
-            gameLoop.setDaemon(true);
-            gameLoop.start();
-        });
     }
 
-    /** Start a new bot-only game */
-    public void startNewBotGame(List<Player> players) {
+    private void showBotLayout(List<Player> players) {
         this.players = players;
         this.isPvP = false;
+        resumed = false;
         removeAll();
         add(aiHandsPanel, BorderLayout.NORTH);
         add(tablePanel, BorderLayout.CENTER);
         add(pveSouthPanel, BorderLayout.SOUTH);
         revalidate(); repaint();
+    }
+
+    /**
+     * Plays the session's game, pausing after each bot move. Turns and the
+     * end of the game are shown only while the session is still the
+     * current one.
+     *
+     * @param watched true if a human plays along, so bots pause as long as
+     *                the settings say; bot-only games barely pause
+     */
+    private void startLoop(GameSession s, boolean watched) {
+        s.start(() -> {
+                    followOdds(s);
+                    SwingUtilities.invokeLater(() -> {
+                        if (session != s) return;
+                        refreshUI();
+                        updateControls();
+                    });
+                },
+                () -> watched ? botPauseMillis : BOTS_ONLY_PAUSE_MS,
+                ended -> SwingUtilities.invokeLater(() -> {
+                    if (session == ended) onGameEnd();
+                }));
+        followOdds(s);
+    }
+
+    /**
+     * Saves the game as it stood after the last full turn and returns to the
+     * menu; the game can be picked up again with Resume Game.
+     */
+    private void saveAndQuit() {
+        GameSession s = session;
+        Game snapshot = s == null ? null : s.checkpoint();
+        if (snapshot == null) return;
+        try {
+            SavedGame.save(snapshot);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Could not save the game: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        // leaving the screen ends the session, waking the loop if it waits for a human
+        parent.showMenu();
+    }
 
-        Deck deck = new Deck();
-        deck.shuffle();
+    /**
+     * Deals from a freshly seeded deck and builds the game in a new session,
+     * recording it as a full log or, if so configured, as an input-only replay.
+     */
+    private GameSession dealGame(String label, List<Player> players, RuleSet rules) {
+        GameRandom random = new GameRandom();
+        Deck deck = new Deck(rules.compile());
+        deck.shuffle(random);
         var dealt = deck.deal(players.size());
         for (int i = 0; i < players.size(); i++) {
             players.get(i).setHand(dealt.get(i));
         }
+        if (parent.getSettings().isInputOnlyReplays()) {
+            game = new Game(players, false, null, rules, random);
+            session = new GameSession(label, game, null,
+                    new InputReplay.Recorder(random.seed(), rules, players));
+            return session;
+        }
+        ReplayLogger logger = null;
         try {
             logger = new ReplayLogger();
-            game   = new Game(players, false, logger);
+            game = new Game(players, false, logger, rules, random);
         } catch (IOException ex) {
-            game   = new Game(players, true, null);
+            game = new Game(players, true, null, rules, random);
         }
-        game.start();
-        SwingUtilities.invokeLater(() -> {
-            refreshUI();
-            updateControls();
-        });
-        Thread gameLoop = new Thread(() -> {
-            while (game.nextTurn()) {
-                SwingUtilities.invokeLater(() -> {
-                    refreshUI();
-                    updateControls();
-                });
-                Player moved = players.get(game.getCurrentIndex());
-                if (!(moved.getStrategy() instanceof HumanStrategy)) {
-                    try { Thread.sleep(3); } catch (InterruptedException ignored) {}
-                }
-            }
-            SwingUtilities.invokeLater(this::onGameEnd);
-        }, "Game-Loop");
-        gameLoop.setDaemon(true);
-        gameLoop.start();
+        session = new GameSession(label, game, logger, null);
+        return session;
     }
 
-    /** Handle end of game */
+    /** Handle end of game; the session has already closed its replay */
     private void onGameEnd() {
+        session = null;
+        if (resumed) SavedGame.delete();
         SoundManager.playNegative();
-        try {
-            if (logger != null) logger.close();
-        } catch (IOException ignored) {}
         var loser = game.getLoser().orElse(null);
         if (loser != null) parent.getScoreboard().recordLoss(loser.getName());
         JOptionPane.showMessageDialog(this,
                 "Game Over! Loser: " + (loser != null ? loser.getName() : "?"));
         parent.showMenu();
     }
-}
\ No newline at end of file
+}
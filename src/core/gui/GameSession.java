@@ -0,0 +1,191 @@
+package core.gui;
+
+import core.model.Game;
+import core.model.GameListener;
+import core.model.Player;
+import core.persistence.InputReplay;
+import core.persistence.ReplayLogger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * One game being played on screen, owning everything it needs: the game,
+ * the virtual thread playing it, its replay logger or input recorder and
+ * the listeners it added.
+ *
+ * A session ends exactly once, either by finishing (the loop closes the
+ * logger, writes the input replay and reports the end) or by
+ * {@link #cancel()}, which stops the loop, waits for it to exit and only
+ * then closes the logger, so no turn is ever written to a closed file.
+ * Live sessions are listed by {@link #live()} for debugging.
+ */
+public final class GameSession {
+    public enum State { RUNNING, FINISHED, CANCELLED }
+
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final Set<GameSession> LIVE = ConcurrentHashMap.newKeySet();
+    /** How long {@link #cancel()} waits for the loop to stop. */
+    private static final Duration CANCEL_WAIT = Duration.ofSeconds(2);
+
+    private final long id = IDS.incrementAndGet();
+    private final String label;
+    private final Instant started = Instant.now();
+    private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+    private final List<GameListener> listeners = new ArrayList<>();
+    private final Game game;
+    private ReplayLogger logger;
+    private InputReplay.Recorder recorder;
+    private volatile Game checkpoint;
+    private Thread loop;
+
+    /**
+     * @param label    what the debug view shows, e.g. "PvP"
+     * @param logger   the game's replay logger, or null
+     * @param recorder the game's input recorder, or null
+     */
+    public GameSession(String label, Game game, ReplayLogger logger, InputReplay.Recorder recorder) {
+        this.label    = Objects.requireNonNull(label, "label must not be null");
+        this.game     = Objects.requireNonNull(game, "game must not be null");
+        this.logger   = logger;
+        this.recorder = recorder;
+    }
+
+    /** @return the sessions started and not yet ended, oldest first */
+    public static List<GameSession> live() {
+        List<GameSession> out = new ArrayList<>(LIVE);
+        out.sort(Comparator.comparingLong(s -> s.id));
+        return out;
+    }
+
+    /** Adds a listener to the game, removed again when the session ends. */
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+        game.addListener(listener);
+    }
+
+    /**
+     * Starts the game and plays it on a virtual thread.
+     *
+     * @param onTurn       run on the loop thread after every turn
+     * @param pauseAfterBot how long to wait after a bot's turn, in ms
+     * @param onEnd        run on the loop thread once the game finished
+     *                     (not when it is cancelled)
+     */
+    public void start(Runnable onTurn, LongSupplier pauseAfterBot, Consumer<GameSession> onEnd) {
+        if (loop != null) throw new IllegalStateException("Session already started");
+        LIVE.add(this);
+        HumanStrategy.setRecorder(recorder == null ? null : recorder::record);
+        checkpoint = game.fork();
+        Game g = game;
+        loop = Thread.ofVirtual().name("Game-Loop-" + id).start(() -> {
+            try {
+                while (state.get() == State.RUNNING && g.nextTurn()) {
+                    checkpoint = g.fork();
+                    onTurn.run();
+                    Player moved = g.getPlayers().get(g.getCurrentIndex());
+                    if (!(moved.getStrategy() instanceof HumanStrategy)) {
+                        Thread.sleep(pauseAfterBot.getAsLong());
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;  // cancelled while pausing
+            } catch (CancellationException e) {
+                return;  // cancelled during a human turn, which Game.nextTurn never got to record
+            } catch (RuntimeException e) {
+                System.err.println("Warning: game session " + id + " failed: " + e);
+                if (state.compareAndSet(State.RUNNING, State.CANCELLED)) release(false);
+                return;
+            }
+            if (state.compareAndSet(State.RUNNING, State.FINISHED)) {
+                release(true);
+                onEnd.accept(this);
+            }
+        });
+    }
+
+    /**
+     * Stops the game: wakes the loop if it waits for a human or a bot,
+     * waits for it to exit, then closes the replay. An input replay is not
+     * written for a game left unfinished. Does nothing once the session
+     * has ended.
+     */
+    public void cancel() {
+        if (!state.compareAndSet(State.RUNNING, State.CANCELLED)) return;
+        Thread t = loop;
+        if (t != null) {
+            t.interrupt();
+            HumanStrategy.discardPending();
+            try {
+                if (!t.join(CANCEL_WAIT)) {
+                    System.err.println("Warning: game session " + id + " did not stop within " + CANCEL_WAIT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        release(false);
+    }
+
+    /**
+     * Closes the logger, writes the input replay if the game finished and
+     * lets go of the game's listeners.
+     */
+    private void release(boolean finished) {
+        try {
+            if (logger != null) logger.close();
+        } catch (IOException e) {
+            System.err.println("Warning: could not close replay log: " + e.getMessage());
+        }
+        logger = null;
+        if (recorder != null) {
+            HumanStrategy.setRecorder(null);
+            if (finished) {
+                try {
+                    recorder.finish(game);
+                } catch (IOException e) {
+                    System.err.println("Warning: failed to write replay: " + e.getMessage());
+                }
+            }
+            recorder = null;
+        }
+        for (GameListener l : listeners) game.removeListener(l);
+        listeners.clear();
+        checkpoint = null;
+        LIVE.remove(this);
+    }
+
+    public long id() { return id; }
+    public State state() { return state.get(); }
+    public boolean isRunning() { return state.get() == State.RUNNING; }
+
+    /** @return the game; after a cancel it may be mid-turn */
+    public Game game() { return game; }
+
+    /** @return a fork of the game after its last full turn, or null once ended */
+    public Game checkpoint() { return checkpoint; }
+
+    /** @return one line for the debug view */
+    public String describe() {
+        long secs = Duration.between(started, Instant.now()).toSeconds();
+        return String.format("#%d %-8s %-9s %5d steps %4ds  %s", id, label, state.get(), game.getStepCount(), secs,
+                loop == null ? "not started" : loop.isAlive() ? "alive" : "stopped");
+    }
+
+    @Override
+    public String toString() {
+        return "GameSession#" + id + "[" + label + ", " + state.get() + "]";
+    }
+}
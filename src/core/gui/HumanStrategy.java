@@ -7,14 +7,21 @@ import core.model.Card;
 import javax.swing.*;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 
 /**
  * A MoveStrategy for a human‐controlled player.
  * Blocks in makeMove() until the user enqueues END_TURN.
  * All other actions immediately invoke the UI refresh callback.
+ *
+ * Built with a script instead, it replays recorded actions without any UI,
+ * which is how input-only replays re-simulate a game.
  */
 public class HumanStrategy implements MoveStrategy {
     public enum Action {
@@ -31,11 +38,43 @@ public class HumanStrategy implements MoveStrategy {
     // callback to refresh the UI on EDT after any state change
     private static Runnable refreshCallback;
 
+    // sees every action a live human strategy consumes, in order
+    private static volatile Consumer<Action> recorder;
+
+    // recorded actions to replay, or null to read the button queue
+    private final Iterator<Action> script;
+
+    /** A strategy driven by the game buttons. */
+    public HumanStrategy() {
+        this.script = null;
+    }
+
+    /**
+     * A strategy replaying recorded actions. Seats sharing a script consume
+     * it in turn order, the order the actions were recorded in.
+     */
+    public HumanStrategy(Iterator<Action> script) {
+        this.script = Objects.requireNonNull(script, "script must not be null");
+    }
+
     /** Install a callback to be run on the EDT whenever the UI needs repainting. */
     public static void setRefreshCallback(Runnable cb) {
         refreshCallback = cb;
     }
 
+    /**
+     * Install a consumer receiving every action live human players act on,
+     * in the order they take effect; null removes it.
+     */
+    public static void setRecorder(Consumer<Action> r) {
+        recorder = r;
+    }
+
+    /** Drops actions queued for a game that was left before it could take them. */
+    public static void discardPending() {
+        queue.clear();
+    }
+
     /**
      * Bind your buttons to the human actions.
      * Call once from your GamePanel constructor.
@@ -77,13 +116,17 @@ public class HumanStrategy implements MoveStrategy {
     /**
      * Blocks until the user clicks End Turn, processing any number
      * of PURGE / SORT actions beforehand.  Returns the cards purged.
+     *
+     * @throws CancellationException if the thread is interrupted while
+     *         waiting, i.e. the game is abandoned; the unfinished turn must
+     *         not be recorded as played
      */
     @Override
     public List<Card> makeMove(Player self, Player leftNeighbor) {
         List<Card> removed = new ArrayList<>();
         try {
             while (true) {
-                Action action = queue.take();
+                Action action = nextAction();
                 switch (action) {
                     case PURGE_PAIRS -> removed.addAll(self.purgePairs());
                     case SORT_BY_RANK -> self.sortHandByRank();
@@ -98,13 +141,26 @@ public class HumanStrategy implements MoveStrategy {
                     }
                 }
                 // immediately repaint after any PURGE/SORT
-                if (refreshCallback != null) {
+                if (script == null && refreshCallback != null) {
                     SwingUtilities.invokeLater(refreshCallback);
                 }
             }
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
-            return removed;
+            throw new CancellationException("Human turn abandoned");
+        }
+    }
+
+    private Action nextAction() throws InterruptedException {
+        if (script != null) {
+            if (!script.hasNext()) {
+                throw new IllegalStateException("Replay script ran out of human actions");
+            }
+            return script.next();
         }
+        Action action = queue.take();
+        Consumer<Action> r = recorder;
+        if (r != null) r.accept(action);
+        return action;
     }
 }
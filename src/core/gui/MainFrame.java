@@ -1,14 +1,19 @@
 package core.gui;
 
+import core.jfr.JfrSession;
 import core.model.*;
 import core.persistence.*;
+import core.stats.Instrumentation;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Main application window for Pouilleux game.
@@ -23,8 +28,10 @@ public class MainFrame extends JFrame {
     private ScoreboardPanel scoreboardPanel;
     private ReplayPanel replayPanel;
     private SettingsPanel settingsPanel;
+    private StatisticsPanel statisticsPanel;
 
     private Scoreboard scoreboard;
+    private final AppSettings settings = new AppSettings();
 
     public MainFrame() {
         super("Pouilleux");
@@ -51,6 +58,7 @@ public class MainFrame extends JFrame {
         replayPanel.setBackground(new Color(23, 130, 189));
         settingsPanel = new SettingsPanel(this);
         settingsPanel.setBackground(new Color(23, 130, 189));
+        statisticsPanel = new StatisticsPanel(this);
 
         // add to main panel
         mainPanel.add(menuPanel, "MENU");
@@ -59,6 +67,7 @@ public class MainFrame extends JFrame {
         mainPanel.add(scoreboardPanel, "SCOREBOARD");
         mainPanel.add(replayPanel, "REPLAY");
         mainPanel.add(settingsPanel, "SETTINGS");
+        mainPanel.add(statisticsPanel, "STATISTICS");
 
         setContentPane(mainPanel);
         showMenu();
@@ -66,6 +75,8 @@ public class MainFrame extends JFrame {
     }
 
     public void showMenu() {
+        gamePanel.endSession();
+        menuPanel.refresh();
         cardLayout.show(mainPanel, "MENU");
     }
 
@@ -74,18 +85,31 @@ public class MainFrame extends JFrame {
         cardLayout.show(mainPanel, "SETUP");
     }
 
-    public void startGame(List<Player> players, int type) {
+    public void startGame(List<Player> players, int type, RuleSet rules) {
         if (type == 0) {
-            gamePanel.startNewPlayerGame(players);
+            gamePanel.startNewPlayerGame(players, rules);
         }
         if (type == 1) {
-            gamePanel.startNewBotGame(players);
+            gamePanel.startNewBotGame(players, rules);
+        }
+        cardLayout.show(mainPanel, "GAME");
+    }
+
+    /** Picks up the saved game where Save &amp; Quit left it. */
+    public void resumeGame() {
+        try {
+            gamePanel.resumeSavedGame();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Could not resume the saved game: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
         cardLayout.show(mainPanel, "GAME");
     }
 
     public void showScoreboard() {
-        scoreboardPanel.updateTable(scoreboard.standings());
+        scoreboardPanel.refresh();
         cardLayout.show(mainPanel, "SCOREBOARD");
     }
 
@@ -98,12 +122,17 @@ public class MainFrame extends JFrame {
         cardLayout.show(mainPanel, "SETTINGS");
     }
 
+    public void showStatistics() {
+        statisticsPanel.refresh();
+        cardLayout.show(mainPanel, "STATISTICS");
+    }
+
     public Scoreboard getScoreboard() {
         return scoreboard;
     }
 
-    public AppSettings getSettings()   {
-        AppSettings settings = new AppSettings();
+    /** @return the application's one settings store */
+    public AppSettings getSettings() {
         return settings;
     }
 
@@ -112,7 +141,16 @@ public class MainFrame extends JFrame {
         replayPanel.refreshFileList();
     }
 
+    /**
+     * Entry point. {@code --jfr} (or {@code --jfr=file.jfr}) starts a flight
+     * recording right away; it is written when the application exits.
+     */
     public static void main(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--jfr") || arg.startsWith("--jfr=")) {
+                startRecording(arg.length() > 6 ? Paths.get(arg.substring(6)) : JfrSession.defaultDestination());
+            }
+        }
         SwingUtilities.invokeLater(() -> {
             MainFrame frame = new MainFrame();
             try (InputStream in = MainFrame.class.getResourceAsStream("/images/icon.png")) {
@@ -125,9 +163,25 @@ public class MainFrame extends JFrame {
             } catch (IOException e) {
                 e.printStackTrace();
             }
-            SoundManager.install(frame.getSettings());
+            AppSettings settings = frame.getSettings();
+            SoundManager.install(settings);
+            ReplayArchiver.start(settings.getReplayRetention());
+            Consumer<Integer> retention = v -> ReplayArchiver.setPolicy(settings.getReplayRetention());
+            settings.addListener(AppSettings.REPLAY_MAX_MB, retention);
+            settings.addListener(AppSettings.REPLAY_MAX_DAYS, retention);
+            settings.addListener(AppSettings.REPLAY_KEEP, retention);
+            Instrumentation.registerMBeans();
             frame.setVisible(true);
             SoundManager.playMusic("/sounds/ambiance.wav");
         });
     }
+
+    private static void startRecording(Path file) {
+        try {
+            JfrSession.start(file);
+            Runtime.getRuntime().addShutdownHook(new Thread(JfrSession::stop, "JFR-Dump"));
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Warning: could not start flight recording: " + e.getMessage());
+        }
+    }
 }
@@ -1,15 +1,19 @@
 package core.gui;
 
+import core.persistence.SavedGame;
+
 import javax.swing.*;
 import java.awt.*;
 
 /**
  * The main menu panel with options to start a new game,
- * view the scoreboard, replay past games, or exit.
+ * resume a saved one, view the scoreboard, replay past games, see statistics, or exit.
  */
 public class MenuPanel extends JPanel {
     private static final Dimension BUTTON_SIZE = new Dimension(200, 40);
 
+    private final JButton resumeButton;
+
     public MenuPanel(MainFrame parent) {
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setBorder(BorderFactory.createEmptyBorder(50, 50, 50, 50));
@@ -41,6 +45,12 @@ public class MenuPanel extends JPanel {
         add(newGameButton);
         add(Box.createVerticalStrut(20));
 
+        resumeButton = createButton("Resume Game");
+        resumeButton.addActionListener(e -> parent.resumeGame());
+        resumeButton.setEnabled(SavedGame.exists());
+        add(resumeButton);
+        add(Box.createVerticalStrut(20));
+
         JButton scoreboardButton = createButton("Scoreboard");
         scoreboardButton.addActionListener(e -> parent.showScoreboard());
         add(scoreboardButton);
@@ -51,6 +61,11 @@ public class MenuPanel extends JPanel {
         add(replayButton);
         add(Box.createVerticalStrut(20));
 
+        JButton statisticsButton = createButton("Statistics");
+        statisticsButton.addActionListener(e -> parent.showStatistics());
+        add(statisticsButton);
+        add(Box.createVerticalStrut(20));
+
         JButton settingsButton = createButton("Settings");
         settingsButton.addActionListener(e -> parent.showSettings());
         add(settingsButton);
@@ -68,6 +83,11 @@ public class MenuPanel extends JPanel {
         add(Box.createVerticalGlue());
     }
 
+    /** Enables Resume Game only while there is a saved game. */
+    public void refresh() {
+        resumeButton.setEnabled(SavedGame.exists());
+    }
+
     /**
      * Creates and styles a SoundButton with uniform size, colors, and border.
      */
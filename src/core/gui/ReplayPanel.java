@@ -1,18 +1,19 @@
 package core.gui;
 
+import core.persistence.ReplayIndex;
+import core.persistence.ReplayStore;
+import core.persistence.ReplayTimeline;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Panel allowing the user to select a replay file and step through its contents.
+ * Panel allowing the user to select a replay file and play it back on a
+ * graphical table: timeline slider, play/pause, reverse and variable speed.
  */
 public class ReplayPanel extends JPanel {
     private static final Color PANEL_BG       = new Color(0xFE, 0xF5, 0xD7); // #FEF5D7
@@ -20,6 +21,9 @@ public class ReplayPanel extends JPanel {
     private static final Color INNER_BORDER  = new Color(0xDA, 0x4D, 0x4C); // #DA4D4C
     private static final Color BUTTON_BG     = PANEL_BG;
     private static final Color BUTTON_FG     = OUTER_BORDER;
+    private static final int FRAME_MS        = 16;
+    private static final double BASE_STEPS_PER_SECOND = 8;
+    private static final String[] SPEEDS     = {"0.25x", "0.5x", "1x", "2x", "4x", "8x", "16x"};
 
     private final MainFrame parent;
     private final CardLayout cards = new CardLayout();
@@ -30,13 +34,21 @@ public class ReplayPanel extends JPanel {
     private final DefaultListModel<String> listModel;
     private final JButton openButton;
     private final JButton backMenuButton;
+    private final JTextField searchField;
+    private final JLabel resultLabel;
 
     // Replay view
-    private final JTextArea replayArea;
-    private final JButton prevButton, nextButton;
+    private final ReplayViewer viewer;
+    private final JLabel stepLabel;
+    private final JSlider timelineSlider;
+    private final JButton prevButton, nextButton, playButton, reverseButton;
+    private final JComboBox<String> speedBox;
     private final JButton backListButton, backToMenuButton;
-    private List<List<String>> steps = new ArrayList<>();
-    private int currentStep = 0;
+    private final Timer playTimer;
+    private ReplayTimeline timeline;
+    private boolean reverse;
+    private double playhead;     // fractional step while playing
+    private long lastFrameNanos;
 
     public ReplayPanel(MainFrame parent) {
         this.parent = parent;
@@ -59,6 +71,20 @@ public class ReplayPanel extends JPanel {
         fileList.setForeground(BUTTON_FG);
         listView.add(new JScrollPane(fileList), BorderLayout.CENTER);
 
+        JPanel searchBar = new JPanel(new BorderLayout(10, 0));
+        searchBar.setBackground(PANEL_BG);
+        searchField = new JTextField();
+        searchField.setToolTipText("e.g. loser:\"Bot 1\" holds:jack_of_spades strategy:MixedRandom steps>500");
+        JButton searchButton = new SoundButton("Search");
+        styleButton(searchButton);
+        resultLabel = new JLabel(" ");
+        resultLabel.setForeground(BUTTON_FG);
+        searchBar.add(new JLabel("Search:"), BorderLayout.WEST);
+        searchBar.add(searchField, BorderLayout.CENTER);
+        searchBar.add(searchButton, BorderLayout.EAST);
+        searchBar.add(resultLabel, BorderLayout.SOUTH);
+        listView.add(searchBar, BorderLayout.NORTH);
+
         JPanel listButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         listButtons.setBackground(PANEL_BG);
         openButton = new SoundButton("Open Replay");
@@ -76,29 +102,48 @@ public class ReplayPanel extends JPanel {
         replayView.setBackground(PANEL_BG);
         replayView.setBorder(new EmptyBorder(10, 10, 10, 10));
 
-        replayArea = new JTextArea();
-        replayArea.setEditable(false);
-        replayArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-        replayArea.setBackground(BUTTON_BG);
-        replayArea.setForeground(BUTTON_FG);
-        replayArea.setBorder(BorderFactory.createLineBorder(OUTER_BORDER, 2));
-        replayView.add(new JScrollPane(replayArea), BorderLayout.CENTER);
+        viewer = new ReplayViewer();
+        viewer.setBorder(BorderFactory.createLineBorder(OUTER_BORDER, 2));
+        replayView.add(viewer, BorderLayout.CENTER);
+
+        stepLabel = new JLabel(" ");
+        stepLabel.setForeground(BUTTON_FG);
+        replayView.add(stepLabel, BorderLayout.NORTH);
+
+        timelineSlider = new JSlider(0, 0, 0);
+        timelineSlider.setBackground(PANEL_BG);
 
         JPanel controlBar = new JPanel(new FlowLayout(FlowLayout.CENTER));
         controlBar.setBackground(PANEL_BG);
         prevButton = new SoundButton("< Prev");
+        playButton = new SoundButton("Play");
         nextButton = new SoundButton("Next >");
+        reverseButton = new SoundButton("Reverse");
+        speedBox = new JComboBox<>(SPEEDS);
+        speedBox.setSelectedItem("1x");
         backListButton = new SoundButton("Back to Replays");
         backToMenuButton = new SoundButton("Back to Menu");
         styleButton(prevButton);
+        styleButton(playButton);
         styleButton(nextButton);
+        styleButton(reverseButton);
         styleButton(backListButton);
         styleButton(backToMenuButton);
         controlBar.add(prevButton);
+        controlBar.add(playButton);
         controlBar.add(nextButton);
+        controlBar.add(reverseButton);
+        controlBar.add(speedBox);
         controlBar.add(backListButton);
         controlBar.add(backToMenuButton);
-        replayView.add(controlBar, BorderLayout.SOUTH);
+
+        JPanel south = new JPanel(new BorderLayout());
+        south.setBackground(PANEL_BG);
+        south.add(timelineSlider, BorderLayout.NORTH);
+        south.add(controlBar, BorderLayout.SOUTH);
+        replayView.add(south, BorderLayout.SOUTH);
+
+        playTimer = new Timer(FRAME_MS, e -> onFrame());
 
         content.add(replayView, "replay");
 
@@ -107,71 +152,137 @@ public class ReplayPanel extends JPanel {
 
         // Listeners
         openButton.addActionListener(this::onOpen);
+        searchButton.addActionListener(e -> refreshFileList());
+        searchField.addActionListener(e -> refreshFileList());
         backMenuButton.addActionListener(e -> parent.showMenu());
-        backListButton.addActionListener(e -> cards.show(content, "list"));
-        backToMenuButton.addActionListener(e -> parent.showMenu());
-        prevButton.addActionListener(e -> showStep(currentStep - 1));
-        nextButton.addActionListener(e -> showStep(currentStep + 1));
+        backListButton.addActionListener(e -> {
+            pause();
+            cards.show(content, "list");
+        });
+        backToMenuButton.addActionListener(e -> {
+            pause();
+            parent.showMenu();
+        });
+        prevButton.addActionListener(e -> showStep(viewer.getStep() - 1));
+        nextButton.addActionListener(e -> showStep(viewer.getStep() + 1));
+        playButton.addActionListener(e -> {
+            if (playTimer.isRunning()) pause();
+            else play();
+        });
+        reverseButton.addActionListener(e -> {
+            reverse = !reverse;
+            reverseButton.setText(reverse ? "Forward" : "Reverse");
+        });
+        // dragging the slider seeks directly; the timeline keeps that cheap
+        timelineSlider.addChangeListener(e -> {
+            if (timelineSlider.getValueIsAdjusting()) pause();
+            showStep(timelineSlider.getValue());
+        });
     }
 
-    /** Reloads the replay directory into the list. */
+    /** Reloads the list: the whole replay directory, or the index hits for the search box. */
     public void refreshFileList() {
+        String query = searchField.getText().trim();
+        if (!query.isEmpty()) {
+            search(query);
+            return;
+        }
+        resultLabel.setText(" ");
         listModel.clear();
-        Path dir = Paths.get("replays");
-        if (Files.exists(dir) && Files.isDirectory(dir)) {
-            try {
-                Files.list(dir)
-                        .filter(p -> p.toString().endsWith(".log"))
-                        .map(Path::getFileName)
-                        .map(Path::toString)
-                        .sorted()
-                        .forEach(listModel::addElement);
-            } catch (IOException ignored) {
+        ReplayStore.list().forEach(listModel::addElement);
+    }
+
+    /** Queries the replay index off the event thread; loading it may index old logs first. */
+    private void search(String query) {
+        resultLabel.setText("Searching…");
+        new SwingWorker<List<String>, Void>() {
+            private long micros;
+
+            @Override
+            protected List<String> doInBackground() {
+                ReplayIndex index = ReplayIndex.shared();
+                long start = System.nanoTime();
+                List<String> hits = index.search(query);
+                micros = (System.nanoTime() - start) / 1000;
+                return hits;
             }
-        }
+
+            @Override
+            protected void done() {
+                listModel.clear();
+                try {
+                    List<String> hits = get();
+                    hits.forEach(listModel::addElement);
+                    resultLabel.setText(String.format("%d replays in %.1f ms", hits.size(), micros / 1000.0));
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    resultLabel.setText(cause.getMessage());
+                }
+            }
+        }.execute();
     }
 
     /** Handles "Open Replay" click: parse file into steps. */
     private void onOpen(ActionEvent e) {
         String fileName = fileList.getSelectedValue();
         if (fileName == null) return;
-        Path file = Paths.get("replays", fileName);
         try {
-            List<String> lines = Files.readAllLines(file);
-            parseSteps(lines);
+            List<String> lines = ReplayStore.readLog(fileName);
+            timeline = ReplayTimeline.parse(lines);
+            viewer.setTimeline(timeline);
+            timelineSlider.setMaximum(Math.max(0, timeline.size() - 1));
+            timelineSlider.setValue(0);
             showStep(0);
             cards.show(content, "replay");
-        } catch (IOException ex) {
+        } catch (IOException | IllegalArgumentException ex) {
             JOptionPane.showMessageDialog(this,
                     "Could not read replay file: " + ex.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    /** Splits raw lines into individual step blocks. */
-    private void parseSteps(List<String> lines) {
-        steps.clear();
-        List<String> block = new ArrayList<>();
-        for (String line : lines) {
-            if (line.startsWith("STEP ") && !block.isEmpty()) {
-                steps.add(new ArrayList<>(block));
-                block.clear();
-            }
-            block.add(line);
-        }
-        if (!block.isEmpty()) steps.add(block);
-        currentStep = 0;
-    }
-
     /** Display a given step index. */
     private void showStep(int index) {
-        if (index < 0 || index >= steps.size()) return;
-        currentStep = index;
-        List<String> lines = steps.get(index);
-        replayArea.setText(String.join("\n", lines));
-        replayArea.setCaretPosition(0);
-        prevButton.setEnabled(currentStep > 0);
-        nextButton.setEnabled(currentStep < steps.size() - 1);
+        if (timeline == null || index < 0 || index >= timeline.size()) return;
+        viewer.setStep(index);
+        if (timelineSlider.getValue() != index) timelineSlider.setValue(index);
+        stepLabel.setText(String.format("Step %d / %d — %s",
+                index, timeline.size() - 1, timeline.description(index)));
+        prevButton.setEnabled(index > 0);
+        nextButton.setEnabled(index < timeline.size() - 1);
+    }
+
+    private void play() {
+        if (timeline == null) return;
+        // restart from the opposite end when already at the end of travel
+        int step = viewer.getStep();
+        if (!reverse && step == timeline.size() - 1) showStep(0);
+        if (reverse && step == 0) showStep(timeline.size() - 1);
+        playhead = viewer.getStep();
+        lastFrameNanos = System.nanoTime();
+        playButton.setText("Pause");
+        playTimer.start();
+    }
+
+    private void pause() {
+        playTimer.stop();
+        playButton.setText("Play");
+    }
+
+    /** Advances the playhead by elapsed time times the selected speed. */
+    private void onFrame() {
+        long now = System.nanoTime();
+        double seconds = (now - lastFrameNanos) / 1e9;
+        lastFrameNanos = now;
+        String speed = (String) speedBox.getSelectedItem();
+        double rate = BASE_STEPS_PER_SECOND * Double.parseDouble(speed.substring(0, speed.length() - 1));
+        playhead += (reverse ? -rate : rate) * seconds;
+        int last = timeline.size() - 1;
+        if (playhead <= 0 || playhead >= last) {
+            playhead = Math.max(0, Math.min(last, playhead));
+            pause();
+        }
+        showStep((int) Math.round(playhead));
     }
 
     /** Styles buttons with the project's color scheme. */
@@ -0,0 +1,105 @@
+package core.gui;
+
+import core.model.Card;
+import core.persistence.ReplayTimeline;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Paints the table of a replay at one step: the purged pile with the last
+ * purge face up, then one row of face-up cards per player.
+ *
+ * Hands come straight from a {@link ReplayTimeline.Cursor} and card faces
+ * from {@link CardImages}, so a repaint allocates nothing beyond the card
+ * lists of the visible step.
+ */
+public class ReplayViewer extends JComponent {
+    private static final Color TABLE_BG     = new Color(23, 130, 189);
+    private static final Color TEXT         = new Color(0xFE, 0xF5, 0xD7); // #FEF5D7
+    private static final Color MOVER        = new Color(0xDA, 0x4D, 0x4C); // #DA4D4C
+    private static final int MARGIN         = 10;
+    private static final int LABEL_HEIGHT   = 18;
+    private static final int PILE_OFFSET    = 4;
+    private static final int MAX_FACE_UP    = 4;
+    /** Card heights are rounded to this step so the image cache stays small. */
+    private static final int SIZE_STEP      = 10;
+
+    private ReplayTimeline timeline;
+    private ReplayTimeline.Cursor cursor;
+
+    public ReplayViewer() {
+        setOpaque(true);
+        setPreferredSize(new Dimension(900, 560));
+    }
+
+    /** Shows a new replay from its first step. */
+    public void setTimeline(ReplayTimeline timeline) {
+        this.timeline = timeline;
+        this.cursor   = timeline.cursor();
+        repaint();
+    }
+
+    /** Moves to a step and repaints; cheap enough to call on every slider tick. */
+    public void setStep(int step) {
+        if (cursor == null || step == cursor.step()) return;
+        cursor.seek(step);
+        repaint();
+    }
+
+    public int getStep() {
+        return cursor == null ? 0 : cursor.step();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g0) {
+        Graphics2D g = (Graphics2D) g0;
+        g.setColor(TABLE_BG);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (cursor == null || timeline.size() == 0) return;
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        List<String> names = timeline.players();
+        int rows = names.size() + 1;
+        int rowHeight = (getHeight() - MARGIN) / rows;
+        int cardH = Math.max(SIZE_STEP * 3,
+                Math.min(CardImages.HEIGHT, (rowHeight - LABEL_HEIGHT - MARGIN) / SIZE_STEP * SIZE_STEP));
+        int cardW = cardH * CardImages.WIDTH / CardImages.HEIGHT;
+
+        // purged pile: one back per pair, last purge face up
+        int y = MARGIN;
+        int pairs = cursor.tableSize() / 2;
+        g.setColor(TEXT);
+        g.drawString("Purged pairs: " + pairs, MARGIN, y + LABEL_HEIGHT - 5);
+        int x = MARGIN;
+        int cy = y + LABEL_HEIGHT;
+        Image back = CardImages.back(cardW, cardH).getImage();
+        for (int i = 0; i < pairs; i++) {
+            g.drawImage(back, x + i * PILE_OFFSET, cy, null);
+        }
+        x += cardW + PILE_OFFSET * Math.max(0, pairs - 1) + MARGIN * 2;
+        List<Card> last = timeline.lastPurged(cursor.step());
+        for (Card c : last.subList(Math.max(0, last.size() - MAX_FACE_UP), last.size())) {
+            g.drawImage(CardImages.icon(c, cardW, cardH).getImage(), x, cy, null);
+            x += cardW + MARGIN / 2;
+        }
+
+        // one row per player, overlapping cards when the row is too narrow
+        int mover = timeline.mover(cursor.step());
+        int width = getWidth() - 2 * MARGIN;
+        for (int s = 0; s < names.size(); s++) {
+            y += rowHeight;
+            List<Card> hand = cursor.hand(s);
+            g.setColor(s == mover ? MOVER : TEXT);
+            g.drawString(names.get(s) + " (" + hand.size() + ")", MARGIN, y + LABEL_HEIGHT - 5);
+            if (hand.isEmpty()) continue;
+            int step = hand.size() == 1 ? 0
+                    : Math.min(cardW + MARGIN / 2, (width - cardW) / (hand.size() - 1));
+            for (int i = 0; i < hand.size(); i++) {
+                g.drawImage(CardImages.icon(hand.get(i), cardW, cardH).getImage(),
+                        MARGIN + i * step, y + LABEL_HEIGHT, null);
+            }
+        }
+    }
+}
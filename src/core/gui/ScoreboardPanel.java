@@ -2,15 +2,19 @@ package core.gui;
 
 import core.persistence.ScoreEntry;
 import core.persistence.Scoreboard;
+import core.persistence.StandingsIndex;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Panel to display the cumulative loss scoreboard in a JTable.
+ * The table reads the scoreboard's {@link StandingsIndex} a page at a
+ * time as rows scroll into view, so it never copies the whole standings.
  */
 public class ScoreboardPanel extends JPanel {
     private static final Color PANEL_BG      = new Color(0xFE, 0xF5, 0xD7); // #FEF5D7
@@ -21,7 +25,7 @@ public class ScoreboardPanel extends JPanel {
 
     private final MainFrame parent;
     private final JTable table;
-    private final DefaultTableModel tableModel;
+    private final StandingsTableModel tableModel;
     private final JButton backButton;
     private final JButton clearButton;
 
@@ -33,13 +37,7 @@ public class ScoreboardPanel extends JPanel {
         setOpaque(true);
 
         // Table setup
-        String[] columns = {"Player", "Losses"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new StandingsTableModel(parent.getScoreboard().index());
         table = new JTable(tableModel);
         table.setFillsViewportHeight(true);
         table.setBackground(BUTTON_BG);
@@ -68,28 +66,18 @@ public class ScoreboardPanel extends JPanel {
     }
 
     /**
-     * Update the JTable with a fresh list of ScoreEntry.
+     * Re-reads the standings, e.g. after games were played.
      */
-    public void updateTable(List<ScoreEntry> entries) {
-        tableModel.setRowCount(0);
-        for (ScoreEntry entry : entries) {
-            tableModel.addRow(new Object[]{entry.name(), entry.losses()});
-        }
+    public void refresh() {
+        tableModel.refresh();
     }
 
     /**
      * Clears both the underlying Scoreboard and the table UI immediately.
      */
     private void clearScoreboard() {
-        Scoreboard scoreboard = parent.getScoreboard();
-        scoreboard.clear();
-        tableModel.setRowCount(0);
-        List<ScoreEntry> now = scoreboard.standings();
-        if (!now.isEmpty()) {
-            updateTable(now);
-        }
-        table.revalidate();
-        table.repaint();
+        parent.getScoreboard().clear();
+        tableModel.refresh();
     }
 
     /**
@@ -104,4 +92,65 @@ public class ScoreboardPanel extends JPanel {
                 BorderFactory.createLineBorder(INNER_BORDER, 2)
         ));
     }
+
+    /**
+     * Rank, player and losses straight from the index. Rows are fetched one
+     * page at a time and the row count is fixed until the next refresh, so
+     * the table stays consistent while games keep recording losses.
+     */
+    private static final class StandingsTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Rank", "Player", "Losses"};
+        private static final int PAGE = 128;
+
+        private final StandingsIndex index;
+        private int rows;
+        private int pageStart;
+        private List<ScoreEntry> page = Collections.emptyList();
+
+        StandingsTableModel(StandingsIndex index) {
+            this.index = index;
+            this.rows  = index.size();
+        }
+
+        void refresh() {
+            rows = index.size();
+            page = Collections.emptyList();
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 1 ? String.class : Integer.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (row < pageStart || row >= pageStart + page.size()) {
+                pageStart = row - row % PAGE;
+                page = index.range(pageStart, PAGE);
+            }
+            if (row >= pageStart + page.size()) return null;  // cleared since the last refresh
+            ScoreEntry e = page.get(row - pageStart);
+            return switch (column) {
+                case 0 -> row + 1;
+                case 1 -> e.name();
+                default -> e.losses();
+            };
+        }
+    }
 }
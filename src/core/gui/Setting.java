@@ -0,0 +1,76 @@
+package core.gui;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A typed key into {@link AppSettings}: its preference name, default, how
+ * it is stored as text and how out-of-range values are brought back in.
+ * Declare new options as constants next to the built-in ones in
+ * {@link AppSettings}.
+ *
+ * @param <T> the value type
+ */
+public final class Setting<T> {
+    private final String key;
+    private final T defaultValue;
+    private final Function<String, T> parser;
+    private final UnaryOperator<T> normalizer;
+
+    private Setting(String key, T defaultValue, Function<String, T> parser, UnaryOperator<T> normalizer) {
+        this.key          = Objects.requireNonNull(key, "key must not be null");
+        this.normalizer   = normalizer;
+        this.defaultValue = normalizer.apply(Objects.requireNonNull(defaultValue, "defaultValue must not be null"));
+        this.parser       = parser;
+    }
+
+    /** An integer option kept within [min, max]. */
+    public static Setting<Integer> ofInt(String key, int defaultValue, int min, int max) {
+        if (min > max) throw new IllegalArgumentException("min must not exceed max");
+        return new Setting<>(key, defaultValue, Integer::valueOf, v -> Math.max(min, Math.min(max, v)));
+    }
+
+    public static Setting<Boolean> ofBoolean(String key, boolean defaultValue) {
+        return new Setting<>(key, defaultValue, Boolean::valueOf, UnaryOperator.identity());
+    }
+
+    /** An option stored by constant name. */
+    public static <E extends Enum<E>> Setting<E> ofEnum(String key, E defaultValue) {
+        Class<E> type = defaultValue.getDeclaringClass();
+        return new Setting<>(key, defaultValue, s -> Enum.valueOf(type, s), UnaryOperator.identity());
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public T defaultValue() {
+        return defaultValue;
+    }
+
+    /** @return the value brought into range; null becomes the default */
+    T normalize(T value) {
+        return value == null ? defaultValue : normalizer.apply(value);
+    }
+
+    /** @return the stored text as a value, or the default if it does not parse */
+    T parse(String text) {
+        if (text == null) return defaultValue;
+        try {
+            return normalize(parser.apply(text.trim()));
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+
+    /** @return the value as stored; {@link #parse} reads it back */
+    String format(T value) {
+        return value instanceof Enum<?> e ? e.name() : String.valueOf(value);
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
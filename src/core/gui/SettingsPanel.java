@@ -1,11 +1,16 @@
 package core.gui;
 
+import core.jfr.JfrSession;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
- * Settings panel: adjust music/effects volume and clear replay history.
+ * Settings panel: adjust music/effects volume, manage replay history and
+ * record JFR profiles.
  */
 public class SettingsPanel extends JPanel {
     private static final Color PANEL_BG      = new Color(0xFE, 0xF5, 0xD7); // #FEF5D7
@@ -47,11 +52,7 @@ public class SettingsPanel extends JPanel {
 
         JSlider musicSlider = new JSlider(0, 100, parent.getSettings().getMusicVolume());
         styleSlider(musicSlider);
-        musicSlider.addChangeListener(e -> {
-            int vol = musicSlider.getValue();
-            parent.getSettings().setMusicVolume(vol);
-            SoundManager.updateMusicVolume();
-        });
+        musicSlider.addChangeListener(e -> parent.getSettings().setMusicVolume(musicSlider.getValue()));
         add(musicSlider);
 
         add(Box.createVerticalStrut(20));
@@ -84,6 +85,85 @@ public class SettingsPanel extends JPanel {
         });
         add(clearHistoryBtn);
 
+        add(Box.createVerticalStrut(20));
+
+        // Replay retention (0 = no limit); older replays are removed by the archiver
+        JLabel retentionLabel = new JLabel("Replay Retention (0 = no limit)");
+        retentionLabel.setForeground(BUTTON_FG);
+        retentionLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        add(retentionLabel);
+
+        AppSettings settings = parent.getSettings();
+        JSpinner maxMb   = new JSpinner(new SpinnerNumberModel(settings.getReplayMaxMegabytes(), 0, 100_000, 10));
+        JSpinner maxDays = new JSpinner(new SpinnerNumberModel(settings.getReplayMaxAgeDays(), 0, 3650, 1));
+        JSpinner keep    = new JSpinner(new SpinnerNumberModel(settings.getReplayKeepRecent(), 0, 1_000_000, 100));
+        JPanel retention = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        retention.setBackground(PANEL_BG);
+        retention.add(new JLabel("Max MB"));
+        retention.add(maxMb);
+        retention.add(new JLabel("Max age (days)"));
+        retention.add(maxDays);
+        retention.add(new JLabel("Keep newest"));
+        retention.add(keep);
+        retention.setMaximumSize(retention.getPreferredSize());
+        retention.setAlignmentX(Component.CENTER_ALIGNMENT);
+        maxMb.addChangeListener(e -> settings.setReplayMaxMegabytes((Integer) maxMb.getValue()));
+        maxDays.addChangeListener(e -> settings.setReplayMaxAgeDays((Integer) maxDays.getValue()));
+        keep.addChangeListener(e -> settings.setReplayKeepRecent((Integer) keep.getValue()));
+        add(retention);
+
+        // Input-only replays keep the seed and human actions and re-simulate the rest
+        JCheckBox inputOnly = new JCheckBox("Record input-only replays (seed and actions)",
+                settings.isInputOnlyReplays());
+        inputOnly.setBackground(PANEL_BG);
+        inputOnly.setForeground(BUTTON_FG);
+        inputOnly.setAlignmentX(Component.CENTER_ALIGNMENT);
+        inputOnly.addActionListener(e -> settings.setInputOnlyReplays(inputOnly.isSelected()));
+        add(inputOnly);
+
+        // Bots that think longer than this play a safe default move instead
+        JSpinner budget = new JSpinner(new SpinnerNumberModel(settings.getBotBudgetMillis(), 1, 60_000, 100));
+        JPanel budgetRow = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        budgetRow.setBackground(PANEL_BG);
+        budgetRow.add(new JLabel("Bot move time budget (ms)"));
+        budgetRow.add(budget);
+        budgetRow.setMaximumSize(budgetRow.getPreferredSize());
+        budgetRow.setAlignmentX(Component.CENTER_ALIGNMENT);
+        budget.addChangeListener(e -> settings.setBotBudgetMillis((Integer) budget.getValue()));
+        add(budgetRow);
+
+        // Pause after each bot move when a human is watching; applies to the game in progress
+        JSpinner pause = new JSpinner(new SpinnerNumberModel((int) settings.get(AppSettings.BOT_PAUSE_MS), 0, 5000, 50));
+        JPanel pauseRow = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        pauseRow.setBackground(PANEL_BG);
+        pauseRow.add(new JLabel("Pause after bot moves (ms)"));
+        pauseRow.add(pause);
+        pauseRow.setMaximumSize(pauseRow.getPreferredSize());
+        pauseRow.setAlignmentX(Component.CENTER_ALIGNMENT);
+        pause.addChangeListener(e -> settings.set(AppSettings.BOT_PAUSE_MS, (Integer) pause.getValue()));
+        add(pauseRow);
+
+        // Loss odds overlay in the game screen, also toggled there with F4
+        JCheckBox odds = new JCheckBox("Show loss odds during games (F4)", settings.get(AppSettings.LOSS_ODDS));
+        odds.setBackground(PANEL_BG);
+        odds.setForeground(BUTTON_FG);
+        odds.setAlignmentX(Component.CENTER_ALIGNMENT);
+        odds.addActionListener(e -> settings.set(AppSettings.LOSS_ODDS, odds.isSelected()));
+        settings.addListener(AppSettings.LOSS_ODDS, v -> SwingUtilities.invokeLater(() -> odds.setSelected(v)));
+        add(odds);
+
+        add(Box.createVerticalStrut(20));
+
+        // Flight recording of the game's own events next to GC and thread data
+        JButton recordBtn = new SoundButton(recordLabel());
+        styleButton(recordBtn);
+        recordBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+        recordBtn.addActionListener(e -> {
+            toggleRecording();
+            recordBtn.setText(recordLabel());
+        });
+        add(recordBtn);
+
         // Glue to push Back button to bottom
         add(Box.createVerticalGlue());
 
@@ -97,6 +177,33 @@ public class SettingsPanel extends JPanel {
         add(hBox);
     }
 
+    private static String recordLabel() {
+        return JfrSession.isRecording() ? "Stop JFR Recording" : "Start JFR Recording";
+    }
+
+    /**
+     * Starts a flight recording, or stops the running one and tells the
+     * user where it was written.
+     */
+    private void toggleRecording() {
+        if (JfrSession.isRecording()) {
+            Path file = JfrSession.stop();
+            JOptionPane.showMessageDialog(
+                    this, "Recording saved to " + file.toAbsolutePath(),
+                    "Info", JOptionPane.INFORMATION_MESSAGE
+            );
+            return;
+        }
+        try {
+            JfrSession.start(JfrSession.defaultDestination());
+        } catch (IOException | IllegalStateException ex) {
+            JOptionPane.showMessageDialog(
+                    this, "Could not start recording: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE
+            );
+        }
+    }
+
     /**
      * Styles a JButton with the project color scheme and dual border.
      */
@@ -1,9 +1,12 @@
 package core.gui;
 
 import core.model.*;
+import core.stats.StrategyProfiles;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -26,6 +29,7 @@ public class SetupPanel extends JPanel {
     private final JRadioButton localButton;
     private final JRadioButton internetButton;
     private final JSpinner humanCountSpinner;
+    private final JComboBox<RuleSet> rulesCombo;
     private final JPanel playersConfigPanel;
     private final JButton startButton;
     private final JButton backButton;
@@ -57,6 +61,14 @@ public class SetupPanel extends JPanel {
         modePanel.add(soloButton);
         modePanel.add(localButton);
         modePanel.add(internetButton);
+        JLabel rulesLabel = new JLabel("Rules:");
+        rulesLabel.setForeground(TEXT_FG);
+        modePanel.add(rulesLabel);
+        rulesCombo = new JComboBox<>(RuleSet.presets().values().toArray(new RuleSet[0]));
+        rulesCombo.setBackground(CONTROL_BG);
+        rulesCombo.setForeground(TEXT_FG);
+        rulesCombo.setBorder(BorderFactory.createLineBorder(OUTER_BORDER, 1));
+        modePanel.add(rulesCombo);
         add(modePanel, BorderLayout.NORTH);
 
         // Center: dynamic player config
@@ -92,10 +104,11 @@ public class SetupPanel extends JPanel {
         reset();
     }
 
-    /** Reset to default: Solo mode, 2 players in local. */
+    /** Reset to default: Solo mode, 2 players in local, classic rules. */
     public void reset() {
         soloButton.setSelected(true);
         humanCountSpinner.setValue(2);
+        rulesCombo.setSelectedItem(RuleSet.CLASSIC);
         rebuildPlayerConfig();
     }
 
@@ -173,6 +186,7 @@ public class SetupPanel extends JPanel {
         Component[] rows = playersConfigPanel.getComponents();
         List<Player> players = new ArrayList<>();
         int bots = 0;
+        Duration budget = Duration.ofMillis(parent.getSettings().getBotBudgetMillis());
         for (Component comp : rows) {
             if (!(comp instanceof JPanel)) continue;
             JPanel row = (JPanel) comp;
@@ -186,12 +200,12 @@ public class SetupPanel extends JPanel {
             String name = nameField.getText().trim();
             MoveStrategy strat = isHuman
                     ? new HumanStrategy()
-                    : ("Random Bot".equals(stratCombo.getSelectedItem())
+                    : GuardedStrategy.guard("Random Bot".equals(stratCombo.getSelectedItem())
                     ? new MixedRandomStrategy()
-                    : new DrawThenPurgeStrategy());
+                    : new DrawThenPurgeStrategy(), budget, StrategyProfiles.global());
             players.add(new Player(name, List.of(), strat));
         }
-        parent.startGame(players, bots);
+        parent.startGame(players, bots, (RuleSet) rulesCombo.getSelectedItem());
     }
 
     // -- Styling helpers --
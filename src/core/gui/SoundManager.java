@@ -1,5 +1,7 @@
 package core.gui;
 
+import core.jfr.SoundEffectEvent;
+
 import javax.sound.sampled.*;
 import javax.swing.*;
 import java.awt.*;
@@ -16,10 +18,11 @@ public class SoundManager {
 
     /**
      * Call once at startup, before building any UI components.
-     * Hooks button clicks to the pop effect.
+     * Hooks button clicks to the pop effect and follows music volume changes.
      */
     public static void install(AppSettings appSettings) {
         settings = appSettings;
+        settings.addListener(AppSettings.MUSIC_VOLUME, v -> updateMusicVolume());
         Toolkit.getDefaultToolkit().addAWTEventListener(evt -> {
             if (!(evt instanceof ActionEvent)) return;
             Object src = ((ActionEvent) evt).getSource();
@@ -44,6 +47,8 @@ public class SoundManager {
      */
     private static void playEffect(String resourcePath, String threadPrefix) {
         new Thread(() -> {
+            SoundEffectEvent event = new SoundEffectEvent();
+            event.begin();
             try {
                 // Attempt to load via class resource
                 InputStream raw = SoundManager.class.getResourceAsStream(resourcePath);
@@ -74,6 +79,10 @@ public class SoundManager {
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            if (event.shouldCommit()) {
+                event.resource = resourcePath;
+                event.commit();
+            }
         }, threadPrefix + "." + System.currentTimeMillis()).start();
     }
 
@@ -0,0 +1,251 @@
+package core.gui;
+
+import core.model.RuleSet;
+import core.sim.HeadlessRunner;
+import core.stats.GameMetrics;
+import core.stats.LogHistogram;
+import core.stats.MetricsRegistry;
+import core.stats.StrategyProfile;
+import core.stats.StrategyProfiles;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Panel showing the streaming game statistics: everything played in this
+ * session, next to the last headless simulation run from here. Below, the
+ * decision profile of every bot strategy that played this session, in
+ * games or in simulations.
+ */
+public class StatisticsPanel extends JPanel {
+    private static final Color PANEL_BG      = new Color(0xFE, 0xF5, 0xD7); // #FEF5D7
+    private static final Color OUTER_BORDER = new Color(0x14, 0x1A, 0x2B); // #141A2B
+    private static final Color INNER_BORDER = new Color(0xDA, 0x4D, 0x4C); // #DA4D4C
+    private static final Color BUTTON_BG     = PANEL_BG;
+    private static final Color BUTTON_FG     = OUTER_BORDER;
+
+    private final DefaultTableModel tableModel;
+    private final DefaultTableModel profileModel;
+    private final JTextField lineupField;
+    private final JSpinner gamesSpinner;
+    private final JButton runButton;
+    private final JButton exportButton;
+    private final JLabel statusLabel;
+    private GameMetrics lastRun;
+
+    public StatisticsPanel(MainFrame parent) {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(20, 20, 20, 20));
+        setBackground(PANEL_BG);
+        setOpaque(true);
+
+        // Table setup
+        String[] columns = {"Metric", "This session", "Last simulation"};
+        tableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(tableModel);
+        table.setFillsViewportHeight(true);
+        table.setBackground(BUTTON_BG);
+        table.setForeground(BUTTON_FG);
+        table.getTableHeader().setBackground(BUTTON_BG);
+        table.getTableHeader().setForeground(BUTTON_FG);
+        table.setBorder(BorderFactory.createLineBorder(OUTER_BORDER, 2));
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.getViewport().setBackground(PANEL_BG);
+
+        String[] profileColumns = {"Strategy", "Decisions", "p50 (µs)", "p99 (µs)", "Max (µs)",
+                "Bytes/decision", "Timeouts", "Rejected", "Errors"};
+        profileModel = new DefaultTableModel(profileColumns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable profileTable = new JTable(profileModel);
+        profileTable.setFillsViewportHeight(true);
+        profileTable.setBackground(BUTTON_BG);
+        profileTable.setForeground(BUTTON_FG);
+        profileTable.getTableHeader().setBackground(BUTTON_BG);
+        profileTable.getTableHeader().setForeground(BUTTON_FG);
+        profileTable.setBorder(BorderFactory.createLineBorder(OUTER_BORDER, 2));
+        JScrollPane profileScroll = new JScrollPane(profileTable);
+        profileScroll.getViewport().setBackground(PANEL_BG);
+        profileScroll.setPreferredSize(new Dimension(0, 120));
+
+        JPanel center = new JPanel(new BorderLayout(10, 10));
+        center.setBackground(PANEL_BG);
+        center.add(scrollPane, BorderLayout.CENTER);
+        center.add(profileScroll, BorderLayout.SOUTH);
+        add(center, BorderLayout.CENTER);
+
+        // Simulation controls
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.setBackground(PANEL_BG);
+        lineupField = new JTextField("DrawThenPurge,MixedRandom,DrawThenPurge,MixedRandom", 30);
+        lineupField.setToolTipText("One strategy per seat, comma separated");
+        gamesSpinner = new JSpinner(new SpinnerNumberModel(100_000, 1_000, 10_000_000, 10_000));
+        top.add(new JLabel("Line-up:"));
+        top.add(lineupField);
+        top.add(new JLabel("Games:"));
+        top.add(gamesSpinner);
+        statusLabel = new JLabel(" ");
+        top.add(statusLabel);
+        add(top, BorderLayout.NORTH);
+
+        // Buttons panel
+        JButton backButton = new SoundButton("Back to Menu");
+        runButton = new SoundButton("Run Simulation");
+        exportButton = new SoundButton("Export CSV");
+        styleButton(backButton);
+        styleButton(runButton);
+        styleButton(exportButton);
+        backButton.addActionListener(e -> parent.showMenu());
+        runButton.addActionListener(e -> runSimulation());
+        exportButton.addActionListener(e -> exportCsv());
+        exportButton.setEnabled(false);
+
+        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        bottom.setBackground(PANEL_BG);
+        bottom.add(backButton);
+        bottom.add(runButton);
+        bottom.add(exportButton);
+        add(bottom, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Rebuilds the table from the session metrics and the last simulation.
+     */
+    public void refresh() {
+        GameMetrics session = MetricsRegistry.global().snapshot();
+        GameMetrics sim = lastRun != null ? lastRun : new GameMetrics();
+        tableModel.setRowCount(0);
+        row("Games", session.games(), sim.games());
+        histogramRows("Turns per game", session.turnsPerGame, sim.turnsPerGame);
+        histogramRows("Pairs per turn", session.pairsPerTurn, sim.pairsPerTurn);
+        histogramRows("Draws before the Jack moves", session.drawsBeforeJackMoves, sim.drawsBeforeJackMoves);
+        for (double q : GameMetrics.QUANTILES) {
+            row("Game time (µs) " + GameMetrics.quantileName(q),
+                    session.gameMicros.quantile(q), sim.gameMicros.quantile(q));
+        }
+        int seats = Math.max(session.seats.seats(), sim.seats.seats());
+        for (int s = 0; s < seats; s++) {
+            row("Seat " + s + " loss rate",
+                    percent(session.seats.lossRate(s)), percent(sim.seats.lossRate(s)));
+        }
+
+        profileModel.setRowCount(0);
+        for (StrategyProfile p : StrategyProfiles.global().all()) {
+            LogHistogram h = p.latency().snapshot();
+            profileModel.addRow(new Object[]{p.name(), p.decisions(),
+                    format(h.quantile(0.5) / 1e3), format(h.quantile(0.99) / 1e3),
+                    format(p.latency().getMaxMicros()), String.format(Locale.ROOT, "%.0f", p.bytesPerDecision()),
+                    p.timeouts(), p.rejectedMoves(), p.errors()});
+        }
+    }
+
+    private void histogramRows(String name, LogHistogram session, LogHistogram sim) {
+        row(name + " (mean)", session.mean(), sim.mean());
+        for (double q : GameMetrics.QUANTILES) {
+            row(name + " (" + GameMetrics.quantileName(q) + ")", session.quantile(q), sim.quantile(q));
+        }
+        row(name + " (max)", session.max(), sim.max());
+    }
+
+    private void row(String metric, Object session, Object sim) {
+        tableModel.addRow(new Object[]{metric, format(session), format(sim)});
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double d) {
+            return d.isNaN() ? "-" : String.format(Locale.ROOT, "%.2f", d);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String percent(double rate) {
+        return String.format(Locale.ROOT, "%.2f %%", rate * 100);
+    }
+
+    /**
+     * Plays the configured line-up in the background and shows the result
+     * in the "Last simulation" column. Seats are guarded without a time
+     * limit, so their decisions show up in the strategy profile.
+     */
+    private void runSimulation() {
+        List<String> lineup = List.of(lineupField.getText().trim().split("\\s*,\\s*"));
+        long games = ((Number) gamesSpinner.getValue()).longValue();
+        int threads = Runtime.getRuntime().availableProcessors();
+        runButton.setEnabled(false);
+        statusLabel.setText("Running " + games + " games...");
+        new SwingWorker<GameMetrics, Void>() {
+            private long millis;
+
+            @Override
+            protected GameMetrics doInBackground() throws Exception {
+                long start = System.nanoTime();
+                GameMetrics m = HeadlessRunner.run(lineup, RuleSet.CLASSIC, games, threads,
+                        Duration.ZERO, StrategyProfiles.global());
+                millis = (System.nanoTime() - start) / 1_000_000;
+                return m;
+            }
+
+            @Override
+            protected void done() {
+                runButton.setEnabled(true);
+                try {
+                    lastRun = get();
+                    exportButton.setEnabled(true);
+                    statusLabel.setText(String.format("%d games in %.1f s", lastRun.games(), millis / 1000.0));
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    statusLabel.setText(cause.getMessage());
+                }
+                refresh();
+            }
+        }.execute();
+    }
+
+    /**
+     * Saves the last simulation's metrics to a CSV file chosen by the user.
+     */
+    private void exportCsv() {
+        if (lastRun == null) return;
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("metrics.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+        try {
+            HeadlessRunner.exportCsv(lastRun, file.toPath());
+            statusLabel.setText("Exported to " + file.getName());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Could not write " + file + ": " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Applies the project color scheme and border to a button.
+     */
+    private void styleButton(JButton button) {
+        button.setBackground(BUTTON_BG);
+        button.setForeground(BUTTON_FG);
+        button.setOpaque(true);
+        button.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(OUTER_BORDER, 2),
+                BorderFactory.createLineBorder(INNER_BORDER, 2)
+        ));
+    }
+}
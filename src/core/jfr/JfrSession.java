@@ -0,0 +1,87 @@
+package core.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Starts and stops the application's own flight recording: the JDK
+ * "profile" settings (GC, threads, allocation, ...) plus every event of
+ * this package. The per-turn events skip stack traces to keep their cost
+ * down; a long simulation still produces tens of bytes per turn.
+ *
+ * Only one recording runs at a time. Stopping it writes the file, which
+ * opens in JDK Mission Control or {@code jfr print}.
+ */
+public final class JfrSession {
+    private static final Path DIR = Paths.get("recordings");
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            TurnEvent.class, StrategyDecisionEvent.class, ReplayWriteEvent.class,
+            ScoreboardSaveEvent.class, RefreshEvent.class, SoundEffectEvent.class);
+
+    private static Recording recording;
+    private static Path destination;
+
+    private JfrSession() {}
+
+    /** @return a fresh file name under {@code recordings/} */
+    public static Path defaultDestination() {
+        String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        return DIR.resolve("pouilleux_" + ts + ".jfr");
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Starts recording to the given file.
+     *
+     * @throws IllegalStateException if a recording is already running
+     */
+    public static synchronized void start(Path file) throws IOException {
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Recording r;
+        try {
+            r = new Recording(Configuration.getConfiguration("profile"));
+        } catch (ParseException e) {
+            throw new IOException("Bad JFR configuration: " + e.getMessage(), e);
+        }
+        r.setName("Pouilleux");
+        for (Class<? extends jdk.jfr.Event> type : EVENTS) {
+            r.enable(type);
+        }
+        r.setDestination(file);
+        r.setToDisk(true);
+        r.start();
+        recording = r;
+        destination = file;
+    }
+
+    /**
+     * Stops the running recording and writes it out.
+     *
+     * @return the file written, or null if nothing was recording
+     */
+    public static synchronized Path stop() {
+        if (recording == null) return null;
+        Path file = destination;
+        recording.stop();
+        recording.close();
+        recording = null;
+        destination = null;
+        return file;
+    }
+}
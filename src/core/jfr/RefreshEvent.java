@@ -0,0 +1,21 @@
+package core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One rebuild of the game table's components.
+ */
+@Name("pouilleux.Refresh")
+@Label("Table Refresh")
+@StackTrace(false)
+@Category({"Pouilleux", "GUI"})
+public class RefreshEvent extends jdk.jfr.Event {
+    @Label("Player vs Player")
+    public boolean pvp;
+
+    @Label("Table Cards")
+    public int tableCards;
+}
@@ -0,0 +1,24 @@
+package core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One game state appended to a replay file by the replay writer thread.
+ */
+@Name("pouilleux.ReplayWrite")
+@Label("Replay Write")
+@StackTrace(false)
+@Category({"Pouilleux", "Persistence"})
+public class ReplayWriteEvent extends jdk.jfr.Event {
+    @Label("File")
+    public String file;
+
+    @Label("Step")
+    public int step;
+
+    @Label("Flushed")
+    public boolean flushed;
+}
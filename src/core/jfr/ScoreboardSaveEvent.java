@@ -0,0 +1,19 @@
+package core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The scoreboard being written to disk.
+ */
+@Name("pouilleux.ScoreboardSave")
+@Label("Scoreboard Save")
+@Category({"Pouilleux", "Persistence"})
+public class ScoreboardSaveEvent extends jdk.jfr.Event {
+    @Label("Players")
+    public int players;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
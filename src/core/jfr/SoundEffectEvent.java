@@ -0,0 +1,16 @@
+package core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading, opening and starting one sound effect clip.
+ */
+@Name("pouilleux.SoundEffect")
+@Label("Sound Effect")
+@Category({"Pouilleux", "GUI"})
+public class SoundEffectEvent extends jdk.jfr.Event {
+    @Label("Resource")
+    public String resource;
+}
@@ -0,0 +1,24 @@
+package core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to {@link core.model.MoveStrategy#makeMove}.
+ */
+@Name("pouilleux.StrategyDecision")
+@Label("Strategy Decision")
+@StackTrace(false)
+@Category({"Pouilleux", "Engine"})
+public class StrategyDecisionEvent extends jdk.jfr.Event {
+    @Label("Strategy")
+    public Class<?> strategy;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Pairs Purged")
+    public int pairsPurged;
+}
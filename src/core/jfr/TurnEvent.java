@@ -0,0 +1,37 @@
+package core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase-2 turn of a {@link core.model.Game}, from the game-over check
+ * to the last listener. Human turns include the player's think time.
+ */
+@Name("pouilleux.Turn")
+@Label("Game Turn")
+@StackTrace(false)
+@Category({"Pouilleux", "Engine"})
+@Description("A player draws from their neighbour and purges")
+public class TurnEvent extends jdk.jfr.Event {
+    @Label("Player")
+    public String player;
+
+    @Label("Seat")
+    public int seat;
+
+    @Label("Neighbour Seat")
+    public int neighbor;
+
+    @Label("Cards Moved")
+    @Description("Cards taken from the neighbour")
+    public int cardsMoved;
+
+    @Label("Pairs Purged")
+    public int pairsPurged;
+
+    @Label("Human")
+    public boolean human;
+}
@@ -13,6 +13,25 @@ import java.util.Objects;
  */
 public record Card(Rank rank, Suit suit, String imagePath) {
 
+    /** Number of distinct cards in a full 52-card deck, i.e. the range of {@link #id()}. */
+    public static final int DECK_SIZE = 52;
+
+    private static final int RANKS = Rank.values().length;
+    private static final Card[] BY_ID = new Card[DECK_SIZE];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                String path = String.format(
+                        "/images/cards/%s_%s.png",
+                        rank.name().toLowerCase(),
+                        suit.name().toLowerCase()
+                );
+                BY_ID[suit.ordinal() * RANKS + rank.ordinal()] = new Card(rank, suit, path);
+            }
+        }
+    }
+
     public Card {
         Objects.requireNonNull(rank,      "Card rank must not be null");
         Objects.requireNonNull(suit,      "Card suit must not be null");
@@ -34,6 +53,34 @@ public record Card(Rank rank, Suit suit, String imagePath) {
         return thisRed == otherRed;
     }
 
+    /**
+     * Returns the compact identifier of this card, {@code suit * 13 + rank},
+     * in the range [0, {@link #DECK_SIZE}). Used by the binary network protocol
+     * and by anything that stores cards as bit sets.
+     */
+    public int id() {
+        return suit.ordinal() * RANKS + rank.ordinal();
+    }
+
+    /**
+     * Returns the shared card instance for the given rank and suit.
+     */
+    public static Card of(Rank rank, Suit suit) {
+        return BY_ID[suit.ordinal() * RANKS + rank.ordinal()];
+    }
+
+    /**
+     * Returns the shared card instance for an identifier produced by {@link #id()}.
+     *
+     * @throws IllegalArgumentException if id is out of range
+     */
+    public static Card fromId(int id) {
+        if (id < 0 || id >= DECK_SIZE) {
+            throw new IllegalArgumentException("Card id out of range: " + id);
+        }
+        return BY_ID[id];
+    }
+
     /**
      * Returns a URL string to the card image resource on the classpath.
      *
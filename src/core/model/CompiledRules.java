@@ -0,0 +1,129 @@
+package core.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link RuleSet} flattened into per-card lookup tables indexed by
+ * {@link Card#id()}: the pair class of each card, the bit set of cards it
+ * pairs with, and the bit set of losing cards. Purging, pair checks and
+ * the game-over test only ever index these arrays, so every variant costs
+ * the same as the classic rules.
+ *
+ * Immutable and shared; obtain instances with {@link RuleSet#compile()}.
+ */
+public final class CompiledRules {
+    /** The default Pouilleux rules. */
+    public static final CompiledRules CLASSIC = new CompiledRules(RuleSet.CLASSIC);
+
+    private final RuleSet rules;
+    private final List<Card> deck;
+    private final int[] pairClass = new int[Card.DECK_SIZE];
+    private final long[] partners = new long[Card.DECK_SIZE];
+    private final int classCount;
+    private final long losingMask;
+
+    CompiledRules(RuleSet rules) {
+        this.rules = rules;
+
+        // full deck, minus one copy of the removed card
+        Card[] cards = new Card[rules.decks() * Card.DECK_SIZE - (rules.removed() != null ? 1 : 0)];
+        int[] copies = new int[Card.DECK_SIZE];
+        int n = 0;
+        boolean removedOnce = false;
+        for (int d = 0; d < rules.decks(); d++) {
+            for (Suit suit : Suit.values()) {
+                for (Rank rank : Rank.values()) {
+                    Card c = Card.of(rank, suit);
+                    if (!removedOnce && c.equals(rules.removed())) {
+                        removedOnce = true;
+                        continue;
+                    }
+                    cards[n++] = c;
+                    copies[c.id()]++;
+                }
+            }
+        }
+        this.deck = Collections.unmodifiableList(Arrays.asList(cards));
+
+        int classes = 0;
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            pairClass[id] = rules.pairRule().classOf(Card.fromId(id));
+            classes = Math.max(classes, pairClass[id] + 1);
+        }
+        this.classCount = classes;
+
+        int[] perClass = new int[classes];
+        for (int id = 0; id < Card.DECK_SIZE; id++) perClass[pairClass[id]] += copies[id];
+        for (int a = 0; a < Card.DECK_SIZE; a++) {
+            for (int b = 0; b < Card.DECK_SIZE; b++) {
+                boolean sameCard = a == b;
+                if (pairClass[a] == pairClass[b] && copies[a] > 0 && copies[b] > (sameCard ? 1 : 0)) {
+                    partners[a] |= 1L << b;
+                }
+            }
+        }
+
+        // exactly one pair class may be left with an odd card: the losing one
+        int losingClass = pairClass[rules.losingCard().id()];
+        if (copies[rules.losingCard().id()] == 0) {
+            throw new IllegalArgumentException("The losing card " + rules.losingCard() + " is not in the deck");
+        }
+        long losing = 0;
+        for (int c = 0; c < classes; c++) {
+            boolean odd = (perClass[c] & 1) == 1;
+            if (odd != (c == losingClass)) {
+                throw new IllegalArgumentException(rules.name() + ": the losing card must be the only card"
+                        + " left without a partner");
+            }
+        }
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            if (pairClass[id] == losingClass && copies[id] > 0) losing |= 1L << id;
+        }
+        this.losingMask = losing;
+    }
+
+    public RuleSet rules() {
+        return rules;
+    }
+
+    /** @return true for the default Pouilleux rules, the only ones the endgame solver covers */
+    public boolean isClassic() {
+        return rules.equals(RuleSet.CLASSIC);
+    }
+
+    /** @return every card dealt under these rules, in a fixed order */
+    public List<Card> deck() {
+        return deck;
+    }
+
+    /** @return the number of distinct pair classes; classes are in [0, classCount) */
+    public int classCount() {
+        return classCount;
+    }
+
+    /** @return the pair class of a card; two cards pair exactly when their classes match */
+    public int pairClass(Card card) {
+        return pairClass[card.id()];
+    }
+
+    /** @return whether the two cards form a pair */
+    public boolean pairs(Card a, Card b) {
+        return (partners[a.id()] >>> b.id() & 1) != 0;
+    }
+
+    /** @return bit set (by card id) of every card that can pair with this one */
+    public long partners(Card card) {
+        return partners[card.id()];
+    }
+
+    /** @return whether holding this card alone at the end loses the game */
+    public boolean isLosing(Card card) {
+        return (losingMask >>> card.id() & 1) != 0;
+    }
+
+    public Card losingCard() {
+        return rules.losingCard();
+    }
+}
@@ -3,10 +3,12 @@ package core.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Represents a deck of playing cards (52 cards minus the Jack of Clubs),
- * each with its associated image path.
+ * Represents a deck of playing cards (52 cards minus the Jack of Clubs
+ * under the default rules), each with its associated image path.
  */
 public class Deck {
     private final List<Card> cards = new ArrayList<>();
@@ -17,26 +19,30 @@ public class Deck {
      * using the convention "/images/cards/{rank}_{suit}.png".
      */
     public Deck() {
-        for (Suit suit : Suit.values()) {
-            for (Rank rank : Rank.values()) {
-                if (rank == Rank.JACK && suit == Suit.CLUBS) {
-                    continue; // omit the Jack of Clubs (“pouilleux”)
-                }
-                String path = String.format(
-                        "/images/cards/%s_%s.png",
-                        rank.name().toLowerCase(),
-                        suit.name().toLowerCase()
-                );
-                cards.add(new Card(rank, suit, path));
-            }
-        }
+        this(CompiledRules.CLASSIC);
+    }
+
+    /**
+     * Constructs the deck of a rule variant: every deck it uses, minus the
+     * removed card.
+     */
+    public Deck(CompiledRules rules) {
+        cards.addAll(rules.deck());
     }
 
     /**
      * Randomly shuffles the deck.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        Collections.shuffle(cards, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Shuffles the deck with the given source of randomness, e.g. a seeded
+     * {@link Random} to reproduce a deal.
+     */
+    public void shuffle(Random rng) {
+        Collections.shuffle(cards, rng);
     }
 
     /**
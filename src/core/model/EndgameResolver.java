@@ -0,0 +1,18 @@
+package core.model;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Decides the outcome of a game early, once its position is one whose loss
+ * probabilities are already known (see {@code core.analysis.EndgameTablebase}).
+ */
+public interface EndgameResolver {
+    /**
+     * @param players   the seated players, in table order
+     * @param nextMover index of the player about to move
+     * @param rng       source of randomness for sampling the outcome
+     * @return the index of the player who loses, or -1 if this position is not covered
+     */
+    int resolve(List<Player> players, int nextMover, Random rng);
+}
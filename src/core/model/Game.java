@@ -3,13 +3,21 @@ package core.model;
 import core.gui.*;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
 
+import core.jfr.StrategyDecisionEvent;
+import core.jfr.TurnEvent;
 import core.persistence.ReplayLogger;
+import core.stats.Instrumentation;
 
 /**
  * Core engine with built-in replay logging of purges.
  * Human players do NOT auto-purge in Phase 1.
+ *
+ * Hands are immutable {@link Hand}s and the table a persistent stack of
+ * purges, so {@link #fork()} copies no cards: a fork shares the state as
+ * it stands and each side diverges on its own from there.
  */
 public class Game {
     private final List<Player> players;
@@ -18,7 +26,15 @@ public class Game {
     private final ReplayLogger replayLogger;
     private int stepCounter;
     private int currentIndex;
-    private final List<Card> tablePairs = new ArrayList<>();
+    private Pile table;                       // null while the table is empty
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
+    private boolean overNotified;
+    private EndgameResolver endgameResolver;
+    private final CompiledRules rules;
+    private final GameRandom random;
+
+    /** One purge on top of the ones below it; never changed once built. */
+    private record Pile(Pile below, List<Card> cards, int size) {}
 
     public Game(List<Player> players) {
         this(players, /* inMemory=*/true, /* fileLogger=*/null);
@@ -27,15 +43,49 @@ public class Game {
     public Game(List<Player> players,
                 boolean inMemory,
                 ReplayLogger fileLogger) {
+        this(players, inMemory, fileLogger, RuleSet.CLASSIC);
+    }
+
+    /**
+     * @param rules the rule variant; hands must have been dealt from a
+     *              {@link Deck} built for the same rules
+     */
+    public Game(List<Player> players,
+                boolean inMemory,
+                ReplayLogger fileLogger,
+                RuleSet rules) {
+        this(players, inMemory, fileLogger, rules, null);
+    }
+
+    /**
+     * A game whose every random choice (draws, strategy choices, the first
+     * player) comes from {@code random}. Dealt from a deck shuffled with the
+     * same generator, the game then follows entirely from its seed and the
+     * human players' actions.
+     *
+     * @param random the game's random source, or null for the thread's
+     */
+    public Game(List<Player> players,
+                boolean inMemory,
+                ReplayLogger fileLogger,
+                RuleSet rules,
+                GameRandom random) {
         if (players == null || players.size() < 2) {
             throw new IllegalArgumentException("Need at least two players");
         }
+        this.rules        = rules.compile();
+        for (Player p : players) p.setRules(this.rules);
+        this.random       = random;
+        if (random != null) {
+            for (Player p : players) p.setRandom(random);
+        }
         this.players      = List.copyOf(players);
         this.recordHistory= inMemory;
         this.history      = inMemory ? new ArrayList<>() : Collections.emptyList();
         this.replayLogger = fileLogger;
         this.stepCounter  = 0;
         this.currentIndex = -1;                   // safe until start()
+        if (fileLogger != null) fileLogger.logPlayers(this.players, rules);
     }
 
     /** Phase 1: bots auto-purge, humans wait for your button. */
@@ -49,16 +99,19 @@ public class Game {
                     areBot = true;
                 }
                 List<Card> removed = p.purgePairs();
-                tablePairs.addAll(removed);
+                addToTable(removed);
                 recordState(p.getName() + " initial purge: " + removed);
                 i++;
         }
         if(!areBot) {
-            currentIndex = ThreadLocalRandom.current().nextInt(players.size());
+            currentIndex = random().nextInt(players.size());
         }
         else {
             currentIndex = 1;
         }
+        for (GameListener l : listeners) {
+            l.onStart(this);
+        }
     }
 
     /**
@@ -69,8 +122,17 @@ public class Game {
      *   – log how many, and stop when game over
      */
     public boolean nextTurn() {
+        long turnStart = Instrumentation.start();
+        TurnEvent turnEvent = new TurnEvent();
+        turnEvent.begin();
         if (isGameOver()) {
             recordState("Game over");
+            notifyGameOver();
+            return false;
+        }
+
+        if (endgameResolver != null && tryResolveEndgame()) {
+            notifyGameOver();
             return false;
         }
 
@@ -82,52 +144,64 @@ public class Game {
         int neighborIdx = findNextActive(currentIndex);
         if (neighborIdx == currentIndex) {
             recordState("Game over");
+            notifyGameOver();
             return false;
         }
         Player left = players.get(neighborIdx);
 
-        // let them draw & purge
+        // let them draw & purge; a human's think time is not engine latency
+        boolean bot = !(current.getStrategy() instanceof HumanStrategy);
+        long moveStart = bot ? Instrumentation.start() : 0;
+        int neighborCards = turnEvent.isEnabled() ? left.getHandSize() : 0;
+        StrategyDecisionEvent decision = new StrategyDecisionEvent();
+        decision.begin();
         List<Card> removed = current.takeTurn(left);
-        tablePairs.addAll(removed);
+        if (decision.shouldCommit()) {
+            decision.strategy = GuardedStrategy.unwrap(current.getStrategy()).getClass();
+            decision.player = current.getName();
+            decision.pairsPurged = removed.size() / 2;
+            decision.commit();
+        }
+        Instrumentation.stop(Instrumentation.STRATEGY, moveStart);
+        addToTable(removed);
         recordState(current.getName() + " turn purge: " + removed);
+        for (GameListener l : listeners) {
+            l.onTurn(this, currentIndex, neighborIdx, removed);
+        }
+        if (bot) Instrumentation.stop(Instrumentation.TURN, turnStart);
+        if (turnEvent.shouldCommit()) {
+            turnEvent.player = current.getName();
+            turnEvent.seat = currentIndex;
+            turnEvent.neighbor = neighborIdx;
+            turnEvent.cardsMoved = neighborCards - left.getHandSize();
+            turnEvent.pairsPurged = removed.size() / 2;
+            turnEvent.human = !bot;
+            turnEvent.commit();
+        }
         return true;
     }
 
     public boolean isGameOver() {
         // count how many players still hold cards
-        List<Player> inPlay = players.stream()
-                .filter(p -> !p.hasNoCards())
-                .toList();
-        int survivors = inPlay.size();
+        int survivors = 0, totalCards = 0;
+        boolean loserAlone = false;
+        for (Player p : players) {
+            int size = p.getHandSize();
+            if (size == 0) continue;
+            survivors++;
+            totalCards += size;
+            if (size == 1 && holdsOnlyLosingCard(p)) loserAlone = true;
+        }
         // if only one (or zero) left => game over
         if (survivors <= 1) {
             return true;
         }
-        // if exactly two left, and only ≤3 cards remain, we trigger the
-        // “Pouilleux” rule (last‐card Jack♦ rule)
-        if (survivors == 2) {
-            int totalCards = inPlay.stream()
-                    .mapToInt(Player::getHandSize)
-                    .sum();
-            if (totalCards <= 3) {
-                // game ends when the unlucky player is down to the single
-                // Jack of Spades
-                return inPlay.stream().anyMatch(p -> {
-                    if (p.getHandSize() == 1) {
-                        Card only = p.getHand().get(0);
-                        return only.rank() == Rank.JACK
-                                && only.suit() == Suit.SPADES;
-                    }
-                    return false;
-                });
-            }
-        }
-        // otherwise not over yet
-        return false;
+        // if exactly two left, and only ≤3 cards remain, the game ends when
+        // the unlucky player is down to a single losing card (the Jack of
+        // Spades under the default rules)
+        return survivors == 2 && totalCards <= 3 && loserAlone;
     }
 
-
-
     public Optional<Player> getLoser() {
         // first check the 2‐player Pouilleux case
         List<Player> inPlay = players.stream()
@@ -138,14 +212,9 @@ public class Game {
                     .mapToInt(Player::getHandSize)
                     .sum();
             if (totalCards <= 3) {
-                // loser is the one stuck with only the Jack of Spades
+                // loser is the one stuck with only the losing card
                 return inPlay.stream()
-                        .filter(p -> p.getHandSize() == 1)
-                        .filter(p -> {
-                            Card only = p.getHand().get(0);
-                            return only.rank() == Rank.JACK
-                                    && only.suit() == Suit.SPADES;
-                        })
+                        .filter(this::holdsOnlyLosingCard)
                         .findFirst();
             }
         }
@@ -157,13 +226,126 @@ public class Game {
                 .findFirst();
     }
 
+    private boolean holdsOnlyLosingCard(Player p) {
+        return p.getHandSize() == 1 && rules.isLosing(p.getHand().get(0));
+    }
+
 
     public int getCurrentIndex() {
         return currentIndex;
     }
 
+    /**
+     * @return the index of the player who will move on the next call to
+     *         {@link #nextTurn()}, or -1 if the game is over
+     */
+    public int getNextIndex() {
+        if (isGameOver()) {
+            return -1;
+        }
+        return findNextActive(currentIndex);
+    }
+
+    /** @return the seated players, in table order */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Lets the game end as soon as the resolver covers the position, instead
+     * of playing out an endgame whose odds are already known. Only used while
+     * every player still holding cards purges every turn.
+     */
+    public void setEndgameResolver(EndgameResolver resolver) {
+        if (resolver != null && !rules.isClassic()) {
+            throw new IllegalArgumentException("Endgame resolution only covers the classic rules");
+        }
+        this.endgameResolver = resolver;
+    }
+
+    /** Registers a listener notified after every turn and at game end. */
+    public void addListener(GameListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener must not be null"));
+    }
+
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** @return the rule variant this game is played under */
+    public CompiledRules getRules() {
+        return rules;
+    }
+
+    /** @return the game's random source, or null if it uses the thread's */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /** @return the number of steps recorded so far, "Game over" included */
+    public int getStepCount() {
+        return stepCounter;
+    }
+
     public List<Card> getAllTablePairs() {
-        return List.copyOf(tablePairs);
+        if (table == null) return List.of();
+        Card[] all = new Card[table.size()];
+        for (Pile p = table; p != null; p = p.below()) {
+            int at = p.size() - p.cards().size();
+            for (Card c : p.cards()) all[at++] = c;
+        }
+        return Collections.unmodifiableList(Arrays.asList(all));
+    }
+
+    /**
+     * Copies the game as it stands, in O(players): hands and table are
+     * shared, not copied. The fork has its own copy of the random stream
+     * (so it replays the same draws until the two diverge), no listeners,
+     * no history and no replay log.
+     */
+    public Game fork() {
+        List<Player> copies = new ArrayList<>(players.size());
+        for (Player p : players) copies.add(p.fork());
+        return new Game(this, copies);
+    }
+
+    private Game(Game from, List<Player> copies) {
+        this.players         = List.copyOf(copies);
+        this.recordHistory   = false;
+        this.history         = Collections.emptyList();
+        this.replayLogger    = null;
+        this.rules           = from.rules;
+        this.random          = from.random == null ? null : from.random.copy();
+        if (random != null) {
+            for (Player p : players) p.setRandom(random);
+        }
+        this.stepCounter     = from.stepCounter;
+        this.currentIndex    = from.currentIndex;
+        this.table           = from.table;
+        this.overNotified    = from.overNotified;
+        this.endgameResolver = from.endgameResolver;
+    }
+
+    /**
+     * Rebuilds a saved game in progress, e.g. by
+     * {@link core.persistence.SavedGame}. The players hold their saved
+     * hands; {@link #start()} must not be called again. Like a fork, the
+     * resumed game keeps no history and writes no replay log.
+     *
+     * @param table        cards on the table, oldest first
+     * @param currentIndex the last player to move, see {@link #getCurrentIndex()}
+     * @param stepCount    steps recorded so far, see {@link #getStepCount()}
+     */
+    public static Game resume(List<Player> players, RuleSet rules, GameRandom random,
+                              List<Card> table, int currentIndex, int stepCount) {
+        if (currentIndex < 0 || currentIndex >= players.size()) {
+            throw new IllegalArgumentException("No such seat: " + currentIndex);
+        }
+        Game game = new Game(players, false, null, rules, random);
+        game.addToTable(table);
+        game.currentIndex = currentIndex;
+        game.stepCounter  = stepCount;
+        return game;
     }
 
     public List<GameState> getHistory() {
@@ -172,6 +354,11 @@ public class Game {
 
     /** Snapshot and optional file log */
     private void recordState(String desc) {
+        if (!recordHistory && replayLogger == null) {
+            // nobody will read the snapshot, skip copying every hand
+            stepCounter++;
+            return;
+        }
         GameState st = new GameState(
                 stepCounter++,
                 desc,
@@ -183,6 +370,49 @@ public class Game {
         if (replayLogger != null) replayLogger.logState(st);
     }
 
+    /**
+     * Asks the resolver for a loser; if it answers, every pair goes to the
+     * table and the loser is left holding the Jack of Spades alone.
+     */
+    private boolean tryResolveEndgame() {
+        for (Player p : players) {
+            if (!p.hasNoCards() && !p.getStrategy().purgesEveryTurn()) return false;
+        }
+        int loser = endgameResolver.resolve(players, findNextActive(currentIndex), random());
+        if (loser < 0) return false;
+
+        Card jack = null;
+        List<Card> cleared = new ArrayList<>();
+        for (Player p : players) {
+            for (Card c : p.hand()) {
+                if (c.equals(rules.losingCard())) jack = c;
+                else cleared.add(c);
+            }
+            p.setHand(Hand.EMPTY);
+        }
+        addToTable(cleared);
+        players.get(loser).setHand(jack == null ? List.of() : List.of(jack));
+        recordState("Endgame resolved: " + players.get(loser).getName() + " keeps the Jack of Spades");
+        return true;
+    }
+
+    private void addToTable(List<Card> cards) {
+        if (cards.isEmpty()) return;
+        table = new Pile(table, List.copyOf(cards), (table == null ? 0 : table.size()) + cards.size());
+    }
+
+    private Random random() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
+    private void notifyGameOver() {
+        if (overNotified) return;
+        overNotified = true;
+        for (GameListener l : listeners) {
+            l.onGameOver(this);
+        }
+    }
+
     /** wraparound to next non‐empty hand */
     private int findNextActive(int start) {
         int n = players.size();
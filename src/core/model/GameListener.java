@@ -0,0 +1,25 @@
+package core.model;
+
+import java.util.List;
+
+/**
+ * Receives engine notifications from a {@link Game}.
+ * Callbacks run on the thread driving the game, so they must stay cheap.
+ */
+public interface GameListener {
+    /** Called at the end of {@link Game#start()}, once the initial purge is done. */
+    default void onStart(Game game) {}
+
+    /**
+     * Called after a player drew from their neighbour and purged.
+     *
+     * @param game     the game that advanced
+     * @param mover    index of the player who took the turn
+     * @param neighbor index of the player they drew from
+     * @param purged   the cards purged during the turn
+     */
+    default void onTurn(Game game, int mover, int neighbor, List<Card> purged) {}
+
+    /** Called once, the first time the game is found to be over. */
+    default void onGameOver(Game game) {}
+}
@@ -0,0 +1,75 @@
+package core.model;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The single source of randomness of a game: the shuffle, every draw and
+ * every random strategy choice. Seeding it makes a whole game reproducible
+ * from its seed and the human players' actions.
+ *
+ * SplitMix64 underneath: one add and a few multiplies per value, with no
+ * atomic update, so it is not thread-safe. A game only ever uses it from
+ * the thread driving it.
+ */
+public final class GameRandom extends Random {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // no initializers: Random's constructor already set these through setSeed
+    private long seed;
+    private long state;
+
+    /** A generator with a fresh random seed. */
+    public GameRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Resumes a generator at a saved position.
+     *
+     * @param seed  the seed it started from
+     * @param state its {@link #state()} when saved
+     */
+    public GameRandom(long seed, long state) {
+        super(seed);
+        this.state = state;
+    }
+
+    /** @return an independent generator that continues from the same position */
+    public GameRandom copy() {
+        return new GameRandom(seed, state);
+    }
+
+    /** @return the current position in the stream, for {@link #GameRandom(long, long)} */
+    public long state() {
+        return state;
+    }
+
+    /** @return the seed this generator started from */
+    public long seed() {
+        return seed;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
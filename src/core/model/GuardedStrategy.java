@@ -0,0 +1,228 @@
+package core.model;
+
+import core.stats.StrategyProfile;
+import core.stats.StrategyProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * Runs another strategy's decisions under guard, so an expensive or
+ * buggy bot can sit at the same table as the built-ins.
+ *
+ * The strategy decides on forks of the two players; its move is checked
+ * (no card created or lost, at most one card taken from the neighbour,
+ * purged cards pair up) and only then copied onto the real players. With a time
+ * budget the decision runs on a watchdog thread and is abandoned when the
+ * budget runs out. Whenever the decision times out, throws or is illegal,
+ * the turn is played by {@link DrawThenPurgeStrategy} instead.
+ *
+ * Every decision's latency and allocation goes to a {@link StrategyProfile}.
+ * As long as nothing times out, a guarded seat draws exactly the random
+ * numbers the bare strategy would, so seeded games and input replays
+ * re-simulate identically.
+ */
+public final class GuardedStrategy implements MoveStrategy {
+    private static final ExecutorService WATCHDOG = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "Strategy-Watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();
+
+    private final MoveStrategy delegate;
+    private final long budgetNanos;
+    private final StrategyProfile profile;
+    private final MoveStrategy fallback = new DrawThenPurgeStrategy();
+
+    /**
+     * @param budget  time allowed per decision; zero runs decisions on the
+     *                game thread with no limit, still checked and profiled
+     * @param profile where decision latencies and failures are counted
+     */
+    public GuardedStrategy(MoveStrategy delegate, Duration budget, StrategyProfile profile) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        if (delegate instanceof GuardedStrategy) {
+            throw new IllegalArgumentException("Strategy is already guarded");
+        }
+        if (budget.isNegative()) {
+            throw new IllegalArgumentException("Budget must not be negative: " + budget);
+        }
+        this.budgetNanos = budget.toNanos();
+        this.profile = Objects.requireNonNull(profile, "profile must not be null");
+    }
+
+    /** Guards a strategy, profiling it under its {@link #nameOf name}. */
+    public static GuardedStrategy guard(MoveStrategy delegate, Duration budget, StrategyProfiles profiles) {
+        return new GuardedStrategy(delegate, budget, profiles.profile(nameOf(delegate)));
+    }
+
+    /** @return the strategy itself, looking through a guard */
+    public static MoveStrategy unwrap(MoveStrategy strategy) {
+        return strategy instanceof GuardedStrategy g ? g.delegate : strategy;
+    }
+
+    /** @return the strategy's class name without the "Strategy" suffix, looking through a guard */
+    public static String nameOf(MoveStrategy strategy) {
+        return unwrap(strategy).getClass().getSimpleName().replaceFirst("Strategy$", "");
+    }
+
+    public MoveStrategy delegate() {
+        return delegate;
+    }
+
+    public Duration budget() {
+        return Duration.ofNanos(budgetNanos);
+    }
+
+    @Override
+    public boolean purgesEveryTurn() {
+        return delegate.purgesEveryTurn();
+    }
+
+    @Override
+    public List<Card> makeMove(Player self, Player leftNeighbor) {
+        Player me = self.fork();
+        Player them = leftNeighbor.fork();
+        List<Card> removed;
+        try {
+            removed = budgetNanos > 0 ? decideWithin(me, them) : decide(me, them);
+        } catch (TimeoutException e) {
+            profile.timeout();
+            return fallback.makeMove(self, leftNeighbor);
+        } catch (RuntimeException e) {
+            profile.error();
+            return fallback.makeMove(self, leftNeighbor);
+        }
+        if (removed == null || !legal(self, leftNeighbor, me, them, removed)) {
+            profile.rejected();
+            return fallback.makeMove(self, leftNeighbor);
+        }
+        self.setHand(me.hand());
+        leftNeighbor.setHand(them.hand());
+        return removed;
+    }
+
+    private List<Card> decide(Player me, Player them) {
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return delegate.makeMove(me, them);
+        } finally {
+            profile.decision(System.nanoTime() - start, allocatedBytes() - bytes);
+        }
+    }
+
+    /**
+     * Decides on a watchdog thread. The forks draw through a lease on the
+     * game's random source, revoked on timeout so a late decision can never
+     * touch the game's stream again. An unseeded game has no source to
+     * lease, and the game thread's {@code ThreadLocalRandom} must not be
+     * used from another thread, so the decision gets a freshly seeded
+     * generator of its own.
+     */
+    private List<Card> decideWithin(Player me, Player them) throws TimeoutException {
+        Random source = me.seededRandom();
+        Lease lease = new Lease(source != null ? source : new GameRandom());
+        me.setRandom(lease);
+        them.setRandom(lease);
+        Future<List<Card>> decision = WATCHDOG.submit(() -> decide(me, them));
+        try {
+            return decision.get(budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            // the game is being abandoned; give up on this decision as on a timeout
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted");
+        } finally {
+            if (!decision.isDone()) {
+                decision.cancel(true);
+                lease.revoke();
+            }
+        }
+    }
+
+    /**
+     * @return true if the forks hold exactly the real players' cards minus
+     *         the purged ones, the neighbour lost at most one card and the
+     *         purged cards form pairs
+     */
+    private static boolean legal(Player self, Player left, Player me, Player them, List<Card> removed) {
+        if (them.getHandSize() < left.getHandSize() - 1) return false;
+        CompiledRules rules = self.getRules();
+        int[] total = new int[Card.DECK_SIZE];
+        int[] theirs = new int[Card.DECK_SIZE];
+        for (Card c : self.hand()) total[c.id()]++;
+        for (Card c : left.hand()) {
+            total[c.id()]++;
+            theirs[c.id()]++;
+        }
+        for (Card c : them.hand()) {
+            if (--theirs[c.id()] < 0) return false;
+            total[c.id()]--;
+        }
+        for (Card c : me.hand()) total[c.id()]--;
+        int[] parity = new int[rules.classCount()];
+        for (Card c : removed) {
+            total[c.id()]--;
+            parity[rules.pairClass(c)] ^= 1;
+        }
+        for (int n : total) {
+            if (n != 0) return false;
+        }
+        for (int p : parity) {
+            if (p != 0) return false;
+        }
+        return true;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean t
+                && t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled()) {
+            return t;
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS == null ? 0 : ALLOCATIONS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Hands out the numbers of the game's source one at a time until
+     * revoked. Draws exactly what {@link GameRandom} itself would for the
+     * same calls.
+     */
+    private static final class Lease extends Random {
+        private final Random source;
+        private boolean revoked;
+
+        Lease(Random source) {
+            super(0);
+            this.source = source;
+        }
+
+        synchronized void revoke() {
+            revoked = true;
+        }
+
+        @Override
+        protected synchronized int next(int bits) {
+            return (int) (nextLong() >>> (64 - bits));
+        }
+
+        @Override
+        public synchronized long nextLong() {
+            if (revoked) throw new IllegalStateException("Decision ran out of time");
+            return source.nextLong();
+        }
+    }
+}
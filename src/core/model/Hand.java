@@ -0,0 +1,163 @@
+package core.model;
+
+import java.util.*;
+
+/**
+ * An immutable hand of cards, kept in one canonical order: by suit, then
+ * rank, i.e. by {@link Card#id()}, with copies of a card next to each
+ * other. Every change returns a new hand and leaves this one as it was, so
+ * players, forked games and replay snapshots share hands without copying
+ * them; a change copies at most a hand's worth of references.
+ *
+ * Alongside the cards the hand keeps the set of ids it holds, so a drawn
+ * card's place is a bit count rather than a search and {@link #contains}
+ * is a single test. Other orders are views built by {@link #inOrder}.
+ */
+public final class Hand implements Iterable<Card> {
+    public static final Hand EMPTY = new Hand(new Card[0], 0L);
+
+    private final Card[] cards;
+    /** bit {@code id} is set for every card id held */
+    private final long present;
+    private List<Card> view;  // built on first use; racing threads build equal views
+    private Shown shown;      // likewise, for the last order asked of inOrder()
+
+    private record Shown(HandOrder order, List<Card> cards) {}
+
+    private Hand(Card[] cards, long present) {
+        this.cards   = cards;
+        this.present = present;
+    }
+
+    /** @return a hand holding the given cards, in canonical order */
+    public static Hand of(Collection<Card> cards) {
+        if (cards.isEmpty()) return EMPTY;
+        Card[] a = cards.toArray(new Card[0]);
+        for (Card c : a) Objects.requireNonNull(c, "Hand must not contain null cards");
+        return canonical(a);
+    }
+
+    public int size() { return cards.length; }
+    public boolean isEmpty() { return cards.length == 0; }
+    public Card get(int index) { return cards[index]; }
+
+    public boolean contains(Card card) {
+        return (present >>> card.id() & 1) != 0;
+    }
+
+    /** @return this hand with the card added in its place */
+    public Hand plus(Card card) {
+        int id = Objects.requireNonNull(card, "card must not be null").id();
+        int at;
+        if (Long.bitCount(present) == cards.length) {
+            at = Long.bitCount(present & ((1L << id) - 1));  // one card per id held
+        } else {
+            at = 0;
+            while (at < cards.length && cards[at].id() <= id) at++;
+        }
+        Card[] a = new Card[cards.length + 1];
+        System.arraycopy(cards, 0, a, 0, at);
+        a[at] = card;
+        System.arraycopy(cards, at, a, at + 1, cards.length - at);
+        return new Hand(a, present | 1L << id);
+    }
+
+    /** @return this hand with the cards added in their places */
+    public Hand plus(Collection<Card> more) {
+        if (more.isEmpty()) return this;
+        Card[] a = Arrays.copyOf(cards, cards.length + more.size());
+        int i = cards.length;
+        for (Card c : more) a[i++] = Objects.requireNonNull(c, "card must not be null");
+        return canonical(a);
+    }
+
+    /** @return this hand without the card at {@code index} */
+    public Hand minus(int index) {
+        Objects.checkIndex(index, cards.length);
+        if (cards.length == 1) return EMPTY;
+        Card[] a = new Card[cards.length - 1];
+        System.arraycopy(cards, 0, a, 0, index);
+        System.arraycopy(cards, index + 1, a, index, a.length - index);
+        int id = cards[index].id();
+        boolean copyLeft = (index > 0 && cards[index - 1].id() == id)
+                || (index + 1 < cards.length && cards[index + 1].id() == id);
+        return new Hand(a, copyLeft ? present : present & ~(1L << id));
+    }
+
+    /**
+     * @param drop  which positions to leave out
+     * @param count how many of {@code drop} are set
+     * @return this hand without the flagged positions, order kept
+     */
+    Hand without(boolean[] drop, int count) {
+        if (count == 0) return this;
+        if (count == cards.length) return EMPTY;
+        Card[] a = new Card[cards.length - count];
+        long ids = 0;
+        int w = 0;
+        for (int i = 0; i < cards.length; i++) {
+            if (!drop[i]) {
+                a[w++] = cards[i];
+                ids |= 1L << cards[i].id();
+            }
+        }
+        return new Hand(a, ids);
+    }
+
+    /**
+     * @return the cards in the given order, as an unmodifiable list; the
+     *         canonical order is {@link HandOrder#SUIT}
+     */
+    public List<Card> inOrder(HandOrder order) {
+        if (order == HandOrder.SUIT) return asList();
+        Shown s = shown;
+        if (s == null || s.order() != order) {
+            shown = s = new Shown(order, Collections.unmodifiableList(Arrays.asList(byPlace(cards, order))));
+        }
+        return s.cards();
+    }
+
+    private static Hand canonical(Card[] cards) {
+        Card[] a = byPlace(cards, HandOrder.SUIT);
+        long ids = 0;
+        for (Card c : a) ids |= 1L << c.id();
+        return new Hand(a, ids);
+    }
+
+    /** Counting sort by each card's place in the order; keeps the order of equal cards. */
+    private static Card[] byPlace(Card[] cards, HandOrder order) {
+        int[] start = new int[Card.DECK_SIZE + 1];
+        for (Card c : cards) start[order.place(c) + 1]++;
+        for (int i = 1; i < start.length; i++) start[i] += start[i - 1];
+        Card[] out = new Card[cards.length];
+        for (Card c : cards) out[start[order.place(c)]++] = c;
+        return out;
+    }
+
+    /** @return an unmodifiable list view; the hand never changes, so neither does the view */
+    public List<Card> asList() {
+        List<Card> v = view;
+        if (v == null) view = v = Collections.unmodifiableList(Arrays.asList(cards));
+        return v;
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return asList().iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Hand h && Arrays.equals(cards, h.cards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(cards);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(cards);
+    }
+}
@@ -0,0 +1,35 @@
+package core.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The orders a hand can be shown in. A {@link Hand} is always kept by
+ * suit, then rank (card id order); the other orders are precomputed once
+ * as a place for each of the 52 cards, so showing a hand in one of them
+ * is a counting pass rather than a sort.
+ */
+public enum HandOrder {
+    /** By suit, then rank: the order hands are kept in. */
+    SUIT(Comparator.comparingInt(Card::id)),
+    /** By rank, then suit. */
+    RANK(Comparator.comparing(Card::rank).thenComparing(Card::suit)),
+    /** Reds first, then blacks; within each colour by rank, then suit. */
+    COLOR(Comparator.comparingInt((Card c) -> c.suit() == Suit.HEARTS || c.suit() == Suit.DIAMONDS ? 0 : 1)
+            .thenComparing(Card::rank).thenComparing(Card::suit));
+
+    /** place[id] = where the card with that id goes among all 52 */
+    private final int[] place = new int[Card.DECK_SIZE];
+
+    HandOrder(Comparator<Card> order) {
+        Card[] all = new Card[Card.DECK_SIZE];
+        for (int id = 0; id < all.length; id++) all[id] = Card.fromId(id);
+        Arrays.sort(all, order);
+        for (int i = 0; i < all.length; i++) place[all[i].id()] = i;
+    }
+
+    /** @return the card's place in this order, in [0, {@link Card#DECK_SIZE}) */
+    int place(Card card) {
+        return place[card.id()];
+    }
+}
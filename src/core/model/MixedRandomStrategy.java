@@ -2,7 +2,6 @@ package core.model;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
 
 /**
  * Randomly picks one of the three base strategies each turn.
@@ -12,13 +11,12 @@ public class MixedRandomStrategy implements MoveStrategy {
             new RandomDrawStrategy(),
             new DrawThenPurgeStrategy()
     );
-    private static final Random RNG = new Random();
 
     @Override
     public List<Card> makeMove(Player self, Player leftNeighbor) {
         Objects.requireNonNull(self);
         Objects.requireNonNull(leftNeighbor);
-        MoveStrategy choice = OPTIONS.get(RNG.nextInt(OPTIONS.size()));
+        MoveStrategy choice = OPTIONS.get(self.random().nextInt(OPTIONS.size()));
         return choice.makeMove(self, leftNeighbor);
     }
 }
@@ -17,4 +17,12 @@ public interface MoveStrategy {
      * @return the list of cards removed (in pairs) during this turn
      */
     List<Card> makeMove(Player self, Player leftNeighbor);
+
+    /**
+     * @return true if this strategy always purges every pair right after
+     *         drawing, which lets analysis tools treat its hands as pair-free
+     */
+    default boolean purgesEveryTurn() {
+        return false;
+    }
 }
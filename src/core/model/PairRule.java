@@ -0,0 +1,26 @@
+package core.model;
+
+/**
+ * Which two cards of a hand form a pair that can be discarded.
+ */
+public enum PairRule {
+    /** Same rank and same colour, e.g. both red queens (the Pouilleux rule). */
+    SAME_COLOR,
+    /** Any two cards of the same rank (classic Old Maid). */
+    SAME_RANK,
+    /** Same rank and suit; only meaningful with more than one deck. */
+    SAME_SUIT;
+
+    /**
+     * @return the pair class of a card: two cards pair exactly when their
+     *         classes are equal
+     */
+    int classOf(Card card) {
+        return switch (this) {
+            case SAME_COLOR -> card.rank().ordinal() * 2
+                    + (card.suit() == Suit.HEARTS || card.suit() == Suit.DIAMONDS ? 1 : 0);
+            case SAME_RANK  -> card.rank().ordinal();
+            case SAME_SUIT  -> card.id();
+        };
+    }
+}
@@ -3,102 +3,142 @@ package core.model;
 
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 /**
  * Represents one player in the Pouilleux game,
  * delegating turn logic to a MoveStrategy.
+ * The hand is an immutable {@link Hand} that every change replaces, so a
+ * player forks in O(1). It is kept in canonical order; sorting only picks
+ * the {@link HandOrder} it is shown in.
  */
 public class Player {
     private String name;
-    private final List<Card> hand;
+    private Hand hand;
+    private HandOrder order = HandOrder.SUIT;
     private final MoveStrategy strategy;
+    private CompiledRules rules = CompiledRules.CLASSIC;
+    private Random random;
 
     public Player(String name, List<Card> initialHand, MoveStrategy strategy) {
         this.name     = Objects.requireNonNull(name,        "Player name must not be null");
-        this.hand     = new ArrayList<>(Objects.requireNonNull(initialHand, "Initial hand must not be null"));
+        this.hand     = Hand.of(Objects.requireNonNull(initialHand, "Initial hand must not be null"));
         this.strategy = Objects.requireNonNull(strategy,    "MoveStrategy must not be null");
     }
 
+    /** A player in the same position, sharing the hand and random source. */
+    Player fork() {
+        Player copy = new Player(name, List.of(), strategy);
+        copy.hand   = hand;
+        copy.order  = order;
+        copy.rules  = rules;
+        copy.random = random;
+        return copy;
+    }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = Objects.requireNonNull(name); }
 
-    /** Returns an unmodifiable snapshot of current hand. */
+    /** Returns an unmodifiable snapshot of current hand, in canonical order. */
     public List<Card> getHand() {
-        return List.copyOf(hand);
+        return hand.asList();
+    }
+
+    /** @return the current hand in the order the player chose to show it */
+    public List<Card> getDisplayedHand() {
+        return hand.inOrder(order);
+    }
+
+    public HandOrder getHandOrder() { return order; }
+    public void setHandOrder(HandOrder order) { this.order = Objects.requireNonNull(order); }
+
+    /** @return the current hand; later changes to this player replace it rather than alter it */
+    public Hand hand() {
+        return hand;
     }
 
     /** Overwrites this player's hand with the given list. */
     public void setHand(List<Card> newHand) {
-        hand.clear();
-        hand.addAll(newHand);
+        hand = Hand.of(newHand);
+    }
+
+    /** Overwrites this player's hand. */
+    public void setHand(Hand newHand) {
+        hand = Objects.requireNonNull(newHand, "Hand must not be null");
     }
 
     public MoveStrategy getStrategy() { return strategy; }
     public int getHandSize() { return hand.size(); }
     public boolean hasNoCards() { return hand.isEmpty(); }
 
+    /** @return the rules this player pairs cards by */
+    public CompiledRules getRules() { return rules; }
+
+    /** Set by the {@link Game} the player is seated at. */
+    void setRules(CompiledRules rules) { this.rules = Objects.requireNonNull(rules); }
+
     /**
-     * @return true if at least one same-color pair exists in hand
+     * @return the random source for this player's draws and its strategy's
+     *         choices: the game's {@link GameRandom} once seated at a seeded
+     *         game, so that it replays identically, the thread's otherwise
+     */
+    public Random random() { return random != null ? random : ThreadLocalRandom.current(); }
+
+    /** @return the game's random source, or null if draws use the thread's */
+    Random seededRandom() { return random; }
+
+    /** Set by the {@link Game} the player is seated at. */
+    void setRandom(Random random) { this.random = Objects.requireNonNull(random); }
+
+    /**
+     * @return true if at least one pair exists in hand
      */
     public boolean hasPairs() {
-        // same as before, works off the unmodifiable getHand()
-        Map<Rank, List<Card>> byRank = getHand().stream()
-                .collect(Collectors.groupingBy(Card::rank));
-        for (var group : byRank.values()) {
-            for (int i = 0; i < group.size(); i++) {
-                for (int j = i + 1; j < group.size(); j++) {
-                    if (group.get(i).sameColor(group.get(j))) {
-                        return true;
-                    }
-                }
-            }
+        int n = hand.size();
+        if (n < 2) return false;
+        boolean[] seen = new boolean[rules.classCount()];
+        for (int i = 0; i < n; i++) {
+            int c = rules.pairClass(hand.get(i));
+            if (seen[c]) return true;
+            seen[c] = true;
         }
         return false;
     }
 
     /**
-     * Removes at most one red pair and one black pair per rank.
-     * Operates on the *internal* mutable hand list.
+     * Removes every pair from the hand, pairing cards in canonical order. Under
+     * the classic rules a pair class holds at most two cards, so this is at
+     * most one red and one black pair per rank.
+     * Replaces the hand with what is left.
      *
      * @return the cards removed (in pairs)
      */
     public List<Card> purgePairs() {
-        // snapshot for grouping
-        List<Card> snapshot = new ArrayList<>(hand);
-        if (snapshot.isEmpty()) {
+        int n = hand.size();
+        if (n == 0) {
             return Collections.emptyList();
         }
-
-        Map<Rank, List<Card>> byRank = snapshot.stream()
-                .collect(Collectors.groupingBy(Card::rank));
-
+        // open[c] = 1 + index of the unmatched card of class c, 0 if none
+        int[] open = new int[rules.classCount()];
+        boolean[] paired = new boolean[n];
+        Hand hand = this.hand;
         List<Card> removed = new ArrayList<>();
-
-        for (List<Card> group : byRank.values()) {
-            boolean redRemoved   = false;
-            boolean blackRemoved = false;
-            for (int i = 0; i < group.size(); i++) {
-                Card c1 = group.get(i);
-                for (int j = i + 1; j < group.size(); j++) {
-                    Card c2 = group.get(j);
-                    if (c1.sameColor(c2)) {
-                        boolean isRed = c1.suit() == Suit.HEARTS || c1.suit() == Suit.DIAMONDS;
-                        if ((isRed && !redRemoved) || (!isRed && !blackRemoved)) {
-                            removed.add(c1);
-                            removed.add(c2);
-                            if (isRed)   redRemoved   = true;
-                            else         blackRemoved = true;
-                            break;
-                        }
-                    }
-                }
-                if (redRemoved && blackRemoved) break;
+        for (int i = 0; i < n; i++) {
+            int c = rules.pairClass(hand.get(i));
+            int j = open[c] - 1;
+            if (j < 0) {
+                open[c] = i + 1;
+                continue;
             }
+            open[c] = 0;
+            paired[i] = paired[j] = true;
+            removed.add(hand.get(j));
+            removed.add(hand.get(i));
         }
-
-        // remove from *this* player's hand:
-        hand.removeAll(removed);
+        if (removed.isEmpty()) {
+            return removed;
+        }
+        // drop by position; removing by value would confuse duplicate cards of other decks
+        this.hand = hand.without(paired, removed.size());
         return removed;
     }
 
@@ -110,9 +150,10 @@ public class Player {
         if (from.hand.isEmpty()) {
             throw new IllegalStateException("Cannot draw from '" + from.name + "'; their hand is empty");
         }
-        int idx    = ThreadLocalRandom.current().nextInt(from.hand.size());
-        Card card  = from.hand.remove(idx);
-        hand.add(card);
+        int idx    = random().nextInt(from.hand.size());
+        Card card  = from.hand.get(idx);
+        from.hand  = from.hand.minus(idx);
+        hand       = hand.plus(card);
         return card;
     }
 
@@ -122,7 +163,7 @@ public class Player {
      */
     public void receiveCards(List<Card> cards) {
         Objects.requireNonNull(cards, "cards must not be null");
-        hand.addAll(cards);
+        hand = hand.plus(cards);
     }
 
     /**
@@ -133,26 +174,20 @@ public class Player {
         return strategy.makeMove(this, leftNeighbor);
     }
 
-    /** Sorts this hand by rank, then by suit. */
+    /** Shows this hand by rank, then by suit. */
     public void sortHandByRank() {
-        hand.sort(Comparator
-                .comparing(Card::rank)
-                .thenComparing(Card::suit));
+        order = HandOrder.RANK;
     }
 
-    /** Sorts this hand by suit, then by rank. */
+    /** Shows this hand by suit, then by rank. */
     public void sortHandBySuit() {
-        hand.sort(Comparator
-                .comparing(Card::suit)
-                .thenComparing(Card::rank));
+        order = HandOrder.SUIT;
     }
 
     /**
-     * Sorts by color (all reds first, then blacks), within each color by rank.
+     * Shows by color (all reds first, then blacks), within each color by rank.
      */
     public void sortHandByColor() {
-        hand.sort(Comparator
-                .comparing((Card c) -> (c.suit() == Suit.HEARTS || c.suit() == Suit.DIAMONDS) ? 0 : 1)
-                .thenComparing(Card::rank));
+        order = HandOrder.COLOR;
     }
 }
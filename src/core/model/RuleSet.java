@@ -0,0 +1,83 @@
+package core.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A rule variant: which card leaves the deck, what makes a pair, how many
+ * decks are shuffled together and which card loses the game.
+ *
+ * Rules are compiled once into lookup tables ({@link #compile()}) so the
+ * engine never evaluates them card by card.
+ *
+ * @param name       display name
+ * @param removed    card taken out of one deck before dealing, or null for none
+ * @param pairRule   which two cards pair
+ * @param decks      number of 52-card decks shuffled together (1 to 4)
+ * @param losingCard the card nobody can pair; whoever is left holding it
+ *                   (or a card of its pair class) loses
+ */
+public record RuleSet(String name, Card removed, PairRule pairRule, int decks, Card losingCard) {
+    /** Pouilleux: no Jack of Clubs, pairs of the same colour, the Jack of Spades loses. */
+    public static final RuleSet CLASSIC = new RuleSet("Pouilleux", Card.of(Rank.JACK, Suit.CLUBS),
+            PairRule.SAME_COLOR, 1, Card.of(Rank.JACK, Suit.SPADES));
+    /** Old Maid: one queen removed, any two cards of a rank pair, the odd queen loses. */
+    public static final RuleSet OLD_MAID = new RuleSet("Old Maid", Card.of(Rank.QUEEN, Suit.CLUBS),
+            PairRule.SAME_RANK, 1, Card.of(Rank.QUEEN, Suit.SPADES));
+    /** Pouilleux with two decks, for large tables. */
+    public static final RuleSet DOUBLE_DECK = new RuleSet("Pouilleux (2 decks)", Card.of(Rank.JACK, Suit.CLUBS),
+            PairRule.SAME_COLOR, 2, Card.of(Rank.JACK, Suit.SPADES));
+
+    private static final Map<String, RuleSet> PRESETS = new LinkedHashMap<>();
+    private static final Map<RuleSet, CompiledRules> COMPILED = new ConcurrentHashMap<>();
+
+    static {
+        PRESETS.put("classic", CLASSIC);
+        PRESETS.put("oldmaid", OLD_MAID);
+        PRESETS.put("doubledeck", DOUBLE_DECK);
+    }
+
+    public RuleSet {
+        Objects.requireNonNull(name,       "Rule set name must not be null");
+        Objects.requireNonNull(pairRule,   "Pair rule must not be null");
+        Objects.requireNonNull(losingCard, "Losing card must not be null");
+        if (decks < 1 || decks > 4) {
+            throw new IllegalArgumentException("Decks must be in [1, 4]: " + decks);
+        }
+    }
+
+    /** @return the built-in variants by short name ("classic", "oldmaid", "doubledeck") */
+    public static Map<String, RuleSet> presets() {
+        return Collections.unmodifiableMap(PRESETS);
+    }
+
+    /**
+     * @return the built-in variant with that short name, ignoring case
+     * @throws IllegalArgumentException for an unknown name
+     */
+    public static RuleSet byName(String name) {
+        RuleSet rules = PRESETS.get(name.toLowerCase());
+        if (rules == null) {
+            throw new IllegalArgumentException("Unknown rules: " + name + " (expected one of " + PRESETS.keySet() + ")");
+        }
+        return rules;
+    }
+
+    /**
+     * @return the lookup tables for these rules, built on first use
+     * @throws IllegalArgumentException if the rules leave no single losing
+     *         card (e.g. the losing card can still be paired)
+     */
+    public CompiledRules compile() {
+        if (equals(CLASSIC)) return CompiledRules.CLASSIC;
+        return COMPILED.computeIfAbsent(this, CompiledRules::new);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,20 +1,62 @@
 package core.model;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
- * Utility to assign each bot one of several different strategies at random.
+ * Utility to assign each bot one of several different strategies at random,
+ * and registry of every named bot strategy (used by the tournament runner).
  */
 public final class StrategyFactory {
     private static final List<MoveStrategy> AVAILABLE = List.of(
             new DrawThenPurgeStrategy(),
             new MixedRandomStrategy()
     );
-    private static final Random RNG = new Random();
+    private static final Map<String, Supplier<MoveStrategy>> NAMED = new LinkedHashMap<>();
+
+    static {
+        register("DrawThenPurge", DrawThenPurgeStrategy::new);
+        register("MixedRandom",   MixedRandomStrategy::new);
+        register("RandomDraw",    RandomDrawStrategy::new);
+    }
 
     /** @return a randomly selected MoveStrategy from the pool. */
     public static MoveStrategy randomStrategy() {
-        return AVAILABLE.get(RNG.nextInt(AVAILABLE.size()));
+        return AVAILABLE.get(ThreadLocalRandom.current().nextInt(AVAILABLE.size()));
+    }
+
+    /**
+     * Makes a bot strategy available by name.
+     *
+     * @throws IllegalArgumentException if the name is already taken
+     */
+    public static synchronized void register(String name, Supplier<MoveStrategy> supplier) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(supplier, "supplier must not be null");
+        if (NAMED.putIfAbsent(name, supplier) != null) {
+            throw new IllegalArgumentException("Strategy already registered: " + name);
+        }
+    }
+
+    /** @return an unmodifiable snapshot of the registered strategies, in registration order */
+    public static synchronized Map<String, Supplier<MoveStrategy>> named() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(NAMED));
+    }
+
+    /**
+     * @return a new instance of the named strategy
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public static synchronized MoveStrategy create(String name) {
+        Supplier<MoveStrategy> s = NAMED.get(name);
+        if (s == null) {
+            throw new IllegalArgumentException("Unknown strategy: " + name + " (known: " + NAMED.keySet() + ")");
+        }
+        return s.get();
     }
 }
@@ -0,0 +1,89 @@
+package core.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * One client socket owned by a single {@link Reactor}. Not thread-safe:
+ * only the owning reactor thread may touch it.
+ *
+ * A client that stops reading would make the queued output grow without
+ * end. A player needs every DELTA in order, so unlike a spectator it
+ * cannot skip ahead: once more than {@link #MAX_BACKLOG} bytes are queued
+ * the connection is closed, and its {@link Table} plays the seat from
+ * then on.
+ */
+final class Connection {
+    /** Queued bytes above which a client is dropped. */
+    static final int MAX_BACKLOG = 64 * 1024;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer in = ByteBuffer.allocate(4096);
+    private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+    private int queued;
+
+    String name = "?";
+    Table table;
+    int seat = -1;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key     = key;
+    }
+
+    /**
+     * Queues a frame for sending. Frames may be shared between connections,
+     * so each one is written through its own duplicate. Closes the
+     * connection if the frame would leave it more than
+     * {@link #MAX_BACKLOG} bytes behind.
+     */
+    void send(ByteBuffer frame) {
+        if (!channel.isOpen()) return;
+        ByteBuffer view = frame.duplicate();
+        if (out.isEmpty()) {
+            try {
+                channel.write(view);
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            if (!view.hasRemaining()) return;
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        queued += view.remaining();
+        if (queued > MAX_BACKLOG) {
+            System.err.println("Warning: dropping " + name + ", " + queued + " bytes behind");
+            close();
+            return;
+        }
+        out.add(view);
+    }
+
+    /** Writes as much queued output as the socket accepts. */
+    void flush() throws IOException {
+        while (!out.isEmpty()) {
+            ByteBuffer head = out.peek();
+            queued -= channel.write(head);
+            if (head.hasRemaining()) return;
+            out.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    void close() {
+        out.clear();
+        queued = 0;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,144 @@
+package core.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless multi-table server backing the "Internet Multiplayer" mode.
+ *
+ * One acceptor thread hands connections round-robin to a fixed set of
+ * {@link Reactor} event loops. Each reactor seats its clients at its own
+ * tables, filling any seat not taken by a client with a bot. With a
+ * {@link SpectatorHub} attached every table is also published for viewers.
+ *
+ * Usage: {@code java core.net.GameServer [port] [seatsPerTable] [remoteSeats] [reactors]
+ * [spectatorPort]}
+ */
+public class GameServer implements AutoCloseable {
+    /** Counters shared by all reactors. */
+    static final class Stats {
+        final LongAdder moves          = new LongAdder();
+        final LongAdder tablesStarted  = new LongAdder();
+        final LongAdder tablesFinished = new LongAdder();
+    }
+
+    private final int port;
+    private final int seatsPerTable;
+    private final int remoteSeats;
+    private final Reactor[] reactors;
+    private final Stats stats = new Stats();
+    private final AtomicInteger tableIds = new AtomicInteger();
+    private volatile SpectatorHub spectators;
+    private ServerSocketChannel serverChannel;
+    private Thread acceptor;
+
+    public GameServer(int port, int seatsPerTable, int remoteSeats, int reactorCount) throws IOException {
+        if (seatsPerTable < 2) {
+            throw new IllegalArgumentException("A table needs at least two seats");
+        }
+        if (remoteSeats < 1 || remoteSeats > seatsPerTable) {
+            throw new IllegalArgumentException("remoteSeats must be in [1, seatsPerTable]");
+        }
+        if (reactorCount < 1) {
+            throw new IllegalArgumentException("Need at least one reactor");
+        }
+        this.port          = port;
+        this.seatsPerTable = seatsPerTable;
+        this.remoteSeats   = remoteSeats;
+        this.reactors      = new Reactor[reactorCount];
+        for (int i = 0; i < reactorCount; i++) {
+            reactors[i] = new Reactor(this);
+        }
+    }
+
+    /** Binds the listening socket and starts the acceptor and reactor threads. */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        for (int i = 0; i < reactors.length; i++) {
+            Thread t = new Thread(reactors[i], "Reactor-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        acceptor = new Thread(this::acceptLoop, "Acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** @return the bound port (useful when started on port 0) */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public long getMoves()          { return stats.moves.sum(); }
+    public long getTablesStarted()  { return stats.tablesStarted.sum(); }
+    public long getTablesFinished() { return stats.tablesFinished.sum(); }
+
+    /** Publishes every table started from now on to the hub; null stops it. */
+    public void setSpectatorHub(SpectatorHub hub) {
+        this.spectators = hub;
+    }
+
+    int nextTableId()         { return tableIds.incrementAndGet(); }
+    SpectatorHub spectators() { return spectators; }
+    int seatsPerTable()       { return seatsPerTable; }
+    int remoteSeatsPerTable() { return remoteSeats; }
+    Stats stats()             { return stats; }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel ch = serverChannel.accept();
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[next].register(ch);
+                next = (next + 1) % reactors.length;
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    System.err.println("Warning: accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (serverChannel != null) serverChannel.close();
+        for (Reactor r : reactors) r.shutdown();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port     = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int seats    = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int remote   = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int reactors = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        int watchPort = args.length > 4 ? Integer.parseInt(args[4]) : -1;
+
+        GameServer server = new GameServer(port, seats, remote, reactors);
+        if (watchPort >= 0) {
+            SpectatorHub hub = new SpectatorHub(watchPort);
+            hub.start();
+            server.setSpectatorHub(hub);
+            System.out.printf("Spectators on port %d%n", hub.getPort());
+        }
+        server.start();
+        System.out.printf("Pouilleux server on port %d: %d seats/table, %d remote, %d reactors%n",
+                server.getPort(), seats, remote, reactors);
+
+        long lastMoves = 0;
+        while (true) {
+            Thread.sleep(5_000);
+            long moves = server.getMoves();
+            long live  = server.getTablesStarted() - server.getTablesFinished();
+            System.out.printf("tables live=%d finished=%d  moves/s=%.0f%n",
+                    live, server.getTablesFinished(), (moves - lastMoves) / 5.0);
+            lastMoves = moves;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package core.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Headless load generator for {@link GameServer}. Opens many connections
+ * from a single selector thread, joins a table with each, acts as soon as
+ * it is that seat's turn and rejoins when the table ends.
+ *
+ * Usage: {@code java core.net.LoadTestClient [host] [port] [connections] [seconds]}
+ */
+public class LoadTestClient {
+    /** Per-connection client state. */
+    private static final class Bot {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        int table = -1;
+        int seat  = -1;
+        long actSentAt;
+
+        Bot(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key     = key;
+        }
+    }
+
+    private final Selector selector;
+    private long acts;
+    private long deltas;
+    private long games;
+    private long rejects;
+    private long latencySumNanos;
+    private long latencyMaxNanos;
+
+    private LoadTestClient() throws IOException {
+        this.selector = Selector.open();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host   = args.length > 0 ? args[0] : "localhost";
+        int port      = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        int clients   = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        int seconds   = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        new LoadTestClient().run(new InetSocketAddress(host, port), clients, seconds);
+    }
+
+    private void run(InetSocketAddress address, int clients, int seconds) throws IOException {
+        for (int i = 0; i < clients; i++) {
+            SocketChannel ch = SocketChannel.open(address);
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ch.configureBlocking(false);
+            SelectionKey key = ch.register(selector, SelectionKey.OP_READ);
+            Bot bot = new Bot(ch, key);
+            key.attach(bot);
+            send(bot, Protocol.join("load-" + i));
+        }
+        System.out.printf("%d connections open, running for %ds%n", clients, seconds);
+
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long nextReport = System.nanoTime() + 1_000_000_000L;
+        long lastActs = 0, lastDeltas = 0, lastGames = 0;
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                Bot bot = (Bot) key.attachment();
+                if (key.isValid() && key.isWritable()) flush(bot);
+                if (key.isValid() && key.isReadable()) read(bot);
+            }
+            long now = System.nanoTime();
+            if (now >= nextReport) {
+                long lat = acts - lastActs == 0 ? 0 : latencySumNanos / (acts - lastActs);
+                System.out.printf("acts/s=%d  deltas/s=%d  games/s=%d  rejects=%d  avgLatency=%.2fms  maxLatency=%.2fms%n",
+                        acts - lastActs, deltas - lastDeltas, games - lastGames, rejects,
+                        lat / 1e6, latencyMaxNanos / 1e6);
+                lastActs = acts;
+                lastDeltas = deltas;
+                lastGames = games;
+                latencySumNanos = 0;
+                latencyMaxNanos = 0;
+                nextReport = now + 1_000_000_000L;
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void read(Bot bot) throws IOException {
+        if (bot.channel.read(bot.in) < 0) {
+            bot.key.cancel();
+            bot.channel.close();
+            return;
+        }
+        bot.in.flip();
+        ByteBuffer body;
+        while ((body = Protocol.nextFrame(bot.in)) != null) {
+            handle(bot, body);
+        }
+        bot.in.compact();
+    }
+
+    private void handle(Bot bot, ByteBuffer body) {
+        switch (body.get()) {
+            case Protocol.JOINED -> {
+                bot.table = body.getInt();
+                bot.seat  = body.get();
+            }
+            case Protocol.DELTA -> {
+                deltas++;
+                int table = body.getInt();
+                int seq   = body.getInt();
+                int mover = body.get();
+                body.get(); // from
+                int next  = body.get();
+                if (table != bot.table) return;
+                if (mover == bot.seat && bot.actSentAt != 0) {
+                    long lat = System.nanoTime() - bot.actSentAt;
+                    latencySumNanos += lat;
+                    latencyMaxNanos = Math.max(latencyMaxNanos, lat);
+                    bot.actSentAt = 0;
+                }
+                if (next == bot.seat) {
+                    acts++;
+                    bot.actSentAt = System.nanoTime();
+                    send(bot, Protocol.act(table, seq));
+                }
+            }
+            case Protocol.OVER -> {
+                games++;
+                bot.table = -1;
+                bot.seat  = -1;
+                send(bot, Protocol.join("load"));
+            }
+            case Protocol.REJECT -> rejects++;
+            default -> { /* HAND: the load test does not track cards */ }
+        }
+    }
+
+    private void send(Bot bot, ByteBuffer frame) {
+        bot.out.add(frame);
+        try {
+            flush(bot);
+        } catch (IOException e) {
+            bot.key.cancel();
+        }
+    }
+
+    private void flush(Bot bot) throws IOException {
+        while (!bot.out.isEmpty()) {
+            ByteBuffer head = bot.out.peek();
+            bot.channel.write(head);
+            if (head.hasRemaining()) {
+                bot.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            bot.out.poll();
+        }
+        bot.key.interestOps(SelectionKey.OP_READ);
+    }
+}
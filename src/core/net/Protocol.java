@@ -0,0 +1,210 @@
+package core.net;
+
+import core.model.Card;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary wire format shared by {@link GameServer}, {@link LoadTestClient}
+ * and the spectator feeds of {@link SpectatorHub}.
+ *
+ * Every frame is a 2-byte unsigned body length followed by the body; the
+ * first body byte is the message type. Cards travel as their one-byte
+ * {@link Card#id()}, seats as signed bytes (-1 meaning "nobody").
+ *
+ * <pre>
+ *   JOIN   c→s  name:str8
+ *   ACT    c→s  table:i32 lastSeq:i32
+ *   JOINED s→c  table:i32 seat:u8 seats:u8
+ *   DELTA  s→c  table:i32 seq:i32 mover:i8 from:i8 next:i8 sizes:u8[n] purged:u8[n]
+ *   HAND   s→c  table:i32 seq:i32 cards:u8[n]
+ *   OVER   s→c  table:i32 seq:i32 loser:i8
+ *   REJECT s→c  table:i32 reason:u8
+ * </pre>
+ *
+ * Spectators use their own port. They reuse DELTA, OVER and REJECT, with
+ * the published game's id in the table field:
+ * <pre>
+ *   LIST     c→s
+ *   WATCH    c→s  game:i32 view:i8 token:str8
+ *   GAMES    s→c  count:u8 (game:i32 seats:u8 label:str8)[count]
+ *   SNAPSHOT s→c  game:i32 seq:i32 next:i8 sizes:u8[n] table:u8[n]
+ *   SHOWN    s→c  game:i32 seat:u8 cards:u8[n]
+ * </pre>
+ * A view is a seat whose hand may be seen, {@link SpectatorHub#PUBLIC} or
+ * {@link SpectatorHub#ALL_HANDS}.
+ */
+public final class Protocol {
+    public static final byte JOIN   = 0x01;
+    public static final byte ACT    = 0x02;
+    public static final byte JOINED = (byte) 0x81;
+    public static final byte DELTA  = (byte) 0x82;
+    public static final byte HAND   = (byte) 0x83;
+    public static final byte OVER   = (byte) 0x84;
+    public static final byte REJECT = (byte) 0x85;
+    public static final byte LIST     = 0x03;
+    public static final byte WATCH    = 0x04;
+    public static final byte GAMES    = (byte) 0x86;
+    public static final byte SNAPSHOT = (byte) 0x87;
+    public static final byte SHOWN    = (byte) 0x88;
+
+    /** REJECT reasons. */
+    public static final byte NOT_YOUR_TURN = 1;
+    public static final byte STALE_SEQ     = 2;
+    public static final byte NO_SUCH_TABLE = 3;
+    public static final byte NOT_PERMITTED = 4;
+
+    /** Largest body a frame can carry. */
+    public static final int MAX_BODY = 0xFFFF;
+
+    private Protocol() {}
+
+    public static ByteBuffer join(String name) {
+        byte[] raw = name.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(raw.length, 255);
+        ByteBuffer buf = frame(2 + len);
+        buf.put(JOIN).put((byte) len).put(raw, 0, len);
+        return buf.flip();
+    }
+
+    public static ByteBuffer act(int table, int lastSeq) {
+        ByteBuffer buf = frame(9);
+        buf.put(ACT).putInt(table).putInt(lastSeq);
+        return buf.flip();
+    }
+
+    public static ByteBuffer joined(int table, int seat, int seats) {
+        ByteBuffer buf = frame(7);
+        buf.put(JOINED).putInt(table).put((byte) seat).put((byte) seats);
+        return buf.flip();
+    }
+
+    public static ByteBuffer delta(int table, int seq, int mover, int from, int next,
+                                   int[] sizes, List<Card> purged) {
+        ByteBuffer buf = frame(1 + 4 + 4 + 3 + 1 + sizes.length + 1 + purged.size());
+        buf.put(DELTA).putInt(table).putInt(seq)
+                .put((byte) mover).put((byte) from).put((byte) next);
+        buf.put((byte) sizes.length);
+        for (int s : sizes) buf.put((byte) s);
+        putCards(buf, purged);
+        return buf.flip();
+    }
+
+    public static ByteBuffer hand(int table, int seq, List<Card> cards) {
+        ByteBuffer buf = frame(1 + 4 + 4 + 1 + cards.size());
+        buf.put(HAND).putInt(table).putInt(seq);
+        putCards(buf, cards);
+        return buf.flip();
+    }
+
+    public static ByteBuffer over(int table, int seq, int loser) {
+        ByteBuffer buf = frame(10);
+        buf.put(OVER).putInt(table).putInt(seq).put((byte) loser);
+        return buf.flip();
+    }
+
+    public static ByteBuffer reject(int table, byte reason) {
+        ByteBuffer buf = frame(6);
+        buf.put(REJECT).putInt(table).put(reason);
+        return buf.flip();
+    }
+
+    public static ByteBuffer list() {
+        ByteBuffer buf = frame(1);
+        buf.put(LIST);
+        return buf.flip();
+    }
+
+    public static ByteBuffer watch(int game, int view, String token) {
+        byte[] raw = str8(token);
+        ByteBuffer buf = frame(1 + 4 + 1 + 1 + raw.length);
+        buf.put(WATCH).putInt(game).put((byte) view).put((byte) raw.length).put(raw);
+        return buf.flip();
+    }
+
+    /** @param labels one per game, in the order of {@code games} */
+    public static ByteBuffer games(int[] games, int[] seats, List<String> labels) {
+        int len = 2;
+        byte[][] raw = new byte[games.length][];
+        for (int i = 0; i < games.length; i++) {
+            raw[i] = str8(labels.get(i));
+            len += 4 + 1 + 1 + raw[i].length;
+        }
+        ByteBuffer buf = frame(len);
+        buf.put(GAMES).put((byte) games.length);
+        for (int i = 0; i < games.length; i++) {
+            buf.putInt(games[i]).put((byte) seats[i]).put((byte) raw[i].length).put(raw[i]);
+        }
+        return buf.flip();
+    }
+
+    public static ByteBuffer snapshot(int game, int seq, int next, int[] sizes, List<Card> table) {
+        ByteBuffer buf = frame(1 + 4 + 4 + 1 + 1 + sizes.length + 1 + table.size());
+        buf.put(SNAPSHOT).putInt(game).putInt(seq).put((byte) next);
+        buf.put((byte) sizes.length);
+        for (int s : sizes) buf.put((byte) s);
+        putCards(buf, table);
+        return buf.flip();
+    }
+
+    /** One seat's hand as shown to a spectator allowed to see it. */
+    public static ByteBuffer shown(int game, int seat, List<Card> cards) {
+        ByteBuffer buf = frame(1 + 4 + 1 + 1 + cards.size());
+        buf.put(SHOWN).putInt(game).put((byte) seat);
+        putCards(buf, cards);
+        return buf.flip();
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string written by {@link #join(String)}.
+     *
+     * @throws IllegalArgumentException if the body ends before the string does
+     */
+    public static String readName(ByteBuffer body) {
+        if (!body.hasRemaining()) throw new IllegalArgumentException("Missing string length");
+        int len = body.get() & 0xFF;
+        if (body.remaining() < len) {
+            throw new IllegalArgumentException("String of " + len + " bytes in " + body.remaining());
+        }
+        byte[] raw = new byte[len];
+        body.get(raw);
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Extracts the next complete frame body from {@code in} (in read mode),
+     * or returns null if more bytes are needed. The returned buffer is a
+     * slice of {@code in}, valid until {@code in} is compacted.
+     */
+    public static ByteBuffer nextFrame(ByteBuffer in) {
+        if (in.remaining() < 2) return null;
+        int len = in.getShort(in.position()) & 0xFFFF;
+        if (in.remaining() < 2 + len) return null;
+        ByteBuffer body = in.slice(in.position() + 2, len);
+        in.position(in.position() + 2 + len);
+        return body;
+    }
+
+    /** At most 255 bytes of the string's UTF-8 form. */
+    private static byte[] str8(String s) {
+        byte[] raw = s.getBytes(StandardCharsets.UTF_8);
+        return raw.length <= 255 ? raw : Arrays.copyOf(raw, 255);
+    }
+
+    private static void putCards(ByteBuffer buf, List<Card> cards) {
+        buf.put((byte) cards.size());
+        for (Card c : cards) buf.put((byte) c.id());
+    }
+
+    private static ByteBuffer frame(int bodyLength) {
+        if (bodyLength > MAX_BODY) {
+            throw new IllegalArgumentException("Frame too large: " + bodyLength);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(2 + bodyLength);
+        buf.putShort((short) bodyLength);
+        return buf;
+    }
+}
@@ -0,0 +1,155 @@
+package core.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Event loop owning a set of connections and the tables they sit at.
+ * Tables never span reactors, so game state is only ever touched by one
+ * thread and needs no locking.
+ */
+final class Reactor implements Runnable {
+    private final GameServer server;
+    private final Selector selector;
+    private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Table> tables = new HashMap<>();
+    private Table filling;
+    private volatile boolean running = true;
+
+    Reactor(GameServer server) throws IOException {
+        this.server   = server;
+        this.selector = Selector.open();
+    }
+
+    /** Hands over a freshly accepted channel; safe to call from any thread. */
+    void register(SocketChannel channel) {
+        pending.add(channel);
+        selector.wakeup();
+    }
+
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                acceptPending();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    Connection c = (Connection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isWritable()) c.flush();
+                        if (key.isValid() && key.isReadable()) read(c);
+                    } catch (IOException e) {
+                        disconnect(c);
+                    } catch (RuntimeException e) {
+                        // one client's bad input must not take down the other tables
+                        System.err.println("Warning: dropping " + c.name + ": " + e);
+                        disconnect(c);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Reactor stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                ((Connection) key.attachment()).close();
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private void acceptPending() throws IOException {
+        SocketChannel ch;
+        while ((ch = pending.poll()) != null) {
+            ch.configureBlocking(false);
+            SelectionKey key = ch.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(ch, key));
+        }
+    }
+
+    private void read(Connection c) throws IOException {
+        if (c.channel.read(c.in) < 0) {
+            disconnect(c);
+            return;
+        }
+        c.in.flip();
+        ByteBuffer body;
+        while ((body = Protocol.nextFrame(c.in)) != null) {
+            dispatch(c, body);
+            if (!c.isOpen()) return;
+        }
+        c.in.compact();
+        if (!c.in.hasRemaining()) {
+            // a single frame larger than our buffer: protocol violation
+            disconnect(c);
+        }
+    }
+
+    private void dispatch(Connection c, ByteBuffer body) {
+        if (!body.hasRemaining()) {
+            disconnect(c);
+            return;
+        }
+        byte type = body.get();
+        switch (type) {
+            case Protocol.JOIN -> {
+                if (c.table != null) return;
+                c.name = Protocol.readName(body);
+                join(c);
+            }
+            case Protocol.ACT -> {
+                if (body.remaining() != 8) {
+                    disconnect(c);
+                    return;
+                }
+                int tableId = body.getInt();
+                int lastSeq = body.getInt();
+                Table t = tables.get(tableId);
+                if (t == null || t != c.table) {
+                    c.send(Protocol.reject(tableId, Protocol.NO_SUCH_TABLE));
+                    return;
+                }
+                t.act(c, lastSeq);
+                if (t.isOver()) tables.remove(t.id);
+            }
+            default -> disconnect(c);
+        }
+    }
+
+    private void join(Connection c) {
+        if (filling == null || !filling.isWaiting()) {
+            filling = new Table(server.nextTableId(), server.seatsPerTable(),
+                    server.remoteSeatsPerTable(), server.stats(), server.spectators());
+            tables.put(filling.id, filling);
+        }
+        Table t = filling;
+        t.join(c);
+        if (t.isOver()) tables.remove(t.id);
+    }
+
+    private void disconnect(Connection c) {
+        Table t = c.table;
+        c.close();
+        if (t != null) {
+            t.leave(c);
+            if (t.isOver()) tables.remove(t.id);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package core.net;
+
+import core.model.Card;
+import core.model.MoveStrategy;
+import core.model.Player;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Strategy for a seat driven over the network. The client only decides
+ * <em>when</em> to move; the server then draws and purges on its behalf.
+ * If the client disconnects the table keeps driving the seat like a bot.
+ */
+public class RemoteSeatStrategy implements MoveStrategy {
+    @Override
+    public List<Card> makeMove(Player self, Player leftNeighbor) {
+        Objects.requireNonNull(self);
+        Objects.requireNonNull(leftNeighbor);
+        self.drawFrom(leftNeighbor);
+        return self.purgePairs();
+    }
+
+    @Override
+    public boolean purgesEveryTurn() {
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+package core.net;
+
+import core.model.Card;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless viewer for a {@link SpectatorHub}: lists the published games,
+ * watches one and prints every update until the game ends. A read delay
+ * simulates a slow viewer, which the hub makes skip ahead to keyframes.
+ *
+ * Usage: {@code java core.net.SpectatorClient [host] [port] [game|0=first]
+ * [view=public|all|seat] [token] [readDelayMs]}
+ */
+public class SpectatorClient {
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(4096);
+    private final long readDelayMs;
+    private int lastSeq = -1;
+    private int skipped;
+
+    private SpectatorClient(SocketChannel channel, long readDelayMs) {
+        this.channel     = channel;
+        this.readDelayMs = readDelayMs;
+        in.flip();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host  = args.length > 0 ? args[0] : "localhost";
+        int port     = args.length > 1 ? Integer.parseInt(args[1]) : 7778;
+        int game     = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        String v     = args.length > 3 ? args[3] : "public";
+        String token = args.length > 4 ? args[4] : "";
+        long delay   = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        int view = switch (v) {
+            case "public" -> SpectatorHub.PUBLIC;
+            case "all"    -> SpectatorHub.ALL_HANDS;
+            default       -> Integer.parseInt(v);
+        };
+        try (SocketChannel ch = SocketChannel.open(new InetSocketAddress(host, port))) {
+            new SpectatorClient(ch, delay).watch(game, view, token);
+        }
+    }
+
+    private void watch(int game, int view, String token) throws IOException, InterruptedException {
+        ByteBuffer body = next();
+        if (body.get() != Protocol.GAMES) throw new IOException("Expected the game list first");
+        int count = body.get() & 0xFF;
+        if (count == 0) {
+            System.out.println("No games published");
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int id = body.getInt();
+            int seats = body.get() & 0xFF;
+            String label = Protocol.readName(body);
+            System.out.printf("game %d: %s, %d seats%n", id, label, seats);
+            if (game == 0) game = id;
+        }
+        write(Protocol.watch(game, view, token));
+
+        while (true) {
+            if (readDelayMs > 0) Thread.sleep(readDelayMs);
+            body = next();
+            switch (body.get()) {
+                case Protocol.SNAPSHOT -> {
+                    body.getInt();
+                    int seq = body.getInt();
+                    int nextSeat = body.get();
+                    int[] sizes = sizes(body);
+                    int pairs = (body.get() & 0xFF) / 2;
+                    if (lastSeq >= 0 && seq > lastSeq) skipped += seq - lastSeq;
+                    lastSeq = seq;
+                    System.out.printf("snapshot seq=%d next=%d sizes=%s pairs=%d%n",
+                            seq, nextSeat, Arrays.toString(sizes), pairs);
+                }
+                case Protocol.DELTA -> {
+                    body.getInt();
+                    int seq = body.getInt();
+                    int mover = body.get(), from = body.get(), nextSeat = body.get();
+                    int[] sizes = sizes(body);
+                    if (seq <= lastSeq) continue;  // already in the snapshot
+                    lastSeq = seq;
+                    System.out.printf("seq=%d seat %d drew from %d, next=%d sizes=%s purged=%s%n",
+                            seq, mover, from, nextSeat, Arrays.toString(sizes), cards(body));
+                }
+                case Protocol.SHOWN -> {
+                    body.getInt();
+                    int seat = body.get() & 0xFF;
+                    System.out.printf("  seat %d holds %s%n", seat, cards(body));
+                }
+                case Protocol.OVER -> {
+                    body.getInt();
+                    body.getInt();
+                    int loser = body.get();
+                    System.out.printf("game over, loser seat %d; %d turns skipped while lagging%n", loser, skipped);
+                    return;
+                }
+                case Protocol.REJECT -> {
+                    int id = body.getInt();
+                    System.out.printf("rejected for game %d, reason %d%n", id, body.get());
+                    return;
+                }
+                default -> throw new IOException("Unexpected frame type");
+            }
+        }
+    }
+
+    private static int[] sizes(ByteBuffer body) {
+        int[] sizes = new int[body.get() & 0xFF];
+        for (int i = 0; i < sizes.length; i++) sizes[i] = body.get() & 0xFF;
+        return sizes;
+    }
+
+    private static List<Card> cards(ByteBuffer body) {
+        int n = body.get() & 0xFF;
+        List<Card> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(Card.fromId(body.get() & 0xFF));
+        return out;
+    }
+
+    private ByteBuffer next() throws IOException {
+        ByteBuffer body;
+        while ((body = Protocol.nextFrame(in)) == null) {
+            in.compact();
+            int n = channel.read(in);
+            in.flip();
+            if (n < 0) throw new EOFException("Hub closed the connection");
+        }
+        return body;
+    }
+
+    private void write(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) channel.write(frame);
+    }
+}
@@ -0,0 +1,104 @@
+package core.net;
+
+import core.model.Card;
+import core.model.Game;
+import core.model.GameListener;
+import core.model.Player;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * The spectator side of one published {@link Game}, created by
+ * {@link SpectatorHub#publish}.
+ *
+ * Runs on the thread driving the game: every turn is encoded once, as a
+ * DELTA plus SHOWN frames for the two seats whose hands changed, and
+ * handed to the hub without waiting. Every {@link #KEYFRAME_INTERVAL} turns
+ * a keyframe (SNAPSHOT plus a SHOWN frame per seat) is encoded as well,
+ * which is what viewers joining late or falling behind start from. The feed ends with
+ * an OVER frame when the game ends or {@link #close()} is called.
+ */
+public final class SpectatorFeed implements GameListener, AutoCloseable {
+    /** Turns between two keyframes. */
+    static final int KEYFRAME_INTERVAL = 32;
+
+    /**
+     * One encoded update, shared by every viewer of the feed.
+     *
+     * @param common sent to every viewer: DELTA, SNAPSHOT or OVER
+     * @param hands  SHOWN frames by seat, null for seats not included
+     */
+    record Update(ByteBuffer common, ByteBuffer[] hands, boolean keyframe, boolean last) {}
+
+    final int id;
+    final String label;
+    final int seats;
+    private final SpectatorHub hub;
+    private final Game game;
+
+    // game thread only
+    private int seq;
+    private int sinceKeyframe;
+    private boolean ended;
+
+    SpectatorFeed(SpectatorHub hub, int id, String label, Game game) {
+        this.hub   = hub;
+        this.id    = id;
+        this.label = label;
+        this.game  = game;
+        this.seats = game.getPlayers().size();
+    }
+
+    /** Posts the first keyframe; called by the hub before listening. */
+    void open() {
+        hub.post(this, keyframe());
+    }
+
+    @Override
+    public void onTurn(Game g, int mover, int neighbor, List<Card> purged) {
+        if (ended) return;
+        seq++;
+        ByteBuffer[] hands = new ByteBuffer[seats];
+        hands[mover]    = hand(mover);
+        hands[neighbor] = hand(neighbor);
+        hub.post(this, new Update(Protocol.delta(id, seq, mover, neighbor, g.getNextIndex(), handSizes(), purged),
+                hands, false, false));
+        if (++sinceKeyframe >= KEYFRAME_INTERVAL) {
+            hub.post(this, keyframe());
+        }
+    }
+
+    @Override
+    public void onGameOver(Game g) {
+        close();
+    }
+
+    /** Ends the feed, e.g. for a game stopped before it was decided. Idempotent. */
+    @Override
+    public void close() {
+        if (ended) return;
+        ended = true;
+        int loser = game.getLoser().map(game.getPlayers()::indexOf).orElse(-1);
+        hub.post(this, new Update(Protocol.over(id, ++seq, loser), new ByteBuffer[seats], false, true));
+    }
+
+    private Update keyframe() {
+        sinceKeyframe = 0;
+        ByteBuffer[] hands = new ByteBuffer[seats];
+        for (int seat = 0; seat < seats; seat++) hands[seat] = hand(seat);
+        return new Update(Protocol.snapshot(id, seq, game.getNextIndex(), handSizes(), game.getAllTablePairs()),
+                hands, true, false);
+    }
+
+    private ByteBuffer hand(int seat) {
+        return Protocol.shown(id, seat, game.getPlayers().get(seat).getHand());
+    }
+
+    private int[] handSizes() {
+        int[] sizes = new int[seats];
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < seats; i++) sizes[i] = players.get(i).getHandSize();
+        return sizes;
+    }
+}
@@ -0,0 +1,420 @@
+package core.net;
+
+import core.model.Deck;
+import core.model.Game;
+import core.model.Player;
+import core.model.StrategyFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broadcasts published games to read-only viewers on a port of its own.
+ *
+ * A viewer connects, receives the list of games (GAMES) and sends WATCH
+ * for one of them with the view it wants and a token. It then gets the
+ * latest keyframe and the deltas since, and from there every update as it
+ * happens. Which hands a viewer sees is decided by {@link #grant}: without
+ * a granted token only {@link #PUBLIC} is allowed.
+ *
+ * Games never wait for viewers. Their {@link SpectatorFeed} encodes each
+ * update once and queues it here; one selector thread fans the same
+ * frames out to every viewer. A viewer that falls more than
+ * {@link #MAX_BACKLOG} bytes behind has its backlog dropped and, once its
+ * socket drains, skips ahead to the latest keyframe.
+ *
+ * Usage: {@code java core.net.SpectatorHub [port] [tables] [turnMillis]}
+ * hosts bot-only games for watching.
+ */
+public class SpectatorHub implements AutoCloseable {
+    /** View that shows hand sizes and pairs but no hand. */
+    public static final int PUBLIC = -1;
+    /** View that shows every hand. */
+    public static final int ALL_HANDS = -2;
+    /** Queued bytes above which a viewer is considered lagging. */
+    static final int MAX_BACKLOG = 64 * 1024;
+
+    private final int port;
+    private final AtomicInteger feedIds = new AtomicInteger();
+    private final Map<String, Integer> grants = new ConcurrentHashMap<>();
+    private final Queue<Posted> posted = new ConcurrentLinkedQueue<>();
+    private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+    private final Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running = true;
+
+    // hub thread only
+    private final Map<Integer, Stream> streams = new LinkedHashMap<>();
+
+    private record Posted(SpectatorFeed feed, SpectatorFeed.Update update) {}
+
+    /** Hub-side state of one feed. */
+    private static final class Stream {
+        final SpectatorFeed feed;
+        final List<Viewer> viewers = new ArrayList<>();
+        final List<SpectatorFeed.Update> sinceKeyframe = new ArrayList<>();
+        SpectatorFeed.Update keyframe;
+
+        Stream(SpectatorFeed feed) {
+            this.feed = feed;
+        }
+    }
+
+    /** One viewer socket; only the hub thread touches it. */
+    private static final class Viewer {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(512);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        int queued;
+        Stream stream;
+        int view = PUBLIC;
+        boolean lagging;
+
+        Viewer(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key     = key;
+        }
+
+        void send(ByteBuffer frame) {
+            ByteBuffer view = frame.duplicate();
+            out.add(view);
+            queued += view.remaining();
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        void send(SpectatorFeed.Update u) {
+            send(u.common());
+            ByteBuffer[] hands = u.hands();
+            for (int seat = 0; seat < hands.length; seat++) {
+                if (hands[seat] != null && maySee(view, seat)) send(hands[seat]);
+            }
+        }
+
+        /** Drops everything queued except a frame already partly written. */
+        void skip() {
+            ByteBuffer head = out.peek();
+            boolean partial = head != null && head.position() > 0;
+            out.clear();
+            queued = 0;
+            if (partial) {
+                out.add(head);
+                queued = head.remaining();
+            }
+            lagging = true;
+        }
+
+        /** @return true once everything queued has been written */
+        boolean flush() throws IOException {
+            while (!out.isEmpty()) {
+                ByteBuffer head = out.peek();
+                queued -= channel.write(head);
+                if (head.hasRemaining()) return false;
+                out.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            return true;
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    public SpectatorHub(int port) throws IOException {
+        this.port     = port;
+        this.selector = Selector.open();
+    }
+
+    /** @return true if a viewer with the given view may see the seat's hand */
+    static boolean maySee(int view, int seat) {
+        return view == ALL_HANDS || view == seat;
+    }
+
+    /**
+     * Lets viewers presenting {@code token} use a view: a seat index, or
+     * {@link #ALL_HANDS}. A token grants one view; granting again replaces it.
+     */
+    public void grant(String token, int view) {
+        Objects.requireNonNull(token, "token must not be null");
+        if (view < ALL_HANDS) throw new IllegalArgumentException("Unknown view " + view);
+        grants.put(token, view);
+    }
+
+    public void revoke(String token) {
+        grants.remove(token);
+    }
+
+    /**
+     * Publishes a game. Call it from the thread driving the game, or before
+     * that thread starts, once the cards are dealt; the game is published
+     * in its current state and followed from there.
+     *
+     * @return the feed, already listening to the game
+     */
+    public SpectatorFeed publish(Game game, String label) {
+        SpectatorFeed feed = new SpectatorFeed(this, feedIds.incrementAndGet(),
+                Objects.requireNonNull(label, "label must not be null"), game);
+        feed.open();
+        game.addListener(feed);
+        return feed;
+    }
+
+    /** Queues an update from a game thread; never blocks. */
+    void post(SpectatorFeed feed, SpectatorFeed.Update update) {
+        if (!running) return;
+        posted.add(new Posted(feed, update));
+        selector.wakeup();
+    }
+
+    /** Binds the port and starts the hub thread. */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 256);
+        Thread acceptor = new Thread(this::acceptLoop, "Spectator-Acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        Thread hub = new Thread(this::run, "Spectator-Hub");
+        hub.setDaemon(true);
+        hub.start();
+    }
+
+    /** @return the bound port (useful when started on port 0) */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel ch = serverChannel.accept();
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                accepted.add(ch);
+                selector.wakeup();
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    System.err.println("Warning: spectator accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                acceptPending();
+                Posted p;
+                while ((p = posted.poll()) != null) deliver(p.feed(), p.update());
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    Viewer v = (Viewer) key.attachment();
+                    try {
+                        if (key.isValid() && key.isWritable() && v.flush() && v.lagging) catchUp(v);
+                        if (key.isValid() && key.isReadable()) read(v);
+                    } catch (IOException e) {
+                        disconnect(v);
+                    } catch (RuntimeException e) {
+                        System.err.println("Warning: dropping spectator: " + e);
+                        disconnect(v);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Spectator hub stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Viewer v) v.close();
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private void acceptPending() throws IOException {
+        SocketChannel ch;
+        while ((ch = accepted.poll()) != null) {
+            ch.configureBlocking(false);
+            SelectionKey key = ch.register(selector, SelectionKey.OP_READ);
+            Viewer v = new Viewer(ch, key);
+            key.attach(v);
+            v.send(listing());
+        }
+    }
+
+    /** Keeps the stream's keyframe current and fans the update out. */
+    private void deliver(SpectatorFeed feed, SpectatorFeed.Update u) {
+        Stream s = streams.get(feed.id);
+        if (s == null) {
+            if (!u.keyframe()) return;  // feed ended before it was listed
+            s = new Stream(feed);
+            streams.put(feed.id, s);
+        }
+        if (u.keyframe()) {
+            s.keyframe = u;
+            s.sinceKeyframe.clear();
+            return;  // viewers that kept up already have this state
+        }
+        s.sinceKeyframe.add(u);
+        for (Viewer v : s.viewers) {
+            if (u.last()) {
+                v.send(u);  // even a lagging viewer learns how it ended
+                v.stream = null;
+            } else if (!v.lagging) {
+                v.send(u);
+                if (v.queued > MAX_BACKLOG) v.skip();
+            }
+        }
+        if (u.last()) streams.remove(feed.id);
+    }
+
+    /** Sends a lagging viewer's stream from the latest keyframe on. */
+    private void catchUp(Viewer v) {
+        v.lagging = false;
+        Stream s = v.stream;
+        if (s == null) return;
+        v.send(s.keyframe);
+        for (SpectatorFeed.Update u : s.sinceKeyframe) v.send(u);
+    }
+
+    private void read(Viewer v) throws IOException {
+        if (v.channel.read(v.in) < 0) {
+            disconnect(v);
+            return;
+        }
+        v.in.flip();
+        ByteBuffer body;
+        while ((body = Protocol.nextFrame(v.in)) != null) {
+            if (!dispatch(v, body)) {
+                disconnect(v);
+                return;
+            }
+        }
+        v.in.compact();
+        if (!v.in.hasRemaining()) disconnect(v);
+    }
+
+    /** @return false if the viewer broke the protocol */
+    private boolean dispatch(Viewer v, ByteBuffer body) {
+        if (!body.hasRemaining()) return false;
+        switch (body.get()) {
+            case Protocol.LIST -> v.send(listing());
+            case Protocol.WATCH -> {
+                if (body.remaining() < 4 + 1 + 1) return false;
+                int game = body.getInt();
+                int view = body.get();
+                String token = Protocol.readName(body);
+                Stream s = streams.get(game);
+                if (s == null) {
+                    v.send(Protocol.reject(game, Protocol.NO_SUCH_TABLE));
+                } else if (view != PUBLIC && !allowed(token, view, s.feed.seats)) {
+                    v.send(Protocol.reject(game, Protocol.NOT_PERMITTED));
+                } else {
+                    if (v.stream != null) v.stream.viewers.remove(v);
+                    v.stream = s;
+                    v.view = view;
+                    s.viewers.add(v);
+                    catchUp(v);
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean allowed(String token, int view, int seats) {
+        if (view >= seats || view < ALL_HANDS) return false;
+        Integer granted = grants.get(token);
+        return granted != null && (granted == ALL_HANDS || granted == view);
+    }
+
+    private ByteBuffer listing() {
+        int n = Math.min(streams.size(), 255);
+        int[] ids = new int[n], seats = new int[n];
+        List<String> labels = new ArrayList<>(n);
+        Iterator<Stream> it = streams.values().iterator();
+        for (int i = 0; i < n; i++) {
+            SpectatorFeed f = it.next().feed;
+            ids[i] = f.id;
+            seats[i] = f.seats;
+            labels.add(f.label);
+        }
+        return Protocol.games(ids, seats, labels);
+    }
+
+    private void disconnect(Viewer v) {
+        if (v.stream != null) v.stream.viewers.remove(v);
+        v.stream = null;
+        v.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverChannel != null) serverChannel.close();
+        selector.wakeup();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port       = args.length > 0 ? Integer.parseInt(args[0]) : 7778;
+        int tables     = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long turnMillis = args.length > 2 ? Long.parseLong(args[2]) : 500;
+
+        SpectatorHub hub = new SpectatorHub(port);
+        hub.start();
+        System.out.printf("Spectator hub on port %d: %d tables, one turn every %d ms%n",
+                hub.getPort(), tables, turnMillis);
+        for (int t = 1; t <= tables; t++) {
+            String label = "Table " + t;
+            Thread.ofVirtual().name("Spectated-" + t).start(() -> {
+                while (true) {
+                    List<Player> players = new ArrayList<>();
+                    for (int i = 0; i < 4; i++) {
+                        players.add(new Player("Bot " + i, List.of(), StrategyFactory.randomStrategy()));
+                    }
+                    Deck deck = new Deck();
+                    deck.shuffle();
+                    var dealt = deck.deal(players.size());
+                    for (int i = 0; i < players.size(); i++) players.get(i).setHand(dealt.get(i));
+                    Game game = new Game(players, false, null);
+                    game.start();
+                    SpectatorFeed feed = hub.publish(game, label);
+                    try {
+                        while (game.nextTurn()) Thread.sleep(turnMillis);
+                        Thread.sleep(5 * turnMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    } finally {
+                        feed.close();
+                    }
+                }
+            });
+        }
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,210 @@
+package core.net;
+
+import core.model.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One hosted {@link Game}. Remote seats move when their client sends ACT;
+ * every other seat is filled with a bot and played immediately.
+ *
+ * Each state change is broadcast as a DELTA stamped with a per-table
+ * sequence number; an ACT is only accepted if it carries the latest one,
+ * so a client can never move on a state it has not seen.
+ */
+final class Table implements GameListener {
+    /** Safety net against bot-only games that never converge. */
+    private static final int MAX_TURNS = 10_000;
+
+    final int id;
+    private final int seats;
+    private final int remoteSeats;
+    private final GameServer.Stats stats;
+    private final SpectatorHub spectators;
+    private final List<Connection> waiting = new ArrayList<>();
+    private final Connection[] conns;
+
+    private Game game;
+    private SpectatorFeed feed;
+    private int seq;
+    private int turns;
+    private boolean over;
+
+    // filled by onTurn() during nextTurn()
+    private int lastMover;
+    private int lastNeighbor;
+    private List<Card> lastPurged = Collections.emptyList();
+
+    /** @param spectators hub to publish the game to, or null */
+    Table(int id, int seats, int remoteSeats, GameServer.Stats stats, SpectatorHub spectators) {
+        this.id          = id;
+        this.seats       = seats;
+        this.remoteSeats = remoteSeats;
+        this.stats       = stats;
+        this.spectators  = spectators;
+        this.conns       = new Connection[seats];
+    }
+
+    /** Adds a client while the table is filling up; starts the game once full. */
+    void join(Connection c) {
+        waiting.add(c);
+        c.table = this;
+        if (waiting.size() == remoteSeats) {
+            start();
+        }
+    }
+
+    boolean isWaiting() {
+        return game == null;
+    }
+
+    boolean isOver() {
+        return over;
+    }
+
+    private void start() {
+        List<Player> players = new ArrayList<>(seats);
+        for (int seat = 0; seat < seats; seat++) {
+            if (seat < waiting.size()) {
+                Connection c = waiting.get(seat);
+                conns[seat] = c;
+                c.seat = seat;
+                players.add(new Player(c.name, List.of(), new RemoteSeatStrategy()));
+            } else {
+                players.add(new Player("Bot " + seat, List.of(), StrategyFactory.randomStrategy()));
+            }
+        }
+        waiting.clear();
+
+        Deck deck = new Deck();
+        deck.shuffle();
+        var dealt = deck.deal(seats);
+        for (int i = 0; i < seats; i++) {
+            players.get(i).setHand(dealt.get(i));
+        }
+        game = new Game(players, false, null);
+        game.addListener(this);
+        game.start();
+        if (spectators != null) feed = spectators.publish(game, "Table " + id);
+        stats.tablesStarted.increment();
+
+        for (Connection c : conns) {
+            if (c != null) c.send(Protocol.joined(id, c.seat, seats));
+        }
+        broadcast(Protocol.delta(id, seq, -1, -1, game.getNextIndex(), handSizes(), List.of()));
+        for (int seat = 0; seat < seats; seat++) {
+            sendHand(seat);
+        }
+        advance();
+    }
+
+    /** Handles an ACT from a seated client. */
+    void act(Connection c, int lastSeq) {
+        if (over || game == null) {
+            c.send(Protocol.reject(id, Protocol.NO_SUCH_TABLE));
+            return;
+        }
+        if (c.seat != game.getNextIndex()) {
+            c.send(Protocol.reject(id, Protocol.NOT_YOUR_TURN));
+            return;
+        }
+        if (lastSeq != seq) {
+            c.send(Protocol.reject(id, Protocol.STALE_SEQ));
+            return;
+        }
+        step();
+        advance();
+    }
+
+    /** A client disconnected; its seat is played by the server from now on. */
+    void leave(Connection c) {
+        if (game == null) {
+            waiting.remove(c);
+            return;
+        }
+        if (c.seat >= 0 && conns[c.seat] == c) {
+            conns[c.seat] = null;
+            advance();
+        }
+    }
+
+    /** Plays bot and abandoned seats until a connected client must act. */
+    private void advance() {
+        while (!over) {
+            int next = game.getNextIndex();
+            if (next < 0 || turns >= MAX_TURNS) {
+                finish();
+                return;
+            }
+            if (conns[next] != null && !conns[next].isOpen()) {
+                conns[next] = null;  // dropped while being sent to
+            }
+            if (conns[next] != null) return;
+            step();
+        }
+    }
+
+    private void step() {
+        if (!game.nextTurn()) {
+            finish();
+            return;
+        }
+        turns++;
+        seq++;
+        stats.moves.increment();
+        broadcast(Protocol.delta(id, seq, lastMover, lastNeighbor,
+                game.getNextIndex(), handSizes(), lastPurged));
+        sendHand(lastMover);
+        sendHand(lastNeighbor);
+    }
+
+    private void finish() {
+        if (over) return;
+        over = true;
+        int loser = game.getLoser()
+                .map(game.getPlayers()::indexOf)
+                .orElse(-1);
+        broadcast(Protocol.over(id, ++seq, loser));
+        if (feed != null) feed.close();
+        for (int seat = 0; seat < seats; seat++) {
+            if (conns[seat] != null) {
+                conns[seat].table = null;
+                conns[seat].seat = -1;
+                conns[seat] = null;
+            }
+        }
+        stats.tablesFinished.increment();
+    }
+
+    @Override
+    public void onTurn(Game g, int mover, int neighbor, List<Card> purged) {
+        lastMover    = mover;
+        lastNeighbor = neighbor;
+        lastPurged   = purged;
+    }
+
+    private void broadcast(ByteBuffer frame) {
+        for (Connection c : conns) {
+            if (c != null) c.send(frame);
+        }
+    }
+
+    private void sendHand(int seat) {
+        Connection c = conns[seat];
+        if (c != null) {
+            c.send(Protocol.hand(id, seq, game.getPlayers().get(seat).getHand()));
+        }
+    }
+
+    private int[] handSizes() {
+        int[] sizes = new int[seats];
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < seats; i++) {
+            sizes[i] = players.get(i).getHandSize();
+        }
+        return sizes;
+    }
+}
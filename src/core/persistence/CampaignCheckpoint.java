@@ -0,0 +1,79 @@
+package core.persistence;
+
+import core.stats.GameMetrics;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Progress of a long simulation campaign, so that it can resume after an
+ * interruption without replaying or losing a game.
+ *
+ * A campaign plays every line-up over the same seeds, cut into fixed-size
+ * chunks. The checkpoint holds the campaign's description, and for each
+ * line-up a bit set of finished chunks plus the merged metrics of exactly
+ * those chunks. Layout, after a magic number and version: the description,
+ * the line-up count, then per line-up the chunk bits as longs followed by
+ * {@link GameMetrics#write}. A few kilobytes per line-up whatever the
+ * number of games; written to a temporary file and moved into place, so a
+ * crash mid-write leaves the previous checkpoint intact.
+ *
+ * @param campaign the description of the campaign, compared on resume
+ */
+public record CampaignCheckpoint(String campaign, List<Progress> lineups) {
+    private static final int MAGIC = 0x50434331;  // "PCC1"
+    private static final int VERSION = 1;
+
+    /**
+     * @param done    chunks whose games are all in {@code metrics}
+     * @param metrics the merged metrics of those chunks
+     */
+    public record Progress(BitSet done, GameMetrics metrics) {}
+
+    public CampaignCheckpoint {
+        lineups = List.copyOf(lineups);
+    }
+
+    /** Writes the checkpoint, replacing the previous one atomically. */
+    public void save(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(campaign);
+            out.writeInt(lineups.size());
+            for (Progress p : lineups) {
+                long[] bits = p.done().toLongArray();
+                out.writeInt(bits.length);
+                for (long word : bits) out.writeLong(word);
+                p.metrics().write(out);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint written by {@link #save}.
+     *
+     * @throws IOException if the file is missing, truncated or not a checkpoint
+     */
+    public static CampaignCheckpoint load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a campaign checkpoint: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported checkpoint version " + version);
+            String campaign = in.readUTF();
+            int n = in.readInt();
+            List<Progress> lineups = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                long[] bits = new long[in.readInt()];
+                for (int w = 0; w < bits.length; w++) bits[w] = in.readLong();
+                lineups.add(new Progress(BitSet.valueOf(bits), GameMetrics.read(in)));
+            }
+            return new CampaignCheckpoint(campaign, lineups);
+        }
+    }
+}
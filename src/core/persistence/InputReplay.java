@@ -0,0 +1,302 @@
+package core.persistence;
+
+import core.gui.HumanStrategy;
+import core.model.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A replay that stores a game's inputs instead of its states: the seed of
+ * its {@link GameRandom}, the rules, the seats and every action the human
+ * players took. Bots, draws and the deal all follow from the seed, so
+ * {@link #resimulate()} plays the exact same game again. The file is a few
+ * hundred bytes however long the game, e.g.
+ * <pre>
+ * Pouilleux Input Replay 2
+ * seed=-4962768465676381896
+ * rules=classic
+ * players=Alice=Human | Bot 1=DrawThenPurge
+ * actions=PEEREE
+ * steps=41
+ * loser=Bot 1
+ * </pre>
+ * The loser and step count are what the game ended with when recorded;
+ * {@link ReplayVerifier} checks a re-simulation still matches them.
+ */
+public final class InputReplay {
+    /** File name suffix telling input replays from full logs. */
+    public static final String SUFFIX = ".inp";
+
+    /**
+     * Version 2: hands are kept in canonical order and bots no longer
+     * shuffle their hands, so a version 1 seed plays a different game.
+     */
+    static final String MAGIC = "Pouilleux Input Replay 2";
+    private static final String MAGIC_PREFIX = "Pouilleux Input Replay ";
+    /** Strategy name of human seats, see {@link ReplayLogger#strategyName}. */
+    static final String HUMAN = "Human";
+    // well past any real game; stops a corrupt replay from looping forever
+    private static final int MAX_STEPS = 100_000;
+
+    private final long seed;
+    private final RuleSet rules;
+    private final List<String> names;
+    private final List<String> strategies;
+    private final String actions;
+    private final int steps;
+    private final String loser;
+
+    /**
+     * @param actions one letter per human action, see {@link #code}
+     * @param loser   name of the recorded loser, or null if there was none
+     */
+    public InputReplay(long seed, RuleSet rules, List<String> names, List<String> strategies,
+                       String actions, int steps, String loser) {
+        if (names.size() != strategies.size()) {
+            throw new IllegalArgumentException("One strategy per seat expected");
+        }
+        this.seed       = seed;
+        this.rules      = Objects.requireNonNull(rules, "rules must not be null");
+        this.names      = List.copyOf(names);
+        this.strategies = List.copyOf(strategies);
+        this.actions    = Objects.requireNonNull(actions, "actions must not be null");
+        this.steps      = steps;
+        this.loser      = loser;
+    }
+
+    public long seed() { return seed; }
+    public RuleSet rules() { return rules; }
+    public List<String> names() { return names; }
+    public List<String> strategies() { return strategies; }
+    public int actionCount() { return actions.length(); }
+    public int steps() { return steps; }
+    /** @return the recorded loser's name, or null */
+    public String loser() { return loser; }
+
+    /** @return true if the lines are an input replay rather than a full log */
+    public static boolean isInputReplay(List<String> lines) {
+        return !lines.isEmpty() && lines.get(0).startsWith(MAGIC_PREFIX);
+    }
+
+    /**
+     * Parses the lines written by {@link #format()}.
+     *
+     * @throws IllegalArgumentException if a field is missing or malformed
+     */
+    public static InputReplay parse(List<String> lines) {
+        if (!isInputReplay(lines)) {
+            throw new IllegalArgumentException("Not an input replay");
+        }
+        if (!lines.get(0).equals(MAGIC)) {
+            throw new IllegalArgumentException("Unsupported input replay version: " + lines.get(0));
+        }
+        Long seed = null;
+        RuleSet rules = null;
+        List<String> names = new ArrayList<>(), strategies = new ArrayList<>();
+        String actions = null, loser = null;
+        int steps = -1;
+        for (String line : lines.subList(1, lines.size())) {
+            int eq = line.indexOf('=');
+            if (eq < 0) continue;
+            String key = line.substring(0, eq), val = line.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "seed"    -> seed = Long.parseLong(val);
+                    case "rules"   -> rules = parseRules(val);
+                    case "players" -> {
+                        for (String seat : val.split(" \\| ")) {
+                            int sep = seat.lastIndexOf('=');
+                            names.add(seat.substring(0, sep));
+                            strategies.add(seat.substring(sep + 1));
+                        }
+                    }
+                    case "actions" -> actions = val;
+                    case "steps"   -> steps = Integer.parseInt(val);
+                    case "loser"   -> loser = val.isEmpty() ? null : val;
+                    default -> { } // newer fields
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Bad input replay field " + key + ": " + val, e);
+            }
+        }
+        if (seed == null || rules == null || names.size() < 2 || actions == null || steps < 0) {
+            throw new IllegalArgumentException("Incomplete input replay");
+        }
+        for (int i = 0; i < actions.length(); i++) action(actions.charAt(i));
+        return new InputReplay(seed, rules, names, strategies, actions, steps, loser);
+    }
+
+    /** @return the file's lines */
+    public List<String> format() {
+        StringBuilder players = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) players.append(" | ");
+            players.append(names.get(i)).append('=').append(strategies.get(i));
+        }
+        return List.of(MAGIC,
+                "seed=" + seed,
+                "rules=" + formatRules(rules),
+                "players=" + players,
+                "actions=" + actions,
+                "steps=" + steps,
+                "loser=" + (loser == null ? "" : loser));
+    }
+
+    /**
+     * Plays the game again from its inputs, keeping every state in memory.
+     *
+     * @return the finished game
+     * @throws IllegalArgumentException if a strategy is unknown or the game
+     *         no longer plays out the way it was recorded (actions run out)
+     */
+    public Game resimulate() {
+        Iterator<HumanStrategy.Action> script = actions.chars()
+                .mapToObj(c -> action((char) c)).iterator();
+        GameRandom random = new GameRandom(seed);
+        Deck deck = new Deck(rules.compile());
+        deck.shuffle(random);
+        List<List<Card>> dealt = deck.deal(names.size());
+        List<Player> players = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            MoveStrategy strategy = strategies.get(i).equals(HUMAN)
+                    ? new HumanStrategy(script)
+                    : StrategyFactory.create(strategies.get(i));
+            players.add(new Player(names.get(i), dealt.get(i), strategy));
+        }
+        Game game = new Game(players, true, null, rules, random);
+        try {
+            game.start();
+            while (game.nextTurn()) {
+                if (game.getStepCount() > MAX_STEPS) {
+                    throw new IllegalArgumentException("Replay did not finish within " + MAX_STEPS + " steps");
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Replay does not re-simulate: " + e.getMessage(), e);
+        }
+        return game;
+    }
+
+    /**
+     * Re-simulates the game and writes it out the way {@link ReplayLogger}
+     * would have, so full-log readers such as {@link ReplayTimeline} work
+     * on input replays unchanged.
+     */
+    public List<String> expand() {
+        Game game = resimulate();
+        List<String> out = new ArrayList<>();
+        out.add("Pouilleux Replay Log — re-simulated from seed " + seed);
+        out.add("");
+        out.add(ReplayLogger.rulesLine(rules));
+        out.add(ReplayLogger.playersLine(game.getPlayers()));
+        out.add("");
+        for (GameState state : game.getHistory()) {
+            out.addAll(ReplayLogger.stateLines(state));
+        }
+        return out;
+    }
+
+    /** @return the letter an action is stored as */
+    static char code(HumanStrategy.Action action) {
+        return switch (action) {
+            case PURGE_PAIRS   -> 'P';
+            case SORT_BY_RANK  -> 'R';
+            case SORT_BY_SUIT  -> 'S';
+            case SORT_BY_COLOR -> 'C';
+            case END_TURN      -> 'E';
+        };
+    }
+
+    private static HumanStrategy.Action action(char code) {
+        return switch (code) {
+            case 'P' -> HumanStrategy.Action.PURGE_PAIRS;
+            case 'R' -> HumanStrategy.Action.SORT_BY_RANK;
+            case 'S' -> HumanStrategy.Action.SORT_BY_SUIT;
+            case 'C' -> HumanStrategy.Action.SORT_BY_COLOR;
+            case 'E' -> HumanStrategy.Action.END_TURN;
+            default -> throw new IllegalArgumentException("Unknown action code: " + code);
+        };
+    }
+
+    /** A preset by short name, anything else field by field. */
+    static String formatRules(RuleSet rules) {
+        for (var e : RuleSet.presets().entrySet()) {
+            if (e.getValue().equals(rules)) return e.getKey();
+        }
+        return String.join(",", rules.removed() == null ? "-" : String.valueOf(rules.removed().id()),
+                rules.pairRule().name(), String.valueOf(rules.decks()),
+                String.valueOf(rules.losingCard().id()), rules.name());
+    }
+
+    static RuleSet parseRules(String val) {
+        String[] f = val.split(",", 5);
+        if (f.length < 5) return RuleSet.byName(val);
+        return new RuleSet(f[4], f[0].equals("-") ? null : Card.fromId(Integer.parseInt(f[0])),
+                PairRule.valueOf(f[1]), Integer.parseInt(f[2]), Card.fromId(Integer.parseInt(f[3])));
+    }
+
+    /**
+     * Captures the inputs of a game being played and writes them as an
+     * input replay once it ends; nothing touches the disk before that.
+     * Actions arrive on the game thread and the file is written after the
+     * game loop has finished.
+     */
+    public static final class Recorder {
+        private final long seed;
+        private final RuleSet rules;
+        private final List<String> names = new ArrayList<>();
+        private final List<String> strategies = new ArrayList<>();
+        private final StringBuilder actions = new StringBuilder();
+
+        /** @param seed the seed of the {@link GameRandom} the deck was shuffled with */
+        public Recorder(long seed, RuleSet rules, List<Player> players) {
+            this.seed  = seed;
+            this.rules = rules;
+            for (Player p : players) {
+                names.add(p.getName());
+                strategies.add(ReplayLogger.strategyName(p));
+            }
+        }
+
+        /** Appends one human action; pass as {@link HumanStrategy#setRecorder}. */
+        public void record(HumanStrategy.Action action) {
+            actions.append(code(action));
+        }
+
+        /**
+         * Writes {@code replays/replay_game_{n}_{timestamp}.inp} for the
+         * finished game and indexes it.
+         *
+         * @return the file name
+         */
+        public String finish(Game game) throws IOException {
+            String loser = game.getLoser().map(Player::getName).orElse(null);
+            InputReplay replay = new InputReplay(seed, rules, names, strategies,
+                    actions.toString(), game.getStepCount(), loser);
+            Files.createDirectories(ReplayStore.DIR);
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            String fileName = String.format("replay_game_%d_%s%s", ReplayStore.maxGameNumber() + 1, ts, SUFFIX);
+            ReplayStore.markOpen(fileName);
+            try {
+                Files.write(ReplayStore.DIR.resolve(fileName), replay.format(), StandardCharsets.UTF_8);
+            } finally {
+                ReplayStore.markClosed(fileName);
+            }
+            try {
+                ReplayIndex.shared().add(ReplayIndex.read(fileName, replay.expand()));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Warning: could not index replay " + fileName + ": " + e.getMessage());
+            }
+            ReplayArchiver.requestRun();
+            return fileName;
+        }
+    }
+}
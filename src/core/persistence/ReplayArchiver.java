@@ -0,0 +1,61 @@
+package core.persistence;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that rolls finished replays into packs and enforces
+ * the {@link RetentionPolicy}. Runs periodically and shortly after each
+ * replay is closed.
+ */
+public final class ReplayArchiver {
+    /** Loose replays needed before a new pack is written. */
+    static final int MIN_BATCH = 16;
+    private static final long PERIOD_SECONDS = 300;
+
+    private static ScheduledExecutorService executor;
+    private static volatile RetentionPolicy policy = RetentionPolicy.UNLIMITED;
+
+    private ReplayArchiver() {}
+
+    /** Starts the archiver (once) and runs a first pass right away. */
+    public static synchronized void start(RetentionPolicy retention) {
+        policy = retention;
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Replay-Archiver");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(ReplayArchiver::runOnce, 0, PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** Replaces the retention policy; applied on the next pass, which is scheduled now. */
+    public static void setPolicy(RetentionPolicy retention) {
+        policy = retention;
+        requestRun();
+    }
+
+    /** Schedules a pass if the archiver is running. */
+    static synchronized void requestRun() {
+        if (executor != null) executor.execute(ReplayArchiver::runOnce);
+    }
+
+    /** One archiving pass: pack, then trim. Safe to call from any thread. */
+    public static void runOnce() {
+        try {
+            ReplayStore.packLoose(MIN_BATCH);
+            List<String> deleted = ReplayStore.applyRetention(policy, System.currentTimeMillis());
+            if (!deleted.isEmpty()) {
+                ReplayIndex index = ReplayIndex.shared();
+                for (String name : deleted) index.remove(name);
+                System.out.println("Replay retention removed " + deleted.size() + " replays");
+            }
+        } catch (Exception e) {
+            System.err.println("Warning: replay archiving failed: " + e.getMessage());
+        }
+    }
+}
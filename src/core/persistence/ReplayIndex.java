@@ -0,0 +1,445 @@
+package core.persistence;
+
+import core.model.Card;
+import core.model.CompiledRules;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * On-disk inverted index over finished replays, for queries like
+ * {@code holds:alice:jack_of_spades steps>500}.
+ *
+ * Each replay is a document with a step count and a set of terms:
+ * <ul>
+ *   <li>{@code player:<name>} and {@code strategy:<strategy>} for every seat,</li>
+ *   <li>{@code loser:<name>},</li>
+ *   <li>{@code holds:<name>:<card>} and {@code holds:<card>} for every card
+ *       still in a hand at the end, e.g. {@code holds:jack_of_spades}.</li>
+ * </ul>
+ * Terms map to sorted posting lists of document ids held in memory.
+ * On disk the index is a snapshot ({@code index.snap}) plus an append-only
+ * journal ({@code index.journal}) of documents added and removed since;
+ * the journal is folded into a new snapshot once it grows past
+ * {@link #COMPACT_AFTER} records. A removed or replaced document stays in
+ * the posting lists until then; compacting drops it and renumbers the
+ * live documents, so retention deletes do not make the index grow.
+ */
+public final class ReplayIndex {
+    private static final Path DIR      = Paths.get("replays");
+    private static final String SNAPSHOT = "index.snap";
+    private static final String JOURNAL  = "index.journal";
+    private static final int MAGIC       = 0x50524931; // "PRI1"
+    private static final int COMPACT_AFTER = 1024;
+
+    private static ReplayIndex shared;
+
+    private final Path dir;
+    private final List<String> files = new ArrayList<>();
+    private final IntList steps = new IntList();
+    private final Map<String, Integer> byFile = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private BufferedWriter journal;
+    private int journalRecords;
+
+    /** A finished replay as seen by the index. */
+    public record Entry(String file, int steps, List<String> terms) {}
+
+    ReplayIndex(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Returns the index of the {@code replays} directory, loading it and
+     * indexing any log it does not know about on first use.
+     */
+    public static synchronized ReplayIndex shared() {
+        if (shared == null) {
+            ReplayIndex index = new ReplayIndex(DIR);
+            try {
+                index.load();
+                index.reconcile();
+            } catch (IOException e) {
+                System.err.println("Warning: replay index unavailable, rebuilding: " + e.getMessage());
+                index.reset();
+            }
+            shared = index;
+        }
+        return shared;
+    }
+
+    /**
+     * Builds the terms of a replay.
+     *
+     * @param names      player names in seat order
+     * @param strategies strategy names in seat order, or null if unknown
+     * @param endHands   each seat's cards at the last step
+     * @param rules      the rules the game was played under, which name the losing cards
+     */
+    public static Entry entry(String file, int steps, List<String> names,
+                              List<String> strategies, List<List<Card>> endHands, CompiledRules rules) {
+        Set<String> terms = new LinkedHashSet<>();
+        int withCards = 0, cards = 0, last = -1, losingHolder = -1;
+        for (int s = 0; s < names.size(); s++) {
+            String name = normalize(names.get(s));
+            terms.add("player:" + name);
+            if (strategies != null && s < strategies.size()) {
+                terms.add("strategy:" + normalize(strategies.get(s)));
+            }
+            List<Card> hand = s < endHands.size() ? endHands.get(s) : List.of();
+            if (!hand.isEmpty()) {
+                withCards++;
+                cards += hand.size();
+                last = s;
+            }
+            if (hand.size() == 1 && rules.isLosing(hand.get(0))) losingHolder = s;
+            for (Card c : hand) {
+                String card = normalize(c.toString());
+                terms.add("holds:" + name + ":" + card);
+                terms.add("holds:" + card);
+            }
+        }
+        // same outcome rules as Game.getLoser(); unfinished games have no loser
+        int loser = withCards == 1 ? last : withCards == 2 && cards <= 3 ? losingHolder : -1;
+        if (loser >= 0) terms.add("loser:" + normalize(names.get(loser)));
+        return new Entry(file, steps, List.copyOf(terms));
+    }
+
+    /** Adds or replaces a replay and appends it to the journal. */
+    public synchronized void add(Entry e) {
+        try {
+            insert(e);
+            appendJournal(e);
+        } catch (IOException ex) {
+            System.err.println("Warning: failed to update replay index: " + ex.getMessage());
+        }
+    }
+
+    /** Drops every document and deletes the index files. */
+    public synchronized void clear() {
+        try {
+            if (journal != null) journal.close();
+        } catch (IOException ignored) {
+        }
+        journal = null;
+        reset();
+        try {
+            Files.deleteIfExists(dir.resolve(SNAPSHOT));
+            Files.deleteIfExists(dir.resolve(JOURNAL));
+        } catch (IOException e) {
+            System.err.println("Warning: could not delete replay index: " + e.getMessage());
+        }
+    }
+
+    /** @return number of indexed replays */
+    public synchronized int size() {
+        return byFile.size();
+    }
+
+    /**
+     * Runs a query and returns matching replay file names, newest first.
+     *
+     * Clauses are separated by spaces and must all match: {@code player:},
+     * {@code strategy:}, {@code loser:} and {@code holds:} terms, step
+     * bounds such as {@code steps>500} or {@code steps<=100}, and bare words,
+     * which are taken as player names. Values with spaces go in quotes,
+     * e.g. {@code loser:"Bot 1"}; card names are written
+     * {@code jack_of_spades}.
+     *
+     * @throws IllegalArgumentException on a malformed clause
+     */
+    public synchronized List<String> search(String query) {
+        List<IntList> lists = new ArrayList<>();
+        int minSteps = Integer.MIN_VALUE, maxSteps = Integer.MAX_VALUE;
+        for (String clause : tokenize(query)) {
+            String lower = clause.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("steps")) {
+                String rest = lower.substring(5);
+                String op = rest.startsWith(">=") || rest.startsWith("<=") ? rest.substring(0, 2)
+                        : rest.isEmpty() ? "" : rest.substring(0, 1);
+                int value;
+                try {
+                    value = Integer.parseInt(rest.substring(op.length()).trim());
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Bad step clause: " + clause);
+                }
+                switch (op) {
+                    case ">"  -> minSteps = Math.max(minSteps, value + 1);
+                    case ">=" -> minSteps = Math.max(minSteps, value);
+                    case "<"  -> maxSteps = Math.min(maxSteps, value - 1);
+                    case "<=" -> maxSteps = Math.min(maxSteps, value);
+                    case "=", ":" -> {
+                        minSteps = Math.max(minSteps, value);
+                        maxSteps = Math.min(maxSteps, value);
+                    }
+                    default -> throw new IllegalArgumentException("Bad step clause: " + clause);
+                }
+                continue;
+            }
+            String term = clause.contains(":") ? normalize(clause) : "player:" + normalize(clause);
+            IntList list = postings.get(term);
+            if (list == null) return List.of();
+            lists.add(list);
+        }
+
+        List<String> out = new ArrayList<>();
+        if (lists.isEmpty()) {
+            for (int doc = files.size() - 1; doc >= 0; doc--) {
+                collect(doc, minSteps, maxSteps, out);
+            }
+            return out;
+        }
+        // intersect from the shortest list, probing the others by binary search
+        lists.sort(Comparator.comparingInt(l -> l.size));
+        IntList first = lists.get(0);
+        outer:
+        for (int i = first.size - 1; i >= 0; i--) {
+            int doc = first.data[i];
+            for (int k = 1; k < lists.size(); k++) {
+                IntList l = lists.get(k);
+                if (Arrays.binarySearch(l.data, 0, l.size, doc) < 0) continue outer;
+            }
+            collect(doc, minSteps, maxSteps, out);
+        }
+        return out;
+    }
+
+    private void collect(int doc, int minSteps, int maxSteps, List<String> out) {
+        String file = files.get(doc);
+        if (file == null) return;
+        int s = steps.data[doc];
+        if (s >= minSteps && s <= maxSteps) out.add(file);
+    }
+
+    /** Forgets a replay, e.g. after its file was deleted. */
+    public synchronized void remove(String file) {
+        Integer doc = byFile.remove(file);
+        if (doc == null) return;
+        files.set(doc, null);
+        try {
+            if (journalRecords >= COMPACT_AFTER) {
+                compact();
+                return;
+            }
+            ensureJournal();
+            journal.write("-\t" + file);
+            journal.newLine();
+            journal.flush();
+            journalRecords++;
+        } catch (IOException e) {
+            System.err.println("Warning: failed to update replay index: " + e.getMessage());
+        }
+    }
+
+    // --- internals -------------------------------------------------------
+
+    private void insert(Entry e) {
+        Integer old = byFile.remove(e.file());
+        if (old != null) files.set(old, null);
+        int doc = files.size();
+        files.add(e.file());
+        steps.add(e.steps());
+        byFile.put(e.file(), doc);
+        for (String term : e.terms()) {
+            postings.computeIfAbsent(term, t -> new IntList()).add(doc);
+        }
+    }
+
+    private void reset() {
+        files.clear();
+        steps.size = 0;
+        byFile.clear();
+        postings.clear();
+        journalRecords = 0;
+    }
+
+    private void load() throws IOException {
+        Path snap = dir.resolve(SNAPSHOT);
+        if (Files.exists(snap)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snap)))) {
+                if (in.readInt() != MAGIC) throw new IOException("Not a replay index: " + snap);
+                int docs = in.readInt();
+                for (int doc = 0; doc < docs; doc++) {
+                    String file = in.readUTF();
+                    files.add(file.isEmpty() ? null : file);
+                    steps.add(in.readInt());
+                    if (!file.isEmpty()) byFile.put(file, doc);
+                }
+                int terms = in.readInt();
+                for (int t = 0; t < terms; t++) {
+                    String term = in.readUTF();
+                    IntList list = new IntList();
+                    int n = in.readInt();
+                    for (int i = 0; i < n; i++) list.add(in.readInt());
+                    postings.put(term, list);
+                }
+            }
+        }
+        Path log = dir.resolve(JOURNAL);
+        if (Files.exists(log)) {
+            for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t");
+                if (parts.length < 2) continue; // torn last line
+                journalRecords++;
+                if (parts[0].equals("-")) {
+                    Integer doc = byFile.remove(parts[1]);
+                    if (doc != null) files.set(doc, null);
+                    continue;
+                }
+                insert(new Entry(parts[0], Integer.parseInt(parts[1]),
+                        Arrays.asList(parts).subList(2, parts.length)));
+            }
+        }
+    }
+
+    /** Indexes replays written without the index and drops entries whose replay is gone. */
+    private void reconcile() {
+        Set<String> present = new TreeSet<>(ReplayStore.list());
+        for (String file : new ArrayList<>(byFile.keySet())) {
+            if (!present.contains(file)) remove(file);
+        }
+        for (String file : present) {
+            if (byFile.containsKey(file)) continue;
+            try {
+                add(read(file, ReplayStore.readLog(file)));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Warning: could not index replay " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Builds an entry from the text of a replay log. */
+    static Entry read(String file, List<String> lines) {
+        ReplayTimeline timeline = ReplayTimeline.parse(lines);
+        List<String> strategies = null;
+        for (String line : lines) {
+            if (line.startsWith(ReplayLogger.PLAYERS_HEADER)) {
+                strategies = ReplayLogger.parseStrategies(line);
+                break;
+            }
+        }
+        List<List<Card>> end = new ArrayList<>();
+        if (timeline.size() > 0) {
+            ReplayTimeline.Cursor c = timeline.cursor();
+            c.seek(timeline.size() - 1);
+            for (int s = 0; s < timeline.players().size(); s++) end.add(c.hand(s));
+        }
+        return entry(file, timeline.size(), timeline.players(), strategies, end, timeline.rules());
+    }
+
+    private void appendJournal(Entry e) throws IOException {
+        if (journalRecords >= COMPACT_AFTER) {
+            compact();
+            return;
+        }
+        ensureJournal();
+        StringBuilder line = new StringBuilder(e.file()).append('\t').append(e.steps());
+        for (String t : e.terms()) line.append('\t').append(t);
+        journal.write(line.toString());
+        journal.newLine();
+        journal.flush();
+        journalRecords++;
+    }
+
+    private void ensureJournal() throws IOException {
+        if (journal == null) {
+            Files.createDirectories(dir);
+            journal = Files.newBufferedWriter(dir.resolve(JOURNAL), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Drops removed and replaced documents from every posting list and
+     * renumbers the rest in order, which keeps each list sorted.
+     */
+    private void dropDead() {
+        int[] renumber = new int[files.size()];
+        int live = 0;
+        for (int doc = 0; doc < files.size(); doc++) {
+            String f = files.get(doc);
+            if (f == null) {
+                renumber[doc] = -1;
+                continue;
+            }
+            renumber[doc] = live;
+            files.set(live, f);
+            steps.data[live] = steps.data[doc];
+            byFile.put(f, live);
+            live++;
+        }
+        files.subList(live, files.size()).clear();
+        steps.size = live;
+        for (Iterator<IntList> it = postings.values().iterator(); it.hasNext(); ) {
+            IntList l = it.next();
+            int n = 0;
+            for (int i = 0; i < l.size; i++) {
+                int doc = renumber[l.data[i]];
+                if (doc >= 0) l.data[n++] = doc;
+            }
+            l.size = n;
+            if (n == 0) it.remove();
+        }
+    }
+
+    /** Writes the live documents to a fresh snapshot and empties the journal. */
+    private void compact() throws IOException {
+        dropDead();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(files.size());
+            for (int doc = 0; doc < files.size(); doc++) {
+                String f = files.get(doc);
+                out.writeUTF(f == null ? "" : f);
+                out.writeInt(steps.data[doc]);
+            }
+            out.writeInt(postings.size());
+            for (var e : postings.entrySet()) {
+                out.writeUTF(e.getKey());
+                IntList l = e.getValue();
+                out.writeInt(l.size);
+                for (int i = 0; i < l.size; i++) out.writeInt(l.data[i]);
+            }
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (journal != null) journal.close();
+        journal = Files.newBufferedWriter(dir.resolve(JOURNAL), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        journalRecords = 0;
+    }
+
+    static String normalize(String s) {
+        return s.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('\t', '_');
+    }
+
+    /** Splits on spaces, keeping quoted runs together and dropping the quotes. */
+    private static List<String> tokenize(String query) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (char c : query.toCharArray()) {
+            if (c == '"') quoted = !quoted;
+            else if (Character.isWhitespace(c) && !quoted) {
+                if (!cur.isEmpty()) out.add(cur.toString());
+                cur.setLength(0);
+            } else cur.append(c);
+        }
+        if (!cur.isEmpty()) out.add(cur.toString());
+        return out;
+    }
+
+    /** Growable sorted int array used for posting lists. */
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+}
@@ -1,31 +1,84 @@
 // src/main/java/core/persistence/ReplayLogger.java
 package core.persistence;
 
+import core.model.Card;
+import core.model.CompiledRules;
 import core.model.GameState;
+import core.model.GuardedStrategy;
+import core.model.Player;
 import core.model.PlayerSnapshot;
+import core.model.RuleSet;
+import core.jfr.ReplayWriteEvent;
+import core.stats.Instrumentation;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
  * Logs each GameState to a per-game text file named:
  *   replays/replay_game_{n}_{timestamp}.log
  *
- * Automatically picks n = (max existing n) + 1.
+ * Automatically picks n = (max existing n) + 1, counting replays already
+ * rolled into packs. Finished files are added to the {@link ReplayIndex}
+ * and handed to the {@link ReplayArchiver} on {@link #close()}.
+ *
+ * Writing happens on a shared background thread so the game loop never
+ * waits on the disk; states are queued in order and {@link #close()}
+ * blocks until everything queued before it has been written and flushed.
+ * The writer flushes whenever its queue drains and, under a steady stream
+ * of states, at least every {@link #MAX_UNFLUSHED_MS} ms, so a crash loses
+ * at most that much of a replay. At exit a shutdown hook writes whatever
+ * is still queued and flushes every open replay.
  */
 public class ReplayLogger implements AutoCloseable {
+    /** Prefix of the line listing each seat as {@code name=strategy}. */
+    static final String PLAYERS_HEADER = "PLAYERS: ";
+    /** Prefix of the line naming the rules, as {@link InputReplay} writes them. */
+    static final String RULES_HEADER = "RULES: ";
+
     private static final Path DIR = Paths.get("replays");
-    private static final Pattern FILENAME_REGEX =
-            Pattern.compile("^replay_game_(\\d+)_.*\\.log$");
+    /** Longest a written state may stay in the buffer while more keep coming. */
+    private static final long MAX_UNFLUSHED_MS = 200;
+    /** How long the exit hook waits for the queue to drain. */
+    private static final long EXIT_WAIT_MS = 2_000;
+    private static final Set<ReplayLogger> OPEN = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger PENDING = new AtomicInteger();
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Replay-Writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        Instrumentation.replayQueue(PENDING::get);
+        Runtime.getRuntime().addShutdownHook(new Thread(ReplayLogger::flushAll, "Replay-Flush"));
+    }
+
     private final BufferedWriter writer;
+    private final String fileName;
+    private List<String> strategies;
+    private CompiledRules rules = CompiledRules.CLASSIC;
+    private GameState lastState;
+    private int steps;
+    private long lastFlush = System.nanoTime();  // writer thread only
     private final DateTimeFormatter timeFmt =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -33,21 +86,16 @@ public class ReplayLogger implements AutoCloseable {
         // ensure directory exists
         Files.createDirectories(DIR);
 
-        // scan for existing files, extract their game numbers
-        int nextGame = Files.list(DIR)
-                .map(Path::getFileName)
-                .map(Path::toString)
-                .map(FILENAME_REGEX::matcher)
-                .filter(Matcher::matches)
-                .map(m -> Integer.parseInt(m.group(1)))
-                .max(Comparator.naturalOrder())
-                .orElse(0) + 1;
+        // highest game number so far, loose or already packed
+        int nextGame = ReplayStore.maxGameNumber() + 1;
 
         // build our filename
         String ts   = LocalDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        Path file   = DIR.resolve(String.format("replay_game_%d_%s.log", nextGame, ts));
+        fileName    = String.format("replay_game_%d_%s.log", nextGame, ts);
+        Path file   = DIR.resolve(fileName);
 
+        ReplayStore.markOpen(fileName);
         writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
                 StandardOpenOption.CREATE,
                 StandardOpenOption.TRUNCATE_EXISTING);
@@ -55,25 +103,130 @@ public class ReplayLogger implements AutoCloseable {
                 + " started at " + LocalDateTime.now().format(timeFmt));
         writer.newLine();
         writer.newLine();
+        OPEN.add(this);
+    }
+
+    /**
+     * Records the rules and who sits where with which strategy; called once
+     * before the first state.
+     */
+    public void logPlayers(List<Player> players, RuleSet rules) {
+        List<String> strategies = new ArrayList<>(players.size());
+        for (Player p : players) strategies.add(strategyName(p));
+        String line = playersLine(players);
+        String rulesLine = rulesLine(rules);
+        CompiledRules compiled = rules.compile();
+        submit(() -> {
+            this.strategies = strategies;
+            this.rules = compiled;
+            try {
+                writer.write(rulesLine);
+                writer.newLine();
+                writer.write(line);
+                writer.newLine();
+                writer.newLine();
+            } catch (IOException e) {
+                System.err.println("Warning: failed to write replay: " + e.getMessage());
+            }
+        });
     }
 
-    /** Append one GameState to the file in human-readable form. */
+    /** @return the strategy's name as {@link GuardedStrategy#nameOf} gives it, e.g. "DrawThenPurge" */
+    static String strategyName(Player player) {
+        return GuardedStrategy.nameOf(player.getStrategy());
+    }
+
+    /** @return the header line naming the rules */
+    static String rulesLine(RuleSet rules) {
+        return RULES_HEADER + InputReplay.formatRules(rules);
+    }
+
+    /** @return the header line listing every seat as {@code name=strategy} */
+    static String playersLine(List<Player> players) {
+        StringBuilder line = new StringBuilder(PLAYERS_HEADER);
+        for (int i = 0; i < players.size(); i++) {
+            if (i > 0) line.append(" | ");
+            line.append(players.get(i).getName()).append('=').append(strategyName(players.get(i)));
+        }
+        return line.toString();
+    }
+
+    /** @return the lines one state is logged as, ending with a blank line */
+    static List<String> stateLines(GameState state) {
+        List<String> out = new ArrayList<>(state.playerSnapshots().size() + 2);
+        out.add(String.format("STEP %d: %s", state.step(), state.description()));
+        for (PlayerSnapshot snap : state.playerSnapshots()) {
+            out.add("  " + snap.playerName() + " → " + snap.hand());
+        }
+        out.add("");
+        return out;
+    }
+
+    /** Inverse of the header written by {@link #playersLine(List)}. */
+    static List<String> parseStrategies(String headerLine) {
+        List<String> out = new ArrayList<>();
+        for (String seat : headerLine.substring(PLAYERS_HEADER.length()).split(" \\| ")) {
+            out.add(seat.substring(seat.lastIndexOf('=') + 1));
+        }
+        return out;
+    }
+
+    /** Queues one GameState to be appended to the file in human-readable form. */
     public void logState(GameState state) {
+        submit(() -> write(state));
+    }
+
+    /** @return replay writes queued but not yet done, across all loggers */
+    public static int pendingWrites() {
+        return PENDING.get();
+    }
+
+    private Future<?> submit(Runnable task) {
+        PENDING.incrementAndGet();
+        return WRITER.submit(() -> {
+            try {
+                task.run();
+            } finally {
+                PENDING.decrementAndGet();
+            }
+        });
+    }
+
+    private void write(GameState state) {
+        long t = Instrumentation.start();
+        ReplayWriteEvent event = new ReplayWriteEvent();
+        event.begin();
+        boolean flushed = false;
+        lastState = state;
+        steps++;
         try {
-            writer.write(String.format("STEP %d: %s", state.step(), state.description()));
-            writer.newLine();
-            for (PlayerSnapshot snap : state.playerSnapshots()) {
-                writer.write("  " + snap.playerName() + " → " + snap.hand());
+            for (String line : stateLines(state)) {
+                writer.write(line);
                 writer.newLine();
             }
-            writer.newLine();
-            writer.flush();
+            // flush once the queue drains rather than after every state, but
+            // never leave a busy queue's states unflushed for long
+            long now = System.nanoTime();
+            if (PENDING.get() == 1 || now - lastFlush > MAX_UNFLUSHED_MS * 1_000_000) {
+                writer.flush();
+                lastFlush = now;
+                flushed = true;
+            }
         } catch (IOException e) {
             System.err.println("Warning: failed to write replay: " + e.getMessage());
         }
+        Instrumentation.stop(Instrumentation.REPLAY_WRITE, t);
+        if (event.shouldCommit()) {
+            event.file = fileName;
+            event.step = state.step();
+            event.flushed = flushed;
+            event.commit();
+        }
     }
 
     public static void clearAll() {
+        ReplayIndex.shared().clear();
+        ReplayStore.closeAll();
         try {
             // Ensure directory exists
             if (!Files.exists(DIR)) return;
@@ -97,8 +250,62 @@ public class ReplayLogger implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
+        Future<?> done = submit(() -> {
+            try {
+                finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing replay " + fileName);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException u) throw u.getCause();
+            throw new IOException("Failed to close replay " + fileName, e.getCause());
+        }
+    }
+
+    /**
+     * Writes every state queued so far and flushes each open replay; runs
+     * at exit, so a game still in progress keeps everything it logged.
+     */
+    static void flushAll() {
+        Future<?> done = WRITER.submit(() -> {
+            for (ReplayLogger l : OPEN) {
+                try {
+                    l.writer.flush();
+                } catch (IOException e) {
+                    System.err.println("Warning: failed to flush replay " + l.fileName + ": " + e.getMessage());
+                }
+            }
+        });
+        try {
+            done.get(EXIT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Warning: replays may be incomplete: " + e);
+        }
+    }
+
+    private void finish() throws IOException {
+        OPEN.remove(this);
         writer.write("End of replay at " + LocalDateTime.now().format(timeFmt));
         writer.newLine();
         writer.close();
+        ReplayStore.markClosed(fileName);
+        if (lastState != null) {
+            List<String> names = new ArrayList<>();
+            List<List<Card>> hands = new ArrayList<>();
+            for (PlayerSnapshot snap : lastState.playerSnapshots()) {
+                names.add(snap.playerName());
+                hands.add(snap.hand());
+            }
+            ReplayIndex.shared().add(ReplayIndex.entry(fileName, steps, names, strategies, hands, rules));
+        }
+        ReplayArchiver.requestRun();
     }
 }
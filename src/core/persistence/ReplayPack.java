@@ -0,0 +1,295 @@
+package core.persistence;
+
+import core.model.Card;
+import core.model.Rank;
+import core.model.Suit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable archive holding many replay logs, each deflated on its own so
+ * any one can be read without touching the others.
+ *
+ * Every entry is compressed against the same preset dictionary: a fixed
+ * vocabulary of replay text (card names, step descriptions) followed by
+ * the player-name table of the pack, so even a short game compresses
+ * well. Byte-identical replays are stored once.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int  magic 'PRP1'
+ *   int  name table length, UTF-8 names separated by '\n'
+ *   ...  compressed entries
+ *   int  entry count
+ *        per entry: UTF name, long offset, int compressed length,
+ *                   int raw length, long last-modified millis
+ *   long offset of the entry count
+ *   int  magic 'PRP1'
+ * </pre>
+ */
+final class ReplayPack {
+    static final String SUFFIX = ".rpk";
+    private static final int MAGIC = 0x50525031; // "PRP1"
+    private static final byte[] BASE_DICTIONARY = baseDictionary();
+
+    private ReplayPack() {}
+
+    /** One replay inside a pack. */
+    record Entry(String name, long offset, int compressedLength, int rawLength, long modified) {}
+
+    /** A replay to be packed. */
+    record Source(String name, byte[] raw, long modified) {}
+
+    /** Compresses sources into a new pack, written atomically. */
+    static void write(Path target, List<Source> sources) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        for (Source s : sources) names.addAll(playerNames(s.raw()));
+        byte[] table = String.join("\n", names).getBytes(StandardCharsets.UTF_8);
+        byte[] dict = dictionary(table);
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (CountingOutput out = new CountingOutput(Files.newOutputStream(tmp))) {
+            out.data.writeInt(MAGIC);
+            out.data.writeInt(table.length);
+            out.data.write(table);
+            List<Entry> entries = new ArrayList<>();
+            Map<Long, Entry> byChecksum = new HashMap<>();
+            Map<Long, byte[]> rawByChecksum = new HashMap<>();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] buf = new byte[64 * 1024];
+            try {
+                for (Source s : sources) {
+                    CRC32 crc = new CRC32();
+                    crc.update(s.raw());
+                    long key = crc.getValue() << 32 | s.raw().length;
+                    Entry same = byChecksum.get(key);
+                    if (same != null && Arrays.equals(rawByChecksum.get(key), s.raw())) {
+                        entries.add(new Entry(s.name(), same.offset(), same.compressedLength(),
+                                same.rawLength(), s.modified()));
+                        continue;
+                    }
+                    long offset = out.count;
+                    deflater.reset();
+                    deflater.setDictionary(dict);
+                    deflater.setInput(s.raw());
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(buf);
+                        out.data.write(buf, 0, n);
+                    }
+                    Entry e = new Entry(s.name(), offset, (int) (out.count - offset), s.raw().length, s.modified());
+                    entries.add(e);
+                    byChecksum.put(key, e);
+                    rawByChecksum.put(key, s.raw());
+                }
+            } finally {
+                deflater.end();
+            }
+            writeTrailer(out, entries);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes a pack keeping only some entries of an existing one. Compressed
+     * bytes are copied as-is since the name table, and so the dictionary,
+     * stays the same.
+     */
+    static void retain(Reader from, Path target, Set<String> keep) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (CountingOutput out = new CountingOutput(Files.newOutputStream(tmp))) {
+            out.data.writeInt(MAGIC);
+            out.data.writeInt(from.table.length);
+            out.data.write(from.table);
+            List<Entry> entries = new ArrayList<>();
+            Map<Long, Long> moved = new HashMap<>(); // old offset -> new offset, for shared blobs
+            for (Entry e : from.entries()) {
+                if (!keep.contains(e.name())) continue;
+                Long at = moved.get(e.offset());
+                if (at == null) {
+                    at = out.count;
+                    out.data.write(from.compressed(e));
+                    moved.put(e.offset(), at);
+                }
+                entries.add(new Entry(e.name(), at, e.compressedLength(), e.rawLength(), e.modified()));
+            }
+            writeTrailer(out, entries);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeTrailer(CountingOutput out, List<Entry> entries) throws IOException {
+        long indexOffset = out.count;
+        out.data.writeInt(entries.size());
+        for (Entry e : entries) {
+            out.data.writeUTF(e.name());
+            out.data.writeLong(e.offset());
+            out.data.writeInt(e.compressedLength());
+            out.data.writeInt(e.rawLength());
+            out.data.writeLong(e.modified());
+        }
+        out.data.writeLong(indexOffset);
+        out.data.writeInt(MAGIC);
+    }
+
+    /** Open pack; only the trailer is read up front. */
+    static final class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final byte[] table;
+        private final byte[] dict;
+        private final List<Entry> entries;
+        private final Map<String, Entry> byName = new HashMap<>();
+
+        Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                ByteBuffer tail = read(size - 12, 12);
+                long indexOffset = tail.getLong();
+                if (tail.getInt() != MAGIC) throw new IOException("Not a replay pack: " + file);
+                ByteBuffer head = read(0, 8);
+                if (head.getInt() != MAGIC) throw new IOException("Not a replay pack: " + file);
+                table = read(8, head.getInt()).array();
+                dict = dictionary(table);
+
+                ByteBuffer index = read(indexOffset, (int) (size - 12 - indexOffset));
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                        index.array(), 0, index.limit()));
+                int n = in.readInt();
+                List<Entry> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    Entry e = new Entry(in.readUTF(), in.readLong(), in.readInt(), in.readInt(), in.readLong());
+                    list.add(e);
+                    byName.put(e.name(), e);
+                }
+                entries = List.copyOf(list);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        List<Entry> entries() {
+            return entries;
+        }
+
+        Entry entry(String name) {
+            return byName.get(name);
+        }
+
+        /** Inflates one replay. */
+        byte[] read(Entry e) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed(e));
+                byte[] raw = new byte[e.rawLength()];
+                int at = 0;
+                while (at < raw.length) {
+                    int n = inflater.inflate(raw, at, raw.length - at);
+                    if (n == 0) {
+                        if (inflater.needsDictionary()) inflater.setDictionary(dict);
+                        else break;
+                    }
+                    at += n;
+                }
+                if (at != raw.length) throw new IOException("Truncated replay " + e.name());
+                return raw;
+            } catch (DataFormatException ex) {
+                throw new IOException("Corrupt replay " + e.name() + ": " + ex.getMessage(), ex);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private byte[] compressed(Entry e) throws IOException {
+            return read(e.offset(), e.compressedLength()).array();
+        }
+
+        private ByteBuffer read(long position, int length) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, position + buf.position()) < 0) {
+                    throw new EOFException("Unexpected end of replay pack");
+                }
+            }
+            return buf.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /** Player names of a replay, from its PLAYERS header or its first step. */
+    private static List<String> playerNames(byte[] raw) {
+        List<String> names = new ArrayList<>();
+        String text = new String(raw, 0, Math.min(raw.length, 4096), StandardCharsets.UTF_8);
+        for (String line : text.split("\n")) {
+            int arrow = line.lastIndexOf(" → ");
+            if (line.startsWith("  ") && arrow > 0) {
+                String name = line.substring(2, arrow);
+                if (names.contains(name)) break;
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /** Most frequent strings go last, where deflate finds them with the shortest distances. */
+    private static byte[] dictionary(byte[] table) {
+        byte[] dict = Arrays.copyOf(BASE_DICTIONARY, BASE_DICTIONARY.length + table.length);
+        System.arraycopy(table, 0, dict, BASE_DICTIONARY.length, table.length);
+        return dict;
+    }
+
+    private static byte[] baseDictionary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Pouilleux Replay Log — game  started at End of replay at ");
+        sb.append(ReplayLogger.PLAYERS_HEADER).append("DrawThenPurge | MixedRandom | RandomDraw | Human | ");
+        sb.append("Game over\nEndgame resolved: \n initial purge: [] turn purge: []\n\n");
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                sb.append(Card.of(rank, suit)).append(", ");
+            }
+        }
+        sb.append("STEP : ");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** DataOutputStream that knows how many bytes it has written so far. */
+    private static final class CountingOutput implements Closeable {
+        final DataOutputStream data;
+        long count;
+
+        CountingOutput(OutputStream raw) {
+            this.data = new DataOutputStream(new FilterOutputStream(new BufferedOutputStream(raw)) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    count++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    count += len;
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package core.persistence;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Single view over every replay in {@code replays/}, whether it is still a
+ * loose {@code .log} or {@code .inp} ({@link InputReplay}) file or has been
+ * rolled into a {@link ReplayPack}.
+ *
+ * Pack indexes are read once and cached, so listing replays costs one
+ * directory scan however many games the packs hold. Replays are always
+ * addressed by their original file name.
+ */
+public final class ReplayStore {
+    static final Path DIR = Paths.get("replays");
+    private static final Pattern GAME_NUMBER = Pattern.compile("^replay_game_(\\d+)_.*\\.(log|inp)$");
+    private static final Pattern PACK_NUMBER = Pattern.compile("^pack_(\\d+)\\" + ReplayPack.SUFFIX + "$");
+
+    /** Logs still being written; never packed or deleted. */
+    private static final Set<String> OPEN = ConcurrentHashMap.newKeySet();
+    private static final Map<Path, ReplayPack.Reader> PACKS = new HashMap<>();
+
+    private ReplayStore() {}
+
+    /** Where a replay lives and how much disk it takes. */
+    record Stored(String name, long bytes, long modified, Path pack) {}
+
+    /** @return names of all replays, sorted */
+    public static synchronized List<String> list() {
+        List<String> out = new ArrayList<>();
+        for (Stored s : stored()) out.add(s.name());
+        Collections.sort(out);
+        return out;
+    }
+
+    /** @return the text of a replay, inflating it if it is packed */
+    public static synchronized List<String> read(String name) throws IOException {
+        Path loose = DIR.resolve(name);
+        if (Files.exists(loose)) return Files.readAllLines(loose, StandardCharsets.UTF_8);
+        for (Path pack : packFiles()) {
+            ReplayPack.Reader r = reader(pack);
+            ReplayPack.Entry e = r.entry(name);
+            if (e != null) {
+                String text = new String(r.read(e), StandardCharsets.UTF_8);
+                return text.lines().toList();
+            }
+        }
+        throw new NoSuchFileException(name);
+    }
+
+    /**
+     * @return the replay as full log text, re-simulating an input replay
+     * @throws IllegalArgumentException if an input replay does not re-simulate
+     */
+    public static List<String> readLog(String name) throws IOException {
+        List<String> lines = read(name);
+        return InputReplay.isInputReplay(lines) ? InputReplay.parse(lines).expand() : lines;
+    }
+
+    /** @return highest game number among loose and packed replays, or 0 */
+    public static synchronized int maxGameNumber() {
+        int max = 0;
+        for (Stored s : stored()) {
+            Matcher m = GAME_NUMBER.matcher(s.name());
+            if (m.matches()) max = Math.max(max, Integer.parseInt(m.group(1)));
+        }
+        return max;
+    }
+
+    static void markOpen(String name) {
+        OPEN.add(name);
+    }
+
+    static void markClosed(String name) {
+        OPEN.remove(name);
+    }
+
+    /**
+     * Rolls finished loose logs into a new pack once at least
+     * {@code minBatch} of them have accumulated.
+     *
+     * @return number of replays packed
+     */
+    static synchronized int packLoose(int minBatch) throws IOException {
+        List<Path> loose = new ArrayList<>();
+        for (Path p : looseFiles()) {
+            if (!OPEN.contains(p.getFileName().toString())) loose.add(p);
+        }
+        if (loose.isEmpty() || loose.size() < minBatch) return 0;
+        List<ReplayPack.Source> sources = new ArrayList<>(loose.size());
+        for (Path p : loose) {
+            sources.add(new ReplayPack.Source(p.getFileName().toString(), Files.readAllBytes(p),
+                    Files.getLastModifiedTime(p).toMillis()));
+        }
+        int next = 1;
+        for (Path p : packFiles()) {
+            Matcher m = PACK_NUMBER.matcher(p.getFileName().toString());
+            if (m.matches()) next = Math.max(next, Integer.parseInt(m.group(1)) + 1);
+        }
+        ReplayPack.write(DIR.resolve("pack_" + next + ReplayPack.SUFFIX), sources);
+        // the pack is durable before any loose copy goes away
+        for (Path p : loose) Files.deleteIfExists(p);
+        return sources.size();
+    }
+
+    /**
+     * Deletes replays outside the policy, counting from the newest. The
+     * caller drops them from the {@link ReplayIndex}, outside this lock.
+     *
+     * @return names of the deleted replays
+     */
+    static synchronized List<String> applyRetention(RetentionPolicy policy, long nowMillis) throws IOException {
+        if (policy.isUnlimited()) return List.of();
+        List<Stored> all = stored();
+        all.sort(Comparator.comparingLong(Stored::modified).reversed());
+        long cutoff = policy.maxAge().isZero() ? Long.MIN_VALUE : nowMillis - policy.maxAge().toMillis();
+        long bytes = 0;
+        List<Stored> expired = new ArrayList<>();
+        for (int i = 0; i < all.size(); i++) {
+            Stored s = all.get(i);
+            if (OPEN.contains(s.name())) continue;
+            bytes += s.bytes();
+            boolean keep = (policy.keepRecent() == 0 || i < policy.keepRecent())
+                    && s.modified() >= cutoff
+                    && (policy.maxBytes() == 0 || bytes <= policy.maxBytes());
+            if (!keep) expired.add(s);
+        }
+        if (expired.isEmpty()) return List.of();
+
+        Map<Path, Set<String>> dropByPack = new HashMap<>();
+        List<String> deleted = new ArrayList<>();
+        for (Stored s : expired) {
+            if (s.pack() == null) {
+                Files.deleteIfExists(DIR.resolve(s.name()));
+            } else {
+                dropByPack.computeIfAbsent(s.pack(), k -> new HashSet<>()).add(s.name());
+            }
+            deleted.add(s.name());
+        }
+        for (var e : dropByPack.entrySet()) {
+            ReplayPack.Reader r = reader(e.getKey());
+            Set<String> keep = new HashSet<>();
+            for (ReplayPack.Entry entry : r.entries()) {
+                if (!e.getValue().contains(entry.name())) keep.add(entry.name());
+            }
+            if (keep.isEmpty()) {
+                closePack(e.getKey());
+                Files.deleteIfExists(e.getKey());
+            } else {
+                Path rewritten = e.getKey().resolveSibling(e.getKey().getFileName() + ".new");
+                ReplayPack.retain(r, rewritten, keep);
+                closePack(e.getKey());
+                Files.move(rewritten, e.getKey(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        return deleted;
+    }
+
+    /** Closes every cached pack, e.g. before the directory is wiped. */
+    static synchronized void closeAll() {
+        for (Path p : new ArrayList<>(PACKS.keySet())) closePack(p);
+    }
+
+    /** Loose and packed replays with their on-disk footprint; a packed copy is shadowed by a loose one. */
+    private static List<Stored> stored() {
+        List<Stored> out = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try {
+            for (Path p : looseFiles()) {
+                BasicFileAttributes a = Files.readAttributes(p, BasicFileAttributes.class);
+                String name = p.getFileName().toString();
+                seen.add(name);
+                out.add(new Stored(name, a.size(), a.lastModifiedTime().toMillis(), null));
+            }
+            for (Path pack : packFiles()) {
+                for (ReplayPack.Entry e : reader(pack).entries()) {
+                    if (seen.add(e.name())) {
+                        out.add(new Stored(e.name(), e.compressedLength(), e.modified(), pack));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: failed to list replays: " + e.getMessage());
+        }
+        return out;
+    }
+
+    private static List<Path> looseFiles() throws IOException {
+        List<Path> out = new ArrayList<>(listDir(".log"));
+        out.addAll(listDir(InputReplay.SUFFIX));
+        return out;
+    }
+
+    private static List<Path> packFiles() throws IOException {
+        List<Path> packs = listDir(ReplayPack.SUFFIX);
+        // forget readers of packs deleted behind our back
+        PACKS.keySet().removeIf(p -> {
+            if (packs.contains(p)) return false;
+            try {
+                PACKS.get(p).close();
+            } catch (IOException ignored) {
+            }
+            return true;
+        });
+        return packs;
+    }
+
+    private static List<Path> listDir(String suffix) throws IOException {
+        if (!Files.isDirectory(DIR)) return List.of();
+        try (Stream<Path> files = Files.list(DIR)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static ReplayPack.Reader reader(Path pack) throws IOException {
+        ReplayPack.Reader r = PACKS.get(pack);
+        if (r == null) {
+            r = new ReplayPack.Reader(pack);
+            PACKS.put(pack, r);
+        }
+        return r;
+    }
+
+    private static void closePack(Path pack) {
+        ReplayPack.Reader r = PACKS.remove(pack);
+        if (r == null) return;
+        try {
+            r.close();
+        } catch (IOException e) {
+            System.err.println("Warning: could not close replay pack " + pack.getFileName() + ": " + e.getMessage());
+        }
+    }
+}
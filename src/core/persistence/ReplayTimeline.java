@@ -0,0 +1,270 @@
+package core.persistence;
+
+import core.model.Card;
+import core.model.CompiledRules;
+import core.model.Rank;
+import core.model.RuleSet;
+import core.model.Suit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Random-access view of a replay written by {@link ReplayLogger}.
+ *
+ * Every hand is stored as a count per {@link Card#id()}, so decks with
+ * two copies of a card are shown as they were dealt. Instead of a full
+ * copy per step the timeline keeps a keyframe every
+ * {@link #KEYFRAME_INTERVAL} steps plus, for each step, the few counts
+ * that changed since the previous step. Applied with the opposite sign the
+ * same changes move a {@link Cursor} one step back, so any seek costs at
+ * most half a keyframe interval of steps.
+ *
+ * The deck comes from the rules the replay was logged under (classic for
+ * logs older than the {@code RULES:} header). A replay whose hands hold
+ * more copies of a card than that deck has is rejected rather than shown
+ * wrong.
+ */
+public final class ReplayTimeline {
+    /** Steps between two full snapshots. */
+    public static final int KEYFRAME_INTERVAL = 64;
+
+    private static final int CARDS = Card.DECK_SIZE;
+
+    private final List<String> players;
+    private final CompiledRules rules;
+    private final int deckSize;
+    private final String[] descriptions;
+    private final int[] movers;
+    private final byte[][] keyframes;  // [step / KEYFRAME_INTERVAL][seat * CARDS + id]
+    private final int[] changeStart;   // step i changed changes[changeStart[i] .. changeStart[i + 1])
+    private final int[] changes;       // seat << 16 | id << 8 | (delta & 0xFF)
+    private final int[] removedStart;  // same layout for the cards that left play at each step
+    private final byte[] removed;      // card ids, repeated per copy
+    private final int[] lastPurge;     // latest step <= i that removed cards, or -1
+
+    private ReplayTimeline(List<String> players, CompiledRules rules, List<String> descriptions, List<byte[]> hands) {
+        int n = hands.size();
+        int seats = players.size();
+        this.players      = List.copyOf(players);
+        this.rules        = rules;
+        this.descriptions = descriptions.toArray(new String[0]);
+        this.movers       = new int[n];
+        this.keyframes    = new byte[(n + KEYFRAME_INTERVAL - 1) / KEYFRAME_INTERVAL][];
+        this.changeStart  = new int[n + 1];
+        this.removedStart = new int[n + 1];
+        this.lastPurge    = new int[n];
+
+        int[] deck = new int[CARDS];
+        for (Card c : rules.deck()) deck[c.id()]++;
+        this.deckSize = rules.deck().size();
+
+        int[] changed = new int[64];
+        byte[] gone = new byte[64];
+        int changeCount = 0, goneCount = 0;
+        int[] prevInPlay = deck.clone();
+        byte[] prev = new byte[seats * CARDS];
+        for (int i = 0; i < n; i++) {
+            byte[] cur = hands.get(i);
+            if (i % KEYFRAME_INTERVAL == 0) keyframes[i / KEYFRAME_INTERVAL] = cur.clone();
+            int[] inPlay = new int[CARDS];
+            for (int s = 0; s < seats; s++) {
+                for (int id = 0; id < CARDS; id++) {
+                    int at = s * CARDS + id;
+                    inPlay[id] += cur[at];
+                    int delta = cur[at] - prev[at];
+                    if (i == 0 || delta == 0) continue;
+                    if (changeCount == changed.length) changed = Arrays.copyOf(changed, changeCount * 2);
+                    changed[changeCount++] = s << 16 | id << 8 | (delta & 0xFF);
+                }
+            }
+            for (int id = 0; id < CARDS; id++) {
+                if (inPlay[id] > deck[id]) {
+                    throw new IllegalArgumentException("Step " + i + " holds " + inPlay[id] + " of "
+                            + Card.fromId(id) + ", more than the " + rules.rules() + " deck has");
+                }
+                for (int k = inPlay[id]; k < prevInPlay[id]; k++) {
+                    if (goneCount == gone.length) gone = Arrays.copyOf(gone, goneCount * 2);
+                    gone[goneCount++] = (byte) id;
+                }
+            }
+            changeStart[i + 1]  = changeCount;
+            removedStart[i + 1] = goneCount;
+            lastPurge[i] = goneCount > removedStart[i] ? i : (i == 0 ? -1 : lastPurge[i - 1]);
+            movers[i]    = moverOf(this.descriptions[i]);
+            prevInPlay   = inPlay;
+            prev         = cur;
+        }
+        this.changes = Arrays.copyOf(changed, changeCount);
+        this.removed = Arrays.copyOf(gone, goneCount);
+    }
+
+    /**
+     * Parses the lines of a replay log.
+     *
+     * @throws IllegalArgumentException if a line names an unknown card or
+     *         rules, or the hands do not fit the deck of the replay's rules
+     */
+    public static ReplayTimeline parse(List<String> lines) {
+        RuleSet ruleSet = RuleSet.CLASSIC;
+        List<String> players = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        List<byte[]> hands = new ArrayList<>();
+        byte[] current = null;
+        for (String line : lines) {
+            if (line.startsWith(ReplayLogger.RULES_HEADER)) {
+                ruleSet = InputReplay.parseRules(line.substring(ReplayLogger.RULES_HEADER.length()));
+                continue;
+            }
+            if (line.startsWith("STEP ")) {
+                int colon = line.indexOf(": ");
+                descriptions.add(colon < 0 ? line : line.substring(colon + 2));
+                current = new byte[players.size() * CARDS];
+                hands.add(current);
+                continue;
+            }
+            int arrow = line.lastIndexOf(" → ");
+            if (current == null || !line.startsWith("  ") || arrow < 0) continue;
+            String name = line.substring(2, arrow);
+            int seat = players.indexOf(name);
+            if (seat < 0) {
+                // seats are listed in full on the first step
+                players.add(name);
+                seat = players.size() - 1;
+                current = Arrays.copyOf(current, players.size() * CARDS);
+                hands.set(hands.size() - 1, current);
+            }
+            parseHand(line.substring(arrow + 3), current, seat * CARDS);
+        }
+        for (int i = 0; i < hands.size(); i++) {
+            if (hands.get(i).length < players.size() * CARDS) {
+                hands.set(i, Arrays.copyOf(hands.get(i), players.size() * CARDS));
+            }
+        }
+        return new ReplayTimeline(players, ruleSet.compile(), descriptions, hands);
+    }
+
+    /** @return number of recorded steps */
+    public int size() {
+        return descriptions.length;
+    }
+
+    public List<String> players() {
+        return players;
+    }
+
+    /** @return the rules the replay was logged under */
+    public CompiledRules rules() {
+        return rules;
+    }
+
+    public String description(int step) {
+        return descriptions[step];
+    }
+
+    /** @return seat whose action produced this step, or -1 if none is named */
+    public int mover(int step) {
+        return movers[step];
+    }
+
+    /** @return cards removed by the most recent purge at or before a step, in id order */
+    public List<Card> lastPurged(int step) {
+        int at = lastPurge[step];
+        if (at < 0) return List.of();
+        List<Card> out = new ArrayList<>(removedStart[at + 1] - removedStart[at]);
+        for (int k = removedStart[at]; k < removedStart[at + 1]; k++) out.add(Card.fromId(removed[k]));
+        return out;
+    }
+
+    /** Creates a cursor positioned at step 0. */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Mutable position in the timeline holding the hands at one step. */
+    public final class Cursor {
+        private final byte[] counts = keyframes.length == 0
+                ? new byte[players.size() * CARDS] : keyframes[0].clone();
+        private int step;
+
+        public int step() {
+            return step;
+        }
+
+        /** @return a seat's cards at the current step in id order, a card held twice listed twice */
+        public List<Card> hand(int seat) {
+            List<Card> out = new ArrayList<>(handSize(seat));
+            for (int id = 0; id < CARDS; id++) {
+                for (int k = counts[seat * CARDS + id]; k > 0; k--) out.add(Card.fromId(id));
+            }
+            return out;
+        }
+
+        public int handSize(int seat) {
+            int n = 0;
+            for (int id = 0; id < CARDS; id++) n += counts[seat * CARDS + id];
+            return n;
+        }
+
+        /** @return cards in the purged pile at the current step */
+        public int tableSize() {
+            int held = 0;
+            for (byte c : counts) held += c;
+            return deckSize - held;
+        }
+
+        /** Moves to a step, starting from whichever of here or a keyframe is closest. */
+        public void seek(int target) {
+            if (target < 0 || target >= size()) {
+                throw new IllegalArgumentException("Step out of range: " + target);
+            }
+            int key = (target + KEYFRAME_INTERVAL / 2) / KEYFRAME_INTERVAL;
+            if (key >= keyframes.length) key = keyframes.length - 1;
+            int keyStep = key * KEYFRAME_INTERVAL;
+            if (Math.abs(target - keyStep) < Math.abs(target - step)) {
+                System.arraycopy(keyframes[key], 0, counts, 0, counts.length);
+                step = keyStep;
+            }
+            while (step < target) apply(++step, 1);
+            while (step > target) apply(step--, -1);
+        }
+
+        private void apply(int changeStep, int sign) {
+            for (int k = changeStart[changeStep]; k < changeStart[changeStep + 1]; k++) {
+                int c = changes[k];
+                int at = (c >>> 16) * CARDS + (c >>> 8 & 0xFF);
+                counts[at] = (byte) (counts[at] + sign * (byte) c);
+            }
+        }
+    }
+
+    private int moverOf(String description) {
+        int best = -1;
+        for (int s = 0; s < players.size(); s++) {
+            String name = players.get(s);
+            if (description.startsWith(name + " ")
+                    && (best < 0 || name.length() > players.get(best).length())) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /** Adds {@code [ACE of SPADES, TEN of HEARTS]} to the counts of one seat. */
+    private static void parseHand(String list, byte[] counts, int offset) {
+        String body = list.trim();
+        if (body.startsWith("[")) body = body.substring(1);
+        if (body.endsWith("]")) body = body.substring(0, body.length() - 1);
+        if (body.isBlank()) return;
+        for (String token : body.split(",")) {
+            String[] parts = token.trim().split(" of ");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unreadable card: " + token.trim());
+            }
+            int at = offset + Card.of(Rank.valueOf(parts[0]), Suit.valueOf(parts[1])).id();
+            if (counts[at] == Byte.MAX_VALUE) throw new IllegalArgumentException("Too many copies of " + token.trim());
+            counts[at]++;
+        }
+    }
+}
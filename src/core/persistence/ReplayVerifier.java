@@ -0,0 +1,72 @@
+package core.persistence;
+
+import core.model.Game;
+import core.model.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Re-simulates input replays and checks each still ends with the loser and
+ * step count it was recorded with. A mismatch means the engine, a bot
+ * strategy or the random stream changed behaviour since the recording.
+ *
+ * Usage: {@code java core.persistence.ReplayVerifier [replay_game_1_....inp ...]};
+ * without arguments every input replay in {@code replays/} is checked.
+ * Exits with status 1 if any replay fails.
+ */
+public final class ReplayVerifier {
+    private ReplayVerifier() {}
+
+    /**
+     * @return null if the replay re-simulates to its recorded result,
+     *         otherwise what differs
+     */
+    public static String verify(InputReplay replay) {
+        Game game;
+        try {
+            game = replay.resimulate();
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        String loser = game.getLoser().map(Player::getName).orElse(null);
+        List<String> problems = new ArrayList<>();
+        if (game.getStepCount() != replay.steps()) {
+            problems.add("steps " + game.getStepCount() + " != recorded " + replay.steps());
+        }
+        if (!Objects.equals(loser, replay.loser())) {
+            problems.add("loser " + loser + " != recorded " + replay.loser());
+        }
+        return problems.isEmpty() ? null : String.join(", ", problems);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> files = new ArrayList<>(List.of(args));
+        if (files.isEmpty()) {
+            for (String name : ReplayStore.list()) {
+                if (name.endsWith(InputReplay.SUFFIX)) files.add(name);
+            }
+        }
+        int failed = 0;
+        for (String file : files) {
+            String problem;
+            InputReplay replay = null;
+            try {
+                replay = InputReplay.parse(ReplayStore.read(file));
+                problem = verify(replay);
+            } catch (IOException | IllegalArgumentException e) {
+                problem = e.getMessage();
+            }
+            if (problem == null) {
+                System.out.printf("OK       %s (%d steps, loser %s)%n", file, replay.steps(), replay.loser());
+            } else {
+                failed++;
+                System.out.printf("MISMATCH %s: %s%n", file, problem);
+            }
+        }
+        System.out.printf("%d replays checked, %d failed%n", files.size(), failed);
+        if (failed > 0) System.exit(1);
+    }
+}
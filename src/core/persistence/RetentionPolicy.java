@@ -0,0 +1,26 @@
+package core.persistence;
+
+import java.time.Duration;
+
+/**
+ * Limits on how many replays are kept. A replay survives only if it is
+ * within every limit, counting from the newest; zero disables a limit.
+ *
+ * @param maxBytes   total stored size of all replays, packed or loose
+ * @param maxAge     oldest replay to keep
+ * @param keepRecent number of most recent replays to keep
+ */
+public record RetentionPolicy(long maxBytes, Duration maxAge, int keepRecent) {
+    /** Keeps everything. */
+    public static final RetentionPolicy UNLIMITED = new RetentionPolicy(0, Duration.ZERO, 0);
+
+    public RetentionPolicy {
+        if (maxBytes < 0 || maxAge.isNegative() || keepRecent < 0) {
+            throw new IllegalArgumentException("Retention limits must not be negative");
+        }
+    }
+
+    public boolean isUnlimited() {
+        return maxBytes == 0 && maxAge.isZero() && keepRecent == 0;
+    }
+}
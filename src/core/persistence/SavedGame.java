@@ -0,0 +1,131 @@
+package core.persistence;
+
+import core.gui.HumanStrategy;
+import core.model.*;
+import core.stats.StrategyProfiles;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves a game in progress to one compact binary file and resumes it.
+ *
+ * Layout, after a magic number and version: the rules, the random stream
+ * position, {@code currentIndex} and {@code stepCounter}, then each seat's
+ * name, strategy and hand, then the table. Cards take one byte each, so a
+ * save is a few hundred bytes. Humans resume as button-driven players and
+ * bots are rebuilt through {@link StrategyFactory} and guarded with the
+ * bot budget of the moment, as when a game is set up. A resumed game does
+ * not start from a deal, so it keeps no history and writes no replay.
+ */
+public final class SavedGame {
+    /** The single save slot. */
+    public static final Path FILE = Paths.get("savegame.bin");
+
+    private static final int MAGIC = 0x504F5553;  // "POUS"
+    private static final int VERSION = 1;
+
+    private SavedGame() {}
+
+    public static boolean exists() {
+        return Files.exists(FILE);
+    }
+
+    public static void delete() {
+        try {
+            Files.deleteIfExists(FILE);
+        } catch (IOException e) {
+            System.err.println("Warning: could not delete saved game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the game to {@link #FILE}, replacing any earlier save. Pass a
+     * {@link Game#fork()} taken between turns if another thread plays on.
+     */
+    public static void save(Game game) throws IOException {
+        Path tmp = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            write(game, out);
+        }
+        Files.move(tmp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads {@link #FILE} back into a game ready for {@link Game#nextTurn()}.
+     *
+     * @param botBudget decision budget every bot is guarded with, see {@link GuardedStrategy}
+     * @throws IOException if the file is missing, truncated or not a save
+     */
+    public static Game load(Duration botBudget) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(FILE)))) {
+            return read(in, botBudget);
+        } catch (EOFException e) {
+            throw new IOException("Saved game is truncated", e);
+        }
+    }
+
+    static void write(Game game, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeUTF(InputReplay.formatRules(game.getRules().rules()));
+        GameRandom random = game.getRandom();
+        out.writeBoolean(random != null);
+        if (random != null) {
+            out.writeLong(random.seed());
+            out.writeLong(random.state());
+        }
+        out.writeInt(game.getCurrentIndex());
+        out.writeInt(game.getStepCount());
+        List<Player> players = game.getPlayers();
+        out.writeByte(players.size());
+        for (Player p : players) {
+            out.writeUTF(p.getName());
+            out.writeUTF(ReplayLogger.strategyName(p));
+            writeCards(out, p.getHand());
+        }
+        writeCards(out, game.getAllTablePairs());
+    }
+
+    static Game read(DataInputStream in, Duration botBudget) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a saved game");
+        int version = in.readUnsignedShort();
+        if (version != VERSION) throw new IOException("Unsupported saved game version " + version);
+        try {
+            RuleSet rules = InputReplay.parseRules(in.readUTF());
+            GameRandom random = in.readBoolean() ? new GameRandom(in.readLong(), in.readLong()) : null;
+            int currentIndex = in.readInt();
+            int steps = in.readInt();
+            int seats = in.readUnsignedByte();
+            List<Player> players = new ArrayList<>(seats);
+            for (int i = 0; i < seats; i++) {
+                String name = in.readUTF();
+                String strategy = in.readUTF();
+                MoveStrategy s = strategy.equals(InputReplay.HUMAN)
+                        ? new HumanStrategy()
+                        : GuardedStrategy.guard(StrategyFactory.create(strategy), botBudget,
+                                StrategyProfiles.global());
+                players.add(new Player(name, readCards(in), s));
+            }
+            List<Card> table = readCards(in);
+            return Game.resume(players, rules, random, table, currentIndex, steps);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad saved game: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeCards(DataOutputStream out, List<Card> cards) throws IOException {
+        out.writeShort(cards.size());
+        for (Card c : cards) out.writeByte(c.id());
+    }
+
+    private static List<Card> readCards(DataInputStream in) throws IOException {
+        int n = in.readUnsignedShort();
+        List<Card> cards = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) cards.add(Card.fromId(in.readUnsignedByte()));
+        return cards;
+    }
+}
@@ -1,44 +1,89 @@
 // src/main/java/core/persistence/Scoreboard.java
 package core.persistence;
 
+import core.jfr.ScoreboardSaveEvent;
+
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Tracks and persists loss counts per player across games
- * using a simple Java Properties file.
+ * using a simple Java Properties file. The counts are kept in a
+ * {@link StandingsIndex}, so the order is never rebuilt.
+ *
+ * A loss marks the scoreboard dirty and the file is rewritten shortly
+ * after by a background writer, once for every loss recorded in the
+ * meantime, so a burst of games does not rewrite it per loss. Pending
+ * losses are flushed at exit.
  */
 public class Scoreboard {
     private static final Path FILE = Paths.get("scores.properties");
+    /** How long losses may sit in memory before they are written. */
+    private static final long WRITE_DELAY_MS = 500;
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Scoreboard-Writer");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final Properties props = new Properties();
-    private final Map<String,Integer> losses = new HashMap<>();
+    private final StandingsIndex index = new StandingsIndex();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
 
     public Scoreboard() {
         load();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Scoreboard-Flush"));
     }
 
     /**
-     * Record one loss for the given player name.
-     * Immediately saves to disk.
+     * Record one loss for the given player name. The standings change
+     * right away; the file a moment later.
      */
     public void recordLoss(String playerName) {
         Objects.requireNonNull(playerName, "playerName must not be null");
-        int newCount = losses.getOrDefault(playerName, 0) + 1;
-        losses.put(playerName, newCount);
+        int newCount = index.increment(playerName);
         props.setProperty(playerName, Integer.toString(newCount));
-        save();
+        dirty.set(true);
+        if (writeScheduled.compareAndSet(false, true)) {
+            WRITER.schedule(() -> {
+                writeScheduled.set(false);
+                flush();
+            }, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Writes pending losses to the scoreboard file now. */
+    public synchronized void flush() {
+        // cleared before writing, so a loss recorded mid-write is written again
+        if (dirty.getAndSet(false)) save();
     }
 
     /**
      * @return a list of entries sorted descending by loss count
      */
     public List<ScoreEntry> standings() {
-        return losses.entrySet().stream()
-                .map(e -> new ScoreEntry(e.getKey(), e.getValue()))
-                .sorted(Comparator.comparingInt(ScoreEntry::losses).reversed())
-                .collect(Collectors.toList());
+        return index.range(0, Integer.MAX_VALUE);
+    }
+
+    /** @return the {@code k} players with the most losses */
+    public List<ScoreEntry> top(int k) {
+        return index.top(k);
+    }
+
+    /** @return the player's 0-based place in the standings, or -1 if unknown */
+    public int rankOf(String playerName) {
+        return index.rankOf(playerName);
+    }
+
+    /** @return the live standings, for views that page through them */
+    public StandingsIndex index() {
+        return index;
     }
 
     // ——— Internal persistence ——— //
@@ -50,7 +95,7 @@ public class Scoreboard {
                 for (String name : props.stringPropertyNames()) {
                     String val = props.getProperty(name);
                     try {
-                        losses.put(name, Integer.parseInt(val));
+                        index.put(name, Integer.parseInt(val));
                     } catch (NumberFormatException ignore) {
                         // skip invalid entries
                     }
@@ -67,6 +112,9 @@ public class Scoreboard {
      * @throws IOException if save went wrong
      */
     private void save() {
+        ScoreboardSaveEvent event = new ScoreboardSaveEvent();
+        event.begin();
+        boolean ok = false;
         // ensure parent directory
         try {
             Path parent = FILE.getParent();
@@ -75,9 +123,15 @@ public class Scoreboard {
 
         try (OutputStream out = Files.newOutputStream(FILE)) {
             props.store(out, "Pouilleux loss count per player");
+            ok = true;
         } catch (IOException e) {
             System.err.println("Error: could not save scoreboard: " + e.getMessage());
         }
+        if (event.shouldCommit()) {
+            event.players = props.size();
+            event.succeeded = ok;
+            event.commit();
+        }
     }
 
     /**
@@ -85,8 +139,9 @@ public class Scoreboard {
      *
      * @throws IOException if delete went wrong
      */
-    public void clear() {
-        losses.clear();
+    public synchronized void clear() {
+        dirty.set(false);
+        index.clear();
         props.clear();
 
         try {
@@ -0,0 +1,196 @@
+package core.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loss counts per player kept in standings order (most losses first, ties
+ * by name), updated in place on every change.
+ *
+ * The order is an indexable skip list: each link also records how many
+ * players it jumps over, so finding the player at a rank, the rank of a
+ * player and a change of one count all take logarithmic time. A page of
+ * the standings costs one such search plus the page itself. All methods
+ * are synchronized; games record losses while the scoreboard screen reads.
+ */
+public final class StandingsIndex {
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node {
+        final String name;
+        final int losses;
+        final Node[] next;
+        /** span[i] = players passed when following next[i], this one excluded */
+        final int[] span;
+
+        Node(String name, int losses, int levels) {
+            this.name   = name;
+            this.losses = losses;
+            this.next   = new Node[levels];
+            this.span   = new int[levels];
+        }
+    }
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private final Map<String, Node> byName = new HashMap<>();
+    private int level = 1;
+
+    /** @return the number of players */
+    public synchronized int size() {
+        return byName.size();
+    }
+
+    /** @return the player's loss count, 0 if unknown */
+    public synchronized int losses(String name) {
+        Node n = byName.get(name);
+        return n == null ? 0 : n.losses;
+    }
+
+    /** Sets a player's loss count, adding the player if new. */
+    public synchronized void put(String name, int losses) {
+        Objects.requireNonNull(name, "name must not be null");
+        Node old = byName.get(name);
+        if (old != null) {
+            if (old.losses == losses) return;
+            unlink(old);
+        }
+        byName.put(name, insert(name, losses));
+    }
+
+    /** Adds one loss to a player. @return the new count */
+    public synchronized int increment(String name) {
+        int n = losses(name) + 1;
+        put(name, n);
+        return n;
+    }
+
+    public synchronized void clear() {
+        byName.clear();
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+    }
+
+    /** @return the player's 0-based rank, or -1 if unknown */
+    public synchronized int rankOf(String name) {
+        Node target = byName.get(name);
+        if (target == null) return -1;
+        Node x = head;
+        int rank = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], target.losses, target.name) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == target) return rank - 1;
+        }
+        throw new IllegalStateException("Standings index is corrupt: " + name + " is not linked");
+    }
+
+    /** @return the entry at a 0-based rank */
+    public synchronized ScoreEntry get(int rank) {
+        Node n = nodeAt(Objects.checkIndex(rank, size()));
+        return new ScoreEntry(n.name, n.losses);
+    }
+
+    /** @return up to {@code count} entries from a 0-based rank on, in standings order */
+    public synchronized List<ScoreEntry> range(int from, int count) {
+        if (from < 0 || count < 0) throw new IllegalArgumentException("from and count must not be negative");
+        if (from >= size() || count == 0) return Collections.emptyList();
+        List<ScoreEntry> out = new ArrayList<>(Math.min(count, size() - from));
+        for (Node n = nodeAt(from); n != null && out.size() < count; n = n.next[0]) {
+            out.add(new ScoreEntry(n.name, n.losses));
+        }
+        return out;
+    }
+
+    /** @return the {@code k} players with the most losses */
+    public List<ScoreEntry> top(int k) {
+        return range(0, k);
+    }
+
+    /** Most losses first, then by name. */
+    private static int compare(Node n, int losses, String name) {
+        int c = Integer.compare(losses, n.losses);
+        return c != 0 ? c : n.name.compareTo(name);
+    }
+
+    private Node nodeAt(int rank) {
+        int target = rank + 1;  // spans count from the head
+        int passed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && passed + x.span[i] <= target) {
+                passed += x.span[i];
+                x = x.next[i];
+            }
+            if (passed == target) return x;
+        }
+        throw new IllegalStateException("Standings index is corrupt at rank " + rank);
+    }
+
+    private Node insert(String name, int losses) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], losses, name) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int levels = randomLevel();
+        if (levels > level) {
+            for (int i = level; i < levels; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = byName.size();
+            }
+            level = levels;
+        }
+        Node n = new Node(name, losses, levels);
+        for (int i = 0; i < levels; i++) {
+            n.next[i] = update[i].next[i];
+            update[i].next[i] = n;
+            n.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = levels; i < level; i++) {
+            update[i].span[i]++;
+        }
+        return n;
+    }
+
+    private void unlink(Node target) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], target.losses, target.name) < 0) {
+                x = x.next[i];
+            }
+            if (x.next[i] == target) {
+                x.span[i] += target.span[i] - 1;
+                x.next[i] = target.next[i];
+            } else {
+                x.span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) level--;
+        byName.remove(target.name);
+    }
+
+    /** Geometric with p = 1/4. */
+    private static int randomLevel() {
+        int levels = 1;
+        while (levels < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) levels++;
+        return levels;
+    }
+}
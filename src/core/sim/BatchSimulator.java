@@ -0,0 +1,341 @@
+package core.sim;
+
+import core.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Structure-of-arrays engine that plays thousands of bot-only games in
+ * lockstep, one turn of every live game per sweep.
+ *
+ * Each game is a handful of primitives: one 52-bit hand mask per seat
+ * ({@link Card#id()} bit positions), the index of the last mover, a turn
+ * counter and a xorshift RNG state, all stored in flat arrays indexed by
+ * slot. Finished slots are refilled with a new deal until the requested
+ * number of games has been played.
+ *
+ * The rules and built-in strategies mirror {@link Game},
+ * {@link DrawThenPurgeStrategy}, {@link RandomDrawStrategy} and
+ * {@link MixedRandomStrategy}; {@link #main(String[])} checks that both
+ * engines agree statistically: a chi-square test on who lost, which exits
+ * with status 1 if the distributions differ at the 0.1% level.
+ *
+ * Usage: {@code java core.sim.BatchSimulator [lineup=DrawThenPurge,MixedRandom,...] [games=1000000] [batch=4096] [threads=N]}
+ */
+public final class BatchSimulator {
+    public static final byte DRAW_THEN_PURGE = 0;
+    public static final byte RANDOM_DRAW     = 1;
+    public static final byte MIXED_RANDOM    = 2;
+
+    /** Standard normal quantile of 1 - 0.001, the significance level of the agreement check. */
+    private static final double Z_999 = 3.0902;
+
+    private static final int RANKS = 13;
+    private static final long RANK_MASK = (1L << RANKS) - 1;
+    private static final int JACK_OF_SPADES = Card.of(Rank.JACK, Suit.SPADES).id();
+    private static final int[] DECK = deckIds();
+
+    private final int seats;
+    private final byte[] strategies;
+    private final int batch;
+    private final int maxTurns;
+
+    // one entry per slot, or per slot * seats for hands
+    private final long[] hands;
+    private final int[] current;
+    private final int[] turns;
+    private final long[] rng;
+    private final int[] live;
+
+    private final int[] deck = new int[DECK.length];
+
+    /**
+     * @param strategies one strategy code per seat
+     * @param batch      number of games kept in flight
+     * @param maxTurns   turn cap after which a game is abandoned
+     * @param seed       seed of the per-slot RNG streams
+     */
+    public BatchSimulator(byte[] strategies, int batch, int maxTurns, long seed) {
+        if (strategies.length < 2 || strategies.length > 8) {
+            throw new IllegalArgumentException("Seats must be in [2, 8]");
+        }
+        this.seats      = strategies.length;
+        this.strategies = strategies.clone();
+        this.batch      = batch;
+        this.maxTurns   = maxTurns;
+        this.hands      = new long[batch * seats];
+        this.current    = new int[batch];
+        this.turns      = new int[batch];
+        this.rng        = new long[batch];
+        this.live       = new int[batch];
+        long s = seed;
+        for (int i = 0; i < batch; i++) {
+            s += 0x9E3779B97F4A7C15L;
+            rng[i] = mix(s) | 1;
+        }
+    }
+
+    /** Aggregate outcome of a run. */
+    public record Stats(long games, long[] seatLosses, long turns, long abandoned) {
+        Stats merge(Stats o) {
+            long[] l = seatLosses.clone();
+            for (int i = 0; i < l.length; i++) l[i] += o.seatLosses[i];
+            return new Stats(games + o.games, l, turns + o.turns, abandoned + o.abandoned);
+        }
+    }
+
+    /** Plays {@code games} games and returns per-seat loss counts. */
+    public Stats run(long games) {
+        long[] losses = new long[seats];
+        long totalTurns = 0, abandoned = 0, started = 0;
+        int liveCount = 0;
+        for (int slot = 0; slot < batch && started < games; slot++, started++) {
+            deal(slot);
+            live[liveCount++] = slot;
+        }
+        while (liveCount > 0) {
+            for (int i = 0; i < liveCount; ) {
+                int slot = live[i];
+                int loser = step(slot);
+                if (loser == -1) {
+                    i++;
+                    continue;
+                }
+                totalTurns += turns[slot];
+                if (loser >= 0) losses[loser]++;
+                else abandoned++;
+                if (started < games) {
+                    started++;
+                    deal(slot);
+                    i++;
+                } else {
+                    live[i] = live[--liveCount];
+                }
+            }
+        }
+        return new Stats(games, losses, totalTurns, abandoned);
+    }
+
+    /** Shuffles, deals round-robin and performs the initial purge, like Game.start(). */
+    private void deal(int slot) {
+        int base = slot * seats;
+        System.arraycopy(DECK, 0, deck, 0, DECK.length);
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = nextInt(slot, i + 1);
+            int t = deck[i]; deck[i] = deck[j]; deck[j] = t;
+        }
+        Arrays.fill(hands, base, base + seats, 0L);
+        for (int i = 0; i < deck.length; i++) {
+            hands[base + i % seats] |= 1L << deck[i];
+        }
+        for (int s = 0; s < seats; s++) {
+            hands[base + s] = purge(hands[base + s]);
+        }
+        current[slot] = 1; // bots only: Game.start() sets currentIndex = 1
+        turns[slot] = 0;
+    }
+
+    /**
+     * Plays one turn of the game in a slot.
+     *
+     * @return -1 if the game continues, the losing seat if it ended,
+     *         or -2 if it ended without a loser or hit the turn cap
+     */
+    private int step(int slot) {
+        int base = slot * seats;
+        int loser = loserIfOver(base);
+        if (loser != -1) return loser;
+        if (turns[slot] >= maxTurns) return -2;
+
+        int cur = nextActive(base, current[slot]);
+        int left = nextActive(base, cur);
+        current[slot] = cur;
+        if (left == cur) return loserIfOver(base);
+
+        long from = hands[base + left];
+        int pick = nextInt(slot, Long.bitCount(from));
+        for (int k = 0; k < pick; k++) from &= from - 1;
+        long card = Long.lowestOneBit(from);
+        hands[base + left] &= ~card;
+        long mine = hands[base + cur] | card;
+
+        byte strategy = strategies[cur];
+        if (strategy == MIXED_RANDOM) {
+            strategy = nextInt(slot, 2) == 0 ? RANDOM_DRAW : DRAW_THEN_PURGE;
+        }
+        if (strategy == DRAW_THEN_PURGE) mine = purge(mine);
+        hands[base + cur] = mine;
+        turns[slot]++;
+        return -1;
+    }
+
+    /** Mirrors Game.isGameOver() and Game.getLoser(); -1 while the game goes on. */
+    private int loserIfOver(int base) {
+        int survivors = 0, first = -1, second = -1, total = 0;
+        for (int s = 0; s < seats; s++) {
+            long h = hands[base + s];
+            if (h == 0) continue;
+            survivors++;
+            total += Long.bitCount(h);
+            if (first < 0) first = s;
+            else second = s;
+        }
+        if (survivors == 0) return -2;
+        if (survivors == 1) return first;
+        if (survivors == 2 && total <= 3) {
+            long jack = 1L << JACK_OF_SPADES;
+            if (hands[base + first] == jack) return first;
+            if (hands[base + second] == jack) return second;
+        }
+        return -1;
+    }
+
+    private int nextActive(int base, int start) {
+        for (int d = 1; d <= seats; d++) {
+            int s = (start + d) % seats;
+            if (hands[base + s] != 0) return s;
+        }
+        return start;
+    }
+
+    /** Removes every same-colour pair: diamonds+hearts and clubs+spades of one rank. */
+    static long purge(long h) {
+        long clubs    = h & RANK_MASK;
+        long diamonds = (h >>> RANKS) & RANK_MASK;
+        long hearts   = (h >>> 2 * RANKS) & RANK_MASK;
+        long spades   = (h >>> 3 * RANKS) & RANK_MASK;
+        long red   = diamonds & hearts;
+        long black = clubs & spades;
+        return h & ~(black | red << RANKS | red << 2 * RANKS | black << 3 * RANKS);
+    }
+
+    private int nextInt(int slot, int bound) {
+        long x = rng[slot];
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        rng[slot] = x;
+        return (int) (((x >>> 32) * bound) >>> 32);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int[] deckIds() {
+        List<Card> cards = new Deck().getCards();
+        int[] ids = new int[cards.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = cards.get(i).id();
+        return ids;
+    }
+
+    /** Maps a registered strategy name to its code in this engine. */
+    public static byte code(String name) {
+        return switch (name) {
+            case "DrawThenPurge" -> DRAW_THEN_PURGE;
+            case "RandomDraw"    -> RANDOM_DRAW;
+            case "MixedRandom"   -> MIXED_RANDOM;
+            default -> throw new IllegalArgumentException("No batch implementation for strategy " + name);
+        };
+    }
+
+    /** Runs {@code games} games split over {@code threads} independent simulators. */
+    public static Stats runParallel(byte[] lineup, long games, int batch, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Stats>> parts = new ArrayList<>();
+            long seed = ThreadLocalRandom.current().nextLong();
+            for (int t = 0; t < threads; t++) {
+                long share = games / threads + (t < games % threads ? 1 : 0);
+                long s = seed + t * 0x632BE59BD9B4E019L;
+                parts.add(pool.submit(() ->
+                        new BatchSimulator(lineup, batch, Simulation.DEFAULT_MAX_TURNS, s).run(share)));
+            }
+            Stats total = new Stats(0, new long[lineup.length], 0, 0);
+            for (Future<Stats> f : parts) total = total.merge(f.get());
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> names = List.of("DrawThenPurge", "MixedRandom", "DrawThenPurge", "MixedRandom");
+        long games = 1_000_000;
+        int batch = 4096;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "lineup"  -> names = List.of(val.split(","));
+                case "games"   -> games = Long.parseLong(val);
+                case "batch"   -> batch = Integer.parseInt(val);
+                case "threads" -> threads = Integer.parseInt(val);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        byte[] lineup = new byte[names.size()];
+        for (int i = 0; i < lineup.length; i++) lineup[i] = code(names.get(i));
+
+        long start = System.nanoTime();
+        Stats fast = runParallel(lineup, games, batch, threads);
+        double fastSecs = (System.nanoTime() - start) / 1e9;
+
+        // reference run on the object engine, smaller sample
+        long refGames = Math.max(10_000, games / 20);
+        long[] refLosses = new long[lineup.length];
+        List<MoveStrategy> seats = new ArrayList<>();
+        for (String n : names) seats.add(StrategyFactory.create(n));
+        start = System.nanoTime();
+        long refTurns = 0;
+        for (long g = 0; g < refGames; g++) {
+            GameResult r = Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS);
+            if (r.loserSeat() >= 0) refLosses[r.loserSeat()]++;
+            refTurns += r.turns();
+        }
+        double refSecs = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "batch : %,d games in %.2fs = %,.0f games/s, %.1f turns/game%n",
+                fast.games(), fastSecs, fast.games() / fastSecs, (double) fast.turns() / fast.games());
+        System.out.printf(Locale.ROOT, "object: %,d games in %.2fs = %,.0f games/s, %.1f turns/game (1 thread)%n",
+                refGames, refSecs, refGames / refSecs, (double) refTurns / refGames);
+        double chi2 = 0;
+        int cells = 0;
+        long fastDecided = Arrays.stream(fast.seatLosses()).sum();
+        long refDecided = Arrays.stream(refLosses).sum();
+        for (int s = 0; s < lineup.length; s++) {
+            double pf = (double) fast.seatLosses()[s] / fastDecided;
+            double pr = (double) refLosses[s] / refDecided;
+            System.out.printf(Locale.ROOT, "seat %d %-14s batch %.4f  object %.4f%n", s, names.get(s), pf, pr);
+            // two-sample chi-square on the loser distribution
+            double pooled = (double) (fast.seatLosses()[s] + refLosses[s]) / (fastDecided + refDecided);
+            if (pooled > 0) {
+                cells++;
+                chi2 += Math.pow(fast.seatLosses()[s] - fastDecided * pooled, 2) / (fastDecided * pooled)
+                        + Math.pow(refLosses[s] - refDecided * pooled, 2) / (refDecided * pooled);
+            }
+        }
+        int df = Math.max(1, cells - 1);
+        double critical = chiSquareCritical(df);
+        boolean agree = chi2 <= critical;
+        System.out.printf(Locale.ROOT, "chi-square = %.2f on %d degrees of freedom, critical %.2f at p=0.001: %s%n",
+                chi2, df, critical, agree ? "engines agree" : "ENGINES DISAGREE");
+        if (!agree) System.exit(1);
+    }
+
+    /** Wilson-Hilferty approximation of the chi-square quantile at 1 - 0.001; within 3% from one degree of freedom up. */
+    static double chiSquareCritical(int df) {
+        double v = 2.0 / (9 * df);
+        return df * Math.pow(1 - v + Z_999 * Math.sqrt(v), 3);
+    }
+}
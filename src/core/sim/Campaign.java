@@ -0,0 +1,122 @@
+package core.sim;
+
+import core.model.RuleSet;
+import core.model.StrategyFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a {@link CampaignRunner} plays: every line-up over the same seed
+ * range, in chunks of {@code chunk} seeds. The table size of a line-up is
+ * its number of seats, so one campaign can cover several player counts.
+ *
+ * Campaign files hold one {@code key=value} per line; blank lines and
+ * lines starting with {@code #} are ignored:
+ * <pre>
+ * rules=classic
+ * seeds=1-100000000
+ * chunk=20000
+ * lineup=DrawThenPurge,MixedRandom
+ * lineup=DrawThenPurge,MixedRandom,RandomDraw
+ * </pre>
+ *
+ * @param firstSeed the seed of the first game of each line-up
+ * @param games     games per line-up, one per seed
+ * @param chunk     seeds per unit of work and of checkpointed progress
+ */
+public record Campaign(RuleSet rules, long firstSeed, long games, int chunk, List<List<String>> lineups) {
+    public static final int DEFAULT_CHUNK = 20_000;
+
+    public Campaign {
+        if (games < 1) throw new IllegalArgumentException("games must be positive");
+        if (chunk < 1) throw new IllegalArgumentException("chunk must be positive");
+        if (lineups.isEmpty()) throw new IllegalArgumentException("Campaign has no line-up");
+        for (List<String> lineup : lineups) {
+            if (lineup.size() < 2) throw new IllegalArgumentException("Need at least two seats: " + lineup);
+            for (String name : lineup) StrategyFactory.create(name);
+        }
+        if (firstSeed > Long.MAX_VALUE - games) throw new IllegalArgumentException("Seed range overflows");
+        rules.compile();
+        lineups = lineups.stream().map(List::copyOf).toList();
+    }
+
+    /** @return chunks per line-up; the last one may be short */
+    public int chunks() {
+        long n = (games + chunk - 1) / chunk;
+        if (n > Integer.MAX_VALUE) throw new IllegalStateException("Too many chunks, raise chunk=");
+        return (int) n;
+    }
+
+    /** @return the first seed of a chunk */
+    public long chunkStart(int index) {
+        return firstSeed + (long) index * chunk;
+    }
+
+    /** @return the number of games in a chunk */
+    public int chunkSize(int index) {
+        return (int) Math.min(chunk, games - (long) index * chunk);
+    }
+
+    /**
+     * Reads a campaign file.
+     *
+     * @throws IllegalArgumentException for an unknown key or a bad value, with its line number
+     */
+    public static Campaign parse(Path file) throws IOException {
+        RuleSet rules = RuleSet.CLASSIC;
+        long first = 1, games = 0;
+        int chunk = DEFAULT_CHUNK;
+        List<List<String>> lineups = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int eq = line.indexOf('=');
+            try {
+                if (eq < 0) throw new IllegalArgumentException("expected key=value");
+                String key = line.substring(0, eq).strip(), val = line.substring(eq + 1).strip();
+                switch (key) {
+                    case "rules"  -> rules = RuleSet.byName(val);
+                    case "seeds"  -> {
+                        int dash = val.indexOf('-', 1);
+                        if (dash < 0) throw new IllegalArgumentException("expected first-last");
+                        first = Long.parseLong(val.substring(0, dash).strip());
+                        games = Long.parseLong(val.substring(dash + 1).strip()) - first + 1;
+                    }
+                    case "chunk"  -> chunk = Integer.parseInt(val);
+                    case "lineup" -> lineups.add(List.of(val.split("\\s*,\\s*")));
+                    default -> throw new IllegalArgumentException("unknown key " + key);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new Campaign(rules, first, games, chunk, lineups);
+    }
+
+    /**
+     * @return the campaign in file form, one canonical line per setting;
+     *         a checkpoint only resumes a campaign with the same description
+     */
+    public String describe() {
+        StringBuilder out = new StringBuilder();
+        out.append("rules=").append(presetName(rules)).append('\n');
+        out.append("seeds=").append(firstSeed).append('-').append(firstSeed + games - 1).append('\n');
+        out.append("chunk=").append(chunk).append('\n');
+        for (List<String> lineup : lineups) out.append("lineup=").append(String.join(",", lineup)).append('\n');
+        return out.toString();
+    }
+
+    private static String presetName(RuleSet rules) {
+        for (Map.Entry<String, RuleSet> e : RuleSet.presets().entrySet()) {
+            if (e.getValue().equals(rules)) return e.getKey();
+        }
+        return rules.toString();
+    }
+}
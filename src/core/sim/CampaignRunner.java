@@ -0,0 +1,252 @@
+package core.sim;
+
+import core.model.MoveStrategy;
+import core.model.StrategyFactory;
+import core.persistence.CampaignCheckpoint;
+import core.stats.GameMetrics;
+import core.stats.MetricsRegistry;
+import core.stats.StatsListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays a {@link Campaign} on a thread pool, checkpointing as it goes so
+ * an interrupted campaign resumes where it stopped.
+ *
+ * Workers take (chunk, line-up) units in turn, so every line-up advances
+ * together, and play each chunk's games from their seeds. A finished chunk
+ * is merged into its line-up's metrics and marked done in one step, so a
+ * {@link CampaignCheckpoint} taken at any moment holds the metrics of
+ * exactly the chunks it lists. Chunks that were still being played when
+ * the run stopped are played again from their first seed on resume, with
+ * the same games, so no game is counted twice or missed.
+ *
+ * Checkpoints are written every {@code every=} seconds by a background
+ * thread, once more on shutdown (e.g. Ctrl-C) and at the end. Taking one
+ * only copies the aggregates under the lock, a few kilobytes per line-up;
+ * the file is written outside it while the games go on.
+ *
+ * Usage: {@code java core.sim.CampaignRunner campaign=campaign.txt
+ * [checkpoint=campaign.txt.ckpt] [threads=N] [every=30]}
+ */
+public final class CampaignRunner {
+    /** Seconds between two periodic checkpoints. */
+    public static final long DEFAULT_EVERY_SECONDS = 30;
+
+    private final Campaign campaign;
+    private final String description;
+    private final Path checkpointFile;
+    private final int threads;
+    private final Object saving = new Object();
+
+    // guarded by this
+    private final BitSet[] done;
+    private final GameMetrics[] metrics;
+    private long gamesDone;
+
+    /**
+     * Resumes from the checkpoint file if it exists.
+     *
+     * @throws IOException if the checkpoint is unreadable or belongs to another campaign
+     */
+    public CampaignRunner(Campaign campaign, Path checkpointFile, int threads) throws IOException {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        this.campaign       = campaign;
+        this.description    = campaign.describe();
+        this.checkpointFile = checkpointFile;
+        this.threads        = threads;
+        int n = campaign.lineups().size();
+        this.done    = new BitSet[n];
+        this.metrics = new GameMetrics[n];
+        if (Files.exists(checkpointFile)) {
+            CampaignCheckpoint saved = CampaignCheckpoint.load(checkpointFile);
+            if (!saved.campaign().equals(description) || saved.lineups().size() != n) {
+                throw new IOException("Checkpoint " + checkpointFile + " belongs to another campaign:\n"
+                        + saved.campaign());
+            }
+            for (int i = 0; i < n; i++) {
+                done[i]    = saved.lineups().get(i).done();
+                metrics[i] = saved.lineups().get(i).metrics();
+                for (int c = done[i].nextSetBit(0); c >= 0; c = done[i].nextSetBit(c + 1)) {
+                    gamesDone += campaign.chunkSize(c);
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                done[i]    = new BitSet();
+                metrics[i] = new GameMetrics();
+            }
+        }
+    }
+
+    /** @return games in finished chunks, over every line-up */
+    public synchronized long gamesDone() {
+        return gamesDone;
+    }
+
+    /** @return games in the whole campaign, over every line-up */
+    public long gamesTotal() {
+        return campaign.games() * campaign.lineups().size();
+    }
+
+    /**
+     * Plays every chunk not yet done, checkpointing every {@code everySeconds}.
+     *
+     * @return each line-up's metrics, in campaign order
+     */
+    public List<GameMetrics> run(long everySeconds) throws InterruptedException, IOException {
+        if (everySeconds < 1) throw new IllegalArgumentException("everySeconds must be positive");
+        int lineups = campaign.lineups().size();
+        long units = (long) campaign.chunks() * lineups;
+        AtomicLong next = new AtomicLong();
+
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Campaign-Checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(() -> checkpointQuietly(true), everySeconds, everySeconds, TimeUnit.SECONDS);
+        Thread hook = new Thread(() -> checkpointQuietly(false), "Campaign-Checkpoint-Hook");
+        Runtime.getRuntime().addShutdownHook(hook);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> parts = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                parts.add(pool.submit(() -> {
+                    List<List<MoveStrategy>> seats = new ArrayList<>(lineups);
+                    for (List<String> lineup : campaign.lineups()) {
+                        List<MoveStrategy> s = new ArrayList<>(lineup.size());
+                        for (String name : lineup) s.add(StrategyFactory.create(name));
+                        seats.add(s);
+                    }
+                    for (long u; (u = next.getAndIncrement()) < units; ) {
+                        int lineup = (int) (u % lineups), chunk = (int) (u / lineups);
+                        if (isDone(lineup, chunk)) continue;
+                        complete(lineup, chunk, play(seats.get(lineup), chunk));
+                    }
+                }));
+            }
+            for (Future<?> f : parts) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Campaign worker failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            timer.shutdownNow();
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // already shutting down; the hook writes the checkpoint
+            }
+            checkpoint();
+        }
+        synchronized (this) {
+            List<GameMetrics> out = new ArrayList<>(lineups);
+            for (GameMetrics m : metrics) out.add(m.copy());
+            return out;
+        }
+    }
+
+    private GameMetrics play(List<MoveStrategy> seats, int chunk) {
+        MetricsRegistry registry = new MetricsRegistry();
+        long first = campaign.chunkStart(chunk);
+        for (long seed = first; seed < first + campaign.chunkSize(chunk); seed++) {
+            Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS, campaign.rules(), new StatsListener(registry), seed);
+        }
+        return registry.snapshot();
+    }
+
+    private synchronized boolean isDone(int lineup, int chunk) {
+        return done[lineup].get(chunk);
+    }
+
+    private synchronized void complete(int lineup, int chunk, GameMetrics chunkMetrics) {
+        metrics[lineup].merge(chunkMetrics);
+        done[lineup].set(chunk);
+        gamesDone += campaign.chunkSize(chunk);
+    }
+
+    /** Writes a checkpoint of every finished chunk; safe to call while the campaign runs. */
+    public void checkpoint() throws IOException {
+        synchronized (saving) {  // one writer at a time, and never an older snapshot after a newer one
+            CampaignCheckpoint snapshot;
+            synchronized (this) {
+                List<CampaignCheckpoint.Progress> progress = new ArrayList<>(done.length);
+                for (int i = 0; i < done.length; i++) {
+                    progress.add(new CampaignCheckpoint.Progress((BitSet) done[i].clone(), metrics[i].copy()));
+                }
+                snapshot = new CampaignCheckpoint(description, progress);
+            }
+            snapshot.save(checkpointFile);
+        }
+    }
+
+    private void checkpointQuietly(boolean report) {
+        try {
+            checkpoint();
+            if (report) {
+                System.out.printf(Locale.ROOT, "Checkpoint: %,d of %,d games%n", gamesDone(), gamesTotal());
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: could not write checkpoint " + checkpointFile + ": " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = null;
+        Path checkpoint = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long every = DEFAULT_EVERY_SECONDS;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "campaign"   -> file = Paths.get(val);
+                case "checkpoint" -> checkpoint = Paths.get(val);
+                case "threads"    -> threads = Integer.parseInt(val);
+                case "every"      -> every = Long.parseLong(val);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("campaign=file is required");
+        if (checkpoint == null) checkpoint = file.resolveSibling(file.getFileName() + ".ckpt");
+
+        Campaign campaign = Campaign.parse(file);
+        CampaignRunner runner = new CampaignRunner(campaign, checkpoint, threads);
+        long resumedAt = runner.gamesDone();
+        if (resumedAt > 0) {
+            System.out.printf(Locale.ROOT, "Resuming from %s: %,d of %,d games already played%n",
+                    checkpoint, resumedAt, runner.gamesTotal());
+        }
+        long start = System.nanoTime();
+        List<GameMetrics> results = runner.run(every);
+        double secs = (System.nanoTime() - start) / 1e9;
+        long played = runner.gamesDone() - resumedAt;
+        System.out.printf(Locale.ROOT, "%s: %,d games played in %.2fs = %,.0f games/s on %d threads; checkpoint %s%n",
+                campaign.rules(), played, secs, played / secs, threads, checkpoint);
+        for (int i = 0; i < results.size(); i++) {
+            GameMetrics m = results.get(i);
+            List<String> lineup = campaign.lineups().get(i);
+            System.out.printf(Locale.ROOT, "%n%s: %,d games (%d undecided)%n",
+                    String.join(",", lineup), m.games(), m.undecided());
+            HeadlessRunner.printMetrics(m, lineup);
+        }
+    }
+}
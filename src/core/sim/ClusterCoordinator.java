@@ -0,0 +1,286 @@
+package core.sim;
+
+import core.model.RuleSet;
+import core.model.StrategyFactory;
+import core.stats.GameMetrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Spreads a long simulation campaign over several worker JVMs on this
+ * machine, each with its own heap and garbage collector.
+ *
+ * The campaign is the seed range {@code [firstSeed, firstSeed + games)},
+ * cut into chunks. The coordinator launches {@link ClusterWorker}s, which
+ * connect back over a loopback socket; every worker is handed one chunk
+ * at a time and returns the chunk's {@link GameMetrics}, which are merged
+ * here. A chunk whose worker dies or drops the connection goes back to the
+ * queue and is played by another worker, and the dead worker is relaunched
+ * while restarts remain. Games follow from their seed, so the merged loss
+ * counts do not depend on which worker played what, or how often one died.
+ *
+ * {@code heap=} sizes each worker's heap and {@code jvm=} passes extra
+ * comma-separated JVM options (e.g. {@code -XX:+UseNUMA}).
+ *
+ * Usage: {@code java core.sim.ClusterCoordinator [lineup=DrawThenPurge,MixedRandom,...]
+ * [rules=classic|oldmaid|doubledeck] [games=10000000] [seed=1] [workers=N] [chunk=20000]
+ * [heap=512m] [jvm=opt,opt] [restarts=N] [csv=metrics.csv]}
+ */
+public final class ClusterCoordinator {
+    /** Seeds handed to a worker at a time. */
+    public static final int DEFAULT_CHUNK = 20_000;
+
+    private record Range(long first, int count) {}
+
+    private final List<String> lineup;
+    private final String rules;
+    private final long games;
+    private final int workers;
+    private final int chunk;
+    private final List<String> jvmOptions;
+
+    // guarded by this
+    private final Deque<Range> pending = new ArrayDeque<>();
+    private final GameMetrics merged = new GameMetrics();
+    private final Process[] processes;
+    private long done;
+    private int restartsLeft;
+    private int alive;
+    private IOException failure;
+
+    /**
+     * @param lineup     one strategy name per seat
+     * @param rules      a built-in rule variant, see {@link RuleSet#presets()}
+     * @param jvmOptions options for every worker JVM, e.g. {@code -Xmx512m}
+     * @param restarts   worker relaunches allowed over the whole campaign
+     */
+    public ClusterCoordinator(List<String> lineup, RuleSet rules, long firstSeed, long games,
+                              int workers, int chunk, List<String> jvmOptions, int restarts) {
+        if (lineup.size() < 2) throw new IllegalArgumentException("Need at least two seats");
+        if (workers < 1) throw new IllegalArgumentException("workers must be positive");
+        if (chunk < 1) throw new IllegalArgumentException("chunk must be positive");
+        if (games < 0) throw new IllegalArgumentException("games must not be negative");
+        for (String name : lineup) {
+            if (name.contains(",")) throw new IllegalArgumentException("Bad strategy name " + name);
+            StrategyFactory.create(name);
+        }
+        this.lineup       = List.copyOf(lineup);
+        this.rules        = presetName(rules);
+        this.games        = games;
+        this.workers      = workers;
+        this.chunk        = chunk;
+        this.jvmOptions   = List.copyOf(jvmOptions);
+        this.restartsLeft = restarts;
+        this.processes    = new Process[workers];
+        for (long s = 0; s < games; s += chunk) {
+            pending.add(new Range(firstSeed + s, (int) Math.min(chunk, games - s)));
+        }
+    }
+
+    private static String presetName(RuleSet rules) {
+        for (Map.Entry<String, RuleSet> e : RuleSet.presets().entrySet()) {
+            if (e.getValue().equals(rules)) return e.getKey();
+        }
+        throw new IllegalArgumentException("Workers only know the built-in rules, not " + rules);
+    }
+
+    /**
+     * Launches the workers, plays the whole seed range and returns the
+     * merged metrics.
+     *
+     * @throws IOException if every worker died and no restarts are left
+     */
+    public GameMetrics run() throws IOException, InterruptedException {
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> accept(server), "Cluster-Accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            synchronized (this) {
+                for (int id = 0; id < workers; id++) launch(id, server.getLocalPort());
+                while (done < games && failure == null) wait();
+                if (failure != null) throw failure;
+                return merged;
+            }
+        } finally {
+            synchronized (this) {
+                for (Process p : processes) if (p != null) p.destroy();
+            }
+        }
+    }
+
+    /** @return games whose results have been merged so far */
+    public synchronized long done() {
+        return done;
+    }
+
+    private void launch(int id, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ClusterWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(id));
+        Process p = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        processes[id] = p;
+        alive++;
+        p.onExit().thenRun(() -> exited(id, p, port));
+    }
+
+    private synchronized void exited(int id, Process p, int port) {
+        alive--;
+        if (done >= games || processes[id] != p) return;
+        System.err.println("Warning: worker " + id + " exited with status " + p.exitValue());
+        if (restartsLeft > 0) {
+            restartsLeft--;
+            try {
+                launch(id, port);
+                return;
+            } catch (IOException e) {
+                System.err.println("Warning: could not relaunch worker " + id + ": " + e.getMessage());
+            }
+        }
+        if (alive == 0) {
+            failure = new IOException("Every worker died with " + (games - done) + " games left");
+            notifyAll();
+        }
+    }
+
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return;  // closed once the campaign is over
+            }
+            Thread t = new Thread(() -> serve(socket), "Cluster-Link");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /** Feeds one worker chunks until none are left; requeues its chunk if the link breaks. */
+    private void serve(Socket socket) {
+        Range current = null;
+        int id = -1;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in   = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != ClusterWorker.HELLO) throw new IOException("Not a cluster worker");
+            id = in.readInt();
+            out.writeUTF(String.join(",", lineup));
+            out.writeUTF(rules);
+            out.writeInt(Simulation.DEFAULT_MAX_TURNS);
+            while ((current = take()) != null) {
+                out.writeByte(ClusterWorker.RANGE);
+                out.writeLong(current.first());
+                out.writeInt(current.count());
+                out.flush();
+                if (in.readByte() != ClusterWorker.RESULT
+                        || in.readLong() != current.first() || in.readInt() != current.count()) {
+                    throw new IOException("Result does not match the range sent");
+                }
+                complete(GameMetrics.read(in), current.count());
+                current = null;
+            }
+            out.writeByte(ClusterWorker.STOP);
+            out.flush();
+        } catch (IOException e) {
+            if (current != null) {
+                System.err.println("Warning: lost worker " + id + " (" + e
+                        + "), reassigning seeds " + current.first() + "+" + current.count());
+                requeue(current);
+            }
+        }
+    }
+
+    /** @return the next chunk, or null once every game is done; waits while others are still in flight */
+    private synchronized Range take() {
+        while (pending.isEmpty() && done < games && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return pending.poll();
+    }
+
+    private synchronized void complete(GameMetrics metrics, int count) {
+        merged.merge(metrics);
+        done += count;
+        notifyAll();
+    }
+
+    private synchronized void requeue(Range range) {
+        pending.addFirst(range);
+        notifyAll();
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> lineup = List.of("DrawThenPurge", "MixedRandom", "DrawThenPurge", "MixedRandom");
+        RuleSet rules = RuleSet.CLASSIC;
+        long games = 10_000_000;
+        long seed = 1;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int chunk = DEFAULT_CHUNK;
+        List<String> jvm = new ArrayList<>();
+        int restarts = -1;
+        String csv = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "lineup"   -> lineup = List.of(val.split(","));
+                case "rules"    -> rules = RuleSet.byName(val);
+                case "games"    -> games = Long.parseLong(val);
+                case "seed"     -> seed = Long.parseLong(val);
+                case "workers"  -> workers = Integer.parseInt(val);
+                case "chunk"    -> chunk = Integer.parseInt(val);
+                case "heap"     -> jvm.add("-Xmx" + val);
+                case "jvm"      -> jvm.addAll(List.of(val.split(",")));
+                case "restarts" -> restarts = Integer.parseInt(val);
+                case "csv"      -> csv = val;
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        ClusterCoordinator cluster = new ClusterCoordinator(lineup, rules, seed, games, workers, chunk,
+                jvm, restarts < 0 ? workers : restarts);
+        long start = System.nanoTime();
+        GameMetrics m = cluster.run();
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%s: %,d games (seeds %d..%d) in %.2fs = %,.0f games/s on %d workers (%d undecided)%n",
+                rules, m.games(), seed, seed + games - 1, secs, m.games() / secs, workers, m.undecided());
+        HeadlessRunner.printMetrics(m, lineup);
+        for (int s = 0; s < m.seats.seats(); s++) {
+            System.out.printf(Locale.ROOT, "seat %d losses %,d%n", s, m.seats.losses(s));
+        }
+        if (csv != null) {
+            HeadlessRunner.exportCsv(m, Paths.get(csv));
+            System.out.println("Metrics written to " + csv);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package core.sim;
+
+import core.model.MoveStrategy;
+import core.model.RuleSet;
+import core.model.StrategyFactory;
+import core.stats.GameMetrics;
+import core.stats.MetricsRegistry;
+import core.stats.StatsListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One worker JVM of a {@link ClusterCoordinator}: connects back to the
+ * coordinator, learns the line-up and rules, then plays every seed range
+ * it is handed and sends the range's metrics back, until told to stop.
+ *
+ * Game {@code s} of a range is played with {@link Simulation#play(List, int,
+ * RuleSet, core.model.GameListener, long)} from seed {@code s}, so a range
+ * gives the same games whichever worker plays it.
+ *
+ * Usage (normally launched by the coordinator): {@code java core.sim.ClusterWorker port [id]}
+ */
+public final class ClusterWorker {
+    /** Sent first by a worker, then the worker id as an int. */
+    static final int HELLO = 0x50435731;  // "PCW1"
+    /** Coordinator to worker: first seed (long) and game count (int). */
+    static final byte RANGE = 1;
+    /** Coordinator to worker: no more work. */
+    static final byte STOP = 2;
+    /** Worker to coordinator: first seed, game count and the range's {@link GameMetrics}. */
+    static final byte RESULT = 3;
+
+    private ClusterWorker() {}
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int id   = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in   = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(HELLO);
+            out.writeInt(id);
+            out.flush();
+            serve(in, out);
+        }
+    }
+
+    private static void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        List<String> lineup = List.of(in.readUTF().split(","));
+        RuleSet rules = RuleSet.byName(in.readUTF());
+        int maxTurns = in.readInt();
+        List<MoveStrategy> seats = new ArrayList<>(lineup.size());
+        for (String name : lineup) seats.add(StrategyFactory.create(name));
+
+        while (true) {
+            byte type = in.readByte();
+            if (type == STOP) return;
+            if (type != RANGE) throw new IOException("Unexpected message " + type);
+            long first = in.readLong();
+            int count = in.readInt();
+            MetricsRegistry registry = new MetricsRegistry();
+            for (long seed = first; seed < first + count; seed++) {
+                Simulation.play(seats, maxTurns, rules, new StatsListener(registry), seed);
+            }
+            out.writeByte(RESULT);
+            out.writeLong(first);
+            out.writeInt(count);
+            registry.snapshot().write(out);
+            out.flush();
+        }
+    }
+}
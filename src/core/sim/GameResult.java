@@ -0,0 +1,10 @@
+package core.sim;
+
+/**
+ * Outcome of one headless game.
+ *
+ * @param loserSeat   index of the losing seat, or -1 if the turn cap was hit first
+ * @param turns       number of phase-2 turns played
+ * @param pairsPurged pairs each seat discarded, initial purge included
+ */
+public record GameResult(int loserSeat, int turns, int[] pairsPurged) {}
@@ -0,0 +1,266 @@
+package core.sim;
+
+import core.analysis.LossOracle;
+import core.analysis.PolicyStrategy;
+import core.analysis.PolicyTable;
+import core.analysis.PolicyTrainer;
+import core.jfr.JfrSession;
+import core.model.Card;
+import core.model.Game;
+import core.model.GameListener;
+import core.model.GuardedStrategy;
+import core.model.MoveStrategy;
+import core.model.RuleSet;
+import core.model.StrategyFactory;
+import core.stats.GameMetrics;
+import core.stats.MetricsRegistry;
+import core.stats.StatsListener;
+import core.stats.StrategyProfile;
+import core.stats.StrategyProfiles;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays a fixed line-up many times on a thread pool and reports the
+ * streaming statistics of {@code core.stats}.
+ *
+ * Each worker feeds its own {@link GameMetrics} through a run-local
+ * {@link MetricsRegistry}, so games never contend on a lock; the
+ * per-thread aggregates are merged once the pool is done.
+ *
+ * With {@code budget=ms} every seat runs under a {@link GuardedStrategy}
+ * and the per-strategy decision profile is printed too; {@code budget=0}
+ * profiles and checks moves without a time limit or watchdog thread.
+ * {@code policy=file} maps a table from {@link PolicyTrainer} so line-ups
+ * can seat the learned bot as {@value PolicyStrategy#NAME}.
+ * {@code odds=N} then plays N more games asking a {@link LossOracle} at
+ * every turn and prints how its estimates compare with who lost.
+ *
+ * Usage: {@code java core.sim.HeadlessRunner [lineup=DrawThenPurge,MixedRandom,...]
+ * [rules=classic|oldmaid|doubledeck] [games=100000] [threads=N] [budget=ms]
+ * [policy=policy.ppt] [odds=20] [csv=metrics.csv] [jfr=run.jfr]}
+ */
+public final class HeadlessRunner {
+    private HeadlessRunner() {}
+
+    /**
+     * Plays {@code games} games of the line-up and returns their merged metrics.
+     *
+     * @param lineup  one strategy name per seat, as known to {@link StrategyFactory}
+     * @param games   number of games to play
+     * @param threads worker threads
+     */
+    public static GameMetrics run(List<String> lineup, long games, int threads) throws InterruptedException {
+        return run(lineup, RuleSet.CLASSIC, games, threads);
+    }
+
+    /** Same as {@link #run(List, long, int)} under a rule variant. */
+    public static GameMetrics run(List<String> lineup, RuleSet rules, long games, int threads)
+            throws InterruptedException {
+        return run(lineup, rules, games, threads, null, null);
+    }
+
+    /**
+     * Same as {@link #run(List, RuleSet, long, int)} with every seat guarded.
+     *
+     * @param budget   decision time budget, zero for none, or null to leave seats unguarded
+     * @param profiles where guarded seats record their decisions
+     */
+    public static GameMetrics run(List<String> lineup, RuleSet rules, long games, int threads,
+                                  Duration budget, StrategyProfiles profiles) throws InterruptedException {
+        if (lineup.size() < 2) {
+            throw new IllegalArgumentException("Need at least two seats");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        // fail fast on unknown names and bad rules instead of inside every worker
+        for (String name : lineup) StrategyFactory.create(name);
+        rules.compile();
+
+        MetricsRegistry registry = new MetricsRegistry();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> parts = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                long share = games / threads + (t < games % threads ? 1 : 0);
+                parts.add(pool.submit(() -> {
+                    List<MoveStrategy> seats = new ArrayList<>(lineup.size());
+                    for (String name : lineup) {
+                        MoveStrategy seat = StrategyFactory.create(name);
+                        seats.add(budget == null ? seat : GuardedStrategy.guard(seat, budget, profiles));
+                    }
+                    for (long g = 0; g < share; g++) {
+                        Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS, rules, new StatsListener(registry));
+                    }
+                }));
+            }
+            for (Future<?> f : parts) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Simulation worker failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return registry.snapshot();
+    }
+
+    /** Writes the metrics as CSV, see {@link GameMetrics#writeCsv}. */
+    public static void exportCsv(GameMetrics metrics, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            metrics.writeCsv(out);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> lineup = List.of("DrawThenPurge", "MixedRandom", "DrawThenPurge", "MixedRandom");
+        long games = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        RuleSet rules = RuleSet.CLASSIC;
+        String csv = null;
+        String jfr = null;
+        Duration budget = null;
+        long odds = 0;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "lineup"  -> lineup = List.of(val.split(","));
+                case "rules"   -> rules = RuleSet.byName(val);
+                case "games"   -> games = Long.parseLong(val);
+                case "threads" -> threads = Integer.parseInt(val);
+                case "csv"     -> csv = val;
+                case "jfr"     -> jfr = val;
+                case "budget"  -> budget = Duration.ofMillis(Long.parseLong(val));
+                case "policy"  -> PolicyStrategy.register(PolicyTable.open(Paths.get(val)));
+                case "odds"    -> odds = Long.parseLong(val);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        if (jfr != null) JfrSession.start(Paths.get(jfr));
+        long start = System.nanoTime();
+        StrategyProfiles profiles = new StrategyProfiles();
+        GameMetrics m = run(lineup, rules, games, threads, budget, profiles);
+        double secs = (System.nanoTime() - start) / 1e9;
+        if (jfr != null) System.out.println("Recording written to " + JfrSession.stop());
+
+        System.out.printf(Locale.ROOT, "%s: %,d games in %.2fs = %,.0f games/s on %d threads (%d undecided)%n",
+                rules, m.games(), secs, m.games() / secs, threads, m.undecided());
+        printMetrics(m, lineup);
+        if (budget != null) printProfiles(profiles);
+        if (odds > 0) printOddsCalibration(lineup, rules, odds, threads);
+        if (csv != null) {
+            exportCsv(m, Paths.get(csv));
+            System.out.println("Metrics written to " + csv);
+        }
+    }
+
+    /** Prints the histogram summaries and each seat's loss rate. */
+    public static void printMetrics(GameMetrics m, List<String> lineup) {
+        print("turns/game", m.turnsPerGame.mean(), m.turnsPerGame.quantile(0.5),
+                m.turnsPerGame.quantile(0.99), m.turnsPerGame.max());
+        print("pairs/turn", m.pairsPerTurn.mean(), m.pairsPerTurn.quantile(0.5),
+                m.pairsPerTurn.quantile(0.99), m.pairsPerTurn.max());
+        print("draws/jack move", m.drawsBeforeJackMoves.mean(), m.drawsBeforeJackMoves.quantile(0.5),
+                m.drawsBeforeJackMoves.quantile(0.99), m.drawsBeforeJackMoves.max());
+        System.out.printf(Locale.ROOT, "%-16s p50 %8.0f  p99 %8.0f  max %8.0f%n", "game micros",
+                m.gameMicros.quantile(0.5), m.gameMicros.quantile(0.99), m.gameMicros.max());
+        for (int s = 0; s < m.seats.seats(); s++) {
+            System.out.printf(Locale.ROOT, "seat %d %-14s loss rate %.4f%n",
+                    s, lineup.get(s), m.seats.lossRate(s));
+        }
+    }
+
+    /** Prints one line per strategy: decision latency, allocation and overruled decisions. */
+    public static void printProfiles(StrategyProfiles profiles) {
+        System.out.printf(Locale.ROOT, "%-14s %10s %8s %8s %8s %10s %8s %8s %6s%n", "strategy", "decisions",
+                "p50 us", "p99 us", "max us", "B/decision", "timeouts", "rejected", "errors");
+        for (StrategyProfile p : profiles.all()) {
+            var h = p.latency().snapshot();
+            System.out.printf(Locale.ROOT, "%-14s %,10d %8.1f %8.1f %8.1f %,10.0f %8d %8d %6d%n", p.name(), p.decisions(),
+                    h.quantile(0.5) / 1e3, h.quantile(0.99) / 1e3, p.latency().getMaxMicros(),
+                    p.bytesPerDecision(), p.timeouts(), p.rejectedMoves(), p.errors());
+        }
+    }
+
+    /**
+     * Plays games of the line-up, estimating every seat's loss probability
+     * after each turn, and prints the oracle's speed, its Brier score and
+     * the observed loss rate per band of estimates.
+     */
+    public static void printOddsCalibration(List<String> lineup, RuleSet rules, long games, int threads)
+            throws InterruptedException {
+        final int bands = 10;
+        long[] count = new long[bands], lost = new long[bands];
+        double[] predicted = new double[bands];
+        double brier = 0;
+        long queries = 0, queryNanos = 0;
+        try (LossOracle oracle = new LossOracle(threads)) {
+            for (long g = 0; g < games; g++) {
+                List<MoveStrategy> seats = new ArrayList<>(lineup.size());
+                for (String name : lineup) seats.add(StrategyFactory.create(name));
+                List<double[]> estimates = new ArrayList<>();
+                long[] nanos = new long[1];
+                GameResult r = Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS, rules, new GameListener() {
+                    @Override
+                    public void onTurn(Game game, int mover, int neighbor, List<Card> purged) {
+                        long t = System.nanoTime();
+                        try {
+                            estimates.add(oracle.estimate(game.fork()).loss());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Interrupted while estimating", e);
+                        }
+                        nanos[0] += System.nanoTime() - t;
+                    }
+                });
+                queries += estimates.size();
+                queryNanos += nanos[0];
+                if (r.loserSeat() < 0) continue;
+                for (double[] e : estimates) {
+                    for (int seat = 0; seat < e.length; seat++) {
+                        int hit = seat == r.loserSeat() ? 1 : 0;
+                        int b = Math.min(bands - 1, (int) (e[seat] * bands));
+                        count[b]++;
+                        lost[b] += hit;
+                        predicted[b] += e[seat];
+                        brier += (e[seat] - hit) * (e[seat] - hit);
+                    }
+                }
+            }
+            long samples = 0;
+            for (long c : count) samples += c;
+            System.out.printf(Locale.ROOT, "Loss odds: %,d queries, mean %.2f ms, %.1f%% cached, %,d rollouts, Brier %.4f%n",
+                    queries, queries == 0 ? 0 : queryNanos / 1e6 / queries,
+                    100.0 * oracle.hits() / Math.max(1, oracle.hits() + oracle.misses()), oracle.rollouts(),
+                    samples == 0 ? Double.NaN : brier / samples);
+            for (int b = 0; b < bands; b++) {
+                if (count[b] == 0) continue;
+                System.out.printf(Locale.ROOT, "  estimated %.1f-%.1f  %,9d seats  mean %.3f  lost %.3f%n",
+                        (double) b / bands, (double) (b + 1) / bands, count[b],
+                        predicted[b] / count[b], (double) lost[b] / count[b]);
+            }
+        }
+    }
+
+    private static void print(String name, double mean, long p50, long p99, long max) {
+        System.out.printf(Locale.ROOT, "%-16s mean %8.2f  p50 %6d  p99 %6d  max %6d%n", name, mean, p50, p99, max);
+    }
+}
@@ -0,0 +1,20 @@
+package core.sim;
+
+/**
+ * Head-to-head result of two strategies at one table size.
+ *
+ * @param a          first strategy name
+ * @param b          second strategy name
+ * @param players    seats per table
+ * @param games      decided games played before the test stopped
+ * @param aLosses    games lost by a seat playing {@code a}
+ * @param decision   outcome of the sequential test
+ */
+public record PairingResult(String a, String b, int players, long games, long aLosses,
+                            SequentialTest.Decision decision) {
+
+    /** @return share of decided games lost by {@code a}; 0.5 means no difference */
+    public double aLossShare() {
+        return games == 0 ? 0.5 : (double) aLosses / games;
+    }
+}
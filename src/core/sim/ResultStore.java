@@ -0,0 +1,433 @@
+package core.sim;
+
+import core.model.MoveStrategy;
+import core.model.StrategyFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only, column-oriented store of game results backed by
+ * memory-mapped files, meant for hundreds of millions of rows.
+ *
+ * Each column lives in its own file under the store directory and is
+ * mapped in chunks of {@link #CHUNK_ROWS} rows:
+ * <pre>
+ *   seed.col    long   game seed; with the line-up it replays the game, see
+ *                      {@link Simulation#play(List, int, core.model.EndgameResolver, long)}
+ *   lineup.col  int    line-up id, see {@link #lineup(int)}; -1 marks an unused row
+ *   loser.col   byte   losing seat, -1 if the turn cap was hit
+ *   turns.col   int    phase-2 turns played
+ *   purged.col  byte[8] pairs purged per seat
+ * </pre>
+ * Line-ups (strategy per seat) are interned in {@code lineups.txt}, one
+ * comma-separated line per id.
+ *
+ * Writers reserve blocks of rows with one atomic add and fill them
+ * independently. A row becomes visible to queries, and is persisted as
+ * part of the store, only once every row before it has been committed:
+ * {@link #rows()} is that in-order commit watermark. Queries scan chunks
+ * in parallel with tight loops over the primitive columns, so no
+ * per-row objects are created.
+ */
+public final class ResultStore implements AutoCloseable {
+    /** Rows per mapped chunk. */
+    public static final int CHUNK_ROWS = 1 << 20;
+    /** Largest table size a row can describe. */
+    public static final int MAX_SEATS = 8;
+
+    private static final int MAGIC = 0x50525331; // "PRS1"
+    private static final String META = "results.meta";
+    private static final String LINEUPS = "lineups.txt";
+
+    private enum Column {
+        SEED("seed.col", 8), LINEUP("lineup.col", 4), LOSER("loser.col", 1),
+        TURNS("turns.col", 4), PURGED("purged.col", MAX_SEATS);
+
+        final String file;
+        final int width;
+
+        Column(String file, int width) {
+            this.file  = file;
+            this.width = width;
+        }
+    }
+
+    private final Path dir;
+    private final FileChannel[] channels = new FileChannel[Column.values().length];
+    /** [column][chunk]; replaced wholesale when a chunk is added. */
+    private volatile MappedByteBuffer[][] chunks = new MappedByteBuffer[Column.values().length][0];
+
+    private final AtomicLong reserved;
+    private volatile long committed;
+    private final TreeMap<Long, Long> pendingCommits = new TreeMap<>();
+
+    private final List<List<String>> lineups = new ArrayList<>();
+    private final Map<List<String>, Integer> lineupIds = new HashMap<>();
+
+    private ResultStore(Path dir, long rows) throws IOException {
+        this.dir       = dir;
+        this.committed = rows;
+        this.reserved  = new AtomicLong(rows);
+        for (Column c : Column.values()) {
+            channels[c.ordinal()] = FileChannel.open(dir.resolve(c.file),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        ensureChunks(rows);
+    }
+
+    /** Opens a store, creating the directory if needed. Rows past the last persisted watermark are dropped. */
+    public static ResultStore open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        long rows = 0;
+        Path meta = dir.resolve(META);
+        if (Files.exists(meta)) {
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(meta));
+            if (b.remaining() < 12 || b.getInt() != MAGIC) {
+                throw new IOException("Not a result store: " + dir);
+            }
+            rows = b.getLong();
+        }
+        ResultStore store = new ResultStore(dir, rows);
+        Path lineupFile = dir.resolve(LINEUPS);
+        if (Files.exists(lineupFile)) {
+            for (String line : Files.readAllLines(lineupFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                List<String> l = List.of(line.split(","));
+                store.lineupIds.put(l, store.lineups.size());
+                store.lineups.add(l);
+            }
+        }
+        return store;
+    }
+
+    /** @return committed rows, i.e. the rows queries see */
+    public long rows() {
+        return committed;
+    }
+
+    /** @return id of a line-up, adding it to the dictionary if new */
+    public synchronized int lineupId(List<String> strategies) {
+        if (strategies.isEmpty() || strategies.size() > MAX_SEATS) {
+            throw new IllegalArgumentException("Line-up must have 1 to " + MAX_SEATS + " seats");
+        }
+        Integer id = lineupIds.get(strategies);
+        if (id != null) return id;
+        List<String> copy = List.copyOf(strategies);
+        for (String s : copy) {
+            if (s.contains(",") || s.contains("\n")) {
+                throw new IllegalArgumentException("Strategy name may not contain ',' or newlines: " + s);
+            }
+        }
+        try {
+            Files.writeString(dir.resolve(LINEUPS), String.join(",", copy) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lineupIds.put(copy, lineups.size());
+        lineups.add(copy);
+        return lineups.size() - 1;
+    }
+
+    /** @return the strategies of a line-up id, in seat order */
+    public synchronized List<String> lineup(int id) {
+        return lineups.get(id);
+    }
+
+    /** @return a writer that reserves rows in blocks of the given size */
+    public Appender appender(int blockRows) {
+        if (blockRows < 1) throw new IllegalArgumentException("Block must hold at least one row");
+        return new Appender(blockRows);
+    }
+
+    /**
+     * Single-threaded writer. Rows it appends become visible when its block
+     * fills up or on {@link #flush()}; unused rows of a flushed block are
+     * left as holes that queries skip.
+     */
+    public final class Appender implements AutoCloseable {
+        private final int blockRows;
+        private long start = -1;
+        private int used;
+
+        private Appender(int blockRows) {
+            this.blockRows = blockRows;
+        }
+
+        public void append(long seed, int lineupId, GameResult r) {
+            if (start < 0) {
+                start = reserved.getAndAdd(blockRows);
+                ensureChunks(start + blockRows);
+                used = 0;
+            }
+            long row = start + used;
+            MappedByteBuffer[][] map = chunks;
+            int chunk = (int) (row / CHUNK_ROWS);
+            int at = (int) (row % CHUNK_ROWS);
+            map[Column.SEED.ordinal()][chunk].putLong(at * 8, seed);
+            map[Column.LINEUP.ordinal()][chunk].putInt(at * 4, lineupId);
+            map[Column.LOSER.ordinal()][chunk].put(at, (byte) r.loserSeat());
+            map[Column.TURNS.ordinal()][chunk].putInt(at * 4, r.turns());
+            MappedByteBuffer purged = map[Column.PURGED.ordinal()][chunk];
+            int[] p = r.pairsPurged();
+            for (int s = 0; s < MAX_SEATS; s++) {
+                purged.put(at * MAX_SEATS + s, (byte) (s < p.length ? Math.min(p[s], 127) : 0));
+            }
+            if (++used == blockRows) flush();
+        }
+
+        /** Commits the current block, marking its unused rows as holes. */
+        public void flush() {
+            if (start < 0) return;
+            for (long row = start + used; row < start + blockRows; row++) {
+                chunks[Column.LINEUP.ordinal()][(int) (row / CHUNK_ROWS)].putInt((int) (row % CHUNK_ROWS) * 4, -1);
+            }
+            commit(start, start + blockRows);
+            start = -1;
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    /** Marks [from, to) as written and advances the watermark over any contiguous prefix. */
+    private synchronized void commit(long from, long to) {
+        pendingCommits.put(from, to);
+        long mark = committed;
+        Long end;
+        while ((end = pendingCommits.remove(mark)) != null) mark = end;
+        committed = mark;
+    }
+
+    /** Maps chunks up to the one holding row {@code rows - 1}. */
+    private void ensureChunks(long rows) {
+        int needed = (int) ((rows + CHUNK_ROWS - 1) / CHUNK_ROWS);
+        if (chunks[0].length >= needed) return;
+        synchronized (this) {
+            MappedByteBuffer[][] old = chunks;
+            if (old[0].length >= needed) return;
+            MappedByteBuffer[][] grown = new MappedByteBuffer[old.length][];
+            try {
+                for (Column c : Column.values()) {
+                    MappedByteBuffer[] col = Arrays.copyOf(old[c.ordinal()], needed);
+                    for (int k = old[c.ordinal()].length; k < needed; k++) {
+                        long size = (long) CHUNK_ROWS * c.width;
+                        col[k] = channels[c.ordinal()].map(FileChannel.MapMode.READ_WRITE, k * size, size);
+                    }
+                    grown[c.ordinal()] = col;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not grow result store", e);
+            }
+            chunks = grown;
+        }
+    }
+
+    /** Forces column data to disk, then records the watermark. */
+    public void flush() throws IOException {
+        long mark = committed;
+        for (MappedByteBuffer[] col : chunks) {
+            for (MappedByteBuffer b : col) b.force();
+        }
+        ByteBuffer meta = ByteBuffer.allocate(12).putInt(MAGIC).putLong(mark);
+        Path tmp = dir.resolve(META + ".tmp");
+        Files.write(tmp, meta.array());
+        Files.move(tmp, dir.resolve(META), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        for (FileChannel ch : channels) ch.close();
+    }
+
+    // --- queries ---------------------------------------------------------
+
+    /** Per line-up totals. */
+    public record LineupStats(List<String> lineup, long games, long undecided,
+                              long[] losses, long totalTurns, long[] pairsPurged) {}
+
+    /** Seat-level totals for one strategy. */
+    public record StrategyStats(String strategy, long seatGames, long losses, long pairsPurged) {
+        public double lossRate() {
+            return seatGames == 0 ? 0 : (double) losses / seatGames;
+        }
+    }
+
+    /** Games, losses per seat, turns and purges for every line-up, from one parallel scan. */
+    public List<LineupStats> byLineup() {
+        int n;
+        synchronized (this) {
+            n = lineups.size();
+        }
+        // per line-up: [games, undecided, turns, losses x 8, purged x 8]
+        final int width = 3 + 2 * MAX_SEATS;
+        long[] totals = scanChunks(() -> new long[n * width], (acc, chunk, rows) -> {
+            MappedByteBuffer lineupCol = chunks[Column.LINEUP.ordinal()][chunk];
+            MappedByteBuffer loserCol  = chunks[Column.LOSER.ordinal()][chunk];
+            MappedByteBuffer turnsCol  = chunks[Column.TURNS.ordinal()][chunk];
+            MappedByteBuffer purgedCol = chunks[Column.PURGED.ordinal()][chunk];
+            for (int i = 0; i < rows; i++) {
+                int id = lineupCol.getInt(i * 4);
+                if (id < 0 || id >= n) continue;
+                int base = id * width;
+                acc[base]++;
+                int loser = loserCol.get(i);
+                if (loser < 0) acc[base + 1]++;
+                else acc[base + 3 + loser]++;
+                acc[base + 2] += turnsCol.getInt(i * 4);
+                long packed = purgedCol.getLong(i * MAX_SEATS);
+                for (int s = 0; s < MAX_SEATS; s++) {
+                    acc[base + 3 + MAX_SEATS + s] += (packed >>> (8 * (MAX_SEATS - 1 - s))) & 0x7F;
+                }
+            }
+        });
+        List<LineupStats> out = new ArrayList<>(n);
+        for (int id = 0; id < n; id++) {
+            int base = id * width;
+            List<String> l = lineup(id);
+            out.add(new LineupStats(l, totals[base], totals[base + 1],
+                    Arrays.copyOfRange(totals, base + 3, base + 3 + l.size()), totals[base + 2],
+                    Arrays.copyOfRange(totals, base + 3 + MAX_SEATS, base + 3 + MAX_SEATS + l.size())));
+        }
+        return out;
+    }
+
+    /** Folds {@link #byLineup()} into per-strategy seat totals, best first. */
+    public List<StrategyStats> byStrategy() {
+        Map<String, long[]> acc = new TreeMap<>();
+        for (LineupStats ls : byLineup()) {
+            for (int s = 0; s < ls.lineup().size(); s++) {
+                long[] a = acc.computeIfAbsent(ls.lineup().get(s), k -> new long[3]);
+                a[0] += ls.games() - ls.undecided();
+                a[1] += ls.losses()[s];
+                a[2] += ls.pairsPurged()[s];
+            }
+        }
+        List<StrategyStats> out = new ArrayList<>();
+        acc.forEach((k, a) -> out.add(new StrategyStats(k, a[0], a[1], a[2])));
+        out.sort(Comparator.comparingDouble(StrategyStats::lossRate));
+        return out;
+    }
+
+    /**
+     * Histogram of turns per game; the last bin also counts everything above.
+     *
+     * @param lineupId line-up to restrict to, or -1 for all
+     */
+    public long[] turnHistogram(int lineupId, int binWidth, int bins) {
+        return scanChunks(() -> new long[bins], (acc, chunk, rows) -> {
+            MappedByteBuffer lineupCol = chunks[Column.LINEUP.ordinal()][chunk];
+            MappedByteBuffer turnsCol  = chunks[Column.TURNS.ordinal()][chunk];
+            for (int i = 0; i < rows; i++) {
+                int id = lineupCol.getInt(i * 4);
+                if (id < 0 || (lineupId >= 0 && id != lineupId)) continue;
+                acc[Math.min(bins - 1, turnsCol.getInt(i * 4) / binWidth)]++;
+            }
+        });
+    }
+
+    private interface ChunkScan {
+        void scan(long[] acc, int chunk, int rows);
+    }
+
+    /** Runs a scan over every committed chunk in parallel and sums the per-chunk arrays. */
+    private long[] scanChunks(Supplier<long[]> init, ChunkScan scan) {
+        long rows = committed;
+        int n = (int) ((rows + CHUNK_ROWS - 1) / CHUNK_ROWS);
+        return IntStream.range(0, n).parallel()
+                .mapToObj(chunk -> {
+                    long[] acc = init.get();
+                    scan.scan(acc, chunk, (int) Math.min(CHUNK_ROWS, rows - (long) chunk * CHUNK_ROWS));
+                    return acc;
+                })
+                .reduce(init.get(), (a, b) -> {
+                    long[] sum = a.clone();
+                    for (int i = 0; i < sum.length; i++) sum[i] += b[i];
+                    return sum;
+                });
+    }
+
+    /**
+     * Usage: {@code java core.sim.ResultStore dir=results [games=1000000]
+     * [lineup=DrawThenPurge,MixedRandom,...] [threads=N]}; with {@code games=0}
+     * only prints the aggregates of an existing store.
+     */
+    public static void main(String[] args) throws Exception {
+        Path dir = Paths.get("results");
+        long games = 1_000_000;
+        List<String> names = List.of("DrawThenPurge", "MixedRandom", "DrawThenPurge", "MixedRandom");
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "dir"     -> dir = Paths.get(val);
+                case "games"   -> games = Long.parseLong(val);
+                case "lineup"  -> names = List.of(val.split(","));
+                case "threads" -> threads = Integer.parseInt(val);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        try (ResultStore store = ResultStore.open(dir)) {
+            if (games > 0) {
+                int id = store.lineupId(names);
+                List<String> lineup = names;
+                long start = System.nanoTime();
+                ExecutorService pool = Executors.newFixedThreadPool(threads);
+                List<Future<?>> parts = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long share = games / threads + (t < games % threads ? 1 : 0);
+                    parts.add(pool.submit(() -> {
+                        List<MoveStrategy> seats = new ArrayList<>();
+                        for (String n : lineup) seats.add(StrategyFactory.create(n));
+                        try (Appender out = store.appender(4096)) {
+                            for (long g = 0; g < share; g++) {
+                                long seed = ThreadLocalRandom.current().nextLong();
+                                out.append(seed, id, Simulation.play(seats, Simulation.DEFAULT_MAX_TURNS, null, seed));
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> f : parts) f.get();
+                pool.shutdown();
+                System.out.printf("Appended %,d games in %.1fs%n", games, (System.nanoTime() - start) / 1e9);
+            }
+            long start = System.nanoTime();
+            List<LineupStats> byLineup = store.byLineup();
+            List<StrategyStats> byStrategy = store.byStrategy();
+            long[] hist = store.turnHistogram(-1, 25, 12);
+            System.out.printf("%,d rows scanned in %.1f ms%n", store.rows(), (System.nanoTime() - start) / 1e6);
+            for (LineupStats ls : byLineup) {
+                System.out.printf("%s: %,d games, %.1f turns/game, losses %s, pairs %s%n",
+                        ls.lineup(), ls.games(), ls.games() == 0 ? 0.0 : (double) ls.totalTurns() / ls.games(),
+                        Arrays.toString(ls.losses()), Arrays.toString(ls.pairsPurged()));
+            }
+            for (StrategyStats s : byStrategy) {
+                System.out.printf("%-14s seat-games %,12d  loss rate %.4f  pairs/seat %.2f%n",
+                        s.strategy(), s.seatGames(), s.lossRate(),
+                        s.seatGames() == 0 ? 0.0 : (double) s.pairsPurged() / s.seatGames());
+            }
+            for (int b = 0; b < hist.length; b++) {
+                System.out.printf("turns %4d%s %,d%n", b * 25, b == hist.length - 1 ? "+   " : "-" + (b * 25 + 24), hist[b]);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package core.sim;
+
+/**
+ * Two-sided Wald sequential probability ratio test on a Bernoulli rate.
+ *
+ * H0 is p = 0.5; the alternatives are p = 0.5 ± delta. The test stops as
+ * soon as either alternative becomes likely enough ({@link Decision#DIFFERENT})
+ * or both become unlikely enough ({@link Decision#EQUIVALENT}).
+ */
+public final class SequentialTest {
+    public enum Decision { CONTINUE, DIFFERENT, EQUIVALENT }
+
+    private final double upper;
+    private final double lower;
+    private final double stepUpHit, stepUpMiss;
+    private final double stepDownHit, stepDownMiss;
+    private double llrUp;
+    private double llrDown;
+    private long trials;
+    private long hits;
+
+    /**
+     * @param alpha overall false-positive rate (split over both sides)
+     * @param beta  false-negative rate
+     * @param delta smallest difference from 0.5 worth detecting
+     */
+    public SequentialTest(double alpha, double beta, double delta) {
+        if (delta <= 0 || delta >= 0.5) {
+            throw new IllegalArgumentException("delta must be in (0, 0.5)");
+        }
+        this.upper = Math.log((1 - beta) / (alpha / 2));
+        this.lower = Math.log(beta / (1 - alpha / 2));
+        this.stepUpHit    = Math.log((0.5 + delta) / 0.5);
+        this.stepUpMiss   = Math.log((0.5 - delta) / 0.5);
+        this.stepDownHit  = stepUpMiss;
+        this.stepDownMiss = stepUpHit;
+    }
+
+    /** Adds {@code hits} successes out of {@code trials} observations. */
+    public void add(long hits, long trials) {
+        long misses = trials - hits;
+        this.hits   += hits;
+        this.trials += trials;
+        llrUp   += hits * stepUpHit   + misses * stepUpMiss;
+        llrDown += hits * stepDownHit + misses * stepDownMiss;
+    }
+
+    public Decision decision() {
+        if (llrUp >= upper || llrDown >= upper) return Decision.DIFFERENT;
+        if (llrUp <= lower && llrDown <= lower) return Decision.EQUIVALENT;
+        return Decision.CONTINUE;
+    }
+
+    public long trials() { return trials; }
+    public long hits()   { return hits; }
+
+    /** @return the observed success rate so far */
+    public double rate() {
+        return trials == 0 ? 0.5 : (double) hits / trials;
+    }
+}
@@ -0,0 +1,113 @@
+package core.sim;
+
+import core.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays bot-only games without any GUI, history or replay file.
+ */
+public final class Simulation {
+    /** Turn cap protecting against line-ups that (almost) never purge. */
+    public static final int DEFAULT_MAX_TURNS = 10_000;
+
+    private static final String[] SEAT_NAMES = {
+            "Seat 0", "Seat 1", "Seat 2", "Seat 3", "Seat 4", "Seat 5", "Seat 6", "Seat 7"
+    };
+
+    private Simulation() {}
+
+    /**
+     * Deals a fresh deck to the given strategies and plays until the game ends.
+     *
+     * @param seats    one strategy per seat, in table order
+     * @param maxTurns turn cap after which the game is abandoned
+     * @return the loser seat and turn count
+     */
+    public static GameResult play(List<MoveStrategy> seats, int maxTurns) {
+        return play(seats, maxTurns, null);
+    }
+
+    /**
+     * Same as {@link #play(List, int)}, but ends the game early once the
+     * resolver (typically an endgame tablebase) covers the position.
+     */
+    public static GameResult play(List<MoveStrategy> seats, int maxTurns, EndgameResolver resolver) {
+        Deck deck = new Deck();
+        deck.shuffle();
+        return play(seats, maxTurns, resolver, RuleSet.CLASSIC, deck, null);
+    }
+
+    /**
+     * Plays one game under a rule variant, reporting its events to a
+     * listener (e.g. a statistics collector) if one is given.
+     */
+    public static GameResult play(List<MoveStrategy> seats, int maxTurns, RuleSet rules, GameListener listener) {
+        Deck deck = new Deck(rules.compile());
+        deck.shuffle();
+        return play(seats, maxTurns, null, rules, deck, listener);
+    }
+
+    /**
+     * Same as {@link #play(List, int, EndgameResolver)} with the deal, draws
+     * and strategy choices all drawn from {@code seed}, so a stored seed and
+     * line-up replay the same game.
+     */
+    public static GameResult play(List<MoveStrategy> seats, int maxTurns, EndgameResolver resolver, long seed) {
+        GameRandom random = new GameRandom(seed);
+        Deck deck = new Deck();
+        deck.shuffle(random);
+        return play(seats, maxTurns, resolver, RuleSet.CLASSIC, deck, null, random);
+    }
+
+    /**
+     * Plays one game whose deal, draws and strategy choices all come from
+     * {@code seed}, so the same seed and line-up always give the same game.
+     */
+    public static GameResult play(List<MoveStrategy> seats, int maxTurns, RuleSet rules,
+                                  GameListener listener, long seed) {
+        GameRandom random = new GameRandom(seed);
+        Deck deck = new Deck(rules.compile());
+        deck.shuffle(random);
+        return play(seats, maxTurns, null, rules, deck, listener, random);
+    }
+
+    private static GameResult play(List<MoveStrategy> seats, int maxTurns, EndgameResolver resolver,
+                                   RuleSet rules, Deck deck, GameListener listener) {
+        return play(seats, maxTurns, resolver, rules, deck, listener, null);
+    }
+
+    private static GameResult play(List<MoveStrategy> seats, int maxTurns, EndgameResolver resolver,
+                                   RuleSet rules, Deck deck, GameListener listener, GameRandom random) {
+        int n = seats.size();
+        List<List<Card>> dealt = deck.deal(n);
+        List<Player> players = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String name = i < SEAT_NAMES.length ? SEAT_NAMES[i] : "Seat " + i;
+            players.add(new Player(name, dealt.get(i), seats.get(i)));
+        }
+        Game game = new Game(players, false, null, rules, random);
+        game.setEndgameResolver(resolver);
+        int[] pairs = new int[n];
+        game.addListener(new GameListener() {
+            @Override
+            public void onTurn(Game g, int mover, int neighbor, List<Card> purged) {
+                pairs[mover] += purged.size() / 2;
+            }
+        });
+        if (listener != null) game.addListener(listener);
+        game.start();
+        for (int i = 0; i < n; i++) {
+            pairs[i] += (dealt.get(i).size() - players.get(i).getHandSize()) / 2;
+        }
+        int turns = 0;
+        while (turns < maxTurns && game.nextTurn()) {
+            turns++;
+        }
+        int loser = game.isGameOver()
+                ? game.getLoser().map(players::indexOf).orElse(-1)
+                : -1;
+        return new GameResult(loser, turns, pairs);
+    }
+}
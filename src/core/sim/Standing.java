@@ -0,0 +1,20 @@
+package core.sim;
+
+/**
+ * One strategy's per-seat loss rate at a given table size, with a 95% Wilson interval.
+ */
+public record Standing(String strategy, int players, long seatGames, long losses,
+                       double lossRate, double low, double high) {
+
+    static Standing of(String strategy, int players, long seatGames, long losses) {
+        if (seatGames == 0) {
+            return new Standing(strategy, players, 0, 0, Double.NaN, 0, 1);
+        }
+        double z = 1.96;
+        double p = (double) losses / seatGames;
+        double denom  = 1 + z * z / seatGames;
+        double centre = (p + z * z / (2.0 * seatGames)) / denom;
+        double half   = z * Math.sqrt(p * (1 - p) / seatGames + z * z / (4.0 * seatGames * seatGames)) / denom;
+        return new Standing(strategy, players, seatGames, losses, p, centre - half, centre + half);
+    }
+}
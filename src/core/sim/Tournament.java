@@ -0,0 +1,264 @@
+package core.sim;
+
+import core.analysis.EndgameTablebase;
+import core.model.EndgameResolver;
+import core.model.MoveStrategy;
+import core.model.StrategyFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Round-robin strategy tournament with early statistical stopping.
+ *
+ * Every unordered pair of strategies is played at every configured table
+ * size. A pairing cycles through all seat assignments that contain both
+ * strategies, so by symmetry each one loses half of the decided games
+ * when they are equally good. Games run in batches on a work-stealing
+ * pool; after each batch a {@link SequentialTest} on "A lost" decides
+ * whether to stop or keep going.
+ *
+ * Usage: {@code java core.sim.Tournament [strategies=a,b,c] [players=2,3,4]
+ * [maxGames=200000] [delta=0.02] [alpha=0.05] [beta=0.05] [threads=N]
+ * [tablebase=endgames.ptb] [results=dir]}
+ */
+public class Tournament {
+    /** Games below this size are played sequentially instead of forked. */
+    private static final int SPLIT_THRESHOLD = 64;
+    /** Minimum decided games between two looks at the test. */
+    private static final int MIN_BATCH = 512;
+
+    private final Map<String, Supplier<MoveStrategy>> strategies;
+    private final List<Integer> playerCounts;
+    private final double alpha;
+    private final double beta;
+    private final double delta;
+    private final long maxGamesPerPairing;
+    private final int maxTurns;
+    private final ForkJoinPool pool;
+    private EndgameResolver endgameResolver;
+    private ResultStore results;
+
+    public Tournament(Map<String, Supplier<MoveStrategy>> strategies, List<Integer> playerCounts,
+                      double alpha, double beta, double delta,
+                      long maxGamesPerPairing, int parallelism) {
+        if (strategies.size() < 2) {
+            throw new IllegalArgumentException("Need at least two strategies");
+        }
+        for (int p : playerCounts) {
+            if (p < 2 || p > 8) throw new IllegalArgumentException("Player count out of range: " + p);
+        }
+        this.strategies         = new LinkedHashMap<>(strategies);
+        this.playerCounts       = List.copyOf(playerCounts);
+        this.alpha              = alpha;
+        this.beta               = beta;
+        this.delta              = delta;
+        this.maxGamesPerPairing = maxGamesPerPairing;
+        this.maxTurns           = Simulation.DEFAULT_MAX_TURNS;
+        this.pool               = new ForkJoinPool(parallelism);
+    }
+
+    /** Ends games early once an endgame tablebase covers the position. */
+    public void setEndgameResolver(EndgameResolver resolver) {
+        this.endgameResolver = resolver;
+    }
+
+    /** Appends every game played to a result store. */
+    public void setResultStore(ResultStore results) {
+        this.results = results;
+    }
+
+    /** Runs every pairing to a decision (or the game cap) and ranks the strategies. */
+    public TournamentResult run() {
+        long start = System.nanoTime();
+        List<String> names = new ArrayList<>(strategies.keySet());
+        List<PairingTask> tasks = new ArrayList<>();
+        for (int players : playerCounts) {
+            for (int i = 0; i < names.size(); i++) {
+                for (int j = i + 1; j < names.size(); j++) {
+                    tasks.add(new PairingTask(names.get(i), names.get(j), players));
+                }
+            }
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tasks);
+                return null;
+            }
+        });
+
+        List<PairingResult> pairings = new ArrayList<>();
+        Map<String, long[]> seatTotals = new LinkedHashMap<>(); // "name/players" -> {seatGames, losses}
+        long played = 0;
+        for (PairingTask t : tasks) {
+            PairingResult r = t.join();
+            pairings.add(r);
+            played += t.gamesPlayed;
+            seatTotals.computeIfAbsent(r.a() + "/" + r.players(), k -> new long[2]);
+            seatTotals.computeIfAbsent(r.b() + "/" + r.players(), k -> new long[2]);
+            long[] a = seatTotals.get(r.a() + "/" + r.players());
+            long[] b = seatTotals.get(r.b() + "/" + r.players());
+            a[0] += t.aSeats;
+            a[1] += r.aLosses();
+            b[0] += t.bSeats;
+            b[1] += r.games() - r.aLosses();
+        }
+
+        List<Standing> standings = new ArrayList<>();
+        for (var e : seatTotals.entrySet()) {
+            int slash = e.getKey().lastIndexOf('/');
+            standings.add(Standing.of(e.getKey().substring(0, slash),
+                    Integer.parseInt(e.getKey().substring(slash + 1)),
+                    e.getValue()[0], e.getValue()[1]));
+        }
+        standings.sort(Comparator.comparingInt(Standing::players)
+                .thenComparingDouble(Standing::lossRate));
+        return new TournamentResult(pairings, standings, played,
+                maxGamesPerPairing * tasks.size(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /** Plays one pairing batch by batch until its sequential test stops. */
+    private final class PairingTask extends RecursiveTask<PairingResult> {
+        private final String a, b;
+        private final int players;
+        private final int[] lineups;
+        long gamesPlayed;
+        long aSeats, bSeats;
+
+        PairingTask(String a, String b, int players) {
+            this.a       = a;
+            this.b       = b;
+            this.players = players;
+            // every seat assignment with at least one of each: bit i set = seat i plays a
+            this.lineups = new int[(1 << players) - 2];
+            for (int m = 1; m < (1 << players) - 1; m++) lineups[m - 1] = m;
+        }
+
+        @Override
+        protected PairingResult compute() {
+            SequentialTest test = new SequentialTest(alpha, beta, delta);
+            int rounds = Math.max(1, MIN_BATCH / lineups.length);
+            int batch  = rounds * lineups.length;
+            while (test.decision() == SequentialTest.Decision.CONTINUE
+                    && gamesPlayed < maxGamesPerPairing) {
+                long[] r = new BatchTask(this, 0, batch).invoke();
+                gamesPlayed += batch;
+                aSeats += r[2];
+                bSeats += r[3];
+                test.add(r[0], r[1]);
+            }
+            return new PairingResult(a, b, players, test.trials(), test.hits(), test.decision());
+        }
+    }
+
+    /** Plays games [lo, hi) of a batch, splitting while the range is large. */
+    private final class BatchTask extends RecursiveTask<long[]> {
+        private final PairingTask pairing;
+        private final int lo, hi;
+
+        BatchTask(PairingTask pairing, int lo, int hi) {
+            this.pairing = pairing;
+            this.lo      = lo;
+            this.hi      = hi;
+        }
+
+        /** @return {aLosses, decidedGames, aSeatGames, bSeatGames} */
+        @Override
+        protected long[] compute() {
+            if (hi - lo > SPLIT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                BatchTask left = new BatchTask(pairing, lo, mid);
+                left.fork();
+                long[] right = new BatchTask(pairing, mid, hi).compute();
+                long[] l = left.join();
+                for (int i = 0; i < l.length; i++) l[i] += right[i];
+                return l;
+            }
+            Supplier<MoveStrategy> sa = strategies.get(pairing.a);
+            Supplier<MoveStrategy> sb = strategies.get(pairing.b);
+            int p = pairing.players;
+            long[] out = new long[4];
+            List<MoveStrategy> seats = new ArrayList<>(p);
+            List<String> names = new ArrayList<>(p);
+            ResultStore.Appender appender = results == null ? null : results.appender(hi - lo);
+            for (int g = lo; g < hi; g++) {
+                int mask = pairing.lineups[g % pairing.lineups.length];
+                seats.clear();
+                names.clear();
+                for (int s = 0; s < p; s++) {
+                    boolean isA = ((mask >>> s) & 1) != 0;
+                    seats.add(isA ? sa.get() : sb.get());
+                    names.add(isA ? pairing.a : pairing.b);
+                }
+                long seed = ThreadLocalRandom.current().nextLong();
+                GameResult r = Simulation.play(seats, maxTurns, endgameResolver, seed);
+                if (appender != null) appender.append(seed, results.lineupId(names), r);
+                if (r.loserSeat() < 0) continue;
+                int aCount = Integer.bitCount(mask);
+                out[1]++;
+                out[2] += aCount;
+                out[3] += p - aCount;
+                if (((mask >>> r.loserSeat()) & 1) != 0) out[0]++;
+            }
+            if (appender != null) appender.close();
+            return out;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Supplier<MoveStrategy>> all = StrategyFactory.named();
+        Map<String, Supplier<MoveStrategy>> chosen = new LinkedHashMap<>(all);
+        List<Integer> players = List.of(2, 3, 4);
+        long maxGames = 200_000;
+        double delta = 0.02, alpha = 0.05, beta = 0.05;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String tablebase = null;
+        String resultDir = null;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            String key = arg.substring(0, eq), val = arg.substring(eq + 1);
+            switch (key) {
+                case "strategies" -> {
+                    chosen.clear();
+                    for (String n : val.split(",")) {
+                        Supplier<MoveStrategy> s = all.get(n);
+                        if (s == null) throw new IllegalArgumentException("Unknown strategy " + n + ", known: " + all.keySet());
+                        chosen.put(n, s);
+                    }
+                }
+                case "players"  -> players = Arrays.stream(val.split(",")).map(Integer::parseInt).toList();
+                case "maxGames" -> maxGames = Long.parseLong(val);
+                case "delta"    -> delta = Double.parseDouble(val);
+                case "alpha"    -> alpha = Double.parseDouble(val);
+                case "beta"     -> beta = Double.parseDouble(val);
+                case "threads"  -> threads = Integer.parseInt(val);
+                case "tablebase" -> tablebase = val;
+                case "results"  -> resultDir = val;
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        Tournament t = new Tournament(chosen, players, alpha, beta, delta, maxGames, threads);
+        if (tablebase != null) {
+            t.setEndgameResolver(EndgameTablebase.open(Paths.get(tablebase)));
+        }
+        if (resultDir == null) {
+            t.run().print(System.out);
+            return;
+        }
+        try (ResultStore store = ResultStore.open(Paths.get(resultDir))) {
+            t.setResultStore(store);
+            t.run().print(System.out);
+            System.out.printf("%,d results stored in %s%n", store.rows(), resultDir);
+        }
+    }
+}
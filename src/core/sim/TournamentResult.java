@@ -0,0 +1,38 @@
+package core.sim;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Everything a tournament produced: pairings, ranked standings per table
+ * size, and how many games the sequential stopping saved.
+ */
+public record TournamentResult(List<PairingResult> pairings, List<Standing> standings,
+                               long gamesPlayed, long gameBudget, Duration elapsed) {
+
+    /** Prints the ranked tables in a fixed-width text layout. */
+    public void print(PrintStream out) {
+        int lastPlayers = -1;
+        int rank = 0;
+        for (Standing s : standings) {
+            if (s.players() != lastPlayers) {
+                lastPlayers = s.players();
+                rank = 0;
+                out.printf("%n== %d players (fair loss rate %.3f) ==%n", s.players(), 1.0 / s.players());
+                out.printf("%-4s %-16s %10s %8s %8s  %s%n", "#", "Strategy", "SeatGames", "Losses", "Rate", "95% CI");
+            }
+            out.printf("%-4d %-16s %10d %8d %8.4f  [%.4f, %.4f]%n",
+                    ++rank, s.strategy(), s.seatGames(), s.losses(), s.lossRate(), s.low(), s.high());
+        }
+        out.printf("%n== Pairings ==%n");
+        for (PairingResult p : pairings) {
+            out.printf("%-16s vs %-16s %dp  games=%-8d %s loses %.3f  %s%n",
+                    p.a(), p.b(), p.players(), p.games(), p.a(), p.aLossShare(), p.decision());
+        }
+        out.printf("%nPlayed %d games of a %d fixed budget (%.1f%% saved) in %.1fs%n",
+                gamesPlayed, gameBudget,
+                gameBudget == 0 ? 0 : 100.0 * (gameBudget - gamesPlayed) / gameBudget,
+                elapsed.toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,166 @@
+package core.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * One thread's worth of game statistics. Everything in here is a
+ * constant-size streaming aggregate, so a metrics object costs the same
+ * after ten games or ten million, and two of them merge in microseconds.
+ *
+ * Not thread-safe; see {@link MetricsRegistry} for the per-thread setup
+ * and the monitor that guards it.
+ */
+public final class GameMetrics {
+    /** Quantiles reported by summaries and the CSV export. */
+    public static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    /** Phase-2 turns per finished game. */
+    public final LogHistogram turnsPerGame = new LogHistogram();
+    /** Pairs discarded on each turn. */
+    public final LogHistogram pairsPerTurn = new LogHistogram();
+    /** Draws between two moves of a losing card, the Jack of Spades under the default rules. */
+    public final LogHistogram drawsBeforeJackMoves = new LogHistogram();
+    /** Wall-clock time per game, in microseconds. */
+    public final QuantileSketch gameMicros = new QuantileSketch();
+    /** Games and losses per seat. */
+    public final SeatCounters seats = new SeatCounters();
+
+    private long games;
+    private long undecided;
+
+    /** Records the end of a game. */
+    public void recordGame(int seatCount, int loser, long turns, long micros) {
+        games++;
+        if (loser < 0) undecided++;
+        seats.recordGame(seatCount, loser);
+        turnsPerGame.record(turns);
+        gameMicros.record(micros);
+    }
+
+    public long games() {
+        return games;
+    }
+
+    public long undecided() {
+        return undecided;
+    }
+
+    /** Adds another thread's metrics to this one. */
+    public void merge(GameMetrics other) {
+        turnsPerGame.merge(other.turnsPerGame);
+        pairsPerTurn.merge(other.pairsPerTurn);
+        drawsBeforeJackMoves.merge(other.drawsBeforeJackMoves);
+        gameMicros.merge(other.gameMicros);
+        seats.merge(other.seats);
+        games += other.games;
+        undecided += other.undecided;
+    }
+
+    /**
+     * Writes every aggregate in a compact binary form, e.g. to ship a
+     * worker process's metrics to whoever merges them.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(games);
+        out.writeLong(undecided);
+        turnsPerGame.write(out);
+        pairsPerTurn.write(out);
+        drawsBeforeJackMoves.write(out);
+        gameMicros.write(out);
+        seats.write(out);
+    }
+
+    /** Reads metrics written by {@link #write}. */
+    public static GameMetrics read(DataInput in) throws IOException {
+        GameMetrics m = new GameMetrics();
+        m.games = in.readLong();
+        m.undecided = in.readLong();
+        m.turnsPerGame.read(in);
+        m.pairsPerTurn.read(in);
+        m.drawsBeforeJackMoves.read(in);
+        m.gameMicros.read(in);
+        m.seats.read(in);
+        return m;
+    }
+
+    /**
+     * @return an independent copy holding exactly the same aggregates;
+     *         merging into an empty object would resample the sketch instead
+     */
+    public GameMetrics copy() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try {
+            write(new DataOutputStream(bytes));
+            return read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // in memory, cannot happen
+        }
+    }
+
+    public void reset() {
+        turnsPerGame.reset();
+        pairsPerTurn.reset();
+        drawsBeforeJackMoves.reset();
+        gameMicros.reset();
+        seats.reset();
+        games = undecided = 0;
+    }
+
+    /**
+     * Writes every aggregate as {@code metric,statistic,value} rows, followed
+     * by the non-empty histogram buckets as {@code metric,le_<upper>,count}.
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        StringBuilder csv = new StringBuilder("metric,statistic,value\n");
+        row(csv, "games", "count", games);
+        row(csv, "games", "undecided", undecided);
+        summary(csv, "turns_per_game", turnsPerGame);
+        summary(csv, "pairs_per_turn", pairsPerTurn);
+        summary(csv, "draws_before_jack_moves", drawsBeforeJackMoves);
+        row(csv, "game_micros", "count", gameMicros.count());
+        for (double q : QUANTILES) {
+            row(csv, "game_micros", quantileName(q), gameMicros.quantile(q));
+        }
+        row(csv, "game_micros", "max", gameMicros.max());
+        for (int s = 0; s < seats.seats(); s++) {
+            row(csv, "seat_" + s, "games", seats.games(s));
+            row(csv, "seat_" + s, "losses", seats.losses(s));
+            row(csv, "seat_" + s, "loss_rate", seats.lossRate(s));
+        }
+        turnsPerGame.forEachBucket((from, to, n) -> row(csv, "turns_per_game", "le_" + to, n));
+        pairsPerTurn.forEachBucket((from, to, n) -> row(csv, "pairs_per_turn", "le_" + to, n));
+        drawsBeforeJackMoves.forEachBucket((from, to, n) -> row(csv, "draws_before_jack_moves", "le_" + to, n));
+        out.append(csv);
+    }
+
+    private static void summary(StringBuilder csv, String name, LogHistogram h) {
+        row(csv, name, "count", h.count());
+        row(csv, name, "mean", h.mean());
+        row(csv, name, "min", h.min());
+        for (double q : QUANTILES) {
+            row(csv, name, quantileName(q), h.quantile(q));
+        }
+        row(csv, name, "max", h.max());
+    }
+
+    /** @return e.g. "p50" or "p99.9" */
+    public static String quantileName(double q) {
+        double pct = q * 100;
+        return "p" + (pct == Math.rint(pct) ? String.valueOf((int) pct) : String.valueOf(pct));
+    }
+
+    private static void row(StringBuilder out, String metric, String stat, double value) {
+        String v = value == Math.rint(value) && !Double.isInfinite(value)
+                ? String.valueOf((long) value)
+                : String.format(Locale.ROOT, "%.6f", value);
+        out.append(metric).append(',').append(stat).append(',').append(v).append('\n');
+    }
+}
@@ -0,0 +1,142 @@
+package core.stats;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Process-wide timers and counters for the code paths that make the GUI
+ * stutter: engine turns, strategy decisions, replay writes, UI refresh and
+ * painting, and the card image cache.
+ *
+ * Off by default. Call sites use {@link #start()} and {@link #stop}; while
+ * disabled, {@code start()} returns 0 without reading the clock and
+ * {@code stop} returns on that 0, so the only cost left is one field read.
+ * {@link #registerMBeans()} publishes everything under {@code core.stats}
+ * for JConsole or VisualVM.
+ */
+public final class Instrumentation {
+    public static final LatencyTimer TURN         = new LatencyTimer("turn");
+    public static final LatencyTimer STRATEGY     = new LatencyTimer("strategy");
+    public static final LatencyTimer REPLAY_WRITE = new LatencyTimer("replayWrite");
+    public static final LatencyTimer REFRESH      = new LatencyTimer("refresh");
+    public static final LatencyTimer PAINT        = new LatencyTimer("paint");
+
+    /** Every timer, in display order. */
+    public static final List<LatencyTimer> TIMERS = List.of(TURN, STRATEGY, REPLAY_WRITE, REFRESH, PAINT);
+
+    private static final LongAdder imageHits   = new LongAdder();
+    private static final LongAdder imageMisses = new LongAdder();
+    private static volatile IntSupplier replayQueue = () -> 0;
+    private static volatile boolean enabled;
+    private static boolean registered;
+
+    private Instrumentation() {}
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** @return a start timestamp for {@link #stop}, or 0 when disabled */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Records the time elapsed since {@code start}, unless it came from a disabled {@link #start()}. */
+    public static void stop(LatencyTimer timer, long start) {
+        if (start != 0) timer.record(System.nanoTime() - start);
+    }
+
+    /** Counts one image cache lookup; callers check {@link #enabled()} first. */
+    public static void imageLookup(boolean hit) {
+        (hit ? imageHits : imageMisses).increment();
+    }
+
+    /** Sets the gauge reporting how many replay writes are queued. */
+    public static void replayQueue(IntSupplier depth) {
+        replayQueue = depth;
+    }
+
+    public static long imageHits() {
+        return imageHits.sum();
+    }
+
+    public static long imageMisses() {
+        return imageMisses.sum();
+    }
+
+    public static double imageHitRate() {
+        long hits = imageHits.sum(), total = hits + imageMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public static int replayQueueDepth() {
+        return replayQueue.getAsInt();
+    }
+
+    public static void reset() {
+        for (LatencyTimer t : TIMERS) t.reset();
+        imageHits.reset();
+        imageMisses.reset();
+    }
+
+    /** Registers the MBeans with the platform server; later calls do nothing. */
+    public static synchronized void registerMBeans() {
+        if (registered) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new Bean(), new ObjectName("core.stats:type=Instrumentation"));
+            for (LatencyTimer t : TIMERS) {
+                server.registerMBean(t, new ObjectName("core.stats:type=Timer,name=" + t.name()));
+            }
+            registered = true;
+        } catch (JMException e) {
+            System.err.println("Warning: could not register instrumentation MBeans: " + e.getMessage());
+        }
+    }
+
+    private static final class Bean implements InstrumentationMXBean {
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            Instrumentation.setEnabled(on);
+        }
+
+        @Override
+        public long getImageCacheHits() {
+            return imageHits();
+        }
+
+        @Override
+        public long getImageCacheMisses() {
+            return imageMisses();
+        }
+
+        @Override
+        public double getImageCacheHitRate() {
+            return imageHitRate();
+        }
+
+        @Override
+        public int getReplayQueueDepth() {
+            return replayQueueDepth();
+        }
+
+        @Override
+        public void reset() {
+            Instrumentation.reset();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package core.stats;
+
+/**
+ * JMX view of the process-wide {@link Instrumentation} switches and gauges.
+ */
+public interface InstrumentationMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getImageCacheHits();
+
+    long getImageCacheMisses();
+
+    /** @return hits / lookups, or 0 before the first lookup */
+    double getImageCacheHitRate();
+
+    /** @return replay states waiting to be written */
+    int getReplayQueueDepth();
+
+    /** Resets every timer and counter. */
+    void reset();
+}
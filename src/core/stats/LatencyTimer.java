@@ -0,0 +1,85 @@
+package core.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency histogram for one instrumented code path.
+ *
+ * Shares the bucket layout of {@link LogHistogram} but counts with atomics,
+ * since the GUI records from the game loop, the event thread and the
+ * replay writer at once. Durations are recorded in nanoseconds.
+ */
+public final class LatencyTimer implements LatencyTimerMXBean {
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(LogHistogram.BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyTimer(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(LogHistogram.index(v));
+        count.increment();
+        totalNanos.add(v);
+        maxNanos.accumulateAndGet(v, Math::max);
+    }
+
+    /** @return a copy of the distribution so far, in nanoseconds */
+    public LogHistogram snapshot() {
+        LogHistogram h = new LogHistogram();
+        for (int i = 0; i < LogHistogram.BUCKETS; i++) {
+            long n = counts.get(i);
+            if (n != 0) h.record(LogHistogram.lowerBound(i), n);
+        }
+        return h;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e3 / n;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return snapshot().quantile(0.5) / 1e3;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return snapshot().quantile(0.9) / 1e3;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return snapshot().quantile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1e3;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < LogHistogram.BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+}
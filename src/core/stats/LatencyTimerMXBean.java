@@ -0,0 +1,21 @@
+package core.stats;
+
+/**
+ * JMX view of a {@link LatencyTimer}. Times are in microseconds.
+ */
+public interface LatencyTimerMXBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    /** Forgets everything recorded so far. */
+    void reset();
+}
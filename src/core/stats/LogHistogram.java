@@ -0,0 +1,155 @@
+package core.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Constant-memory histogram of non-negative longs with bounded relative
+ * error, in the spirit of HdrHistogram.
+ *
+ * Values below {@code 2 * 2^SUB_BITS} get their own bucket; above that,
+ * every power of two is split into {@code 2^SUB_BITS} equal buckets, so a
+ * reported value is within about 3% of the true one over the whole
+ * {@code long} range. Not thread-safe: keep one per thread and
+ * {@link #merge} them.
+ */
+public final class LogHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /** Adds one value; negative values are recorded as 0. */
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    /** Adds a value n times. */
+    public void record(long value, long n) {
+        long v = Math.max(0, value);
+        counts[index(v)] += n;
+        count += n;
+        sum += v * n;
+        if (v < min) min = v;
+        if (v > max) max = v;
+    }
+
+    /** Adds every value of another histogram to this one. */
+    public void merge(LogHistogram other) {
+        if (other.count == 0) return;
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long min() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return count == 0 ? 0 : max;
+    }
+
+    /** Writes the histogram compactly: its totals and the non-empty buckets. */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(count);
+        if (count == 0) return;
+        out.writeLong(sum);
+        out.writeLong(min);
+        out.writeLong(max);
+        int used = 0;
+        for (long c : counts) if (c != 0) used++;
+        out.writeShort(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) continue;
+            out.writeShort(i);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    /** Replaces this histogram's contents with one written by {@link #write}. */
+    void read(DataInput in) throws IOException {
+        reset();
+        count = in.readLong();
+        if (count == 0) return;
+        sum = in.readLong();
+        min = in.readLong();
+        max = in.readLong();
+        int used = in.readUnsignedShort();
+        for (int b = 0; b < used; b++) {
+            int i = in.readUnsignedShort();
+            if (i >= BUCKETS) throw new IOException("Bad histogram bucket " + i);
+            counts[i] = in.readLong();
+        }
+    }
+
+    /** @return the value at quantile q in [0, 1], within the bucket precision */
+    public long quantile(double q) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, (lowerBound(i) + upperBound(i)) / 2));
+            }
+        }
+        return max;
+    }
+
+    /** Calls the visitor for every non-empty bucket, in increasing order. */
+    public void forEachBucket(BucketVisitor visitor) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) visitor.bucket(lowerBound(i), upperBound(i), counts[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface BucketVisitor {
+        /** @param from lowest value in the bucket; @param to highest value (inclusive) */
+        void bucket(long from, long to, long count);
+    }
+
+    static int index(long v) {
+        if (v < 2 * SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return shift * SUB + (int) (v >>> shift);
+    }
+
+    static long lowerBound(int index) {
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        return (long) (index % SUB + SUB) << shift;
+    }
+
+    static long upperBound(int index) {
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        long lo = lowerBound(index);
+        return lo + (1L << shift) - 1;
+    }
+}
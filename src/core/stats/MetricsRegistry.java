@@ -0,0 +1,72 @@
+package core.stats;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hands every thread its own {@link GameMetrics} so games on different
+ * threads never contend, and merges them on demand.
+ *
+ * A thread writes its metrics only while holding their monitor (see
+ * {@link #local()}); the lock is uncontended except while a snapshot
+ * reads them, so {@link #snapshot()} never sees a half-updated sketch.
+ * Once a thread has died its metrics are folded into one accumulator
+ * owned by the registry and dropped, so a registry fed by a new thread
+ * per game, as in the GUI, holds one metrics object per live thread
+ * rather than one per game ever played.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    /** One thread's metrics. */
+    private record Slot(Thread owner, GameMetrics metrics) {}
+
+    private final ConcurrentLinkedQueue<Slot> live = new ConcurrentLinkedQueue<>();
+    private final GameMetrics retired = new GameMetrics();  // guarded by itself
+    private final ThreadLocal<GameMetrics> local = ThreadLocal.withInitial(() -> {
+        retireDead();
+        Slot s = new Slot(Thread.currentThread(), new GameMetrics());
+        live.add(s);
+        return s.metrics();
+    });
+
+    /** @return the registry fed by games played in the GUI */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @return the calling thread's metrics, created on first use; write
+     *         them only inside {@code synchronized (metrics)}
+     */
+    public GameMetrics local() {
+        return local.get();
+    }
+
+    /** @return a new object holding the merge of every thread's metrics */
+    public GameMetrics snapshot() {
+        GameMetrics sum = new GameMetrics();
+        synchronized (retired) {
+            retireDead();
+            sum.merge(retired);
+            for (Slot s : live) {
+                synchronized (s.metrics()) {
+                    sum.merge(s.metrics());
+                }
+            }
+        }
+        return sum;
+    }
+
+    /** Folds the metrics of threads that have ended into {@link #retired}. */
+    private void retireDead() {
+        synchronized (retired) {
+            for (Slot s : live) {
+                if (s.owner().isAlive()) continue;
+                live.remove(s);
+                synchronized (s.metrics()) {
+                    retired.merge(s.metrics());
+                }
+            }
+        }
+    }
+}
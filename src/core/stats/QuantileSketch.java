@@ -0,0 +1,194 @@
+package core.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mergeable streaming quantile sketch for doubles (a KLL sketch).
+ *
+ * Values go into level 0; when a level is full it is sorted and every
+ * other item, starting at a random offset, is promoted to the next level
+ * with twice the weight. Memory stays around {@code 3k} values whatever
+ * the stream length, and rank error is about {@code 1.7 / k}. Not
+ * thread-safe: keep one per thread and {@link #merge} them.
+ */
+public final class QuantileSketch {
+    private static final int DEFAULT_K = 200;
+
+    private final int k;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long rng = 0x9E3779B97F4A7C15L;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < 8) throw new IllegalArgumentException("k must be at least 8");
+        this.k = k;
+        addLevel();
+    }
+
+    public void record(double value) {
+        if (Double.isNaN(value)) return;
+        count++;
+        if (count == 1 || value < min) min = value;
+        if (count == 1 || value > max) max = value;
+        push(0, value);
+    }
+
+    /** Adds every value seen by another sketch to this one. */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) return;
+        for (int h = 0; h < other.levels.size(); h++) {
+            double[] items = other.levels.get(h);
+            for (int i = 0; i < other.sizes.get(h); i++) push(h, items[i]);
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+    }
+
+    public void reset() {
+        levels.clear();
+        sizes.clear();
+        addLevel();
+        count = 0;
+        min = max = Double.NaN;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /** Writes the retained items level by level, so a reader gets the exact same sketch. */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeLong(rng);
+        out.writeByte(levels.size());
+        for (int h = 0; h < levels.size(); h++) {
+            double[] items = levels.get(h);
+            int size = sizes.get(h);
+            out.writeShort(size);
+            for (int i = 0; i < size; i++) out.writeDouble(items[i]);
+        }
+    }
+
+    /** Replaces this sketch's contents with one written by {@link #write}; k must match. */
+    void read(DataInput in) throws IOException {
+        int written = in.readInt();
+        if (written != k) throw new IOException("Sketch written with k=" + written + ", expected " + k);
+        levels.clear();
+        sizes.clear();
+        count = in.readLong();
+        min = in.readDouble();
+        max = in.readDouble();
+        rng = in.readLong();
+        int height = in.readUnsignedByte();
+        for (int h = 0; h < height; h++) {
+            addLevel();
+            int size = in.readUnsignedShort();
+            if (size > k) throw new IOException("Bad sketch level size " + size);
+            double[] items = levels.get(h);
+            for (int i = 0; i < size; i++) items[i] = in.readDouble();
+            sizes.set(h, size);
+        }
+        if (levels.isEmpty()) addLevel();
+    }
+
+    /** @return an estimate of the value at quantile q in [0, 1], or NaN if empty */
+    public double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        int total = 0;
+        for (int s : sizes) total += s;
+        double[] values = new double[total];
+        long[] weights = new long[total];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            double[] items = levels.get(h);
+            for (int i = 0; i < sizes.get(h); i++) {
+                values[n] = items[i];
+                weights[n++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) totalWeight += weights[i];
+        double target = q * totalWeight;
+        long seen = 0;
+        for (int i = 0; i < n; i++) {
+            seen += weights[order[i]];
+            if (seen >= target) return values[order[i]];
+        }
+        return max;
+    }
+
+    private void push(int level, double value) {
+        while (levels.size() <= level) addLevel();
+        double[] items = levels.get(level);
+        int size = sizes.get(level);
+        items[size++] = value;
+        sizes.set(level, size);
+        if (size >= capacity(level)) compact(level);
+    }
+
+    /** Sorts a full level and promotes half of it, chosen at random, one level up. */
+    private void compact(int level) {
+        double[] items = levels.get(level);
+        int size = sizes.get(level);
+        Arrays.sort(items, 0, size);
+        int offset = nextBit();
+        // keep an odd leftover at this level so weights stay exact
+        int pairs = size / 2;
+        double leftover = (size & 1) == 1 ? items[size - 1] : Double.NaN;
+        double[] promoted = new double[pairs];
+        for (int i = 0; i < pairs; i++) promoted[i] = items[2 * i + offset];
+        sizes.set(level, 0);
+        if (!Double.isNaN(leftover)) {
+            items[0] = leftover;
+            sizes.set(level, 1);
+        }
+        for (double v : promoted) push(level + 1, v);
+    }
+
+    /** Upper levels get the full k, lower ones geometrically less. */
+    private int capacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(8, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private void addLevel() {
+        levels.add(new double[k + 1]);
+        sizes.add(0);
+    }
+
+    private int nextBit() {
+        rng ^= rng << 13;
+        rng ^= rng >>> 7;
+        rng ^= rng << 17;
+        return (int) (rng >>> 63);
+    }
+}
@@ -0,0 +1,75 @@
+package core.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Games and losses per seat, for per-seat loss rates.
+ */
+public final class SeatCounters {
+    /** Largest table size tracked. */
+    public static final int MAX_SEATS = 8;
+
+    private final long[] games  = new long[MAX_SEATS];
+    private final long[] losses = new long[MAX_SEATS];
+
+    /**
+     * Records one finished game.
+     *
+     * @param seats number of seats at the table
+     * @param loser losing seat, or -1 if the game had no loser
+     */
+    public void recordGame(int seats, int loser) {
+        int n = Math.min(seats, MAX_SEATS);
+        for (int s = 0; s < n; s++) games[s]++;
+        if (loser >= 0 && loser < MAX_SEATS) losses[loser]++;
+    }
+
+    public void merge(SeatCounters other) {
+        for (int s = 0; s < MAX_SEATS; s++) {
+            games[s]  += other.games[s];
+            losses[s] += other.losses[s];
+        }
+    }
+
+    public void reset() {
+        Arrays.fill(games, 0);
+        Arrays.fill(losses, 0);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        for (int s = 0; s < MAX_SEATS; s++) {
+            out.writeLong(games[s]);
+            out.writeLong(losses[s]);
+        }
+    }
+
+    /** Replaces the counters with ones written by {@link #write}. */
+    void read(DataInput in) throws IOException {
+        for (int s = 0; s < MAX_SEATS; s++) {
+            games[s]  = in.readLong();
+            losses[s] = in.readLong();
+        }
+    }
+
+    public long games(int seat) {
+        return games[seat];
+    }
+
+    public long losses(int seat) {
+        return losses[seat];
+    }
+
+    public double lossRate(int seat) {
+        return games[seat] == 0 ? 0 : (double) losses[seat] / games[seat];
+    }
+
+    /** @return number of seats that took part in at least one game */
+    public int seats() {
+        int n = 0;
+        while (n < MAX_SEATS && games[n] > 0) n++;
+        return n;
+    }
+}
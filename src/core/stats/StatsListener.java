@@ -0,0 +1,80 @@
+package core.stats;
+
+import core.model.*;
+
+import java.util.List;
+
+/**
+ * Feeds one game's events into the calling thread's {@link GameMetrics}.
+ *
+ * Keeps a little per-game state (turn count, how many losing cards each
+ * seat holds), so use one listener per game; the registry can be shared by
+ * any number of games and threads. The losing cards are the rules'
+ * {@link CompiledRules#isLosing} set: the Jack of Spades under the default
+ * rules, every queen under Old Maid's same-rank pairing.
+ * Writes go to the thread's {@link MetricsRegistry#local()} metrics under
+ * their monitor, so a snapshot can be taken while games run.
+ */
+public final class StatsListener implements GameListener {
+    private final MetricsRegistry registry;
+    private long startNanos;
+    private long turns;
+    private long drawsSinceLosingMoved;
+    private CompiledRules rules;
+    private int[] losingHeld;
+
+    public StatsListener(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onStart(Game game) {
+        startNanos = System.nanoTime();
+        turns = drawsSinceLosingMoved = 0;
+        rules = game.getRules();
+        List<Player> players = game.getPlayers();
+        losingHeld = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) losingHeld[i] = losingIn(players.get(i));
+    }
+
+    @Override
+    public void onTurn(Game game, int mover, int neighbor, List<Card> purged) {
+        turns++;
+        drawsSinceLosingMoved++;
+        // a losing card can only leave the neighbour by being drawn, and
+        // only the mover purges; most seats hold none, so most turns scan nothing
+        boolean losingMoved = false;
+        if (losingHeld[neighbor] > 0) {
+            int left = losingIn(game.getPlayers().get(neighbor));
+            losingMoved = left < losingHeld[neighbor];
+            losingHeld[neighbor] = left;
+        }
+        if (losingMoved) losingHeld[mover]++;
+        for (int i = 0; i < purged.size(); i++) {
+            if (rules.isLosing(purged.get(i))) losingHeld[mover]--;
+        }
+        GameMetrics m = registry.local();
+        synchronized (m) {
+            m.pairsPerTurn.record(purged.size() / 2);
+            if (losingMoved) m.drawsBeforeJackMoves.record(drawsSinceLosingMoved);
+        }
+        if (losingMoved) drawsSinceLosingMoved = 0;
+    }
+
+    private int losingIn(Player p) {
+        Hand hand = p.hand();
+        int n = 0;
+        for (int i = 0; i < hand.size(); i++) if (rules.isLosing(hand.get(i))) n++;
+        return n;
+    }
+
+    @Override
+    public void onGameOver(Game game) {
+        long micros = (System.nanoTime() - startNanos) / 1_000;
+        int loser = game.getLoser().map(game.getPlayers()::indexOf).orElse(-1);
+        GameMetrics m = registry.local();
+        synchronized (m) {
+            m.recordGame(game.getPlayers().size(), loser, turns, micros);
+        }
+    }
+}
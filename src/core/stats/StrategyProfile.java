@@ -0,0 +1,82 @@
+package core.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decision profile of one bot strategy: how long its moves take, how much
+ * they allocate, and how often it had to be overruled for running out of
+ * time, making an illegal move or throwing.
+ *
+ * Thread-safe; fed by every guarded seat playing that strategy.
+ */
+public final class StrategyProfile {
+    private final String name;
+    private final LatencyTimer latency;
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    StrategyProfile(String name) {
+        this.name = name;
+        this.latency = new LatencyTimer(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Records one decision that finished, legal or not. */
+    public void decision(long nanos, long bytes) {
+        latency.record(nanos);
+        if (bytes > 0) allocatedBytes.add(bytes);
+    }
+
+    public void timeout() {
+        timeouts.increment();
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    /** @return decision latency, including decisions that were rejected */
+    public LatencyTimer latency() {
+        return latency;
+    }
+
+    public long decisions() {
+        return latency.getCount();
+    }
+
+    /** @return mean bytes allocated per decision, 0 if the JVM cannot tell */
+    public double bytesPerDecision() {
+        long n = latency.getCount();
+        return n == 0 ? 0 : (double) allocatedBytes.sum() / n;
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    /** @return decisions refused for breaking the rules, e.g. touching cards they did not own */
+    public long rejectedMoves() {
+        return rejected.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    void reset() {
+        latency.reset();
+        allocatedBytes.reset();
+        timeouts.reset();
+        rejected.reset();
+        errors.reset();
+    }
+}
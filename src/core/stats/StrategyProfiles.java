@@ -0,0 +1,37 @@
+package core.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link StrategyProfile} per strategy name. The global registry is fed
+ * by games played in the GUI; a headless run may use its own.
+ */
+public final class StrategyProfiles {
+    private static final StrategyProfiles GLOBAL = new StrategyProfiles();
+
+    private final Map<String, StrategyProfile> profiles = new ConcurrentHashMap<>();
+
+    /** @return the registry fed by games played in the GUI */
+    public static StrategyProfiles global() {
+        return GLOBAL;
+    }
+
+    /** @return the profile of that strategy, created on first use */
+    public StrategyProfile profile(String strategy) {
+        return profiles.computeIfAbsent(strategy, StrategyProfile::new);
+    }
+
+    /** @return every profile so far, by name */
+    public List<StrategyProfile> all() {
+        List<StrategyProfile> out = new ArrayList<>(profiles.values());
+        out.sort((a, b) -> a.name().compareTo(b.name()));
+        return out;
+    }
+
+    public void reset() {
+        for (StrategyProfile p : profiles.values()) p.reset();
+    }
+}